@@ -3,9 +3,18 @@ package sg.edu.nus.iss.codebase.indexer.cli;
 import sg.edu.nus.iss.codebase.indexer.dto.SearchRequest;
 import sg.edu.nus.iss.codebase.indexer.service.HybridSearchService;
 import sg.edu.nus.iss.codebase.indexer.service.FileSearchService;
+import sg.edu.nus.iss.codebase.indexer.scoring.RESTEndpointFeatures;
 import sg.edu.nus.iss.codebase.indexer.util.ScoreFormatter;
 import sg.edu.nus.iss.codebase.indexer.config.DynamicVectorStoreFactory;
 import sg.edu.nus.iss.codebase.indexer.service.interfaces.FileIndexingService;
+import sg.edu.nus.iss.codebase.indexer.service.impl.BackgroundIndexingProfile;
+import sg.edu.nus.iss.codebase.indexer.service.impl.CollectionMigrator;
+import sg.edu.nus.iss.codebase.indexer.service.impl.DimensionReducer;
+import sg.edu.nus.iss.codebase.indexer.service.impl.EmbeddingLoadBalancer;
+import sg.edu.nus.iss.codebase.indexer.service.impl.EmbeddingScheduler;
+import sg.edu.nus.iss.codebase.indexer.service.impl.IndexingMetrics;
+import sg.edu.nus.iss.codebase.indexer.service.impl.LlmResponseCache;
+import sg.edu.nus.iss.codebase.indexer.service.impl.VectorProjection;
 import sg.edu.nus.iss.codebase.indexer.model.IndexingStatus;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.document.Document;
@@ -17,6 +26,7 @@ import org.springframework.stereotype.Component;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -34,6 +44,27 @@ public class SearchCLI implements CommandLineRunner {
     @Autowired
     private FileIndexingService fileIndexingService;
 
+    @Autowired
+    private EmbeddingScheduler embeddingScheduler;
+
+    @Autowired
+    private EmbeddingLoadBalancer embeddingLoadBalancer;
+
+    @Autowired
+    private BackgroundIndexingProfile backgroundProfile;
+
+    @Autowired
+    private CollectionMigrator collectionMigrator;
+
+    @Autowired
+    private DimensionReducer dimensionReducer;
+
+    @Autowired
+    private LlmResponseCache llmResponseCache;
+
+    @Autowired
+    private IndexingMetrics indexingMetrics;
+
     private final Scanner scanner = new Scanner(System.in);
 
     /**
@@ -125,13 +156,13 @@ public class SearchCLI implements CommandLineRunner {
             displayMenu();
             int choice = getChoice();
             switch (choice) {
-                case 1 -> performNaturalLanguageSearch();
+                case 1 -> runSearch(this::performNaturalLanguageSearch);
                 case 2 -> displayDetailedIndexingStatus();
-                case 3 -> performSemanticCodeSearch();
-                case 4 -> performTextSearch();
-                case 5 -> performAdvancedSearch();
+                case 3 -> runSearch(this::performSemanticCodeSearch);
+                case 4 -> runSearch(this::performTextSearch);
+                case 5 -> runSearch(this::performAdvancedSearch);
                 case 6 -> startIndexing();
-                case 7 -> performDirectQdrantQuery();
+                case 7 -> runSearch(this::performDirectQdrantQuery);
                 case 8 -> displayHelp();
                 case 0 -> {
                     System.out.println("Thank you for using Misoto Codebase Indexer!");
@@ -147,6 +178,18 @@ public class SearchCLI implements CommandLineRunner {
         }
     }
 
+    /**
+     * Run a search while telling the background indexing profile to stay out of the way
+     */
+    private void runSearch(Runnable search) {
+        backgroundProfile.beginSearch();
+        try {
+            search.run();
+        } finally {
+            backgroundProfile.endSearch();
+        }
+    }
+
     private void displayMenu() {
         System.out.println("+--------------------- SEARCH MENU ---------------------+");
         System.out.println("| 1. [>] Search with Natural Language Prompt            |");
@@ -214,6 +257,35 @@ public class SearchCLI implements CommandLineRunner {
             System.out.println("[PROGRESS] INDEXING PROGRESS:");
             System.out.println("-".repeat(40));
             System.out.printf("[DONE] Files Indexed: %d%n", status.getIndexedFiles());
+            if (status.getSummaryIndexedFiles() > 0) {
+                System.out.printf("[TIER1] File Summaries Indexed: %d%n", status.getSummaryIndexedFiles());
+            }
+            if (status.getColdFiles() > 0) {
+                System.out.printf("[COLD] Cold Files (embedded on demand): %d%n", status.getColdFiles());
+            }
+            if (status.getDuplicateFiles() > 0 || status.getDuplicateChunks() > 0) {
+                System.out.printf("[DEDUP] Near-duplicates stored as aliases: %d files, %d chunks%n",
+                        status.getDuplicateFiles(), status.getDuplicateChunks());
+            }
+            if (status.getShadowCollection() != null) {
+                System.out.println("[REBUILD] Writing to " + status.getShadowCollection()
+                        + ", live collection keeps serving until the swap");
+            }
+            if (status.isBulkLoading()) {
+                System.out.println("[BULK] Bulk load: HNSW indexing deferred until all chunks are stored");
+            }
+            if (status.getMemoryState() != null && !"DISABLED".equals(status.getMemoryState())) {
+                System.out.printf("[MEMORY] %s - in flight: %.1f MB / budget %.1f MB, waiting producers: %d, heap pressure events: %d%n",
+                        status.getMemoryState(), status.getMemoryInFlightBytes() / (1024.0 * 1024.0),
+                        status.getMemoryBudgetBytes() / (1024.0 * 1024.0), status.getMemoryWaitingProducers(),
+                        status.getMemoryPressureEvents());
+            }
+            if (status.isBackgroundProfile()) {
+                System.out.printf("[BACKGROUND] Background profile ON - %s, yielded %d times (%.1fs)%n",
+                        status.getBackgroundYieldReason() != null
+                                ? "paused: " + status.getBackgroundYieldReason() : "running",
+                        backgroundProfile.getYieldCount(), backgroundProfile.getYieldedMillis() / 1000.0);
+            }
             System.out.printf("[PENDING] Pending Files: %d%n",
                     Math.max(0, status.getTotalFiles() - status.getIndexedFiles()));
             System.out.printf("[TOTAL] Total Files: %d%n", status.getTotalFiles());
@@ -263,6 +335,36 @@ public class SearchCLI implements CommandLineRunner {
             } catch (Exception e) {
                 System.out.println("[ERROR] Could not retrieve total tasks: " + e.getMessage());
             }
+            System.out.println("\n[EMBED] EMBEDDING SCHEDULER:");
+            System.out.println("-".repeat(40));
+            try {
+                System.out.printf("[SLOTS] In Flight: %d / %d (%d reserved for interactive)%n",
+                        embeddingScheduler.getInFlight(), embeddingScheduler.getMaxConcurrent(),
+                        embeddingScheduler.getReservedInteractive());
+                embeddingScheduler.getLatencyStats().forEach((priority, latency) -> System.out.printf(
+                        "[%s] calls: %d, failed: %d, waiting: %d, avg wait: %.0fms, p50: %.0fms, p95: %.0fms, max: %.0fms%n",
+                        priority.name(), latency.getCompleted(), latency.getFailed(),
+                        embeddingScheduler.getWaiting(priority), latency.getAverageWaitMs(),
+                        latency.getP50LatencyMs(), latency.getP95LatencyMs(), latency.getMaxLatencyMs()));
+            } catch (Exception e) {
+                System.out.println("[ERROR] Could not retrieve embedding scheduler metrics: " + e.getMessage());
+            }
+            if (embeddingLoadBalancer.isEnabled()) {
+                System.out.println("\n[ENDPOINTS] EMBEDDING ENDPOINTS:");
+                System.out.println("-".repeat(40));
+                embeddingLoadBalancer.getEndpointStats().forEach(endpoint -> System.out.printf(
+                        "[%s] %s - outstanding: %d, requests: %d, failed: %d, %.1f req/s, avg: %.0fms, recent: %.1fms/input, ejections: %d%n",
+                        endpoint.getState(), endpoint.getBaseUrl(), endpoint.getOutstanding(),
+                        endpoint.getRequests(), endpoint.getFailures(), endpoint.getRequestsPerSecond(),
+                        endpoint.getAverageLatencyMs(), endpoint.getRecentLatencyMs(), endpoint.getEjections()));
+            }
+            System.out.println("\n[METRICS] PIPELINE STAGES:");
+            System.out.println("-".repeat(40));
+            try {
+                displayStageMetrics();
+            } catch (Exception e) {
+                System.out.println("[ERROR] Could not retrieve pipeline metrics: " + e.getMessage());
+            }
             System.out.println("\n[FILES] FILE TYPE BREAKDOWN:");
             System.out.println("-".repeat(40));
             try {
@@ -316,6 +418,29 @@ public class SearchCLI implements CommandLineRunner {
         System.out.println();
     }
 
+    /**
+     * Per-stage latency table, volumes, queue depths and errors from the indexing metrics
+     */
+    private void displayStageMetrics() {
+        var stages = indexingMetrics.getStageSummaries();
+        if (stages.isEmpty()) {
+            System.out.println("[INFO] No stage has run yet");
+            return;
+        }
+        System.out.printf("%-12s %8s %9s %9s %9s %9s %9s %9s%n",
+                "Stage", "Count", "Mean ms", "p50 ms", "p95 ms", "p99 ms", "Max ms", "Total s");
+        stages.forEach(stage -> System.out.printf("%-12s %8d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                stage.getStage().getLabel(), stage.getCount(), stage.getMeanMs(), stage.getP50Ms(),
+                stage.getP95Ms(), stage.getP99Ms(), stage.getMaxMs(), stage.getTotalSeconds()));
+        System.out.printf("[VOLUME] Read: %.1f MB, chunks created: %d, chunks stored: %d%n",
+                indexingMetrics.getBytesRead() / (1024.0 * 1024.0), indexingMetrics.getChunksCreated(),
+                indexingMetrics.getChunksStored());
+        StringJoiner queues = new StringJoiner(", ");
+        indexingMetrics.getQueueDepths().forEach((queue, depth) -> queues.add(queue + ": " + depth.longValue()));
+        System.out.println("[QUEUES] " + queues);
+        indexingMetrics.getErrors().forEach((cause, count) -> System.out.printf("[ERROR] %s: %d%n", cause, count));
+    }
+
     private String formatDuration(long milliseconds) {
         if (milliseconds < 0)
             return "Unknown";
@@ -357,7 +482,9 @@ public class SearchCLI implements CommandLineRunner {
         System.out.println("=".repeat(80));
 
         // Show search method used
-        if (result.isUsedFallback()) {
+        if (Boolean.TRUE.equals(result.getSearchMetadata().get("symbolLookup"))) {
+            System.out.printf("🔤 Answered from the symbol table in %sµs%n", result.getSearchMetadata().get("symbolLookupMicros"));
+        } else if (result.isUsedFallback()) {
             System.out.println("🔄 Used hybrid search (vector + file-based fallback)");
         } else {
             System.out.println("🎯 Used vector-based semantic search");
@@ -375,6 +502,8 @@ public class SearchCLI implements CommandLineRunner {
                 System.out.printf("   📅 Modified: %s%n", vResult.getLastModifiedDate());
                 System.out.printf("   🔍 Indexed: %s%n", vResult.getIndexedAt());
                 System.out.printf("   📏 Size: %s bytes%n", vResult.getFileSize());
+                System.out.printf("   🧭 Tier: %s (%s)%n", vResult.getIndexTier().getValue(),
+                        vResult.getIndexTier().getDisplayName());
 
                 // Display enhanced line matches if available
                 if (!vResult.getLineMatches().isEmpty()) {
@@ -687,6 +816,11 @@ public class SearchCLI implements CommandLineRunner {
         System.out.println("2. 📁 Change indexing directory");
         System.out.println("3. 🗑️  Clear cache and reindex all files");
         System.out.println("4. 📊 View indexing statistics");
+        System.out.printf("5. 🐢 Toggle background profile (currently %s)%n",
+                backgroundProfile.isEnabled() ? "ON" : "OFF");
+        System.out.println("6. 🚚 Migrate collection to current settings (no re-embedding)");
+        System.out.println("7. 📉 Reduce vector dimensions (recall report, then migrate)");
+        System.out.println("8. 🧹 Clear cached framework documentation");
         System.out.println("0. 🔙 Back to main menu");
         System.out.println();
 
@@ -697,7 +831,7 @@ public class SearchCLI implements CommandLineRunner {
                 status.getIndexedFiles(), status.getTotalFiles());
         System.out.println();
 
-        System.out.print("Enter choice [1-4, 0]: ");
+        System.out.print("Enter choice [1-8, 0]: ");
         String choiceInput = scanner.nextLine().trim();
 
         switch (choiceInput) {
@@ -705,6 +839,10 @@ public class SearchCLI implements CommandLineRunner {
             case "2" -> changeIndexingDirectory();
             case "3" -> clearCacheAndReindex();
             case "4" -> displayDetailedIndexingStatus();
+            case "5" -> backgroundProfile.setEnabled(!backgroundProfile.isEnabled());
+            case "6" -> migrateCollection();
+            case "7" -> reduceDimensions();
+            case "8" -> clearLlmCache();
             case "0" -> System.out.println("🔙 Returning to main menu...");
             default -> System.out.println("❌ Invalid choice.");
         }
@@ -964,6 +1102,97 @@ public class SearchCLI implements CommandLineRunner {
         }
     }
 
+    private void migrateCollection() {
+        if (fileIndexingService.isIndexingInProgress()) {
+            System.out.println("❌ Indexing is in progress, migrate once it has finished.");
+            return;
+        }
+        String collection = fileIndexingService.getCurrentCollectionName();
+        System.out.printf("⚠️  Copy %s into a new collection with the current settings and switch over? [y/N]: ",
+                collection);
+        String confirm = scanner.nextLine().trim();
+        if (confirm.toLowerCase().startsWith("y")) {
+            try {
+                long copied = collectionMigrator.migrate(collection, CollectionMigrator.currentPayloadSchema());
+                System.out.printf("✅ Migration complete, %d points now served from the new collection.%n", copied);
+            } catch (Exception e) {
+                System.err.println("❌ Migration failed, run it again to resume: " + e.getMessage());
+            }
+        } else {
+            System.out.println("❌ Operation cancelled.");
+        }
+    }
+
+    private void reduceDimensions() {
+        if (!dimensionReducer.isEnabled()) {
+            System.out.println("❌ Dimensionality reduction is off, set indexer.reduction.enabled=true first.");
+            return;
+        }
+        if (fileIndexingService.isIndexingInProgress()) {
+            System.out.println("❌ Indexing is in progress, reduce once it has finished.");
+            return;
+        }
+        String collection = fileIndexingService.getCurrentCollectionName();
+        try {
+            VectorProjection projection = dimensionReducer.stagedProjection(collection);
+            if (projection != null) {
+                System.out.printf("⏯️ Resuming the reduction of %s to %d dimensions%n",
+                        collection, projection.getOutputDimensions());
+            } else {
+                VectorProjection active = dimensionReducer.projectionFor(collection);
+                if (active != null) {
+                    System.out.printf("❌ %s already stores %d-dimensional vectors; remove %s and reindex to refit.%n",
+                            collection, active.getOutputDimensions(), DimensionReducer.projectionPath(collection));
+                    return;
+                }
+                System.out.println("📥 Sampling stored vectors...");
+                List<float[]> sample = dimensionReducer.sample(collection);
+                if (sample.size() < 100) {
+                    System.out.printf("❌ Only %d vectors stored, index more before reducing.%n", sample.size());
+                    return;
+                }
+                DimensionReducer.Report report = dimensionReducer.evaluate(sample);
+                System.out.printf("📊 Recall against %d-dimensional vectors (%d sampled):%n",
+                        report.getNativeDimensions(), sample.size());
+                for (DimensionReducer.Report.Row row : report.getRows()) {
+                    System.out.printf("   %4d dims | %5.1f%% of vector size | %5d bytes/vector | recall %.3f%n",
+                            row.getDimensions(), 100.0 * row.getDimensions() / report.getNativeDimensions(),
+                            row.getBytesPerVector(), row.getRecall());
+                }
+                int target = report.recommendedDimensions();
+                if (target == 0) {
+                    System.out.println("❌ No candidate reaches the minimum recall, keeping native vectors.");
+                    return;
+                }
+                System.out.printf("⚠️  Reduce %s to %d dimensions and switch over? [y/N]: ", collection, target);
+                if (!scanner.nextLine().trim().toLowerCase().startsWith("y")) {
+                    System.out.println("❌ Operation cancelled.");
+                    return;
+                }
+                projection = report.projection(target);
+            }
+            if (dimensionReducer.servesStagedProjection(collection)) {
+                System.out.printf("⏯️ %s already serves the reduced vectors, finishing the switch%n", collection);
+            } else {
+                long copied = collectionMigrator.migrate(collection, CollectionMigrator.currentPayloadSchema(),
+                        projection);
+                System.out.printf("📦 Copied %d points into the reduced collection%n", copied);
+            }
+            dimensionReducer.activate(collection);
+            System.out.printf("✅ %s now stores %d-dimensional vectors.%n",
+                    collection, projection.getOutputDimensions());
+        } catch (Exception e) {
+            System.err.println("❌ Reduction failed, run it again to resume: " + e.getMessage());
+        }
+    }
+
+    private void clearLlmCache() {
+        System.out.print("Framework to invalidate (blank for all cached responses): ");
+        String framework = scanner.nextLine().trim();
+        int removed = framework.isEmpty() ? llmResponseCache.clear() : llmResponseCache.invalidate(framework);
+        System.out.printf("✅ Removed %d cached response(s); they are regenerated on the next analysis.%n", removed);
+    }
+
     private String getCurrentIndexingDirectory() {
         try {
             return hybridSearchService.getCurrentIndexingDirectory();
@@ -1152,15 +1381,9 @@ public class SearchCLI implements CommandLineRunner {
         long postEndpoints = endpoints.stream().filter(e -> e.route.contains("[POST]") || e.route.contains("methods=['POST']")).count();
         System.out.printf("  - HTTP Methods: GET (%d), POST (%d)%n", getEndpoints, postEndpoints);
         
-        // Determine framework
-        String framework = "Unknown";
-        if (results.stream().anyMatch(r -> r.getContent().contains("@app.route"))) {
-            framework = "Flask";
-        } else if (results.stream().anyMatch(r -> r.getContent().contains("@RequestMapping"))) {
-            framework = "Spring Boot";
-        } else if (results.stream().anyMatch(r -> r.getContent().contains("app.get") || r.getContent().contains("app.post"))) {
-            framework = "Express.js";
-        }
+        // Determine framework from the markers found at indexing time
+        List<String> frameworks = results.stream().map(this::restFeatures).map(RESTEndpointFeatures::getFramework).toList();
+        String framework = Stream.of("Flask", "Spring Boot", "Express.js").filter(frameworks::contains).findFirst().orElse("Unknown");
         System.out.printf("  - Framework: %s%n", framework);
     }
 
@@ -1170,59 +1393,46 @@ public class SearchCLI implements CommandLineRunner {
     private List<EndpointInfo> parseEndpoints(HybridSearchService.SearchResult result) {
         List<EndpointInfo> endpoints = new ArrayList<>();
         String content = result.getContent();
-        String[] lines = content.split("\n");
+        RESTEndpointFeatures features = restFeatures(result);
         
-        for (int i = 0; i < lines.length; i++) {
-            String line = lines[i].trim();
+        // Flask routes, with the function each decorates, as found at indexing time
+        for (RESTEndpointFeatures.Route route : features.getRoutes()) {
+            EndpointInfo endpoint = new EndpointInfo();
+            endpoint.route = extractFlaskRoute(route.getDeclaration());
+            endpoint.functionName = route.getFunctionName();
             
-            // Flask route detection
-            if (line.contains("@app.route")) {
-                EndpointInfo endpoint = new EndpointInfo();
-                endpoint.route = extractFlaskRoute(line);
-                
-                // Find function name and purpose
-                for (int j = i + 1; j < Math.min(i + 10, lines.length); j++) {
-                    String nextLine = lines[j].trim();
-                    if (nextLine.startsWith("def ")) {
-                        endpoint.functionName = extractFunctionName(nextLine);
-                        break;
-                    }
-                }
-                
-                // Determine purpose and other details
-                endpoint.purpose = inferPurpose(endpoint.route, content);
-                endpoint.input = inferInput(content, endpoint.route);
-                endpoint.returns = inferReturns(content, endpoint.route);
-                endpoint.isErrorHandler = false;
-                
-                endpoints.add(endpoint);
-            }
+            // Determine purpose and other details
+            endpoint.purpose = inferPurpose(endpoint.route, content);
+            endpoint.input = inferInput(content, endpoint.route);
+            endpoint.returns = inferReturns(content, endpoint.route);
+            endpoint.isErrorHandler = false;
             
-            // Error handler detection
-            else if (line.contains("@app.errorhandler")) {
-                EndpointInfo handler = new EndpointInfo();
-                handler.route = line;
-                
-                // Find function name
-                for (int j = i + 1; j < Math.min(i + 5, lines.length); j++) {
-                    String nextLine = lines[j].trim();
-                    if (nextLine.startsWith("def ")) {
-                        handler.functionName = extractFunctionName(nextLine);
-                        break;
-                    }
-                }
-                
-                handler.purpose = inferErrorHandlerPurpose(line);
-                handler.returns = inferErrorHandlerReturns(line);
-                handler.isErrorHandler = true;
-                
-                endpoints.add(handler);
-            }
+            endpoints.add(endpoint);
+        }
+        
+        // Error handlers
+        for (RESTEndpointFeatures.Route route : features.getErrorHandlers()) {
+            EndpointInfo handler = new EndpointInfo();
+            handler.route = route.getDeclaration();
+            handler.functionName = route.getFunctionName();
+            handler.purpose = inferErrorHandlerPurpose(route.getDeclaration());
+            handler.returns = inferErrorHandlerReturns(route.getDeclaration());
+            handler.isErrorHandler = true;
+            
+            endpoints.add(handler);
         }
         
         return endpoints;
     }
 
+    /**
+     * REST features stored with a result, or extracted from its text for collections indexed without them
+     */
+    private RESTEndpointFeatures restFeatures(HybridSearchService.SearchResult result) {
+        RESTEndpointFeatures stored = RESTEndpointFeatures.fromMetadata(result.getMetadata());
+        return stored != null ? stored : RESTEndpointFeatures.extract(result.getContent());
+    }
+
     /**
      * Extract Flask route information
      */
@@ -1254,20 +1464,6 @@ public class SearchCLI implements CommandLineRunner {
         return route;
     }
 
-    /**
-     * Extract function name from def line
-     */
-    private String extractFunctionName(String line) {
-        if (line.startsWith("def ")) {
-            int start = 4;
-            int end = line.indexOf("(");
-            if (end > start) {
-                return line.substring(start, end) + "()";
-            }
-        }
-        return "unknown()";
-    }
-
     /**
      * Infer endpoint purpose
      */
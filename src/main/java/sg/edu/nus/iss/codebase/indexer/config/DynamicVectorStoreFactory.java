@@ -1,12 +1,19 @@
 package sg.edu.nus.iss.codebase.indexer.config;
 
 import io.qdrant.client.QdrantClient;
+import jakarta.annotation.PostConstruct;
 import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.qdrant.QdrantVectorStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import sg.edu.nus.iss.codebase.indexer.model.EmbeddingPriority;
+import sg.edu.nus.iss.codebase.indexer.service.impl.DimensionReducer;
+import sg.edu.nus.iss.codebase.indexer.service.impl.EmbeddingLoadBalancer;
+import sg.edu.nus.iss.codebase.indexer.service.impl.EmbeddingScheduler;
+import sg.edu.nus.iss.codebase.indexer.service.impl.IndexingMetrics;
+import sg.edu.nus.iss.codebase.indexer.service.impl.VectorProjection;
 
 /**
  * Factory for creating VectorStore instances with dynamic collection names.
@@ -22,6 +29,20 @@ public class DynamicVectorStoreFactory {
     @Autowired
     private EmbeddingModel embeddingModel;
 
+    @Autowired
+    private EmbeddingScheduler embeddingScheduler;
+
+    @Autowired
+    private EmbeddingLoadBalancer embeddingLoadBalancer;
+
+    @Autowired
+    private DimensionReducer dimensionReducer;
+
+    @Autowired
+    private IndexingMetrics indexingMetrics;
+
+    private volatile EmbeddingModel scheduledEmbeddingModel;
+
     @Value("${spring.ai.vectorstore.qdrant.host}")
     private String qdrantHost;
 
@@ -34,6 +55,20 @@ public class DynamicVectorStoreFactory {
     @Value("${spring.ai.vectorstore.qdrant.api-key}")
     private String apiKey;
 
+    /**
+     * Report how many embedding calls are waiting for a slot, per priority class
+     */
+    @PostConstruct
+    void registerQueueMetrics() {
+        if (indexingMetrics == null || embeddingScheduler == null) {
+            return;
+        }
+        for (EmbeddingPriority priority : EmbeddingPriority.values()) {
+            indexingMetrics.registerQueue("embedding_" + priority.name().toLowerCase(),
+                    () -> embeddingScheduler.getWaiting(priority));
+        }
+    }
+
     /**
      * Create a VectorStore instance for a specific collection name.
      * This allows us to dynamically switch between collections based on the
@@ -43,11 +78,63 @@ public class DynamicVectorStoreFactory {
      * @return A VectorStore instance configured for the specified collection
      */
     public VectorStore createVectorStore(String collectionName) {
-        return QdrantVectorStore.builder(qdrantClient, embeddingModel)
+        return QdrantVectorStore.builder(qdrantClient, embeddingModelFor(collectionName))
                 .collectionName(collectionName)
                 .build();
     }
 
+    /**
+     * Create a VectorStore for a single search, which embeds each query text once
+     * however many times the search runs it
+     */
+    public VectorStore createSearchVectorStore(String collectionName) {
+        return QdrantVectorStore.builder(qdrantClient, new SearchScopedEmbeddingModel(embeddingModelFor(collectionName)))
+                .collectionName(collectionName)
+                .build();
+    }
+
+    /**
+     * Create a VectorStore whose writes are not acknowledged (wait=false), for bulk loads
+     * that check completion separately
+     */
+    public VectorStore createUnacknowledgedVectorStore(String collectionName) {
+        return QdrantVectorStore.builder(new UnacknowledgedUpsertClient(qdrantClient), embeddingModelFor(collectionName))
+                .collectionName(collectionName)
+                .build();
+    }
+
+    /**
+     * Embedding model for a collection's store, reducing vectors when a projection has been
+     * fitted for the collection
+     */
+    private EmbeddingModel embeddingModelFor(String collectionName) {
+        VectorProjection projection = dimensionReducer.projectionFor(collectionName);
+        return projection != null
+                ? new ProjectedEmbeddingModel(getScheduledEmbeddingModel(), projection)
+                : getScheduledEmbeddingModel();
+    }
+
+    /**
+     * Embedding model shared by all dynamic vector stores, gated by the embedding scheduler
+     * so searches and indexing compete for the embedding servers by priority.
+     * With several endpoints configured, calls are spread over them by the load balancer.
+     * Embedding time, scheduler wait included, is reported to the indexing metrics.
+     */
+    private EmbeddingModel getScheduledEmbeddingModel() {
+        EmbeddingModel model = scheduledEmbeddingModel;
+        if (model == null) {
+            EmbeddingModel target = embeddingLoadBalancer.isEnabled()
+                    ? embeddingLoadBalancer.getEmbeddingModel()
+                    : embeddingModel;
+            model = new PrioritizedEmbeddingModel(target, embeddingScheduler);
+            if (indexingMetrics != null) {
+                model = new MeteredEmbeddingModel(model, indexingMetrics);
+            }
+            scheduledEmbeddingModel = model;
+        }
+        return model;
+    }
+
     /**
      * Get the default VectorStore instance (uses codebase-index collection).
      * This maintains compatibility with the existing Spring AI configuration.
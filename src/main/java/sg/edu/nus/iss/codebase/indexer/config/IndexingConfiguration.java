@@ -3,6 +3,8 @@ package sg.edu.nus.iss.codebase.indexer.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -72,6 +74,51 @@ public class IndexingConfiguration {
      */
     private CacheConfig cache = new CacheConfig();
 
+    /**
+     * Tiered indexing configuration
+     */
+    private TieringConfig tiering = new TieringConfig();
+
+    /**
+     * Lazy (on-demand) embedding configuration
+     */
+    private LazyEmbeddingConfig lazy = new LazyEmbeddingConfig();
+
+    /**
+     * Embedding scheduler and endpoint configuration
+     */
+    private EmbeddingConfig embedding = new EmbeddingConfig();
+
+    /**
+     * Memory governor configuration
+     */
+    private MemoryConfig memory = new MemoryConfig();
+
+    /**
+     * Background indexing profile configuration
+     */
+    private BackgroundProfileConfig background = new BackgroundProfileConfig();
+
+    private DedupConfig dedup = new DedupConfig();
+
+    private BlueGreenConfig blueGreen = new BlueGreenConfig();
+
+    private MigrationConfig migration = new MigrationConfig();
+
+    private CollectionProfileConfig collection = new CollectionProfileConfig();
+
+    private BulkLoadConfig bulkLoad = new BulkLoadConfig();
+
+    private ReductionConfig reduction = new ReductionConfig();
+
+    private LlmCacheConfig llmCache = new LlmCacheConfig();
+
+    private SymbolTableConfig symbols = new SymbolTableConfig();
+
+    private StatusStreamConfig status = new StatusStreamConfig();
+
+    private MetricsConfig metrics = new MetricsConfig();
+
     // Getters and setters
     public Set<String> getSupportedExtensions() {
         return supportedExtensions;
@@ -113,6 +160,126 @@ public class IndexingConfiguration {
         this.cache = cache;
     }
 
+    public TieringConfig getTiering() {
+        return tiering;
+    }
+
+    public void setTiering(TieringConfig tiering) {
+        this.tiering = tiering;
+    }
+
+    public LazyEmbeddingConfig getLazy() {
+        return lazy;
+    }
+
+    public void setLazy(LazyEmbeddingConfig lazy) {
+        this.lazy = lazy;
+    }
+
+    public EmbeddingConfig getEmbedding() {
+        return embedding;
+    }
+
+    public void setEmbedding(EmbeddingConfig embedding) {
+        this.embedding = embedding;
+    }
+
+    public MemoryConfig getMemory() {
+        return memory;
+    }
+
+    public void setMemory(MemoryConfig memory) {
+        this.memory = memory;
+    }
+
+    public BackgroundProfileConfig getBackground() {
+        return background;
+    }
+
+    public void setBackground(BackgroundProfileConfig background) {
+        this.background = background;
+    }
+
+    public DedupConfig getDedup() {
+        return dedup;
+    }
+
+    public void setDedup(DedupConfig dedup) {
+        this.dedup = dedup;
+    }
+
+    public BlueGreenConfig getBlueGreen() {
+        return blueGreen;
+    }
+
+    public void setBlueGreen(BlueGreenConfig blueGreen) {
+        this.blueGreen = blueGreen;
+    }
+
+    public MigrationConfig getMigration() {
+        return migration;
+    }
+
+    public void setMigration(MigrationConfig migration) {
+        this.migration = migration;
+    }
+
+    public CollectionProfileConfig getCollection() {
+        return collection;
+    }
+
+    public void setCollection(CollectionProfileConfig collection) {
+        this.collection = collection;
+    }
+
+    public BulkLoadConfig getBulkLoad() {
+        return bulkLoad;
+    }
+
+    public void setBulkLoad(BulkLoadConfig bulkLoad) {
+        this.bulkLoad = bulkLoad;
+    }
+
+    public ReductionConfig getReduction() {
+        return reduction;
+    }
+
+    public void setReduction(ReductionConfig reduction) {
+        this.reduction = reduction;
+    }
+
+    public LlmCacheConfig getLlmCache() {
+        return llmCache;
+    }
+
+    public void setLlmCache(LlmCacheConfig llmCache) {
+        this.llmCache = llmCache;
+    }
+
+    public SymbolTableConfig getSymbols() {
+        return symbols;
+    }
+
+    public void setSymbols(SymbolTableConfig symbols) {
+        this.symbols = symbols;
+    }
+
+    public StatusStreamConfig getStatus() {
+        return status;
+    }
+
+    public void setStatus(StatusStreamConfig status) {
+        this.status = status;
+    }
+
+    public MetricsConfig getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(MetricsConfig metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      * Processing configuration nested class
      */
@@ -122,6 +289,8 @@ public class IndexingConfiguration {
         private int chunkSize = 3000;
         private int chunkOverlap = 500;
         private int maxDepth = 10;
+        private boolean structureAwareChunking = true; // Cut Java/Kotlin/Python/JS/TS at declarations, skip boilerplate
+        private boolean lexerAnalysis = true; // Tokenize once per file instead of the per-line analyzers
 
         // Getters and setters
         public int getBatchSize() {
@@ -163,6 +332,22 @@ public class IndexingConfiguration {
         public void setMaxDepth(int maxDepth) {
             this.maxDepth = maxDepth;
         }
+
+        public boolean isStructureAwareChunking() {
+            return structureAwareChunking;
+        }
+
+        public void setStructureAwareChunking(boolean structureAwareChunking) {
+            this.structureAwareChunking = structureAwareChunking;
+        }
+
+        public boolean isLexerAnalysis() {
+            return lexerAnalysis;
+        }
+
+        public void setLexerAnalysis(boolean lexerAnalysis) {
+            this.lexerAnalysis = lexerAnalysis;
+        }
     }
 
     /**
@@ -241,4 +426,786 @@ public class IndexingConfiguration {
             }
         }
     }
+
+    /**
+     * Tiered indexing configuration nested class
+     * Tier 1 embeds one compact summary per file, tier 2 backfills full chunks
+     */
+    public static class TieringConfig {
+        private boolean enabled = false;
+        private int summaryMaxChars = 2000;
+        private int summaryHeadLines = 40;
+        private int summaryBatchSize = 50;
+
+        // Getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getSummaryMaxChars() {
+            return summaryMaxChars;
+        }
+
+        public void setSummaryMaxChars(int summaryMaxChars) {
+            this.summaryMaxChars = summaryMaxChars;
+        }
+
+        public int getSummaryHeadLines() {
+            return summaryHeadLines;
+        }
+
+        public void setSummaryHeadLines(int summaryHeadLines) {
+            this.summaryHeadLines = summaryHeadLines;
+        }
+
+        public int getSummaryBatchSize() {
+            return summaryBatchSize;
+        }
+
+        public void setSummaryBatchSize(int summaryBatchSize) {
+            this.summaryBatchSize = summaryBatchSize;
+        }
+    }
+
+    /**
+     * Lazy embedding configuration nested class
+     * Cold files are only registered lexically and embedded when a query needs them
+     */
+    public static class LazyEmbeddingConfig {
+        private boolean enabled = false;
+        private int eagerPriorityThreshold = 5; // Files at or below this priority are always embedded
+        private int maxOnDemandFiles = 5; // Cold files embedded per query
+        private long onDemandWaitMs = 3000; // How long a search waits for on-demand embeddings
+        private int promotionLimit = 20; // Similar cold files queued per on-demand hit
+
+        // Getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getEagerPriorityThreshold() {
+            return eagerPriorityThreshold;
+        }
+
+        public void setEagerPriorityThreshold(int eagerPriorityThreshold) {
+            this.eagerPriorityThreshold = eagerPriorityThreshold;
+        }
+
+        public int getMaxOnDemandFiles() {
+            return maxOnDemandFiles;
+        }
+
+        public void setMaxOnDemandFiles(int maxOnDemandFiles) {
+            this.maxOnDemandFiles = maxOnDemandFiles;
+        }
+
+        public long getOnDemandWaitMs() {
+            return onDemandWaitMs;
+        }
+
+        public void setOnDemandWaitMs(long onDemandWaitMs) {
+            this.onDemandWaitMs = onDemandWaitMs;
+        }
+
+        public int getPromotionLimit() {
+            return promotionLimit;
+        }
+
+        public void setPromotionLimit(int promotionLimit) {
+            this.promotionLimit = promotionLimit;
+        }
+    }
+
+    /**
+     * Embedding configuration nested class
+     * All embedding calls share one bounded set of slots, spread over one or more embedding servers
+     */
+    public static class EmbeddingConfig {
+        private int maxConcurrent = 4; // Embedding calls in flight at once
+        private int reservedInteractive = 1; // Slots only interactive queries may use
+        private int latencySampleSize = 512; // Recent samples kept per class for percentiles
+
+        private List<String> endpoints = new ArrayList<>(); // Ollama base URLs, empty = spring.ai.ollama.base-url only
+        private String balancingStrategy = "least-outstanding"; // least-outstanding or power-of-two
+        private long healthCheckIntervalMs = 10000;
+        private long healthCheckTimeoutMs = 2000;
+        private int maxConsecutiveFailures = 3; // Failures in a row before an endpoint is ejected
+        private double slowEndpointFactor = 3.0; // Eject when latency exceeds this multiple of the fastest endpoint
+        private long ejectionDurationMs = 30000; // Minimum time an ejected endpoint stays out of rotation
+
+        // Getters and setters
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getReservedInteractive() {
+            return reservedInteractive;
+        }
+
+        public void setReservedInteractive(int reservedInteractive) {
+            this.reservedInteractive = reservedInteractive;
+        }
+
+        public int getLatencySampleSize() {
+            return latencySampleSize;
+        }
+
+        public void setLatencySampleSize(int latencySampleSize) {
+            this.latencySampleSize = latencySampleSize;
+        }
+
+        public List<String> getEndpoints() {
+            return endpoints;
+        }
+
+        public void setEndpoints(List<String> endpoints) {
+            this.endpoints = endpoints;
+        }
+
+        public String getBalancingStrategy() {
+            return balancingStrategy;
+        }
+
+        public void setBalancingStrategy(String balancingStrategy) {
+            this.balancingStrategy = balancingStrategy;
+        }
+
+        public long getHealthCheckIntervalMs() {
+            return healthCheckIntervalMs;
+        }
+
+        public void setHealthCheckIntervalMs(long healthCheckIntervalMs) {
+            this.healthCheckIntervalMs = healthCheckIntervalMs;
+        }
+
+        public long getHealthCheckTimeoutMs() {
+            return healthCheckTimeoutMs;
+        }
+
+        public void setHealthCheckTimeoutMs(long healthCheckTimeoutMs) {
+            this.healthCheckTimeoutMs = healthCheckTimeoutMs;
+        }
+
+        public int getMaxConsecutiveFailures() {
+            return maxConsecutiveFailures;
+        }
+
+        public void setMaxConsecutiveFailures(int maxConsecutiveFailures) {
+            this.maxConsecutiveFailures = maxConsecutiveFailures;
+        }
+
+        public double getSlowEndpointFactor() {
+            return slowEndpointFactor;
+        }
+
+        public void setSlowEndpointFactor(double slowEndpointFactor) {
+            this.slowEndpointFactor = slowEndpointFactor;
+        }
+
+        public long getEjectionDurationMs() {
+            return ejectionDurationMs;
+        }
+
+        public void setEjectionDurationMs(long ejectionDurationMs) {
+            this.ejectionDurationMs = ejectionDurationMs;
+        }
+    }
+
+    /**
+     * Memory governor configuration nested class
+     * Bounds the estimated bytes of documents and embeddings held by in-flight indexing work
+     */
+    public static class MemoryConfig {
+        private boolean enabled = true;
+        private long budgetMb = 0; // 0 = derive from the maximum heap size
+        private double heapFraction = 0.25; // Share of max heap used when no explicit budget is set
+        private long minBudgetMb = 16; // Budget never shrinks below this under heap pressure
+        private double heapUsageThreshold = 0.8; // Old generation usage after GC that counts as pressure
+        private long recoveryIntervalMs = 5000; // Quiet time before a shrunken budget grows back
+
+        // Getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getBudgetMb() {
+            return budgetMb;
+        }
+
+        public void setBudgetMb(long budgetMb) {
+            this.budgetMb = budgetMb;
+        }
+
+        public double getHeapFraction() {
+            return heapFraction;
+        }
+
+        public void setHeapFraction(double heapFraction) {
+            this.heapFraction = heapFraction;
+        }
+
+        public long getMinBudgetMb() {
+            return minBudgetMb;
+        }
+
+        public void setMinBudgetMb(long minBudgetMb) {
+            this.minBudgetMb = minBudgetMb;
+        }
+
+        public double getHeapUsageThreshold() {
+            return heapUsageThreshold;
+        }
+
+        public void setHeapUsageThreshold(double heapUsageThreshold) {
+            this.heapUsageThreshold = heapUsageThreshold;
+        }
+
+        public long getRecoveryIntervalMs() {
+            return recoveryIntervalMs;
+        }
+
+        public void setRecoveryIntervalMs(long recoveryIntervalMs) {
+            this.recoveryIntervalMs = recoveryIntervalMs;
+        }
+    }
+
+    /**
+     * Background profile configuration nested class
+     * Keeps indexing out of the way of interactive work on a developer machine
+     */
+    public static class BackgroundProfileConfig {
+        private boolean enabled = false; // Profile active when indexing starts, can be toggled at runtime
+        private int cpuThreads = 0; // Threads for sanitize/chunk/analyze work, 0 = a quarter of the cores
+        private long diskBytesPerSecond = 16L * 1024 * 1024;
+        private double embeddingsPerSecond = 20.0; // Documents sent for embedding per second
+        private double maxLoadPerCore = 0.7; // Yield while the system load average per core is above this
+        private long searchQuietMs = 3000; // Yield until searches have been quiet for this long
+
+        // Getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCpuThreads() {
+            return cpuThreads;
+        }
+
+        public void setCpuThreads(int cpuThreads) {
+            this.cpuThreads = cpuThreads;
+        }
+
+        public long getDiskBytesPerSecond() {
+            return diskBytesPerSecond;
+        }
+
+        public void setDiskBytesPerSecond(long diskBytesPerSecond) {
+            this.diskBytesPerSecond = diskBytesPerSecond;
+        }
+
+        public double getEmbeddingsPerSecond() {
+            return embeddingsPerSecond;
+        }
+
+        public void setEmbeddingsPerSecond(double embeddingsPerSecond) {
+            this.embeddingsPerSecond = embeddingsPerSecond;
+        }
+
+        public double getMaxLoadPerCore() {
+            return maxLoadPerCore;
+        }
+
+        public void setMaxLoadPerCore(double maxLoadPerCore) {
+            this.maxLoadPerCore = maxLoadPerCore;
+        }
+
+        public long getSearchQuietMs() {
+            return searchQuietMs;
+        }
+
+        public void setSearchQuietMs(long searchQuietMs) {
+            this.searchQuietMs = searchQuietMs;
+        }
+    }
+
+    /**
+     * Near-duplicate suppression configuration nested class
+     * Files and chunks this similar to already indexed content are stored as aliases, not embedded
+     */
+    public static class DedupConfig {
+        private boolean enabled = true;
+        private double threshold = 0.9; // Minimum estimated Jaccard similarity of token shingles
+        private int shingleSize = 5; // Tokens per shingle
+        private int numHashes = 64; // MinHash signature length, must be a multiple of bands
+        private int bands = 16; // LSH bands; with 64 hashes, pairs above ~0.5 similarity become candidates
+        private int minTokens = 40; // Smaller content is always embedded, its signature is too noisy
+
+        // Getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(double threshold) {
+            this.threshold = threshold;
+        }
+
+        public int getShingleSize() {
+            return shingleSize;
+        }
+
+        public void setShingleSize(int shingleSize) {
+            this.shingleSize = shingleSize;
+        }
+
+        public int getNumHashes() {
+            return numHashes;
+        }
+
+        public void setNumHashes(int numHashes) {
+            this.numHashes = numHashes;
+        }
+
+        public int getBands() {
+            return bands;
+        }
+
+        public void setBands(int bands) {
+            this.bands = bands;
+        }
+
+        public int getMinTokens() {
+            return minTokens;
+        }
+
+        public void setMinTokens(int minTokens) {
+            this.minTokens = minTokens;
+        }
+    }
+
+    /**
+     * Blue/green rebuild configuration nested class
+     * Rebuilds fill a shadow collection while the live one keeps serving, then an alias is swapped
+     */
+    public static class BlueGreenConfig {
+        private boolean enabled = true;
+        private double minPointRatio = 0.5; // Shadow must hold at least this share of the live points to go live
+        private long gcDelaySeconds = 30; // Grace period for in-flight searches before the old collection is dropped
+
+        // Getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getMinPointRatio() {
+            return minPointRatio;
+        }
+
+        public void setMinPointRatio(double minPointRatio) {
+            this.minPointRatio = minPointRatio;
+        }
+
+        public long getGcDelaySeconds() {
+            return gcDelaySeconds;
+        }
+
+        public void setGcDelaySeconds(long gcDelaySeconds) {
+            this.gcDelaySeconds = gcDelaySeconds;
+        }
+    }
+
+    public static class MigrationConfig {
+        private int pageSize = 256; // Points per scroll page and upsert batch at the start of a migration
+        private int maxPageSize = 4096; // Upper bound for the adaptive batch size
+        private int parallelUpserts = 4; // Upsert batches in flight while the next page is read
+        private long targetBatchMillis = 750; // Batches faster than this grow, slower ones shrink
+
+        // Getters and setters
+        public int getPageSize() {
+            return pageSize;
+        }
+
+        public void setPageSize(int pageSize) {
+            this.pageSize = pageSize;
+        }
+
+        public int getMaxPageSize() {
+            return maxPageSize;
+        }
+
+        public void setMaxPageSize(int maxPageSize) {
+            this.maxPageSize = maxPageSize;
+        }
+
+        public int getParallelUpserts() {
+            return parallelUpserts;
+        }
+
+        public void setParallelUpserts(int parallelUpserts) {
+            this.parallelUpserts = parallelUpserts;
+        }
+
+        public long getTargetBatchMillis() {
+            return targetBatchMillis;
+        }
+
+        public void setTargetBatchMillis(long targetBatchMillis) {
+            this.targetBatchMillis = targetBatchMillis;
+        }
+    }
+
+    public static class CollectionProfileConfig {
+        private int hnswM = 16; // Edges per node in the HNSW graph; higher improves recall at the cost of memory
+        private int hnswEfConstruct = 100; // Candidate list size while building the graph
+        private boolean hnswOnDisk = false;
+        private boolean onDiskVectors = false; // Keep original vectors memory-mapped instead of in RAM
+        private boolean onDiskPayload = false;
+        private String quantization = "none"; // none, scalar (int8) or binary
+        private float scalarQuantile = 0.99f;
+        private boolean quantizationAlwaysRam = true; // Keep quantized vectors in RAM even when originals are on disk
+        private boolean rescore = true; // Re-rank quantized candidates with the original vectors
+        private double oversampling = 2.0; // Quantized candidates fetched per requested result before rescoring
+        private int segmentNumber = 0; // Default segment count, 0 lets Qdrant decide
+        private long indexingThreshold = 20000; // KB of vectors per segment before the optimizer builds HNSW
+
+        // Getters and setters
+        public int getHnswM() {
+            return hnswM;
+        }
+
+        public void setHnswM(int hnswM) {
+            this.hnswM = hnswM;
+        }
+
+        public int getHnswEfConstruct() {
+            return hnswEfConstruct;
+        }
+
+        public void setHnswEfConstruct(int hnswEfConstruct) {
+            this.hnswEfConstruct = hnswEfConstruct;
+        }
+
+        public boolean isHnswOnDisk() {
+            return hnswOnDisk;
+        }
+
+        public void setHnswOnDisk(boolean hnswOnDisk) {
+            this.hnswOnDisk = hnswOnDisk;
+        }
+
+        public boolean isOnDiskVectors() {
+            return onDiskVectors;
+        }
+
+        public void setOnDiskVectors(boolean onDiskVectors) {
+            this.onDiskVectors = onDiskVectors;
+        }
+
+        public boolean isOnDiskPayload() {
+            return onDiskPayload;
+        }
+
+        public void setOnDiskPayload(boolean onDiskPayload) {
+            this.onDiskPayload = onDiskPayload;
+        }
+
+        public String getQuantization() {
+            return quantization;
+        }
+
+        public void setQuantization(String quantization) {
+            this.quantization = quantization;
+        }
+
+        public float getScalarQuantile() {
+            return scalarQuantile;
+        }
+
+        public void setScalarQuantile(float scalarQuantile) {
+            this.scalarQuantile = scalarQuantile;
+        }
+
+        public boolean isQuantizationAlwaysRam() {
+            return quantizationAlwaysRam;
+        }
+
+        public void setQuantizationAlwaysRam(boolean quantizationAlwaysRam) {
+            this.quantizationAlwaysRam = quantizationAlwaysRam;
+        }
+
+        public boolean isRescore() {
+            return rescore;
+        }
+
+        public void setRescore(boolean rescore) {
+            this.rescore = rescore;
+        }
+
+        public double getOversampling() {
+            return oversampling;
+        }
+
+        public void setOversampling(double oversampling) {
+            this.oversampling = oversampling;
+        }
+
+        public int getSegmentNumber() {
+            return segmentNumber;
+        }
+
+        public void setSegmentNumber(int segmentNumber) {
+            this.segmentNumber = segmentNumber;
+        }
+
+        public long getIndexingThreshold() {
+            return indexingThreshold;
+        }
+
+        public void setIndexingThreshold(long indexingThreshold) {
+            this.indexingThreshold = indexingThreshold;
+        }
+    }
+
+    public static class BulkLoadConfig {
+        private boolean enabled = true;
+        private int batchDocuments = 512; // Chunks buffered across files into one unacknowledged upsert
+        private long optimizeTimeoutSeconds = 900; // How long to wait for HNSW to be built once the load is done
+
+        // Getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBatchDocuments() {
+            return batchDocuments;
+        }
+
+        public void setBatchDocuments(int batchDocuments) {
+            this.batchDocuments = batchDocuments;
+        }
+
+        public long getOptimizeTimeoutSeconds() {
+            return optimizeTimeoutSeconds;
+        }
+
+        public void setOptimizeTimeoutSeconds(long optimizeTimeoutSeconds) {
+            this.optimizeTimeoutSeconds = optimizeTimeoutSeconds;
+        }
+    }
+
+    public static class ReductionConfig {
+        private boolean enabled = false; // Reduce vectors with the projection fitted for each collection
+        private String method = "pca"; // pca (fitted on a sample) or random (Gaussian random projection)
+        private List<Integer> candidateDimensions = new ArrayList<>(List.of(64, 128, 192, 256, 384)); // Target sizes compared in the recall report
+        private int targetDimensions = 0; // 0 = smallest candidate meeting minRecall
+        private double minRecall = 0.95; // Recall@k against unreduced vectors a candidate has to reach
+        private int recallK = 10;
+        private int sampleSize = 2000; // Stored vectors sampled to fit and evaluate the projection
+
+        // Getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public void setMethod(String method) {
+            this.method = method;
+        }
+
+        public List<Integer> getCandidateDimensions() {
+            return candidateDimensions;
+        }
+
+        public void setCandidateDimensions(List<Integer> candidateDimensions) {
+            this.candidateDimensions = candidateDimensions;
+        }
+
+        public int getTargetDimensions() {
+            return targetDimensions;
+        }
+
+        public void setTargetDimensions(int targetDimensions) {
+            this.targetDimensions = targetDimensions;
+        }
+
+        public double getMinRecall() {
+            return minRecall;
+        }
+
+        public void setMinRecall(double minRecall) {
+            this.minRecall = minRecall;
+        }
+
+        public int getRecallK() {
+            return recallK;
+        }
+
+        public void setRecallK(int recallK) {
+            this.recallK = recallK;
+        }
+
+        public int getSampleSize() {
+            return sampleSize;
+        }
+
+        public void setSampleSize(int sampleSize) {
+            this.sampleSize = sampleSize;
+        }
+    }
+
+    public static class LlmCacheConfig {
+        private boolean enabled = true; // Reuse chat model responses for framework documentation and identification
+        private String directory = ".llm_cache"; // Shared by all collections
+        private long ttlHours = 720; // Entries older than this are regenerated; 0 = never expire
+
+        // Getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public long getTtlHours() {
+            return ttlHours;
+        }
+
+        public void setTtlHours(long ttlHours) {
+            this.ttlHours = ttlHours;
+        }
+    }
+
+    public static class SymbolTableConfig {
+        private boolean enabled = true; // Answer identifier queries from the symbol table before LLM enhancement and vector search
+        private int maxResults = 20;
+        private int minPrefixLength = 3; // Shorter identifiers only match exactly
+
+        // Getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxResults() {
+            return maxResults;
+        }
+
+        public void setMaxResults(int maxResults) {
+            this.maxResults = maxResults;
+        }
+
+        public int getMinPrefixLength() {
+            return minPrefixLength;
+        }
+
+        public void setMinPrefixLength(int minPrefixLength) {
+            this.minPrefixLength = minPrefixLength;
+        }
+    }
+
+    public static class StatusStreamConfig {
+        private long publishIntervalMs = 250; // At most one status snapshot per interval; intermediate states are dropped
+        private int eventQueueCapacity = 64; // Completion and error events buffered per observer
+
+        // Getters and setters
+        public long getPublishIntervalMs() {
+            return publishIntervalMs;
+        }
+
+        public void setPublishIntervalMs(long publishIntervalMs) {
+            this.publishIntervalMs = publishIntervalMs;
+        }
+
+        public int getEventQueueCapacity() {
+            return eventQueueCapacity;
+        }
+
+        public void setEventQueueCapacity(int eventQueueCapacity) {
+            this.eventQueueCapacity = eventQueueCapacity;
+        }
+    }
+
+    public static class MetricsConfig {
+        private boolean enabled = true;
+        private String prometheusFile = ""; // Prometheus text file written during indexing, blank = no file
+        private long exportIntervalMs = 15000;
+
+        // Getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPrometheusFile() {
+            return prometheusFile;
+        }
+
+        public void setPrometheusFile(String prometheusFile) {
+            this.prometheusFile = prometheusFile;
+        }
+
+        public long getExportIntervalMs() {
+            return exportIntervalMs;
+        }
+
+        public void setExportIntervalMs(long exportIntervalMs) {
+            this.exportIntervalMs = exportIntervalMs;
+        }
+    }
 }
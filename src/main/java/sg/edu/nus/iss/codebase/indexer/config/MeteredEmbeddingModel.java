@@ -0,0 +1,52 @@
+package sg.edu.nus.iss.codebase.indexer.config;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import sg.edu.nus.iss.codebase.indexer.service.impl.IndexingMetrics;
+
+import java.util.function.Supplier;
+
+/**
+ * Embedding model decorator that reports the latency of every call to the indexing metrics
+ * Vector stores embed on the caller's thread before upserting, so the metrics can tell the
+ * embedding part of a store apart from the upsert
+ */
+public class MeteredEmbeddingModel implements EmbeddingModel {
+
+    private final EmbeddingModel delegate;
+    private final IndexingMetrics metrics;
+
+    public MeteredEmbeddingModel(EmbeddingModel delegate, IndexingMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        return measure(() -> delegate.call(request));
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return measure(() -> delegate.embed(document));
+    }
+
+    @Override
+    public int dimensions() {
+        return delegate.dimensions();
+    }
+
+    private <T> T measure(Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            metrics.recordEmbedding(System.nanoTime() - start, null);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordEmbedding(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package sg.edu.nus.iss.codebase.indexer.config;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import sg.edu.nus.iss.codebase.indexer.service.impl.EmbeddingScheduler;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Embedding model decorator that routes every call through the shared embedding scheduler
+ * Vector stores embed on the caller's thread, so the priority tag set by the
+ * caller (search vs. indexing) is visible here
+ */
+public class PrioritizedEmbeddingModel implements EmbeddingModel {
+
+    private final EmbeddingModel delegate;
+    private final EmbeddingScheduler scheduler;
+
+    public PrioritizedEmbeddingModel(EmbeddingModel delegate, EmbeddingScheduler scheduler) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        return schedule(() -> delegate.call(request));
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return schedule(() -> delegate.embed(document));
+    }
+
+    @Override
+    public int dimensions() {
+        return delegate.dimensions();
+    }
+
+    private <T> T schedule(Callable<T> call) {
+        try {
+            return scheduler.execute(EmbeddingScheduler.currentPriority(), call);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an embedding slot", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Embedding call failed: " + e.getMessage(), e);
+        }
+    }
+}
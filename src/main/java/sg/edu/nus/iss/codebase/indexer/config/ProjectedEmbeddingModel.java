@@ -0,0 +1,48 @@
+package sg.edu.nus.iss.codebase.indexer.config;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import sg.edu.nus.iss.codebase.indexer.service.impl.VectorProjection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Embedding model decorator that reduces every vector with a collection's projection
+ * Vector stores embed both the documents they add and the queries they search through
+ * the same model, so both sides end up in the reduced space
+ */
+public class ProjectedEmbeddingModel implements EmbeddingModel {
+
+    private final EmbeddingModel delegate;
+    private final VectorProjection projection;
+
+    public ProjectedEmbeddingModel(EmbeddingModel delegate, VectorProjection projection) {
+        this.delegate = delegate;
+        this.projection = projection;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        EmbeddingResponse response = delegate.call(request);
+        List<Embedding> projected = new ArrayList<>(response.getResults().size());
+        for (Embedding embedding : response.getResults()) {
+            projected.add(new Embedding(projection.project(embedding.getOutput()), embedding.getIndex(),
+                    embedding.getMetadata()));
+        }
+        return new EmbeddingResponse(projected, response.getMetadata());
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return projection.project(delegate.embed(document));
+    }
+
+    @Override
+    public int dimensions() {
+        return projection.getOutputDimensions();
+    }
+}
@@ -0,0 +1,44 @@
+package sg.edu.nus.iss.codebase.indexer.config;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Embedding model decorator for the vector store of a single search
+ * Each query text is embedded once; searching the same text again, e.g. after
+ * cold files were embedded on demand, reuses the vector instead of calling the model
+ */
+public class SearchScopedEmbeddingModel implements EmbeddingModel {
+
+    private final EmbeddingModel delegate;
+    private final Map<String, float[]> queryEmbeddings = new ConcurrentHashMap<>();
+
+    public SearchScopedEmbeddingModel(EmbeddingModel delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        return queryEmbeddings.computeIfAbsent(text, delegate::embed);
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        return delegate.call(request);
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return delegate.embed(document);
+    }
+
+    @Override
+    public int dimensions() {
+        return delegate.dimensions();
+    }
+}
@@ -0,0 +1,47 @@
+package sg.edu.nus.iss.codebase.indexer.config;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import io.qdrant.client.QdrantClient;
+import io.qdrant.client.grpc.Points.PointStruct;
+import io.qdrant.client.grpc.Points.UpdateResult;
+import io.qdrant.client.grpc.Points.UpsertPoints;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Qdrant client whose upserts return once the server has accepted them (wait=false)
+ * instead of after they are applied and indexed. Spring AI's vector store always upserts
+ * with wait=true, so bulk loads hand it this client; every other call goes to the shared
+ * connection unchanged.
+ */
+public class UnacknowledgedUpsertClient extends QdrantClient {
+
+    private final QdrantClient delegate;
+
+    public UnacknowledgedUpsertClient(QdrantClient delegate) {
+        super(delegate.grpcClient());
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ListenableFuture<UpdateResult> upsertAsync(String collectionName, List<PointStruct> points) {
+        return upsertAsync(collectionName, points, null);
+    }
+
+    @Override
+    public ListenableFuture<UpdateResult> upsertAsync(String collectionName, List<PointStruct> points,
+            Duration timeout) {
+        UpsertPoints request = UpsertPoints.newBuilder()
+                .setCollectionName(collectionName)
+                .addAllPoints(points)
+                .setWait(false)
+                .build();
+        return delegate.upsertAsync(request, timeout);
+    }
+
+    @Override
+    public void close() {
+        // The connection belongs to the delegate
+    }
+}
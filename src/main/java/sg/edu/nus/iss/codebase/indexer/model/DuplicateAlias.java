@@ -0,0 +1,56 @@
+package sg.edu.nus.iss.codebase.indexer.model;
+
+/**
+ * A file or chunk that was not embedded because it is a near-duplicate of one that was
+ * Search results from the canonical document are expanded back into one result per alias.
+ */
+public class DuplicateAlias {
+
+    private final String filePath;
+    private final String canonicalFilePath;
+    private final Integer startLine;
+    private final Integer endLine;
+    private final double similarity;
+
+    public DuplicateAlias(String filePath, String canonicalFilePath, Integer startLine, Integer endLine,
+            double similarity) {
+        this.filePath = filePath;
+        this.canonicalFilePath = canonicalFilePath;
+        this.startLine = startLine;
+        this.endLine = endLine;
+        this.similarity = similarity;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public String getCanonicalFilePath() {
+        return canonicalFilePath;
+    }
+
+    /**
+     * First line of the duplicated chunk in the alias file, or null when unknown
+     */
+    public Integer getStartLine() {
+        return startLine;
+    }
+
+    public Integer getEndLine() {
+        return endLine;
+    }
+
+    /**
+     * Estimated Jaccard similarity to the canonical content
+     */
+    public double getSimilarity() {
+        return similarity;
+    }
+
+    /**
+     * The same alias placed at the canonical chunk's position, for whole-file duplicates
+     */
+    public DuplicateAlias at(Integer startLine, Integer endLine) {
+        return new DuplicateAlias(filePath, canonicalFilePath, startLine, endLine, similarity);
+    }
+}
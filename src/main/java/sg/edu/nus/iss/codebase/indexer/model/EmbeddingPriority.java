@@ -0,0 +1,22 @@
+package sg.edu.nus.iss.codebase.indexer.model;
+
+/**
+ * Priority class of an embedding request, highest priority first
+ * Interactive queries have a user waiting on them, incremental updates keep an
+ * existing index fresh, bulk work is the initial indexing of a codebase
+ */
+public enum EmbeddingPriority {
+    INTERACTIVE("Interactive"),
+    INCREMENTAL("Incremental"),
+    BULK("Bulk");
+
+    private final String displayName;
+
+    EmbeddingPriority(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,198 @@
+package sg.edu.nus.iss.codebase.indexer.model;
+
+import sg.edu.nus.iss.codebase.indexer.util.BufferPool;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content of a single file, read once and shared across the indexing pipeline
+ * Factories, analyzers and chunkers all work from the same instance instead of
+ * re-reading and re-splitting the file. Decoded text, the line table and the
+ * content hash are computed lazily on first use.
+ */
+public class FileContent {
+
+    private static final BufferPool READ_BUFFERS = new BufferPool(256 * 1024, 64);
+    private static final AtomicLong FILES_READ = new AtomicLong();
+    private static final AtomicLong BYTES_READ = new AtomicLong();
+
+    private final File file;
+
+    private volatile byte[] bytes;
+
+    private volatile String text;
+    private volatile String[] lines;
+    private volatile int[] lineOffsets;
+    private volatile String hash;
+
+    private FileContent(File file, byte[] bytes, String text) {
+        this.file = file;
+        this.bytes = bytes;
+        this.text = text;
+    }
+
+    /**
+     * Read a file into memory through a pooled buffer
+     */
+    public static FileContent read(File file) throws IOException {
+        return read(file.toPath());
+    }
+
+    public static FileContent read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IOException("File too large to index: " + path);
+            }
+
+            ByteBuffer buffer = READ_BUFFERS.acquire((int) size);
+            try {
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // keep reading until the buffer is full or EOF
+                }
+                buffer.flip();
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+
+                FILES_READ.incrementAndGet();
+                BYTES_READ.addAndGet(bytes.length);
+                return new FileContent(path.toFile(), bytes, null);
+            } finally {
+                READ_BUFFERS.release(buffer);
+            }
+        }
+    }
+
+    /**
+     * Wrap text that is already in memory, e.g. in tests or for generated documents
+     */
+    public static FileContent of(File file, String text) {
+        return new FileContent(file, null, text);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public Path getPath() {
+        return file.toPath();
+    }
+
+    public String getFileName() {
+        return file.getName();
+    }
+
+    public byte[] getBytes() {
+        byte[] result = bytes;
+        if (result == null) {
+            result = text.getBytes(StandardCharsets.UTF_8);
+            bytes = result;
+        }
+        return result;
+    }
+
+    public int getSize() {
+        return getBytes().length;
+    }
+
+    /**
+     * UTF-8 decoded text, decoded once
+     */
+    public String getText() {
+        String result = text;
+        if (result == null) {
+            result = new String(getBytes(), StandardCharsets.UTF_8);
+            text = result;
+        }
+        return result;
+    }
+
+    /**
+     * Lines of the text, equivalent to {@code getText().split("\n")}, split once
+     */
+    public String[] getLines() {
+        String[] result = lines;
+        if (result == null) {
+            result = getText().split("\n");
+            lines = result;
+        }
+        return result;
+    }
+
+    /**
+     * Character offset at which each line starts, index 0 = line 1
+     */
+    public int[] getLineOffsets() {
+        int[] result = lineOffsets;
+        if (result == null) {
+            String content = getText();
+            int[] offsets = new int[16];
+            int count = 0;
+            offsets[count++] = 0;
+            for (int i = 0; i < content.length(); i++) {
+                if (content.charAt(i) == '\n' && i + 1 < content.length()) {
+                    if (count == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, count * 2);
+                    }
+                    offsets[count++] = i + 1;
+                }
+            }
+            result = Arrays.copyOf(offsets, count);
+            lineOffsets = result;
+        }
+        return result;
+    }
+
+    public int getLineCount() {
+        return getLineOffsets().length;
+    }
+
+    /**
+     * 1-based line number containing the given character offset
+     */
+    public int lineNumberAt(int charOffset) {
+        int index = Arrays.binarySearch(getLineOffsets(), charOffset);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /**
+     * SHA-256 of the raw bytes as lowercase hex, computed once
+     */
+    public String getHash() {
+        String result = hash;
+        if (result == null) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                result = HexFormat.of().formatHex(digest.digest(getBytes()));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+            hash = result;
+        }
+        return result;
+    }
+
+    // Read statistics, used by the indexing benchmark
+    public static long getFilesRead() {
+        return FILES_READ.get();
+    }
+
+    public static long getBytesRead() {
+        return BYTES_READ.get();
+    }
+
+    public static BufferPool getReadBufferPool() {
+        return READ_BUFFERS;
+    }
+}
@@ -0,0 +1,50 @@
+package sg.edu.nus.iss.codebase.indexer.model;
+
+import java.util.Map;
+
+/**
+ * Indexing tier a stored document belongs to
+ * Tier 1 holds one compact summary per file, tier 2 holds the full content chunks
+ */
+public enum IndexTier {
+    SUMMARY(1, "Summary"),
+    FULL(2, "Full content");
+
+    /**
+     * Metadata key used to record the tier on every stored document
+     */
+    public static final String METADATA_KEY = "indexTier";
+
+    private final int value;
+    private final String displayName;
+
+    IndexTier(int value, String displayName) {
+        this.value = value;
+        this.displayName = displayName;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Resolve the tier from document metadata.
+     * Documents indexed before tiering existed carry full content, so they map to FULL.
+     * The tier is stored as an integer; points written before that carry it as the string "1" or "2".
+     */
+    public static IndexTier fromMetadata(Map<String, Object> metadata) {
+        if (metadata == null) {
+            return FULL;
+        }
+        Object tier = metadata.get(METADATA_KEY);
+        if (tier instanceof Number number && number.intValue() == SUMMARY.value
+                || tier != null && String.valueOf(SUMMARY.value).equals(tier.toString())) {
+            return SUMMARY;
+        }
+        return FULL;
+    }
+}
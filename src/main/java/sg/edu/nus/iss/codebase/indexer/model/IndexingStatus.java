@@ -10,6 +10,19 @@ public class IndexingStatus {
 
     private final int totalFiles;
     private final int indexedFiles;
+    private final int summaryIndexedFiles;
+    private final int coldFiles;
+    private final int duplicateFiles;
+    private final int duplicateChunks;
+    private final String memoryState;
+    private final long memoryInFlightBytes;
+    private final long memoryBudgetBytes;
+    private final int memoryWaitingProducers;
+    private final long memoryPressureEvents;
+    private final boolean backgroundProfile;
+    private final String backgroundYieldReason;
+    private final String shadowCollection;
+    private final boolean bulkLoading;
     private final int failedFiles;
     private final int skippedFiles;
     private final boolean indexingInProgress;
@@ -27,6 +40,19 @@ public class IndexingStatus {
     private IndexingStatus(Builder builder) {
         this.totalFiles = builder.totalFiles;
         this.indexedFiles = builder.indexedFiles;
+        this.summaryIndexedFiles = builder.summaryIndexedFiles;
+        this.coldFiles = builder.coldFiles;
+        this.duplicateFiles = builder.duplicateFiles;
+        this.duplicateChunks = builder.duplicateChunks;
+        this.memoryState = builder.memoryState;
+        this.memoryInFlightBytes = builder.memoryInFlightBytes;
+        this.memoryBudgetBytes = builder.memoryBudgetBytes;
+        this.memoryWaitingProducers = builder.memoryWaitingProducers;
+        this.memoryPressureEvents = builder.memoryPressureEvents;
+        this.backgroundProfile = builder.backgroundProfile;
+        this.backgroundYieldReason = builder.backgroundYieldReason;
+        this.shadowCollection = builder.shadowCollection;
+        this.bulkLoading = builder.bulkLoading;
         this.failedFiles = builder.failedFiles;
         this.skippedFiles = builder.skippedFiles;
         this.indexingInProgress = builder.indexingInProgress;
@@ -51,6 +77,58 @@ public class IndexingStatus {
         return indexedFiles;
     }
 
+    public int getSummaryIndexedFiles() {
+        return summaryIndexedFiles;
+    }
+
+    public int getColdFiles() {
+        return coldFiles;
+    }
+
+    public int getDuplicateFiles() {
+        return duplicateFiles;
+    }
+
+    public int getDuplicateChunks() {
+        return duplicateChunks;
+    }
+
+    public String getMemoryState() {
+        return memoryState;
+    }
+
+    public long getMemoryInFlightBytes() {
+        return memoryInFlightBytes;
+    }
+
+    public long getMemoryBudgetBytes() {
+        return memoryBudgetBytes;
+    }
+
+    public int getMemoryWaitingProducers() {
+        return memoryWaitingProducers;
+    }
+
+    public long getMemoryPressureEvents() {
+        return memoryPressureEvents;
+    }
+
+    public boolean isBackgroundProfile() {
+        return backgroundProfile;
+    }
+
+    public String getBackgroundYieldReason() {
+        return backgroundYieldReason;
+    }
+
+    public String getShadowCollection() {
+        return shadowCollection;
+    }
+
+    public boolean isBulkLoading() {
+        return bulkLoading;
+    }
+
     public int getFailedFiles() {
         return failedFiles;
     }
@@ -126,6 +204,19 @@ public class IndexingStatus {
     public static class Builder {
         private int totalFiles;
         private int indexedFiles;
+        private int summaryIndexedFiles;
+        private int coldFiles;
+        private int duplicateFiles;
+        private int duplicateChunks;
+        private String memoryState;
+        private long memoryInFlightBytes;
+        private long memoryBudgetBytes;
+        private int memoryWaitingProducers;
+        private long memoryPressureEvents;
+        private boolean backgroundProfile;
+        private String backgroundYieldReason;
+        private String shadowCollection;
+        private boolean bulkLoading;
         private int failedFiles;
         private int skippedFiles;
         private boolean indexingInProgress;
@@ -150,6 +241,71 @@ public class IndexingStatus {
             return this;
         }
 
+        public Builder summaryIndexedFiles(int summaryIndexedFiles) {
+            this.summaryIndexedFiles = summaryIndexedFiles;
+            return this;
+        }
+
+        public Builder coldFiles(int coldFiles) {
+            this.coldFiles = coldFiles;
+            return this;
+        }
+
+        public Builder duplicateFiles(int duplicateFiles) {
+            this.duplicateFiles = duplicateFiles;
+            return this;
+        }
+
+        public Builder duplicateChunks(int duplicateChunks) {
+            this.duplicateChunks = duplicateChunks;
+            return this;
+        }
+
+        public Builder memoryState(String memoryState) {
+            this.memoryState = memoryState;
+            return this;
+        }
+
+        public Builder memoryInFlightBytes(long memoryInFlightBytes) {
+            this.memoryInFlightBytes = memoryInFlightBytes;
+            return this;
+        }
+
+        public Builder memoryBudgetBytes(long memoryBudgetBytes) {
+            this.memoryBudgetBytes = memoryBudgetBytes;
+            return this;
+        }
+
+        public Builder memoryWaitingProducers(int memoryWaitingProducers) {
+            this.memoryWaitingProducers = memoryWaitingProducers;
+            return this;
+        }
+
+        public Builder memoryPressureEvents(long memoryPressureEvents) {
+            this.memoryPressureEvents = memoryPressureEvents;
+            return this;
+        }
+
+        public Builder backgroundProfile(boolean backgroundProfile) {
+            this.backgroundProfile = backgroundProfile;
+            return this;
+        }
+
+        public Builder backgroundYieldReason(String backgroundYieldReason) {
+            this.backgroundYieldReason = backgroundYieldReason;
+            return this;
+        }
+
+        public Builder shadowCollection(String shadowCollection) {
+            this.shadowCollection = shadowCollection;
+            return this;
+        }
+
+        public Builder bulkLoading(boolean bulkLoading) {
+            this.bulkLoading = bulkLoading;
+            return this;
+        }
+
         public Builder failedFiles(int failedFiles) {
             this.failedFiles = failedFiles;
             return this;
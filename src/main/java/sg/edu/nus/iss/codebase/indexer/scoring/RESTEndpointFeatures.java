@@ -0,0 +1,306 @@
+package sg.edu.nus.iss.codebase.indexer.scoring;
+
+import org.springframework.ai.document.Document;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * REST API features of a document's text, extracted once at indexing time
+ * Stored as typed payload fields so that REST scoring and endpoint display read them back
+ * instead of scanning the text again. Only non-default values are written, next to a
+ * version marker that tells documents indexed without features apart.
+ */
+public class RESTEndpointFeatures {
+
+    static final int FORMAT_VERSION = 1;
+
+    // Payload fields
+    static final String VERSION_FIELD = "restFeatures";
+    static final String FRAMEWORK_FIELD = "restFramework";
+    static final String APP_INIT_FIELD = "restAppInit";
+    static final String FRAMEWORK_IMPORTS_FIELD = "restFrameworkImports";
+    static final String WEB_IMPORT_COUNT_FIELD = "restWebImportCount";
+    static final String ROUTE_COUNT_FIELD = "restRouteCount";
+    static final String HTTP_METHODS_FIELD = "restHttpMethods";
+    static final String API_PATH_PATTERNS_FIELD = "restApiPathPatterns";
+    static final String API_PATH_COUNT_FIELD = "restApiPathCount";
+    static final String JSON_RESPONSES_FIELD = "restJsonResponses";
+    static final String ERROR_STATUS_FIELD = "restErrorStatus";
+    static final String CONTENT_LENGTH_FIELD = "restContentLength";
+    static final String DOCUMENTED_FIELD = "restDocumented";
+    static final String EXCEPTION_HANDLING_FIELD = "restExceptionHandling";
+    static final String LOGGING_FIELD = "restLogging";
+    static final String CONFIGURATION_FIELD = "restConfiguration";
+    static final String TERMS_FIELD = "restTerms";
+    static final String ROUTES_FIELD = "restRoutes";
+    static final String ERROR_HANDLERS_FIELD = "restErrorHandlers";
+
+    // What is looked for; RESTEndpointScoring weighs each entry
+    static final List<String> WEB_IMPORTS = List.of("render_template", "request", "jsonify", "response", "json", "http");
+    static final List<String> API_PATH_PATTERNS = List.of("/api/generate", "/api/validate", "/api/status", "/api/", "'/api/", "\"/api/");
+    static final List<String> HTTP_METHODS = List.of("post", "get", "put", "delete");
+    static final List<String> CONTENT_TERMS = List.of("rest api", "api endpoint", "web api", "endpoint", "api", "route",
+            "service", "http", "json", "web service", "/api/", "@", "def ");
+
+    private static final Pattern ROUTE_DECORATOR_PATTERN = Pattern.compile("@\\w+\\.route\\s*\\(\\s*['\"]([^'\"]+)['\"]");
+    private static final Pattern WEB_APP_PATTERN = Pattern.compile("\\w+\\s*=\\s*\\w+\\s*\\(");
+    private static final Pattern API_PATH_PATTERN = Pattern.compile("/api/[a-zA-Z0-9-_]+");
+    private static final Pattern WEB_FRAMEWORK_IMPORTS = Pattern.compile("from\\s+\\w+\\s+import");
+
+    private String framework = "Unknown";
+    private boolean appInit;
+    private boolean frameworkImports;
+    private int webImportCount;
+    private int routeCount;
+    private Set<String> httpMethods = new LinkedHashSet<>();
+    private Set<String> apiPathPatterns = new LinkedHashSet<>();
+    private int apiPathCount;
+    private boolean jsonResponses;
+    private boolean errorStatus;
+    private int contentLength;
+    private boolean documented;
+    private boolean exceptionHandling;
+    private boolean logging;
+    private boolean configuration;
+    private Set<String> terms = new LinkedHashSet<>();
+    private List<Route> routes = new ArrayList<>();
+    private List<Route> errorHandlers = new ArrayList<>();
+
+    /**
+     * Scan a text once for every REST feature
+     */
+    public static RESTEndpointFeatures extract(String content) {
+        String contentLower = content.toLowerCase();
+        RESTEndpointFeatures features = new RESTEndpointFeatures();
+
+        // Framework markers
+        if (content.contains("@app.route")) {
+            features.framework = "Flask";
+        } else if (content.contains("@RequestMapping") || content.contains("@RestController")
+                || content.contains("@GetMapping") || content.contains("@PostMapping")) {
+            features.framework = "Spring Boot";
+        } else if (content.contains("app.get") || content.contains("app.post")) {
+            features.framework = "Express.js";
+        }
+        features.appInit = WEB_APP_PATTERN.matcher(content).find();
+        features.frameworkImports = WEB_FRAMEWORK_IMPORTS.matcher(content).find();
+        for (String webImport : WEB_IMPORTS) {
+            if (contentLower.contains(webImport)) {
+                features.webImportCount++;
+            }
+        }
+        features.routeCount = count(ROUTE_DECORATOR_PATTERN.matcher(content));
+
+        // API patterns
+        for (String pattern : API_PATH_PATTERNS) {
+            if (contentLower.contains(pattern)) {
+                features.apiPathPatterns.add(pattern);
+            }
+        }
+        for (String method : HTTP_METHODS) {
+            if (contentLower.contains("'" + method + "'") ||
+                contentLower.contains("\"" + method + "\"") ||
+                contentLower.contains("methods") && contentLower.contains(method)) {
+                features.httpMethods.add(method);
+            }
+        }
+        features.apiPathCount = count(API_PATH_PATTERN.matcher(content));
+        features.jsonResponses = contentLower.contains("jsonify") || contentLower.contains("json.dumps") ||
+                contentLower.contains("return json") || contentLower.contains("'success'");
+        features.errorStatus = contentLower.contains("error") && (contentLower.contains("400") ||
+                contentLower.contains("500") || contentLower.contains("404"));
+
+        // Implementation quality signals
+        features.contentLength = content.length();
+        features.documented = content.contains("\"\"\"") || content.contains("'''") || content.contains("/**");
+        features.exceptionHandling = contentLower.contains("try:") && contentLower.contains("except");
+        features.logging = contentLower.contains("log") || contentLower.contains("print");
+        features.configuration = contentLower.contains("config") || contentLower.contains("args") ||
+                contentLower.contains("environ");
+
+        // Terms that queries are matched against
+        for (String term : CONTENT_TERMS) {
+            if (contentLower.contains(term)) {
+                features.terms.add(term);
+            }
+        }
+
+        extractRoutes(content, features);
+        return features;
+    }
+
+    /**
+     * Features stored with a document, or extracted from its text when it was indexed without them
+     */
+    public static RESTEndpointFeatures of(Document doc) {
+        RESTEndpointFeatures stored = fromMetadata(doc.getMetadata());
+        return stored != null ? stored : extract(doc.getText());
+    }
+
+    /**
+     * @return the stored features, or null when the metadata has none
+     */
+    public static RESTEndpointFeatures fromMetadata(Map<String, Object> metadata) {
+        if (metadata == null || !(metadata.get(VERSION_FIELD) instanceof Number version)
+                || version.intValue() != FORMAT_VERSION) {
+            return null;
+        }
+        RESTEndpointFeatures features = new RESTEndpointFeatures();
+        features.framework = String.valueOf(metadata.getOrDefault(FRAMEWORK_FIELD, "Unknown"));
+        features.appInit = bool(metadata, APP_INIT_FIELD);
+        features.frameworkImports = bool(metadata, FRAMEWORK_IMPORTS_FIELD);
+        features.webImportCount = integer(metadata, WEB_IMPORT_COUNT_FIELD);
+        features.routeCount = integer(metadata, ROUTE_COUNT_FIELD);
+        features.httpMethods = new LinkedHashSet<>(strings(metadata, HTTP_METHODS_FIELD));
+        features.apiPathPatterns = new LinkedHashSet<>(strings(metadata, API_PATH_PATTERNS_FIELD));
+        features.apiPathCount = integer(metadata, API_PATH_COUNT_FIELD);
+        features.jsonResponses = bool(metadata, JSON_RESPONSES_FIELD);
+        features.errorStatus = bool(metadata, ERROR_STATUS_FIELD);
+        features.contentLength = integer(metadata, CONTENT_LENGTH_FIELD);
+        features.documented = bool(metadata, DOCUMENTED_FIELD);
+        features.exceptionHandling = bool(metadata, EXCEPTION_HANDLING_FIELD);
+        features.logging = bool(metadata, LOGGING_FIELD);
+        features.configuration = bool(metadata, CONFIGURATION_FIELD);
+        features.terms = new LinkedHashSet<>(strings(metadata, TERMS_FIELD));
+        features.routes = routes(metadata, ROUTES_FIELD);
+        features.errorHandlers = routes(metadata, ERROR_HANDLERS_FIELD);
+        return features;
+    }
+
+    /**
+     * Add the features to document metadata as typed payload fields, leaving out default values
+     */
+    public void writeTo(Map<String, Object> metadata) {
+        metadata.put(VERSION_FIELD, FORMAT_VERSION);
+        if (!"Unknown".equals(framework)) metadata.put(FRAMEWORK_FIELD, framework);
+        if (appInit) metadata.put(APP_INIT_FIELD, true);
+        if (frameworkImports) metadata.put(FRAMEWORK_IMPORTS_FIELD, true);
+        if (webImportCount > 0) metadata.put(WEB_IMPORT_COUNT_FIELD, webImportCount);
+        if (routeCount > 0) metadata.put(ROUTE_COUNT_FIELD, routeCount);
+        if (!httpMethods.isEmpty()) metadata.put(HTTP_METHODS_FIELD, new ArrayList<>(httpMethods));
+        if (!apiPathPatterns.isEmpty()) metadata.put(API_PATH_PATTERNS_FIELD, new ArrayList<>(apiPathPatterns));
+        if (apiPathCount > 0) metadata.put(API_PATH_COUNT_FIELD, apiPathCount);
+        if (jsonResponses) metadata.put(JSON_RESPONSES_FIELD, true);
+        if (errorStatus) metadata.put(ERROR_STATUS_FIELD, true);
+        if (contentLength > 0) metadata.put(CONTENT_LENGTH_FIELD, contentLength);
+        if (documented) metadata.put(DOCUMENTED_FIELD, true);
+        if (exceptionHandling) metadata.put(EXCEPTION_HANDLING_FIELD, true);
+        if (logging) metadata.put(LOGGING_FIELD, true);
+        if (configuration) metadata.put(CONFIGURATION_FIELD, true);
+        if (!terms.isEmpty()) metadata.put(TERMS_FIELD, new ArrayList<>(terms));
+        if (!routes.isEmpty()) metadata.put(ROUTES_FIELD, routes.stream().map(Route::format).toList());
+        if (!errorHandlers.isEmpty()) metadata.put(ERROR_HANDLERS_FIELD, errorHandlers.stream().map(Route::format).toList());
+    }
+
+    /**
+     * Route and error handler decorators with the function each one is attached to
+     */
+    private static void extractRoutes(String content, RESTEndpointFeatures features) {
+        if (!content.contains("@app.route") && !content.contains("@app.errorhandler")) {
+            return;
+        }
+        String[] lines = content.split("\n");
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.contains("@app.route")) {
+                features.routes.add(new Route(line, findFunction(lines, i, 10)));
+            } else if (line.contains("@app.errorhandler")) {
+                features.errorHandlers.add(new Route(line, findFunction(lines, i, 5)));
+            }
+        }
+    }
+
+    private static String findFunction(String[] lines, int decorator, int window) {
+        for (int j = decorator + 1; j < Math.min(decorator + window, lines.length); j++) {
+            String nextLine = lines[j].trim();
+            if (nextLine.startsWith("def ")) {
+                int end = nextLine.indexOf("(");
+                return end > 4 ? nextLine.substring(4, end) + "()" : "unknown()";
+            }
+        }
+        return null;
+    }
+
+    private static int count(Matcher matcher) {
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean bool(Map<String, Object> metadata, String field) {
+        Object value = metadata.get(field);
+        return value instanceof Boolean b ? b : value != null && Boolean.parseBoolean(value.toString());
+    }
+
+    private static int integer(Map<String, Object> metadata, String field) {
+        Object value = metadata.get(field);
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        try {
+            return value == null ? 0 : Integer.parseInt(value.toString());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static List<String> strings(Map<String, Object> metadata, String field) {
+        Object value = metadata.get(field);
+        if (value instanceof Collection<?> values) {
+            return values.stream().map(String::valueOf).toList();
+        }
+        return value == null ? List.of() : List.of(value.toString());
+    }
+
+    private static List<Route> routes(Map<String, Object> metadata, String field) {
+        return new ArrayList<>(strings(metadata, field).stream().map(Route::parse).toList());
+    }
+
+    public String getFramework() { return framework; }
+    public boolean hasAppInit() { return appInit; }
+    public boolean hasFrameworkImports() { return frameworkImports; }
+    public int getWebImportCount() { return webImportCount; }
+    public int getRouteCount() { return routeCount; }
+    public Set<String> getHttpMethods() { return httpMethods; }
+    public Set<String> getApiPathPatterns() { return apiPathPatterns; }
+    public int getApiPathCount() { return apiPathCount; }
+    public boolean hasJsonResponses() { return jsonResponses; }
+    public boolean hasErrorStatus() { return errorStatus; }
+    public int getContentLength() { return contentLength; }
+    public boolean isDocumented() { return documented; }
+    public boolean hasExceptionHandling() { return exceptionHandling; }
+    public boolean hasLogging() { return logging; }
+    public boolean hasConfiguration() { return configuration; }
+    public boolean containsTerm(String term) { return terms.contains(term); }
+    public List<Route> getRoutes() { return routes; }
+    public List<Route> getErrorHandlers() { return errorHandlers; }
+
+    /**
+     * A route or error handler decorator line and the function it decorates
+     */
+    public static class Route {
+        private final String declaration;
+        private final String functionName;
+
+        public Route(String declaration, String functionName) {
+            this.declaration = declaration;
+            this.functionName = functionName;
+        }
+
+        String format() {
+            return functionName == null ? declaration : declaration + "\t" + functionName;
+        }
+
+        static Route parse(String value) {
+            int tab = value.lastIndexOf('\t');
+            return tab < 0 ? new Route(value, null) : new Route(value.substring(0, tab), value.substring(tab + 1));
+        }
+
+        public String getDeclaration() { return declaration; }
+        public String getFunctionName() { return functionName; }
+    }
+}
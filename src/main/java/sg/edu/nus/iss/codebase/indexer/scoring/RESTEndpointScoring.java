@@ -1,9 +1,7 @@
 package sg.edu.nus.iss.codebase.indexer.scoring;
 
 import org.springframework.ai.document.Document;
-import java.util.*;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
+import java.util.Map;
 
 /**
  * Generic REST API endpoint scoring system
@@ -11,33 +9,55 @@ import java.util.regex.Matcher;
  */
 public class RESTEndpointScoring {
     
-    // Generic patterns for REST API detection
-    private static final Pattern ROUTE_DECORATOR_PATTERN = Pattern.compile("@\\w+\\.route\\s*\\(\\s*['\"]([^'\"]+)['\"]");
-    private static final Pattern WEB_APP_PATTERN = Pattern.compile("\\w+\\s*=\\s*\\w+\\s*\\(");
-    private static final Pattern API_PATH_PATTERN = Pattern.compile("/api/[a-zA-Z0-9-_]+");
-    private static final Pattern WEB_FRAMEWORK_IMPORTS = Pattern.compile("from\\s+\\w+\\s+import");
+    // Weights of the features found at indexing time (see RESTEndpointFeatures)
+    private static final Map<String, Double> API_PATH_WEIGHTS = Map.of(
+            "/api/generate", 0.20,      // Generation endpoints
+            "/api/validate", 0.18,      // Validation endpoints
+            "/api/status", 0.15,        // Status endpoints
+            "/api/", 0.10,              // Generic API paths
+            "'/api/", 0.10,             // Quoted API paths
+            "\"/api/", 0.10);          // Double-quoted API paths
+    private static final Map<String, Double> HTTP_METHOD_WEIGHTS = Map.of(
+            "post", 0.15,   // POST APIs are valuable
+            "get", 0.10,    // GET APIs common
+            "put", 0.08,    // PUT for updates
+            "delete", 0.08); // DELETE for removal
+    private static final Map<String, Double> QUERY_TERM_WEIGHTS = Map.of(
+            "rest api", 0.30,
+            "api endpoint", 0.25,
+            "web api", 0.20,
+            "endpoint", 0.15,
+            "api", 0.15,
+            "route", 0.12,
+            "service", 0.10,
+            "http", 0.08,
+            "json", 0.08,
+            "web service", 0.15);
     
     /**
      * Calculate generic REST API score designed to rank comprehensive API implementations
+     * Uses the features stored with the document, so no text is scanned for documents indexed with them
      */
     public static double calculateRESTScore(Document doc, String query) {
-        String content = doc.getText();
-        String contentLower = content.toLowerCase();
+        return calculateRESTScore(RESTEndpointFeatures.of(doc), query);
+    }
+    
+    public static double calculateRESTScore(RESTEndpointFeatures features, String query) {
         String queryLower = query.toLowerCase();
         
         double score = 0.0;
         
         // STAGE 1: Web Framework Detection (25% weight)
-        score += calculateWebFrameworkScore(content, contentLower) * 0.25;
+        score += calculateWebFrameworkScore(features) * 0.25;
         
         // STAGE 2: REST API Pattern Detection (45% weight) - Highest weight
-        score += calculateAPIPatternScore(content, contentLower) * 0.45;
+        score += calculateAPIPatternScore(features) * 0.45;
         
         // STAGE 3: Query-API Relevance (20% weight)
-        score += calculateAPIQueryRelevance(contentLower, queryLower) * 0.20;
+        score += calculateAPIQueryRelevance(features, queryLower) * 0.20;
         
         // STAGE 4: Implementation Quality (10% weight)
-        score += calculateImplementationQuality(content, contentLower) * 0.10;
+        score += calculateImplementationQuality(features) * 0.10;
         
         return Math.min(score, 1.0);
     }
@@ -45,39 +65,26 @@ public class RESTEndpointScoring {
     /**
      * STAGE 1: Generic Web Framework Detection
      */
-    private static double calculateWebFrameworkScore(String content, String contentLower) {
+    private static double calculateWebFrameworkScore(RESTEndpointFeatures features) {
         double frameworkScore = 0.0;
         
         // Web application initialization patterns
-        if (WEB_APP_PATTERN.matcher(content).find()) {
+        if (features.hasAppInit()) {
             frameworkScore += 0.3; // Generic app initialization
         }
         
         // Web framework imports (covers Flask, FastAPI, Django, etc.)
-        if (WEB_FRAMEWORK_IMPORTS.matcher(content).find()) {
+        if (features.hasFrameworkImports()) {
             frameworkScore += 0.25;
             
             // Bonus for comprehensive web imports
-            int webImportCount = 0;
-            String[] webImports = {"render_template", "request", "jsonify", "response", "json", "http"};
-            for (String webImport : webImports) {
-                if (contentLower.contains(webImport)) {
-                    webImportCount++;
-                }
-            }
-            
-            if (webImportCount >= 3) {
+            if (features.getWebImportCount() >= 3) {
                 frameworkScore += 0.25; // Comprehensive web framework usage
             }
         }
         
         // Route/endpoint decorator patterns
-        Matcher routeMatcher = ROUTE_DECORATOR_PATTERN.matcher(content);
-        int routeCount = 0;
-        while (routeMatcher.find()) {
-            routeCount++;
-        }
-        
+        int routeCount = features.getRouteCount();
         if (routeCount > 0) {
             frameworkScore += Math.min(0.4, routeCount * 0.07); // Higher weight for multiple routes
         }
@@ -88,46 +95,21 @@ public class RESTEndpointScoring {
     /**
      * STAGE 2: REST API Pattern Detection - Core scoring logic
      */
-    private static double calculateAPIPatternScore(String content, String contentLower) {
+    private static double calculateAPIPatternScore(RESTEndpointFeatures features) {
         double apiScore = 0.0;
         
         // API endpoint path scoring (targets app.py patterns)
-        Map<String, Double> endpointPatterns = new HashMap<>();
-        endpointPatterns.put("/api/generate", 0.20);      // Generation endpoints
-        endpointPatterns.put("/api/validate", 0.18);      // Validation endpoints  
-        endpointPatterns.put("/api/status", 0.15);        // Status endpoints
-        endpointPatterns.put("/api/", 0.10);              // Generic API paths
-        endpointPatterns.put("'/api/", 0.10);             // Quoted API paths
-        endpointPatterns.put("\"/api/", 0.10);            // Double-quoted API paths
-        
-        for (Map.Entry<String, Double> pattern : endpointPatterns.entrySet()) {
-            if (contentLower.contains(pattern.getKey().toLowerCase())) {
-                apiScore += pattern.getValue();
-            }
+        for (String pattern : features.getApiPathPatterns()) {
+            apiScore += API_PATH_WEIGHTS.getOrDefault(pattern, 0.0);
         }
         
         // HTTP method diversity scoring
-        Map<String, Double> httpMethods = new HashMap<>();
-        httpMethods.put("post", 0.15);   // POST APIs are valuable
-        httpMethods.put("get", 0.10);    // GET APIs common
-        httpMethods.put("put", 0.08);    // PUT for updates
-        httpMethods.put("delete", 0.08); // DELETE for removal
-        
-        for (Map.Entry<String, Double> method : httpMethods.entrySet()) {
-            if (contentLower.contains("'" + method.getKey() + "'") || 
-                contentLower.contains("\"" + method.getKey() + "\"") ||
-                contentLower.contains("methods") && contentLower.contains(method.getKey())) {
-                apiScore += method.getValue();
-            }
+        for (String method : features.getHttpMethods()) {
+            apiScore += HTTP_METHOD_WEIGHTS.getOrDefault(method, 0.0);
         }
         
         // API endpoint density bonus
-        Matcher apiMatcher = API_PATH_PATTERN.matcher(content);
-        int apiCount = 0;
-        while (apiMatcher.find()) {
-            apiCount++;
-        }
-        
+        int apiCount = features.getApiPathCount();
         if (apiCount >= 3) {
             apiScore += 0.20; // Strong bonus for multiple API endpoints
         } else if (apiCount >= 2) {
@@ -135,14 +117,12 @@ public class RESTEndpointScoring {
         }
         
         // JSON response patterns (REST APIs typically return JSON)
-        if (contentLower.contains("jsonify") || contentLower.contains("json.dumps") || 
-            contentLower.contains("return json") || contentLower.contains("'success'")) {
+        if (features.hasJsonResponses()) {
             apiScore += 0.15;
         }
         
         // Error handling in APIs
-        if (contentLower.contains("error") && (contentLower.contains("400") || 
-            contentLower.contains("500") || contentLower.contains("404"))) {
+        if (features.hasErrorStatus()) {
             apiScore += 0.10;
         }
         
@@ -152,43 +132,31 @@ public class RESTEndpointScoring {
     /**
      * STAGE 3: Query-API Relevance scoring
      */
-    private static double calculateAPIQueryRelevance(String contentLower, String queryLower) {
+    private static double calculateAPIQueryRelevance(RESTEndpointFeatures features, String queryLower) {
         double relevanceScore = 0.0;
         
         // Direct query term matching optimized for REST API searches
-        Map<String, Double> queryTermWeights = new HashMap<>();
-        queryTermWeights.put("rest api", 0.30);
-        queryTermWeights.put("api endpoint", 0.25);
-        queryTermWeights.put("web api", 0.20);
-        queryTermWeights.put("endpoint", 0.15);
-        queryTermWeights.put("api", 0.15);
-        queryTermWeights.put("route", 0.12);
-        queryTermWeights.put("service", 0.10);
-        queryTermWeights.put("http", 0.08);
-        queryTermWeights.put("json", 0.08);
-        queryTermWeights.put("web service", 0.15);
-        
-        for (Map.Entry<String, Double> term : queryTermWeights.entrySet()) {
+        for (Map.Entry<String, Double> term : QUERY_TERM_WEIGHTS.entrySet()) {
             if (queryLower.contains(term.getKey())) {
                 // Context-aware matching
-                if (term.getKey().contains("api") && contentLower.contains("/api/")) {
+                if (term.getKey().contains("api") && features.containsTerm("/api/")) {
                     relevanceScore += term.getValue();
-                } else if (term.getKey().equals("endpoint") && contentLower.contains("@")) {
+                } else if (term.getKey().equals("endpoint") && features.containsTerm("@")) {
                     relevanceScore += term.getValue();
-                } else if (term.getKey().equals("route") && contentLower.contains("route")) {
+                } else if (term.getKey().equals("route") && features.containsTerm("route")) {
                     relevanceScore += term.getValue();
-                } else if (contentLower.contains(term.getKey())) {
+                } else if (features.containsTerm(term.getKey())) {
                     relevanceScore += term.getValue() * 0.8;
                 }
             }
         }
         
         // Semantic query matching
-        if (queryLower.contains("endpoint") && contentLower.contains("def ")) {
+        if (queryLower.contains("endpoint") && features.containsTerm("def ")) {
             relevanceScore += 0.10; // Function definitions often are endpoints
         }
         
-        if (queryLower.contains("rest") && contentLower.contains("json")) {
+        if (queryLower.contains("rest") && features.containsTerm("json")) {
             relevanceScore += 0.15; // REST typically uses JSON
         }
         
@@ -198,31 +166,30 @@ public class RESTEndpointScoring {
     /**
      * STAGE 4: Implementation Quality assessment
      */
-    private static double calculateImplementationQuality(String content, String contentLower) {
+    private static double calculateImplementationQuality(RESTEndpointFeatures features) {
         double qualityScore = 0.4; // Base score
         
         // File size and comprehensiveness
-        if (content.length() > 4000) qualityScore += 0.2;  // Substantial implementation
-        if (content.length() > 7000) qualityScore += 0.15; // Comprehensive implementation
+        if (features.getContentLength() > 4000) qualityScore += 0.2;  // Substantial implementation
+        if (features.getContentLength() > 7000) qualityScore += 0.15; // Comprehensive implementation
         
         // Documentation quality
-        if (content.contains("\"\"\"") || content.contains("'''") || content.contains("/**")) {
+        if (features.isDocumented()) {
             qualityScore += 0.15; // Good documentation
         }
         
         // Error handling sophistication
-        if (contentLower.contains("try:") && contentLower.contains("except")) {
+        if (features.hasExceptionHandling()) {
             qualityScore += 0.10;
         }
         
         // Logging and monitoring
-        if (contentLower.contains("log") || contentLower.contains("print")) {
+        if (features.hasLogging()) {
             qualityScore += 0.05;
         }
         
         // Configuration and setup
-        if (contentLower.contains("config") || contentLower.contains("args") || 
-            contentLower.contains("environ")) {
+        if (features.hasConfiguration()) {
             qualityScore += 0.05;
         }
         
@@ -233,14 +200,13 @@ public class RESTEndpointScoring {
      * Generate scoring breakdown for analysis
      */
     public static String generateScoringBreakdown(Document doc, String query) {
-        String content = doc.getText();
-        String contentLower = content.toLowerCase();
+        RESTEndpointFeatures features = RESTEndpointFeatures.of(doc);
         String queryLower = query.toLowerCase();
         
-        double frameworkScore = calculateWebFrameworkScore(content, contentLower);
-        double apiScore = calculateAPIPatternScore(content, contentLower);
-        double relevanceScore = calculateAPIQueryRelevance(contentLower, queryLower);
-        double qualityScore = calculateImplementationQuality(content, contentLower);
+        double frameworkScore = calculateWebFrameworkScore(features);
+        double apiScore = calculateAPIPatternScore(features);
+        double relevanceScore = calculateAPIQueryRelevance(features, queryLower);
+        double qualityScore = calculateImplementationQuality(features);
         
         double totalScore = frameworkScore * 0.25 + apiScore * 0.45 + 
                            relevanceScore * 0.20 + qualityScore * 0.10;
@@ -1,8 +1,12 @@
 package sg.edu.nus.iss.codebase.indexer.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.model.FileContent;
+import sg.edu.nus.iss.codebase.indexer.service.impl.DeclarationExtractor;
+import sg.edu.nus.iss.codebase.indexer.service.impl.SourceLexer;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.regex.Matcher;
@@ -15,16 +19,33 @@ import java.util.regex.Pattern;
 @Service
 public class CodeAnalysisService {
 
+    @Autowired
+    private IndexingConfiguration config;
+
     /**
      * Analyze a file and create a summary with line number mappings
      */
     public FileAnalysis analyzeFile(Path filePath) throws IOException {
-        String content = Files.readString(filePath);
-        String[] lines = content.split("\n");
-        String fileName = filePath.getFileName().toString();
+        return analyzeFile(FileContent.read(filePath));
+    }
+
+    /**
+     * Analyze file content that has already been read, reusing its line table
+     */
+    public FileAnalysis analyzeFile(FileContent content) {
+        String[] lines = content.getLines();
+        String fileName = content.getFileName();
         
-        FileAnalysis analysis = new FileAnalysis(fileName, filePath.toString());
+        FileAnalysis analysis = new FileAnalysis(fileName, content.getPath().toString());
         
+        // Tokenize once and read declarations with their ranges; the per-line analyzers remain
+        // for files without a lexer table and when the lexer is switched off
+        SourceLexer.Language language = SourceLexer.Language.forFileName(fileName);
+        if (language != null && (config == null || config.getProcessing().isLexerAnalysis())) {
+            analyzeDeclarations(content.getText(), lines, language, analysis);
+            return analysis;
+        }
+
         // Detect file type and apply appropriate analysis
         if (fileName.endsWith(".py")) {
             analyzePythonFile(lines, analysis);
@@ -39,6 +60,39 @@ public class CodeAnalysisService {
         return analysis;
     }
 
+    /**
+     * Analyze any file with a lexer table: endpoints, classes, functions, methods and imports
+     * with the exact range each one spans
+     */
+    private void analyzeDeclarations(String source, String[] lines, SourceLexer.Language language, FileAnalysis analysis) {
+        SourceLexer.Tokens tokens = SourceLexer.lex(source, language);
+        for (DeclarationExtractor.Declaration declaration : DeclarationExtractor.extract(tokens)) {
+            int index = declaration.getLine() - 1;
+            String line = index < lines.length ? lines[index].trim() : "";
+            String entry = declaration.getLabel() + ": " + declaration.getName() + " (line " + declaration.getLine() + ")";
+            switch (declaration.getKind()) {
+                case ENDPOINT -> {
+                    analysis.addRestApiEndpoint(codeElement(declaration, line, extractContext(lines, index, 5)));
+                    analysis.addSummaryEntry(entry);
+                }
+                case FUNCTION, METHOD -> {
+                    analysis.addFunction(codeElement(declaration, line, extractContext(lines, index, 3)));
+                    analysis.addSummaryEntry(entry);
+                }
+                case CLASS -> {
+                    analysis.addClass(codeElement(declaration, line, extractContext(lines, index, 3)));
+                    analysis.addSummaryEntry(entry);
+                }
+                case IMPORT -> analysis.addImport(declaration.getLine(), line);
+            }
+        }
+    }
+
+    private CodeElement codeElement(DeclarationExtractor.Declaration declaration, String code, String context) {
+        return new CodeElement(declaration.getLine(), declaration.getColumn(), declaration.getEndLine(),
+                declaration.getEndColumn(), declaration.getName(), code, context);
+    }
+
     /**
      * Analyze Python files with special focus on Flask routes, functions, classes
      */
@@ -289,6 +343,18 @@ public class CodeAnalysisService {
             imports.add(new CodeElement(lineNumber, "import", code, ""));
         }
 
+        public void addRestApiEndpoint(CodeElement endpoint) {
+            restApiEndpoints.add(endpoint);
+        }
+
+        public void addFunction(CodeElement function) {
+            functions.add(function);
+        }
+
+        public void addClass(CodeElement cls) {
+            classes.add(cls);
+        }
+
         // Getters
         public String getFileName() { return fileName; }
         public String getFilePath() { return filePath; }
@@ -339,22 +405,36 @@ public class CodeAnalysisService {
     }
 
     /**
-     * Data class representing a code element with line number and context
+     * Data class representing a code element with line number and context. Elements found by the
+     * lexer also carry the range they span (1-based, end column inclusive); the others have 0 there.
      */
     public static class CodeElement {
         private final int lineNumber;
+        private final int column;
+        private final int endLine;
+        private final int endColumn;
         private final String name;
         private final String code;
         private final String context;
 
         public CodeElement(int lineNumber, String name, String code, String context) {
+            this(lineNumber, 0, 0, 0, name, code, context);
+        }
+
+        public CodeElement(int lineNumber, int column, int endLine, int endColumn, String name, String code, String context) {
             this.lineNumber = lineNumber;
+            this.column = column;
+            this.endLine = endLine;
+            this.endColumn = endColumn;
             this.name = name;
             this.code = code;
             this.context = context;
         }
 
         public int getLineNumber() { return lineNumber; }
+        public int getColumn() { return column; }
+        public int getEndLine() { return endLine; }
+        public int getEndColumn() { return endColumn; }
         public String getName() { return name; }
         public String getCode() { return code; }
         public String getContext() { return context; }
@@ -1,12 +1,19 @@
 package sg.edu.nus.iss.codebase.indexer.service;
 
 import sg.edu.nus.iss.codebase.indexer.dto.SearchRequest;
+import sg.edu.nus.iss.codebase.indexer.service.impl.EmbeddingScheduler;
+import sg.edu.nus.iss.codebase.indexer.service.impl.SymbolTable;
 import sg.edu.nus.iss.codebase.indexer.service.interfaces.FileIndexingService;
 import sg.edu.nus.iss.codebase.indexer.config.DynamicVectorStoreFactory;
+import sg.edu.nus.iss.codebase.indexer.model.DuplicateAlias;
+import sg.edu.nus.iss.codebase.indexer.model.EmbeddingPriority;
+import sg.edu.nus.iss.codebase.indexer.model.IndexTier;
 import sg.edu.nus.iss.codebase.indexer.model.IndexingStatus;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import ch.qos.logback.classic.Logger;
@@ -32,6 +39,8 @@ public class HybridSearchService {
     private FileIndexingService indexingService;
     @Autowired
     private ProjectAnalysisService projectAnalysisService;
+    @Autowired
+    private SymbolTable symbolTable;
 
     /**
      * Hybrid search combining vector search with file-based fallback
@@ -39,10 +48,25 @@ public class HybridSearchService {
     public HybridSearchResult performHybridSearch(String query, int maxResults) {
         System.out.println("🔍 Starting hybrid search for: " + query);
 
+        // Declarations named by the query come from the symbol table, without query enhancement or
+        // embeddings; a query that can only mean code is answered from them alone
+        long symbolLookupStart = System.nanoTime();
+        List<SearchResult> symbolResults = performSymbolLookup(query, maxResults);
+        long symbolLookupMicros = (System.nanoTime() - symbolLookupStart) / 1000;
+        if (!symbolResults.isEmpty() && SymbolTable.isCodeQuery(query)) {
+            HybridSearchResult result = new HybridSearchResult(symbolResults, new ArrayList<>(),
+                    "Answered from the symbol table: declarations named \"" + query.trim() + "\".", false,
+                    symbolLookupMicros / 1000);
+            result.getSearchMetadata().put("symbolLookup", true);
+            result.getSearchMetadata().put("symbolLookupMicros", symbolLookupMicros);
+            return result;
+        }
+
         List<SearchResult> vectorResults = new ArrayList<>();
         List<FileSearchService.SearchResult> fileResults = new ArrayList<>();
         String aiAnalysis = "";
         boolean usedFallback = false;
+        VectorQuery vectorQuery = new VectorQuery(query);
         try {
             // Try vector search first
             System.out.println("🔍 DEBUG: Checking indexed file count...");
@@ -54,20 +78,31 @@ public class HybridSearchService {
                 System.out.println(
                         "🎯 Performing vector-based semantic search using collection: " + currentCollection + "...");
                 System.out.println("🔍 DEBUG: About to call performVectorSearch...");
-                vectorResults = performVectorSearch(query, maxResults);
+                vectorResults = performInteractiveVectorSearch(vectorQuery, maxResults, null);
                 System.out.println("🔍 DEBUG: performVectorSearch returned " + vectorResults.size() + " results");
             } else {
                 System.out.println("🔍 DEBUG: Skipping vector search - no indexed files");
             }
 
-            // If vector search has limited results or indexing is incomplete, use file
-            // search as supplement/fallback
-            if (vectorResults.size() < maxResults / 2 || !indexingService.isIndexingComplete()) {
+            // If vector search has limited results, indexing is incomplete or cold files
+            // have not been embedded yet, use file search as supplement/fallback
+            boolean hasColdFiles = indexingService.getColdFileCount() > 0;
+            if (vectorResults.size() < maxResults / 2 || !indexingService.isIndexingComplete() || hasColdFiles) {
                 System.out.println("📂 Supplementing with file-based search...");
                 fileResults = fileSearchService.searchInFiles(query);
                 usedFallback = true;
             }
 
+            // Text search hits on cold files are embedded on demand and merged in
+            if (hasColdFiles && !fileResults.isEmpty()) {
+                vectorResults = mergeOnDemandEmbeddings(vectorQuery, maxResults, fileResults, vectorResults);
+            }
+
+            // Declarations named by a plain word are one answer among the semantic results
+            if (!symbolResults.isEmpty()) {
+                vectorResults = mergeSearchResults(vectorResults, symbolResults, maxResults);
+            }
+
             // Generate AI analysis if we have any results
             if (!vectorResults.isEmpty() || !fileResults.isEmpty()) {
                 aiAnalysis = generateAIAnalysis(query, vectorResults, fileResults);
@@ -83,7 +118,106 @@ public class HybridSearchService {
         return new HybridSearchResult(vectorResults, fileResults, aiAnalysis, usedFallback);
     }
 
-    private List<SearchResult> performVectorSearch(String query, int maxResults) {
+    /**
+     * Look up the declarations named by a query that is a single identifier, qualified name or route.
+     * Returns an empty list when the query has another shape or nothing is declared under that name.
+     */
+    private List<SearchResult> performSymbolLookup(String query, int maxResults) {
+        if (symbolTable == null || !symbolTable.isEnabled() || query == null || !SymbolTable.isIdentifierQuery(query)) {
+            return new ArrayList<>();
+        }
+
+        long start = System.nanoTime();
+        String identifier = query.trim();
+        List<SymbolTable.Symbol> symbols = symbolTable.lookup(identifier, maxResults);
+        long elapsedMicros = (System.nanoTime() - start) / 1000;
+        if (symbols.isEmpty()) {
+            return new ArrayList<>();
+        }
+        System.out.println("🔤 Symbol table: " + symbols.size() + " declarations of \"" + identifier + "\" in "
+                + elapsedMicros + " µs");
+        String name = identifier.startsWith("/") ? identifier : identifier.substring(identifier.lastIndexOf('.') + 1);
+
+        List<SearchResult> results = new ArrayList<>();
+        for (SymbolTable.Symbol symbol : symbols) {
+            String fileName = Paths.get(symbol.getFilePath()).getFileName().toString();
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("filename", fileName);
+            metadata.put("filepath", symbol.getFilePath());
+            metadata.put("symbolKind", symbol.getKind().name());
+            metadata.put("startLine", symbol.getLine());
+            metadata.put("endLine", symbol.getEndLine());
+
+            double score = symbol.getName().equals(name) ? 1.0
+                    : symbol.getName().equalsIgnoreCase(name) ? 0.95 : 0.8;
+            String content = symbol.getKind().getLabel() + ": " + symbol.getName() + "\nLines "
+                    + symbol.getLine() + "-" + symbol.getEndLine() + ": " + symbol.getCode();
+            List<LineMatch> lineMatches = new ArrayList<>();
+            lineMatches.add(new LineMatch(symbol.getLine(), symbol.getCode(), symbol.getName()));
+            results.add(new SearchResult(fileName, symbol.getFilePath(), content, score, "symbol", lineMatches, metadata));
+        }
+        return results;
+    }
+
+    /**
+     * Embed cold files found by text search and, once they land, search just those files
+     * with the query already enhanced and embedded for this search
+     */
+    private List<SearchResult> mergeOnDemandEmbeddings(VectorQuery vectorQuery, int maxResults,
+            List<FileSearchService.SearchResult> fileResults, List<SearchResult> vectorResults) {
+        List<String> coldPaths = fileResults.stream()
+                .map(FileSearchService.SearchResult::getFilePath)
+                .filter(indexingService::isColdFile)
+                .map(path -> new java.io.File(path).getAbsolutePath())
+                .distinct()
+                .toList();
+        if (coldPaths.isEmpty()) {
+            return vectorResults;
+        }
+
+        var embedding = indexingService.embedOnDemand(coldPaths);
+        if (embedding == null) {
+            return vectorResults;
+        }
+
+        int embeddedCount = embedding.join();
+        if (embeddedCount == 0) {
+            return vectorResults;
+        }
+
+        System.out.println("🔥 " + embeddedCount + " cold files embedded on demand, refreshing vector results");
+        return mergeSearchResults(vectorResults, performInteractiveVectorSearch(vectorQuery, maxResults, coldPaths),
+                maxResults);
+    }
+
+    /**
+     * Combine two result lists, keeping the best-scored result per location
+     */
+    private List<SearchResult> mergeSearchResults(List<SearchResult> results, List<SearchResult> moreResults,
+            int maxResults) {
+        List<SearchResult> merged = new ArrayList<>(results);
+        merged.addAll(moreResults);
+        return removeDuplicateSearchResults(merged).stream()
+                .sorted((a, b) -> Double.compare(b.getRelevanceScore(), a.getRelevanceScore()))
+                .limit(maxResults)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Query embeddings have a user waiting on them, so they take the interactive embedding slots
+     */
+    private List<SearchResult> performInteractiveVectorSearch(VectorQuery vectorQuery, int maxResults,
+            List<String> filePaths) {
+        return EmbeddingScheduler.callAs(EmbeddingPriority.INTERACTIVE,
+                () -> performVectorSearch(vectorQuery, maxResults, filePaths));
+    }
+
+    /**
+     * Vector search for a query, restricted to the given files when filePaths is not null.
+     * The query is analysed and its store created on the first search only.
+     */
+    private List<SearchResult> performVectorSearch(VectorQuery vectorQuery, int maxResults, List<String> filePaths) {
+        String query = vectorQuery.query;
         System.out.println("🔍 DEBUG: performVectorSearch called with query: '" + query + "', maxResults: " + maxResults);
         System.out.println("🔍 DEBUG: Query keywords being sent to vector database: '" + query + "'");
         
@@ -92,17 +226,29 @@ public class HybridSearchService {
 
         try {
             // Stage 1: Intelligent Framework Analysis using Ollama
-            String intelligentQuery = performIntelligentQueryAnalysis(query);
-            
-            // Only show debug info for non-multi-query expansion
-            if (!intelligentQuery.contains("[MULTI-QUERY-EXPANSION]")) {
-                System.out.println("🧠 Intelligent query analysis:");
-                System.out.println("   Original: \"" + query + "\"");
-                System.out.println("   Enhanced: \"" + intelligentQuery + "\"");
+            if (vectorQuery.enhancedQuery == null) {
+                vectorQuery.enhancedQuery = performIntelligentQueryAnalysis(query);
+                vectorQuery.store = vectorStoreFactory.createSearchVectorStore(indexingService.getCurrentCollectionName());
+
+                // Only show debug info for non-multi-query expansion
+                if (!vectorQuery.enhancedQuery.contains("[MULTI-QUERY-EXPANSION]")) {
+                    System.out.println("🧠 Intelligent query analysis:");
+                    System.out.println("   Original: \"" + query + "\"");
+                    System.out.println("   Enhanced: \"" + vectorQuery.enhancedQuery + "\"");
+                }
             }
-            
+
             // Stage 2: Use the enhanced query for vector search
-            List<Document> documents = searchVectorStore(intelligentQuery, maxResults);
+            List<Document> documents;
+            if (filePaths == null) {
+                documents = searchVectorStore(vectorQuery.store, vectorQuery.enhancedQuery, maxResults, null);
+            } else {
+                // Multi-query results were consumed by the first search; the files are searched with the plain query
+                String searchText = vectorQuery.enhancedQuery.replace(" [MULTI-QUERY-EXPANSION]", "");
+                documents = searchVectorStore(vectorQuery.store, searchText, maxResults,
+                        new FilterExpressionBuilder().in("filepath", new ArrayList<Object>(filePaths)).build());
+            }
+            documents = expandNearDuplicates(documents);
             
             List<SearchResult> results = new ArrayList<>();
             for (Document doc : documents) {
@@ -125,6 +271,55 @@ public class HybridSearchService {
         }
     }
 
+    /**
+     * A query's state across the vector searches of one hybrid search: the enhanced query
+     * from the LLM analysis and a store that embeds it once
+     */
+    private static class VectorQuery {
+        private final String query;
+        private String enhancedQuery;
+        private VectorStore store;
+
+        VectorQuery(String query) {
+            this.query = query;
+        }
+    }
+
+    /**
+     * Add a result for every near-duplicate file or chunk that was stored as an alias
+     * of a returned document instead of being embedded, right after its canonical result
+     */
+    private List<Document> expandNearDuplicates(List<Document> documents) {
+        Map<String, List<DuplicateAlias>> aliases = indexingService.getDuplicateAliases(documents);
+        if (aliases == null || aliases.isEmpty()) {
+            return documents;
+        }
+
+        List<Document> expanded = new ArrayList<>();
+        for (Document document : documents) {
+            expanded.add(document);
+            for (DuplicateAlias alias : aliases.getOrDefault(document.getId(), List.of())) {
+                Map<String, Object> metadata = new HashMap<>(document.getMetadata());
+                metadata.put("filepath", alias.getFilePath());
+                metadata.put("filename", Paths.get(alias.getFilePath()).getFileName().toString());
+                metadata.put("duplicateOf", alias.getCanonicalFilePath());
+                if (alias.getStartLine() != null) {
+                    metadata.put("startLine", alias.getStartLine());
+                }
+                if (alias.getEndLine() != null) {
+                    metadata.put("endLine", alias.getEndLine());
+                }
+                expanded.add(Document.builder()
+                        .text(document.getText())
+                        .metadata(metadata)
+                        .score(document.getScore())
+                        .build());
+            }
+        }
+        System.out.println("🧬 Expanded " + (expanded.size() - documents.size()) + " near-duplicate aliases");
+        return expanded;
+    }
+
     /**
      * Stage 1: Use Ollama to analyze the search query and identify relevant frameworks and terms
      */
@@ -245,7 +440,7 @@ public class HybridSearchService {
      */
     private String createDocumentSignature(Document doc) {
         String filename = (String) doc.getMetadata().getOrDefault("filename", "");
-        String chunk = (String) doc.getMetadata().getOrDefault("chunk", "");
+        String chunk = String.valueOf(doc.getMetadata().getOrDefault("chunk", ""));
         String content = doc.getText().substring(0, Math.min(100, doc.getText().length()));
         return filename + ":" + chunk + ":" + content.hashCode();
     }
@@ -413,9 +608,11 @@ public class HybridSearchService {
     }
 
     /**
-     * Search the vector store with the enhanced query
+     * Search the vector store with the enhanced query, only among the documents matching
+     * the filter when one is given
      */
-    private List<Document> searchVectorStore(String query, int maxResults) {
+    private List<Document> searchVectorStore(VectorStore dynamicVectorStore, String query, int maxResults,
+            Filter.Expression filter) {
         try {
             // Check if we have pre-computed multi-query results
             if (multiQueryResults != null && query.contains("[MULTI-QUERY-EXPANSION]")) {
@@ -458,8 +655,6 @@ public class HybridSearchService {
             }
             */
 
-            VectorStore dynamicVectorStore = vectorStoreFactory.createVectorStore(currentCollection);
-            
             // Perform similarity search with debug
             System.out.println("🔍 Searching in collection: " + currentCollection + " (directory: " + currentDirectory + ")");
             System.out.println("🔍 Search query length: " + query.length() + " chars");
@@ -476,7 +671,7 @@ public class HybridSearchService {
                 System.out.println("🔍 FINAL QUERY TO QDRANT: '" + query + "'");
                 System.out.println("🔍 Collection: " + currentCollection);
                 
-                documents = dynamicVectorStore.similaritySearch(query);
+                documents = similaritySearch(dynamicVectorStore, query, maxResults, filter);
                 System.out.println("📊 Raw vector search found " + documents.size() + " matches");
                 
                 // Apply our alternative ranking system to improve results
@@ -488,7 +683,7 @@ public class HybridSearchService {
                     System.out.println("🔍 No raw results, trying broader search...");
                     String keyTerms = extractKeyTerms(query);
                     if (!keyTerms.equals(query)) {
-                        documents = dynamicVectorStore.similaritySearch(keyTerms);
+                        documents = similaritySearch(dynamicVectorStore, keyTerms, maxResults, filter);
                         if (!documents.isEmpty()) {
                             documents = applyAlternativeRanking(documents, query, maxResults);
                             System.out.println("📊 Broader search + ranking: " + documents.size() + " matches");
@@ -497,7 +692,7 @@ public class HybridSearchService {
                 }
             } catch (Exception e) {
                 System.out.println("❌ Error with alternative ranking, trying basic search: " + e.getMessage());
-                documents = dynamicVectorStore.similaritySearch(query);
+                documents = similaritySearch(dynamicVectorStore, query, maxResults, filter);
             }
             
             System.out.println("📊 Final result: " + documents.size() + " documents");
@@ -513,6 +708,18 @@ public class HybridSearchService {
         }
     }
 
+    private List<Document> similaritySearch(VectorStore vectorStore, String query, int maxResults,
+            Filter.Expression filter) {
+        if (filter == null) {
+            return vectorStore.similaritySearch(query);
+        }
+        return vectorStore.similaritySearch(org.springframework.ai.vectorstore.SearchRequest.builder()
+                .query(query)
+                .topK(maxResults)
+                .filterExpression(filter)
+                .build());
+    }
+
     private void suppressLogging() {
         // Suppress gRPC and Qdrant loggers programmatically
         setLoggerLevel("io.grpc", Level.OFF);
@@ -558,35 +765,30 @@ public class HybridSearchService {
         String content = document.getText();
         
         // Extract line number from metadata if available
-        String lineNumberStr = (String) metadata.get("lineNumber");
+        Integer lineNumber = lineNumberOf(metadata);
         List<FileSearchService.LineMatch> lineMatches = new ArrayList<>();
         
-        if (lineNumberStr != null && !lineNumberStr.isEmpty()) {
-            try {
-                int lineNumber = Integer.parseInt(lineNumberStr);
-                String documentType = (String) metadata.getOrDefault("documentType", "");
-                String elementName = "";
-                
-                switch (documentType) {
-                    case "restApiEndpoint":
-                        elementName = (String) metadata.getOrDefault("endpointName", "");
-                        break;
-                    case "function":
-                        elementName = (String) metadata.getOrDefault("functionName", "");
-                        break;
-                    case "class":
-                        elementName = (String) metadata.getOrDefault("className", "");
-                        break;
-                }
-                
-                if (!elementName.isEmpty()) {
-                    // Extract the main line from content for display
-                    String[] lines = content.split("\n");
-                    String mainLine = lines.length > 2 ? lines[1] : content; // Usually line 1 contains the main definition
-                    lineMatches.add(new FileSearchService.LineMatch(lineNumber, mainLine, elementName));
-                }
-            } catch (NumberFormatException e) {
-                // Ignore invalid line numbers
+        if (lineNumber != null) {
+            String documentType = (String) metadata.getOrDefault("documentType", "");
+            String elementName = "";
+            
+            switch (documentType) {
+                case "restApiEndpoint":
+                    elementName = (String) metadata.getOrDefault("endpointName", "");
+                    break;
+                case "function":
+                    elementName = (String) metadata.getOrDefault("functionName", "");
+                    break;
+                case "class":
+                    elementName = (String) metadata.getOrDefault("className", "");
+                    break;
+            }
+            
+            if (!elementName.isEmpty()) {
+                // Extract the main line from content for display
+                String[] lines = content.split("\n");
+                String mainLine = lines.length > 2 ? lines[1] : content; // Usually line 1 contains the main definition
+                lineMatches.add(new FileSearchService.LineMatch(lineNumber, mainLine, elementName));
             }
         }
 
@@ -636,21 +838,29 @@ public class HybridSearchService {
         }
         
         // If same document type, compare by line number (lower line numbers usually more important)
-        String lineA = (String) a.getMetadata().get("lineNumber");
-        String lineB = (String) b.getMetadata().get("lineNumber");
+        Integer lineA = lineNumberOf(a.getMetadata());
+        Integer lineB = lineNumberOf(b.getMetadata());
         
         if (lineA != null && lineB != null) {
-            try {
-                return Integer.compare(Integer.parseInt(lineA), Integer.parseInt(lineB));
-            } catch (NumberFormatException e) {
-                // Ignore and continue to next comparison
-            }
+            return Integer.compare(lineA, lineB);
         }
         
         // Finally, compare by filename
         return a.getFileName().compareTo(b.getFileName());
     }
 
+    /**
+     * Line number of an element document, stored as an integer; points indexed before
+     * metadata had native types carry it as a string
+     */
+    private static Integer lineNumberOf(Map<String, Object> metadata) {
+        Object value = metadata.get("lineNumber");
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        return value != null && value.toString().matches("-?\\d+") ? Integer.valueOf(value.toString()) : null;
+    }
+
     /**
      * Score document types based on query relevance
      */
@@ -661,7 +871,7 @@ public class HybridSearchService {
                 case "projectAnalysis": return 100;
                 case "frameworkDocumentation": return 90;
                 case "dependencies": return 80;
-                case "summary": return 60;
+                case "summary": case "fileSummary": return 60;
                 default: return 10;
             }
         }
@@ -671,7 +881,7 @@ public class HybridSearchService {
                 case "dependencies": return 100;
                 case "projectAnalysis": return 80;
                 case "frameworkDocumentation": return 60;
-                case "summary": return 40;
+                case "summary": case "fileSummary": return 40;
                 default: return 10;
             }
         }
@@ -683,7 +893,7 @@ public class HybridSearchService {
                 case "frameworkDocumentation": return 100;
                 case "restApiEndpoint": return 90;
                 case "function": return 60;
-                case "summary": return 40;
+                case "summary": case "fileSummary": return 40;
                 default: return 10;
             }
         }
@@ -703,7 +913,7 @@ public class HybridSearchService {
                 case "restApiEndpoint": return 100;
                 case "frameworkDocumentation": return 90;
                 case "function": return 60;
-                case "summary": return 40;
+                case "summary": case "fileSummary": return 40;
                 case "projectAnalysis": return 30;
                 case "class": return 20;
                 default: return 10;
@@ -715,7 +925,7 @@ public class HybridSearchService {
                 case "function": return 100;
                 case "restApiEndpoint": return 80;
                 case "class": return 40;
-                case "summary": return 30;
+                case "summary": case "fileSummary": return 30;
                 default: return 10;
             }
         }
@@ -724,7 +934,7 @@ public class HybridSearchService {
             switch (documentType) {
                 case "class": return 100;
                 case "function": return 60;
-                case "summary": return 50;
+                case "summary": case "fileSummary": return 50;
                 case "restApiEndpoint": return 30;
                 default: return 10;
             }
@@ -733,7 +943,7 @@ public class HybridSearchService {
         // Default scoring when query doesn't match specific patterns
         switch (documentType) {
             case "projectAnalysis": return 85;
-            case "summary": return 80;
+            case "summary": case "fileSummary": return 80;
             case "frameworkDocumentation": return 75;
             case "restApiEndpoint": return 70;
             case "dependencies": return 65;
@@ -805,7 +1015,7 @@ public class HybridSearchService {
             switch (request.getSearchType()) {
                 case SEMANTIC -> {
                     System.out.println("🧠 Performing semantic search...");
-                    vectorResults = performSemanticSearch(request);
+                    vectorResults = EmbeddingScheduler.callAs(EmbeddingPriority.INTERACTIVE, () -> performSemanticSearch(request));
                     if(vectorResults != null){
                         System.out.println("📊 Semantic search completed - " + vectorResults.size() + " results found");
                     }   
@@ -816,7 +1026,7 @@ public class HybridSearchService {
                 }
                 case HYBRID -> {
                     System.out.println("🔄 Performing hybrid search...");
-                    vectorResults = performSemanticSearch(request);
+                    vectorResults = EmbeddingScheduler.callAs(EmbeddingPriority.INTERACTIVE, () -> performSemanticSearch(request));
                     if (vectorResults.size() < request.getLimit() / 2) {
                         fileResults = performTextSearch(request);
                         usedFallback = true;
@@ -911,6 +1121,7 @@ public class HybridSearchService {
                 System.out.println("❌ No documents found in vector search");
                 return new ArrayList<>();
             }
+            rawDocuments = expandNearDuplicates(rawDocuments);
             
             // STEP 3: Extract file paths from vector results for targeted file-based search
             System.out.println("🔍 Performing file-based search on vector result files...");
@@ -1571,7 +1782,15 @@ public class HybridSearchService {
         }
         
         public String getLastModifiedDate() {
-            return (String) metadata.getOrDefault("lastModifiedDate", "Unknown");
+            Object lastModified = metadata.get("lastModified");
+            if (lastModified == null) {
+                return "Unknown";
+            }
+            try {
+                return java.util.Date.from(java.time.Instant.parse(lastModified.toString())).toString();
+            } catch (java.time.format.DateTimeParseException e) {
+                return lastModified.toString();
+            }
         }
         
         public String getIndexedAt() {
@@ -1579,7 +1798,11 @@ public class HybridSearchService {
         }
         
         public String getFileSize() {
-            return (String) metadata.getOrDefault("size", "Unknown");
+            return String.valueOf(metadata.getOrDefault("size", "Unknown"));
+        }
+
+        public IndexTier getIndexTier() {
+            return IndexTier.fromMetadata(metadata);
         }
     }
 
@@ -31,6 +31,12 @@ package sg.edu.nus.iss.codebase.indexer.service;
 
 import org.springframework.ai.document.Document;
 import sg.edu.nus.iss.codebase.indexer.config.DynamicVectorStoreFactory;
+import sg.edu.nus.iss.codebase.indexer.model.EmbeddingPriority;
+import sg.edu.nus.iss.codebase.indexer.model.FileContent;
+import sg.edu.nus.iss.codebase.indexer.scoring.RESTEndpointFeatures;
+import sg.edu.nus.iss.codebase.indexer.service.impl.CollectionAliasManager;
+import sg.edu.nus.iss.codebase.indexer.service.impl.EmbeddingScheduler;
+import sg.edu.nus.iss.codebase.indexer.service.impl.StructureAwareChunker;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -38,10 +44,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.EnableAsync;
 
+import io.qdrant.client.ConditionFactory;
+import io.qdrant.client.PointIdFactory;
 import io.qdrant.client.QdrantClient;
-import io.qdrant.client.grpc.Collections.CreateCollection;
-import io.qdrant.client.grpc.Collections.Distance;
-import io.qdrant.client.grpc.Collections.VectorParams;
+import io.qdrant.client.grpc.Points.Filter;
 import io.qdrant.client.grpc.Collections.CollectionInfo;
 
 import ch.qos.logback.classic.Logger;
@@ -50,6 +56,7 @@ import org.slf4j.LoggerFactory;
 
 import jakarta.annotation.PostConstruct;
 import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -58,6 +65,7 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
@@ -81,6 +89,11 @@ public class IndexingService {
     @Autowired
     private ProjectAnalysisService projectAnalysisService;
 
+    @Autowired
+    private CollectionAliasManager collectionAliasManager;
+
+    private final StructureAwareChunker structureChunker = new StructureAwareChunker();
+
     @Autowired
     @Qualifier("indexingExecutor")
     private Executor indexingExecutor;
@@ -96,6 +109,8 @@ public class IndexingService {
     private final Set<String> indexedFilePaths = ConcurrentHashMap.newKeySet();
     private volatile boolean indexingComplete = false;
     private volatile boolean indexingInProgress = false;
+    private volatile FutureTask<Void> projectAnalysisJob;
+    private volatile CompletableFuture<List<Path>> codebaseListing; // One walk shared by indexing and project analysis
 
     // Enhanced metrics tracking
     private final AtomicInteger activeVirtualThreads = new AtomicInteger(0);
@@ -209,14 +224,15 @@ public class IndexingService {
         try {
             CollectionInfo info = qdrantClient.getCollectionInfoAsync(targetCollectionName).get();
             if (info != null) {
-                // Check if the collection has the right vector dimensions
-                // nomic-embed-text produces 768-dimensional embeddings
+                // Check if the collection has the vector dimensions the embeddings will have
                 var vectorConfig = info.getConfig().getParams().getVectorsConfig();
                 if (vectorConfig.hasParams()) {
                     long dimensions = vectorConfig.getParams().getSize();
-                    if (dimensions != 768) {
+                    int expected = collectionAliasManager.dimensionsFor(targetCollectionName);
+                    // Unknown while the embedding model is unreachable; never delete on a guess
+                    if (expected > 0 && dimensions != expected) {
                         System.out.println("⚠️ Collection " + targetCollectionName + " has wrong dimensions: "
-                                + dimensions + " (expected 768)");
+                                + dimensions + " (expected " + expected + ")");
                         System.out.println("🗑️ Deleting and recreating collection with correct dimensions...");
                         deleteCollection(targetCollectionName);
                         return false; // Will trigger recreation
@@ -259,24 +275,7 @@ public class IndexingService {
     }
 
     private void createCollection(String targetCollectionName) throws Exception {
-        // Create vector parameters for embeddings
-        // nomic-embed-text produces 768-dimensional embeddings
-        VectorParams vectorParams = VectorParams.newBuilder()
-                .setSize(768) // nomic-embed-text embedding dimension
-                .setDistance(Distance.Cosine)
-                .build();
-
-        // Create collection request
-        CreateCollection createCollection = CreateCollection.newBuilder()
-                .setCollectionName(targetCollectionName)
-                .setVectorsConfig(
-                        io.qdrant.client.grpc.Collections.VectorsConfig.newBuilder()
-                                .setParams(vectorParams)
-                                .build())
-                .build();
-
-        // Execute collection creation
-        qdrantClient.createCollectionAsync(createCollection).get();
+        collectionAliasManager.createCollection(targetCollectionName);
     }
 
     /**
@@ -317,17 +316,54 @@ public class IndexingService {
         clearIndexedFilesCache();
     }
 
+    /**
+     * Start project analysis as a background job next to file indexing, replacing any analysis
+     * still running for a previous directory. Its documents are stored once the analysis is ready.
+     */
+    private void startProjectAnalysis() {
+        cancelProjectAnalysis();
+        Path projectPath = Paths.get(indexingDirectory);
+        String targetCollection = collectionName;
+        CompletableFuture<List<Path>> listing = codebaseListing;
+        FutureTask<Void> job = new FutureTask<>(
+                () -> analyzeProjectAndDependencies(projectPath, targetCollection, listing), null);
+        projectAnalysisJob = job;
+        virtualThreadExecutor.execute(job);
+    }
+
+    /**
+     * Cancel a running project analysis; a cancelled analysis stores nothing
+     */
+    public void cancelProjectAnalysis() {
+        FutureTask<Void> job = projectAnalysisJob;
+        if (job != null && !job.isDone()) {
+            job.cancel(true);
+            System.out.println("🛑 Cancelled running project analysis");
+        }
+        projectAnalysisJob = null;
+    }
+
+    public boolean isProjectAnalysisRunning() {
+        FutureTask<Void> job = projectAnalysisJob;
+        return job != null && !job.isDone();
+    }
+
     /**
      * Analyze project type and dependencies, then store in vector database
      */
-    private void analyzeProjectAndDependencies() {
+    private void analyzeProjectAndDependencies(Path projectPath, String targetCollection,
+            CompletableFuture<List<Path>> listing) {
         try {
-            System.out.println("\n🔍 ANALYZING PROJECT TYPE AND DEPENDENCIES");
+            System.out.println("\n🔍 ANALYZING PROJECT TYPE AND DEPENDENCIES (in background)");
             System.out.println("==================================================");
             
-            Path projectPath = Paths.get(indexingDirectory);
+            long analysisStart = System.currentTimeMillis();
+            List<Path> knownFiles = listing != null ? listing.join() : null;
             ProjectAnalysisService.ProjectAnalysis projectAnalysis = 
-                projectAnalysisService.analyzeProject(projectPath);
+                projectAnalysisService.analyzeProject(projectPath, false, knownFiles);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
             
             System.out.println("📁 Project Type: " + projectAnalysis.getProjectType().getDisplayName());
             System.out.println("📦 Dependencies found: " + projectAnalysis.getDependencies().size());
@@ -350,13 +386,24 @@ public class IndexingService {
                 }
             }
             
+            // The stored documents only need rewriting when the analysis changed
+            if (!projectAnalysis.isChanged() && hasProjectAnalysisDocuments(targetCollection)) {
+                System.out.println("✅ Project analysis unchanged, keeping its stored documents");
+                System.out.println("==================================================");
+                return;
+            }
+
             // Create project analysis document for vector storage
-            createProjectAnalysisDocument(projectAnalysis);
+            createProjectAnalysisDocument(projectAnalysis, targetCollection);
             
-            System.out.println("✅ Project analysis completed and stored");
+            System.out.println("✅ Project analysis completed and stored in "
+                    + (System.currentTimeMillis() - analysisStart) + "ms");
             System.out.println("==================================================");
             
         } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
             System.err.println("❌ Error analyzing project: " + e.getMessage());
             e.printStackTrace();
         }
@@ -365,7 +412,8 @@ public class IndexingService {
     /**
      * Create and store project analysis document in vector database
      */
-    private void createProjectAnalysisDocument(ProjectAnalysisService.ProjectAnalysis projectAnalysis) {
+    private void createProjectAnalysisDocument(ProjectAnalysisService.ProjectAnalysis projectAnalysis,
+            String targetCollection) {
         try {
             // Create metadata for project analysis
             Map<String, Object> metadata = new HashMap<>();
@@ -375,8 +423,8 @@ public class IndexingService {
             metadata.put("projectPath", projectAnalysis.getProjectPath());
             metadata.put("dependencyCount", String.valueOf(projectAnalysis.getDependencies().size()));
             metadata.put("frameworkCount", String.valueOf(projectAnalysis.getFrameworks().size()));
-            metadata.put("collectionName", collectionName);
-            metadata.put("indexedAt", new java.util.Date().toString());
+            metadata.put("collectionName", targetCollection);
+            metadata.put("indexedAt", java.time.Instant.now().toString());
             metadata.put("chunk", "project_analysis");
             
             // Add frameworks as comma-separated string for searchability
@@ -388,7 +436,7 @@ public class IndexingService {
             String searchableContent = projectAnalysis.getSearchableSummary();
             
             // Create main project analysis document
-            Document projectDoc = new Document(searchableContent, metadata);
+            Document projectDoc = new Document(projectAnalysisDocumentId(metadata), searchableContent, metadata);
             List<Document> documents = new ArrayList<>();
             documents.add(projectDoc);
             
@@ -424,7 +472,7 @@ public class IndexingService {
                     .collect(Collectors.joining(", "));
                 depMetadata.put("dependencyNames", dependencyNames);
                 
-                documents.add(new Document(depContent.toString(), depMetadata));
+                documents.add(new Document(projectAnalysisDocumentId(depMetadata), depContent.toString(), depMetadata));
             }
             
             // Store framework documentation as separate searchable documents
@@ -439,13 +487,18 @@ public class IndexingService {
                 frameworkMetadata.put("framework", framework);
                 frameworkMetadata.put("chunk", framework.toLowerCase() + "_framework_docs");
                 
-                documents.add(new Document(documentation, frameworkMetadata));
+                documents.add(new Document(projectAnalysisDocumentId(frameworkMetadata), documentation, frameworkMetadata));
                 System.out.println("📚 Stored " + framework + " framework documentation");
             }
             
-            // Store all project analysis documents
-            if (!documents.isEmpty()) {
-                vectorStore.add(documents);
+            // Upsert the new documents over the previous ones, unless the job was cancelled meanwhile;
+            // only once they are stored are the documents this analysis no longer produces removed,
+            // so a failed embed or a late cancel never leaves the collection without project analysis
+            if (!documents.isEmpty() && !Thread.currentThread().isInterrupted()) {
+                VectorStore analysisStore = vectorStoreFactory.createVectorStore(targetCollection);
+                EmbeddingScheduler.runAs(EmbeddingPriority.BULK, () -> analysisStore.add(documents));
+                deleteStaleProjectAnalysisDocuments(targetCollection,
+                        documents.stream().map(Document::getId).toList());
                 System.out.println("📊 Stored project analysis: " + documents.size() + " documents");
             }
             
@@ -454,6 +507,40 @@ public class IndexingService {
         }
     }
 
+    private boolean hasProjectAnalysisDocuments(String targetCollection) {
+        try {
+            Filter filter = Filter.newBuilder()
+                    .addMust(ConditionFactory.matchKeyword("documentType", "projectAnalysis"))
+                    .build();
+            return qdrantClient.countAsync(targetCollection, filter, true).get() > 0;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Stable id per project-analysis document, so re-storing an analysis overwrites its previous points
+     */
+    static String projectAnalysisDocumentId(Map<String, Object> metadata) {
+        String key = "projectAnalysis:" + metadata.get("documentType") + ":" + metadata.get("chunk");
+        return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    private void deleteStaleProjectAnalysisDocuments(String targetCollection, List<String> currentIds) {
+        try {
+            Filter filter = Filter.newBuilder()
+                    .addMust(ConditionFactory.matchKeywords("documentType",
+                            List.of("projectAnalysis", "dependencies", "frameworkDocumentation")))
+                    .addMustNot(ConditionFactory.hasId(currentIds.stream()
+                            .map(id -> PointIdFactory.id(UUID.fromString(id)))
+                            .toList()))
+                    .build();
+            qdrantClient.deleteAsync(targetCollection, filter).get();
+        } catch (Exception e) {
+            System.err.println("⚠️ Warning: Could not remove previous project analysis documents: " + e.getMessage());
+        }
+    }
+
     public void startHybridIndexing() {
         if (indexingInProgress) {
             System.out.println("⚠️ Indexing already in progress");
@@ -463,8 +550,12 @@ public class IndexingService {
         indexingInProgress = true;
         startTime.set(System.currentTimeMillis());
 
-        // Analyze project type and dependencies first
-        analyzeProjectAndDependencies();
+        // List the codebase once for both the indexer and the project analysis
+        codebaseListing = CompletableFuture.supplyAsync(this::listCodebaseFiles, virtualThreadExecutor);
+
+        // Analyze project type and dependencies alongside file indexing; the LLM calls it makes
+        // would otherwise delay the first searchable files
+        startProjectAnalysis();
 
         // Start with priority files first
         indexPriorityFilesAsync();
@@ -612,14 +703,32 @@ public class IndexingService {
         return priorityFiles;
     }
 
-    private List<File> getAllCodebaseFiles() {
-        List<File> allFiles = new ArrayList<>();
-
+    /**
+     * Regular files under the indexing directory, outside excluded directories
+     *
+     * @return the files, or null when the directory could not be walked
+     */
+    private List<Path> listCodebaseFiles() {
         try (Stream<Path> paths = Files.walk(Paths.get(indexingDirectory))) {
-            List<Path> allPaths = paths
+            return paths
                     .filter(Files::isRegularFile)
                     .filter(this::isNotInExcludedDirectory)
                     .toList();
+        } catch (Exception e) {
+            System.err.println("❌ Error scanning codebase in " + indexingDirectory + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private List<File> getAllCodebaseFiles() {
+        List<File> allFiles = new ArrayList<>();
+
+        try {
+            CompletableFuture<List<Path>> listing = codebaseListing;
+            List<Path> allPaths = listing != null ? listing.join() : listCodebaseFiles();
+            if (allPaths == null) {
+                return allFiles;
+            }
 
             // Track skipped file extensions
             for (Path path : allPaths) {
@@ -713,7 +822,7 @@ public class IndexingService {
                     // 2. Sends to nomic-embed-text model for embedding
                     // 3. Converts to vector representation
                     // 4. Stores in Qdrant with metadata in the correct collection
-                    dynamicVectorStore.add(documents);
+                    EmbeddingScheduler.runAs(EmbeddingPriority.BULK, () -> dynamicVectorStore.add(documents));
 
                     indexedFilePaths.add(file.getAbsolutePath());
                     indexedFiles.incrementAndGet();
@@ -774,25 +883,29 @@ public class IndexingService {
                     file.getName().endsWith(".md") ||
                     file.getName().endsWith(".py") ||
                     file.getName().endsWith(".js") ||
-                    file.getName().endsWith(".ts")) {
-
-                // STEP 1a: Read raw text content from file
-                String content = Files.readString(file.toPath());
+                    file.getName().endsWith(".ts") ||
+                    file.getName().endsWith(".kt") ||
+                    file.getName().endsWith(".go") ||
+                    file.getName().endsWith(".cs") ||
+                    file.getName().endsWith(".sql")) {
+
+                // STEP 1a: Read raw text content from file (once, shared with the analyzer)
+                FileContent fileContent = FileContent.read(file);
+                String content = fileContent.getText();
                 
                 // STEP 1b: Analyze file with CodeAnalysisService for intelligent summarization
-                CodeAnalysisService.FileAnalysis analysis = codeAnalysisService.analyzeFile(file.toPath());
+                CodeAnalysisService.FileAnalysis analysis = codeAnalysisService.analyzeFile(fileContent);
                 
                 // STEP 1c: Create metadata for the document
                 Map<String, Object> metadata = new HashMap<>();
                 metadata.put("filename", file.getName());
                 metadata.put("filepath", file.getAbsolutePath());
                 metadata.put("filetype", getFileExtension(file));
-                metadata.put("priority", String.valueOf(getFilePriority(file)));
-                metadata.put("size", String.valueOf(file.length()));
-                metadata.put("lastModified", String.valueOf(file.lastModified()));
-                metadata.put("lastModifiedDate", new java.util.Date(file.lastModified()).toString());
+                metadata.put("priority", getFilePriority(file));
+                metadata.put("size", file.length());
+                metadata.put("lastModified", java.time.Instant.ofEpochMilli(file.lastModified()).toString());
                 metadata.put("collectionName", collectionName);
-                metadata.put("indexedAt", new java.util.Date().toString());
+                metadata.put("indexedAt", java.time.Instant.now().toString());
                 
                 // Add analysis-based metadata
                 metadata.put("restApiEndpointCount", String.valueOf(analysis.getRestApiEndpoints().size()));
@@ -814,7 +927,10 @@ public class IndexingService {
                 for (CodeAnalysisService.CodeElement endpoint : analysis.getRestApiEndpoints()) {
                     Map<String, Object> endpointMetadata = new HashMap<>(metadata);
                     endpointMetadata.put("documentType", "restApiEndpoint");
-                    endpointMetadata.put("lineNumber", String.valueOf(endpoint.getLineNumber()));
+                    endpointMetadata.put("lineNumber", endpoint.getLineNumber());
+                    if (endpoint.getEndLine() > 0) {
+                        endpointMetadata.put("endLine", endpoint.getEndLine());
+                    }
                     endpointMetadata.put("endpointName", endpoint.getName());
                     endpointMetadata.put("chunk", "endpoint_" + endpoint.getLineNumber());
                     
@@ -832,7 +948,10 @@ public class IndexingService {
                 for (CodeAnalysisService.CodeElement function : analysis.getFunctions()) {
                     Map<String, Object> functionMetadata = new HashMap<>(metadata);
                     functionMetadata.put("documentType", "function");
-                    functionMetadata.put("lineNumber", String.valueOf(function.getLineNumber()));
+                    functionMetadata.put("lineNumber", function.getLineNumber());
+                    if (function.getEndLine() > 0) {
+                        functionMetadata.put("endLine", function.getEndLine());
+                    }
                     functionMetadata.put("functionName", function.getName());
                     functionMetadata.put("chunk", "function_" + function.getLineNumber());
                     
@@ -850,7 +969,10 @@ public class IndexingService {
                 for (CodeAnalysisService.CodeElement cls : analysis.getClasses()) {
                     Map<String, Object> classMetadata = new HashMap<>(metadata);
                     classMetadata.put("documentType", "class");
-                    classMetadata.put("lineNumber", String.valueOf(cls.getLineNumber()));
+                    classMetadata.put("lineNumber", cls.getLineNumber());
+                    if (cls.getEndLine() > 0) {
+                        classMetadata.put("endLine", cls.getEndLine());
+                    }
                     classMetadata.put("className", cls.getName());
                     classMetadata.put("chunk", "class_" + cls.getLineNumber());
                     
@@ -865,13 +987,24 @@ public class IndexingService {
                 }
                 
                 // STEP 1h: For large files, still create traditional chunks as fallback
-                if (content.length() > 4000 && documents.size() < 3) {
+                if (content.length() > 4000 && documents.size() < 3 && structureChunker.supports(file)) {
+                    List<StructureAwareChunker.Chunk> chunks = structureChunker.chunk(fileContent, 3000);
+                    for (int i = 0; i < chunks.size(); i++) {
+                        Map<String, Object> chunkMetadata = new HashMap<>(metadata);
+                        chunkMetadata.put("documentType", "chunk");
+                        chunkMetadata.put("chunk", "fallback_" + (i + 1));
+                        chunkMetadata.put("total_chunks", chunks.size());
+                        chunkMetadata.put("startLine", chunks.get(i).getStartLine());
+                        chunkMetadata.put("endLine", chunks.get(i).getEndLine());
+                        documents.add(new Document(chunks.get(i).getText(), chunkMetadata));
+                    }
+                } else if (content.length() > 4000 && documents.size() < 3) {
                     List<String> chunks = splitIntoChunks(content, 3000, 500);
                     for (int i = 0; i < chunks.size(); i++) {
                         Map<String, Object> chunkMetadata = new HashMap<>(metadata);
                         chunkMetadata.put("documentType", "chunk");
                         chunkMetadata.put("chunk", "fallback_" + (i + 1));
-                        chunkMetadata.put("total_chunks", String.valueOf(chunks.size()));
+                        chunkMetadata.put("total_chunks", chunks.size());
                         documents.add(new Document(chunks.get(i), chunkMetadata));
                     }
                 } else if (documents.isEmpty()) {
@@ -882,6 +1015,9 @@ public class IndexingService {
                     documents.add(new Document(content, contentMetadata));
                 }
 
+                // STEP 1i: Store REST endpoint features with each document so scoring reads them back
+                documents.forEach(doc -> RESTEndpointFeatures.extract(doc.getText()).writeTo(doc.getMetadata()));
+
                 System.out.println("📄 Analyzed " + file.getName() + " - Created " + documents.size() + 
                     " documents (" + analysis.getRestApiEndpoints().size() + " endpoints, " + 
                     analysis.getFunctions().size() + " functions, " + analysis.getClasses().size() + " classes)");
@@ -1251,6 +1387,7 @@ public class IndexingService {
     public void restartIndexing() {
         try {
             System.out.println("🔄 Restarting indexing process...");
+            cancelProjectAnalysis();
 
             // Step 1: Delete and recreate the Qdrant collection to remove all old vector
             // data
@@ -1292,6 +1429,7 @@ public class IndexingService {
     public void clearCacheAndReindex() {
         try {
             System.out.println("🗑️ Clearing cache and starting fresh indexing...");
+            cancelProjectAnalysis();
 
             // Step 1: Delete and recreate the Qdrant collection to remove all old vector
             // data
@@ -1414,7 +1552,8 @@ public class IndexingService {
                         var vectorConfig = info.getConfig().getParams().getVectorsConfig();
                         if (vectorConfig.hasParams()) {
                             long dimensions = vectorConfig.getParams().getSize();
-                            if (dimensions != 768) {
+                            int expected = collectionAliasManager.dimensionsFor(collName);
+                            if (expected > 0 && dimensions != expected) {
                                 System.out.println("🗑️ Deleting collection '" + collName + "' with wrong dimensions: "
                                         + dimensions);
                                 qdrantClient.deleteCollectionAsync(collName).get();
@@ -3,14 +3,14 @@ package sg.edu.nus.iss.codebase.indexer.service;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import sg.edu.nus.iss.codebase.indexer.service.impl.LlmResponseCache;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Stream;
 
 /**
  * Service for discovering project types and analyzing dependencies/libraries
@@ -21,6 +21,82 @@ public class ProjectAnalysisService {
     @Autowired
     private ChatModel chatModel;
 
+    @Autowired
+    private LlmResponseCache llmResponseCache;
+
+    // Project types that are a single framework, named after it, rather than identified by AI
+    private static final Set<ProjectType> FRAMEWORK_PROJECT_TYPES = EnumSet.of(
+        ProjectType.REACT, ProjectType.REACT_NATIVE, ProjectType.ANGULAR, ProjectType.VUE,
+        ProjectType.FLUTTER, ProjectType.RUST, ProjectType.GO, ProjectType.CSHARP_DOTNET
+    );
+
+    // Cache key under which the framework identification response is stored
+    private static final String FRAMEWORK_IDENTIFICATION = "framework-identification";
+
+    private static final String FRAMEWORK_DOCUMENTATION_PROMPT = """
+            You are a technical documentation expert. Generate comprehensive documentation for the %1$s framework that will be stored in a vector database for semantic search.
+
+            Please provide:
+
+            1. SYNTAX PATTERNS for creating applications/APIs in %1$s
+            2. COMMON PATTERNS/CONVENTIONS used in %1$s
+            3. PROJECT STRUCTURE and file organization
+            4. CONFIGURATION patterns and setup
+            5. DEPENDENCY MANAGEMENT patterns
+            6. BUILD/COMPILATION patterns
+            7. TESTING patterns
+            8. DEPLOYMENT patterns
+            9. PERFORMANCE best practices
+            10. COMMON LIBRARIES/PACKAGES used with %1$s
+
+            For web frameworks, include:
+            - REST API endpoints and routing
+            - Request/response handling
+            - Authentication/authorization
+            - Database integration
+
+            For mobile frameworks, include:
+            - UI components and layouts
+            - State management
+            - Navigation patterns
+            - Platform-specific features
+
+            Format the response as clear, searchable documentation with specific code examples. Include exact syntax that developers would search for.
+
+            Make it comprehensive but concise. Focus on patterns that developers commonly search for when building applications.
+
+            Framework: %1$s
+            """;
+
+    private static final String FRAMEWORK_IDENTIFICATION_HEADER =
+            "You are an expert software architect. Analyze the following project dependencies and code patterns to identify frameworks and technologies.\n\n";
+
+    private static final String FRAMEWORK_IDENTIFICATION_INSTRUCTIONS = """
+            Please identify:
+            1. WEB FRAMEWORKS (e.g., Flask, Django, Spring Boot, Express, React, Vue, Angular)
+            2. MOBILE FRAMEWORKS (e.g., React Native, Flutter)
+            3. DATABASE FRAMEWORKS (e.g., SQLAlchemy, JPA, Mongoose)
+            4. TESTING FRAMEWORKS (e.g., pytest, JUnit, Jest)
+            5. UI FRAMEWORKS (e.g., Bootstrap, Material-UI, Tailwind)
+            6. BACKEND FRAMEWORKS (e.g., Rust web frameworks, Go frameworks)
+            7. OTHER FRAMEWORKS/LIBRARIES that are commonly used
+            
+            For each framework identified, provide:
+            - Framework name
+            - Framework type (web, mobile, database, testing, ui, etc.)
+            - Confidence level (high/medium/low)
+            
+            Format your response as:
+            FRAMEWORK: [name] | TYPE: [type] | CONFIDENCE: [level]
+            
+            Only include frameworks you are confident about based on the dependencies and code patterns.
+            """;
+
+    // Hashes of the prompt templates, part of every cache key so editing a prompt regenerates its responses
+    private static final String DOCUMENTATION_PROMPT_HASH = LlmResponseCache.hash(FRAMEWORK_DOCUMENTATION_PROMPT);
+    private static final String IDENTIFICATION_PROMPT_HASH =
+            LlmResponseCache.hash(FRAMEWORK_IDENTIFICATION_HEADER + FRAMEWORK_IDENTIFICATION_INSTRUCTIONS);
+
     // Configuration for AI provider preference
     private static final String AI_PROVIDER_PREFERENCE = System.getProperty("ai.provider.preference", "ollama,anthropic");
     
@@ -73,114 +149,196 @@ public class ProjectAnalysisService {
      * Analyze a project directory with option to skip expensive operations for search
      */
     public ProjectAnalysis analyzeProject(Path projectPath, boolean quickAnalysis) throws IOException {
-        ProjectAnalysis analysis = new ProjectAnalysis(projectPath.toString());
+        return analyzeProject(projectPath, quickAnalysis, null);
+    }
+
+    /**
+     * Analyze a project from a single scan of its tree
+     * A full analysis is incremental: detectors whose inputs are unchanged since the stored
+     * snapshot reuse their previous results, and the whole analysis is reused when nothing
+     * changed. {@link ProjectAnalysis#isChanged()} tells whether the result differs from it.
+     *
+     * @param knownFiles the project's files when the indexer has already listed them, or null to walk the tree
+     */
+    public ProjectAnalysis analyzeProject(Path projectPath, boolean quickAnalysis, Collection<Path> knownFiles)
+            throws IOException {
+        ProjectScan scan = ProjectScan.of(projectPath, knownFiles);
         
         // Detect project type based on files and structure
-        ProjectType projectType = detectProjectType(projectPath);
+        ProjectType projectType = detectProjectType(scan);
+        List<Detector> detectors = detectorsFor(projectType, scan);
+        Map<String, String> inputHashes = new TreeMap<>();
+        for (Detector detector : detectors) {
+            inputHashes.put(detector.name, LlmResponseCache.hash(detector.inputs));
+        }
+        String generation = quickAnalysis ? "" : chatModelName() + DOCUMENTATION_PROMPT_HASH + IDENTIFICATION_PROMPT_HASH;
+        inputHashes.put(ProjectAnalysisSnapshot.FULL_INPUTS,
+            LlmResponseCache.hash(projectType + "\n" + inputHashes + "\n" + scan.patternSamples() + "\n" + generation));
+
+        Path snapshotPath = ProjectAnalysisSnapshot.pathFor(projectPath);
+        ProjectAnalysisSnapshot previous = quickAnalysis ? null : ProjectAnalysisSnapshot.load(snapshotPath);
+        // Detector results depend on the project type as well as on their inputs
+        ProjectAnalysisSnapshot reusable = previous != null && previous.getAnalysis().getProjectType() == projectType
+            ? previous : null;
+        if (reusable != null
+                && inputHashes.get(ProjectAnalysisSnapshot.FULL_INPUTS).equals(reusable.inputHash(ProjectAnalysisSnapshot.FULL_INPUTS))) {
+            System.out.println("♻️ Project manifests unchanged, reusing the previous analysis");
+            ProjectAnalysis reused = reusable.getAnalysis();
+            reused.setChanged(false);
+            return reused;
+        }
+        
+        ProjectAnalysis analysis = new ProjectAnalysis(projectPath.toString());
         analysis.setProjectType(projectType);
         
-        // Extract dependencies based on project type
+        // Extract dependencies based on project type; detectors only read the scan, so they run in
+        // parallel, and those whose inputs are unchanged reuse their stored results
+        Map<String, ProjectAnalysis> partials = new ConcurrentHashMap<>();
+        detectors.parallelStream().forEach(detector -> {
+            ProjectAnalysis partial = reusable != null
+                && inputHashes.get(detector.name).equals(reusable.inputHash(detector.name))
+                ? reusable.partial(detector.name) : null;
+            if (partial == null) {
+                partial = new ProjectAnalysis(projectPath.toString());
+                detector.run.accept(partial);
+            }
+            partials.put(detector.name, partial);
+        });
+        partials.values().forEach(analysis::addAll);
+        
+        if (FRAMEWORK_PROJECT_TYPES.contains(projectType)) {
+            analysis.addFramework(projectType.getDisplayName());
+            if (!quickAnalysis) generateFrameworkDocumentation(projectType.getDisplayName(), analysis);
+        } else if (!quickAnalysis) {
+            identifyFrameworksFromDependenciesAndCode(scan, analysis, quickAnalysis);
+        }
+        
+        if (!quickAnalysis) {
+            String signature = ProjectAnalysisSnapshot.signature(analysis);
+            analysis.setChanged(previous == null || !signature.equals(ProjectAnalysisSnapshot.signature(previous.getAnalysis())));
+            if (analysis.isFallbackUsed()) {
+                // Retry the chat model next time instead of reusing fallback documentation
+                inputHashes.remove(ProjectAnalysisSnapshot.FULL_INPUTS);
+            }
+            try {
+                new ProjectAnalysisSnapshot(analysis, inputHashes, partials).save(snapshotPath);
+            } catch (IOException e) {
+                System.err.println("⚠️ Warning: Could not store project analysis snapshot: " + e.getMessage());
+            }
+        }
+        
+        return analysis;
+    }
+
+    /**
+     * Dependency and pattern detectors that apply to a project type
+     */
+    private List<Detector> detectorsFor(ProjectType projectType, ProjectScan scan) {
+        Detector python = new Detector("python",
+            scan.manifest("requirements.txt") + "\u0000" + scan.manifest("setup.py") + "\u0000"
+                + scan.manifest("pyproject.toml") + "\u0000" + new TreeSet<>(scan.imports("python")),
+            analysis -> extractPythonDependencies(scan, analysis));
+        Detector maven = new Detector("maven", scan.manifest("pom.xml"),
+            analysis -> extractMavenDependencies(scan, analysis));
+        Detector gradle = new Detector("gradle", scan.manifest("build.gradle"),
+            analysis -> extractGradleDependencies(scan, analysis));
+        Detector node = new Detector("node", scan.manifest("package.json"),
+            analysis -> extractNodeDependencies(scan, analysis));
+        Detector patterns = new Detector("patterns", new TreeSet<>(scan.getPatternIndicators()).toString(),
+            analysis -> addCodePatterns(scan, analysis));
+        Detector flutter = new Detector("flutter", scan.manifest("pubspec.yaml"),
+            analysis -> addFrameworkIf(extractFlutterDependencies(scan, analysis) && projectType == ProjectType.MIXED, "Flutter", analysis));
+        Detector rust = new Detector("rust", scan.manifest("Cargo.toml"),
+            analysis -> addFrameworkIf(extractRustDependencies(scan, analysis) && projectType == ProjectType.MIXED, "Rust", analysis));
+        Detector go = new Detector("go", scan.manifest("go.mod"),
+            analysis -> addFrameworkIf(extractGoDependencies(scan, analysis) && projectType == ProjectType.MIXED, "Go", analysis));
+        Detector dotnet = new Detector("dotnet", new TreeMap<>(scan.csprojManifests()).toString(),
+            analysis -> addFrameworkIf(extractDotNetDependencies(scan, analysis) && projectType == ProjectType.MIXED, "C#/.NET", analysis));
+
+        List<Detector> detectors = new ArrayList<>();
         switch (projectType) {
             case PYTHON:
-                extractPythonDependencies(projectPath, analysis);
-                if (!quickAnalysis) identifyFrameworksFromDependenciesAndCode(projectPath, analysis, quickAnalysis);
+                detectors.add(python);
                 break;
             case JAVA_MAVEN:
-                extractMavenDependencies(projectPath, analysis);
-                if (!quickAnalysis) identifyFrameworksFromDependenciesAndCode(projectPath, analysis, quickAnalysis);
+                detectors.add(maven);
                 break;
             case JAVA_GRADLE:
-                extractGradleDependencies(projectPath, analysis);
-                if (!quickAnalysis) identifyFrameworksFromDependenciesAndCode(projectPath, analysis, quickAnalysis);
+                detectors.add(gradle);
                 break;
             case JAVASCRIPT_NODE:
-                extractNodeDependencies(projectPath, analysis);
-                if (!quickAnalysis) identifyFrameworksFromDependenciesAndCode(projectPath, analysis, quickAnalysis);
+            case REACT:
+            case REACT_NATIVE:
+            case VUE:
+                detectors.add(node);
                 break;
             case SPRING_BOOT:
-                extractSpringBootDependencies(projectPath, analysis);
-                if (!quickAnalysis) identifyFrameworksFromDependenciesAndCode(projectPath, analysis, quickAnalysis);
+                detectors.addAll(List.of(maven, gradle, patterns));
                 break;
             case FLASK:
-                extractFlaskDependencies(projectPath, analysis);
-                if (!quickAnalysis) identifyFrameworksFromDependenciesAndCode(projectPath, analysis, quickAnalysis);
-                break;
-            case REACT:
-                extractReactDependencies(projectPath, analysis);
-                if (!quickAnalysis) generateFrameworkDocumentation("React", analysis);
-                break;
-            case REACT_NATIVE:
-                extractReactNativeDependencies(projectPath, analysis);
-                if (!quickAnalysis) generateFrameworkDocumentation("React Native", analysis);
+                detectors.addAll(List.of(python, patterns));
                 break;
             case ANGULAR:
-                extractAngularDependencies(projectPath, analysis);
-                if (!quickAnalysis) generateFrameworkDocumentation("Angular", analysis);
-                break;
-            case VUE:
-                extractVueDependencies(projectPath, analysis);
-                if (!quickAnalysis) generateFrameworkDocumentation("Vue.js", analysis);
+                detectors.add(node);
+                detectors.add(new Detector("angular", String.valueOf(scan.manifest("angular.json") != null),
+                    analysis -> extractAngularConfiguration(scan, analysis)));
                 break;
             case FLUTTER:
-                extractFlutterDependencies(projectPath, analysis);
-                if (!quickAnalysis) generateFrameworkDocumentation("Flutter", analysis);
+                detectors.add(flutter);
                 break;
             case RUST:
-                extractRustDependencies(projectPath, analysis);
-                if (!quickAnalysis) generateFrameworkDocumentation("Rust", analysis);
+                detectors.add(rust);
                 break;
             case GO:
-                extractGoDependencies(projectPath, analysis);
-                if (!quickAnalysis) generateFrameworkDocumentation("Go", analysis);
+                detectors.add(go);
                 break;
             case CSHARP_DOTNET:
-                extractDotNetDependencies(projectPath, analysis);
-                if (!quickAnalysis) generateFrameworkDocumentation("C#/.NET", analysis);
+                detectors.add(dotnet);
                 break;
             case MIXED:
-                extractMixedProjectDependencies(projectPath, analysis);
-                if (!quickAnalysis) identifyFrameworksFromDependenciesAndCode(projectPath, analysis, quickAnalysis);
+                // Try all dependency extraction methods for mixed projects; each language's
+                // framework is added when its manifest is present
+                detectors.addAll(List.of(python, node, maven, gradle, rust, go, dotnet, flutter));
                 break;
             default:
                 // For unknown projects, try to detect common patterns
-                extractGenericDependencies(projectPath, analysis);
-                if (!quickAnalysis) identifyFrameworksFromDependenciesAndCode(projectPath, analysis, quickAnalysis);
+                detectors.add(new Detector("generic", scan.getFiles().stream()
+                        .filter(file -> file.getNameCount() <= 3)
+                        .map(file -> file.getFileName().toString())
+                        .sorted().toList().toString(),
+                    analysis -> extractGenericDependencies(scan, analysis)));
                 break;
         }
-        
-        return analysis;
+        return detectors;
     }
 
     /**
-     * Detect project type based on directory structure and key files
+     * One dependency or pattern detector, with the scan content it reads
      */
-    private ProjectType detectProjectType(Path projectPath) throws IOException {
-        Set<String> files = new HashSet<>();
-        Set<String> directories = new HashSet<>();
-        
-        // Scan the project directory for key indicators
-        try (Stream<Path> paths = Files.walk(projectPath, 2)) {
-            paths.forEach(path -> {
-                String name = path.getFileName().toString();
-                if (Files.isDirectory(path)) {
-                    directories.add(name);
-                } else {
-                    files.add(name);
-                }
-            });
-        } catch (IOException e) {
-            // If we can't walk the directory, try to list immediate contents
-            try (Stream<Path> paths = Files.list(projectPath)) {
-                paths.forEach(path -> {
-                    String name = path.getFileName().toString();
-                    if (Files.isDirectory(path)) {
-                        directories.add(name);
-                    } else {
-                        files.add(name);
-                    }
-                });
-            }
+    private static class Detector {
+        private final String name;
+        private final String inputs;
+        private final Consumer<ProjectAnalysis> run;
+
+        Detector(String name, String inputs, Consumer<ProjectAnalysis> run) {
+            this.name = name;
+            this.inputs = String.valueOf(inputs);
+            this.run = run;
+        }
+    }
+
+    private static void addFrameworkIf(boolean present, String framework, ProjectAnalysis analysis) {
+        if (present) {
+            analysis.addFramework(framework);
         }
+    }
+
+    /**
+     * Detect project type based on directory structure and key files
+     */
+    private ProjectType detectProjectType(ProjectScan scan) {
+        Set<String> files = scan.getShallowFileNames();
+        Set<String> directories = scan.getShallowDirectoryNames();
         
         // Check for Flutter (most specific first)
         if (files.contains("pubspec.yaml")) {
@@ -194,24 +352,24 @@ public class ProjectAnalysisService {
         
         // Check for React Native
         if (files.contains("react-native.config.js") || 
-            (files.contains("package.json") && hasReactNativeIndicators(projectPath))) {
+            (files.contains("package.json") && hasReactNativeIndicators(scan))) {
             return ProjectType.REACT_NATIVE;
         }
         
         // Check for Vue.js
         if (files.contains("vue.config.js") || 
-            (files.contains("package.json") && hasVueIndicators(projectPath))) {
+            (files.contains("package.json") && hasVueIndicators(scan))) {
             return ProjectType.VUE;
         }
         
         // Check for React
-        if (files.contains("package.json") && hasReactIndicators(projectPath)) {
+        if (files.contains("package.json") && hasReactIndicators(scan)) {
             return ProjectType.REACT;
         }
         
         // Check for Spring Boot indicators
         if (files.contains("pom.xml") && (
-            hasSpringBootIndicators(projectPath) || 
+            hasSpringBootIndicators(scan) || 
             directories.contains("src") && 
             files.stream().anyMatch(f -> f.contains("Application.java"))
         )) {
@@ -219,14 +377,8 @@ public class ProjectAnalysisService {
         }
         
         // Check for Flask indicators
-        if (files.contains("app.py") || files.contains("main.py")) {
-            try {
-                if (hasFlaskIndicators(projectPath)) {
-                    return ProjectType.FLASK;
-                }
-            } catch (IOException e) {
-                // Continue with other checks
-            }
+        if ((files.contains("app.py") || files.contains("main.py")) && scan.hasFlaskIndicators()) {
+            return ProjectType.FLASK;
         }
         
         // Check for Rust
@@ -302,90 +454,54 @@ public class ProjectAnalysisService {
         return ProjectType.UNKNOWN;
     }
 
-    private boolean hasSpringBootIndicators(Path projectPath) throws IOException {
-        Path pomPath = projectPath.resolve("pom.xml");
-        if (Files.exists(pomPath)) {
-            String pomContent = Files.readString(pomPath);
-            return pomContent.contains("spring-boot") || pomContent.contains("org.springframework");
-        }
-        return false;
+    private boolean hasSpringBootIndicators(ProjectScan scan) {
+        String pomContent = scan.manifest("pom.xml");
+        return pomContent != null && (pomContent.contains("spring-boot") || pomContent.contains("org.springframework"));
     }
 
-    private boolean hasFlaskIndicators(Path projectPath) throws IOException {
-        // Check for Flask imports in Python files
-        try (Stream<Path> paths = Files.walk(projectPath)) {
-            return paths
-                .filter(path -> path.toString().endsWith(".py"))
-                .anyMatch(path -> {
-                    try {
-                        String content = Files.readString(path);
-                        return content.contains("from flask import") || 
-                               content.contains("import flask") ||
-                               content.contains("@app.route");
-                    } catch (IOException e) {
-                        return false;
-                    }
-                });
-        }
+    private boolean hasReactIndicators(ProjectScan scan) {
+        String content = scan.manifest("package.json");
+        return content != null && content.contains("\"react\"") && content.contains("\"react-dom\"") &&
+               !content.contains("\"react-native\"");
     }
 
-    private boolean hasReactIndicators(Path projectPath) throws IOException {
-        Path packageJsonPath = projectPath.resolve("package.json");
-        if (Files.exists(packageJsonPath)) {
-            String content = Files.readString(packageJsonPath);
-            return content.contains("\"react\"") && content.contains("\"react-dom\"") &&
-                   !content.contains("\"react-native\"");
-        }
-        return false;
+    private boolean hasReactNativeIndicators(ProjectScan scan) {
+        String content = scan.manifest("package.json");
+        return content != null && content.contains("\"react-native\"");
     }
 
-    private boolean hasReactNativeIndicators(Path projectPath) throws IOException {
-        Path packageJsonPath = projectPath.resolve("package.json");
-        if (Files.exists(packageJsonPath)) {
-            String content = Files.readString(packageJsonPath);
-            return content.contains("\"react-native\"");
-        }
-        return false;
-    }
-
-    private boolean hasVueIndicators(Path projectPath) throws IOException {
-        Path packageJsonPath = projectPath.resolve("package.json");
-        if (Files.exists(packageJsonPath)) {
-            String content = Files.readString(packageJsonPath);
-            return content.contains("\"vue\"") || content.contains("\"@vue/");
-        }
-        return false;
+    private boolean hasVueIndicators(ProjectScan scan) {
+        String content = scan.manifest("package.json");
+        return content != null && (content.contains("\"vue\"") || content.contains("\"@vue/"));
     }
 
     /**
      * Extract Python dependencies from requirements.txt, setup.py, etc.
      */
-    private void extractPythonDependencies(Path projectPath, ProjectAnalysis analysis) throws IOException {
-        // Extract from requirements.txt
-        Path requirementsPath = projectPath.resolve("requirements.txt");
-        if (Files.exists(requirementsPath)) {
-            extractFromRequirementsTxt(requirementsPath, analysis);
+    private void extractPythonDependencies(ProjectScan scan, ProjectAnalysis analysis) {
+        String requirements = scan.manifest("requirements.txt");
+        if (requirements != null) {
+            extractFromRequirementsTxt(requirements, analysis);
         }
         
-        // Extract from setup.py
-        Path setupPath = projectPath.resolve("setup.py");
-        if (Files.exists(setupPath)) {
-            extractFromSetupPy(setupPath, analysis);
+        String setup = scan.manifest("setup.py");
+        if (setup != null) {
+            extractFromSetupPy(setup, analysis);
         }
         
-        // Extract from pyproject.toml
-        Path pyprojectPath = projectPath.resolve("pyproject.toml");
-        if (Files.exists(pyprojectPath)) {
-            extractFromPyprojectToml(pyprojectPath, analysis);
+        String pyproject = scan.manifest("pyproject.toml");
+        if (pyproject != null) {
+            extractFromPyprojectToml(pyproject, analysis);
         }
         
-        // Scan Python files for import statements
-        scanPythonImports(projectPath, analysis);
+        // Packages imported by the Python files
+        for (String packageName : scan.imports("python")) {
+            analysis.addDependency(new Dependency(packageName, "detected", "python"));
+        }
     }
 
-    private void extractFromRequirementsTxt(Path requirementsPath, ProjectAnalysis analysis) throws IOException {
-        List<String> lines = Files.readAllLines(requirementsPath);
-        for (String line : lines) {
+    private void extractFromRequirementsTxt(String content, ProjectAnalysis analysis) {
+        for (String line : content.lines().toList()) {
             line = line.trim();
             if (!line.isEmpty() && !line.startsWith("#")) {
                 // Extract package name (before version specifiers)
@@ -397,9 +513,7 @@ public class ProjectAnalysisService {
         }
     }
 
-    private void extractFromSetupPy(Path setupPath, ProjectAnalysis analysis) throws IOException {
-        String content = Files.readString(setupPath);
-        
+    private void extractFromSetupPy(String content, ProjectAnalysis analysis) {
         // Extract install_requires dependencies
         Pattern pattern = Pattern.compile("install_requires\\s*=\\s*\\[([^\\]]+)\\]", Pattern.DOTALL);
         Matcher matcher = pattern.matcher(content);
@@ -417,9 +531,7 @@ public class ProjectAnalysisService {
         }
     }
 
-    private void extractFromPyprojectToml(Path pyprojectPath, ProjectAnalysis analysis) throws IOException {
-        String content = Files.readString(pyprojectPath);
-        
+    private void extractFromPyprojectToml(String content, ProjectAnalysis analysis) {
         // Simple TOML parsing for dependencies section
         Pattern pattern = Pattern.compile("dependencies\\s*=\\s*\\[([^\\]]+)\\]", Pattern.DOTALL);
         Matcher matcher = pattern.matcher(content);
@@ -437,71 +549,12 @@ public class ProjectAnalysisService {
         }
     }
 
-    private void scanPythonImports(Path projectPath, ProjectAnalysis analysis) throws IOException {
-        try (Stream<Path> paths = Files.walk(projectPath)) {
-            paths
-                .filter(path -> path.toString().endsWith(".py"))
-                .forEach(path -> {
-                    try {
-                        extractImportsFromPythonFile(path, analysis);
-                    } catch (IOException e) {
-                        // Log error but continue
-                        System.err.println("Error reading Python file: " + path + " - " + e.getMessage());
-                    }
-                });
-        } catch (IOException e) {
-            // Return what we have so far
-        }
-    }
-
-    private void extractImportsFromPythonFile(Path filePath, ProjectAnalysis analysis) throws IOException {
-        List<String> lines = Files.readAllLines(filePath);
-        
-        for (String line : lines) {
-            line = line.trim();
-            
-            // Match "import package" or "from package import ..."
-            if (line.startsWith("import ") || line.startsWith("from ")) {
-                String packageName = extractPackageFromImport(line);
-                if (packageName != null && !isStandardLibrary(packageName)) {
-                    analysis.addDependency(new Dependency(packageName, "detected", "python"));
-                }
-            }
-        }
-    }
-
-    private String extractPackageFromImport(String importLine) {
-        if (importLine.startsWith("import ")) {
-            String packageName = importLine.substring(7).split("\\s+")[0].split("\\.")[0];
-            return packageName.trim();
-        } else if (importLine.startsWith("from ")) {
-            String[] parts = importLine.split("\\s+");
-            if (parts.length >= 2) {
-                return parts[1].split("\\.")[0];
-            }
-        }
-        return null;
-    }
-
-    private boolean isStandardLibrary(String packageName) {
-        // Common Python standard library modules to exclude
-        Set<String> stdLibModules = Set.of(
-            "os", "sys", "json", "re", "datetime", "time", "math", "random",
-            "collections", "itertools", "functools", "operator", "copy",
-            "pickle", "csv", "xml", "html", "urllib", "http", "email",
-            "logging", "unittest", "threading", "multiprocessing", "subprocess",
-            "io", "pathlib", "tempfile", "shutil", "glob", "fnmatch", "sqlite3"
-        );
-        return stdLibModules.contains(packageName);
-    }
-
     /**
      * Extract Maven dependencies from pom.xml
      */
-    private void extractMavenDependencies(Path projectPath, ProjectAnalysis analysis) throws IOException {
-        Path pomPath = projectPath.resolve("pom.xml");
-        if (Files.exists(pomPath)) {
-            String content = Files.readString(pomPath);
+    private void extractMavenDependencies(ProjectScan scan, ProjectAnalysis analysis) {
+        String content = scan.manifest("pom.xml");
+        if (content != null) {
             extractMavenDependenciesFromPom(content, analysis);
         }
     }
@@ -531,10 +584,9 @@ public class ProjectAnalysisService {
     /**
      * Extract Gradle dependencies from build.gradle
      */
-    private void extractGradleDependencies(Path projectPath, ProjectAnalysis analysis) throws IOException {
-        Path buildGradlePath = projectPath.resolve("build.gradle");
-        if (Files.exists(buildGradlePath)) {
-            String content = Files.readString(buildGradlePath);
+    private void extractGradleDependencies(ProjectScan scan, ProjectAnalysis analysis) {
+        String content = scan.manifest("build.gradle");
+        if (content != null) {
             extractGradleDependenciesFromBuild(content, analysis);
         }
     }
@@ -562,13 +614,10 @@ public class ProjectAnalysisService {
     /**
      * Extract Node.js dependencies from package.json
      */
-    private void extractNodeDependencies(Path projectPath, ProjectAnalysis analysis) throws IOException {
-        Path packageJsonPath = projectPath.resolve("package.json");
-        if (Files.exists(packageJsonPath)) {
-            String content = Files.readString(packageJsonPath);
+    private void extractNodeDependencies(ProjectScan scan, ProjectAnalysis analysis) {
+        String content = scan.manifest("package.json");
+        if (content != null) {
             extractNodeDependenciesFromPackageJson(content, analysis);
-            
-            // Framework identification moved to main analysis method to support quick analysis
         }
     }
 
@@ -603,90 +652,38 @@ public class ProjectAnalysisService {
     }
 
     /**
-     * Extract Spring Boot specific dependencies and analyze configuration
-     */
-    private void extractSpringBootDependencies(Path projectPath, ProjectAnalysis analysis) throws IOException {
-        // First extract Maven/Gradle dependencies
-        extractMavenDependencies(projectPath, analysis);
-        extractGradleDependencies(projectPath, analysis);
-        
-        // Framework identification moved to main analysis method to support quick analysis
-        
-        // Scan for additional patterns
-        scanCodePatterns(projectPath, analysis);
-    }
-
-    /**
-     * Extract Flask specific dependencies and analyze configuration
-     */
-    private void extractFlaskDependencies(Path projectPath, ProjectAnalysis analysis) throws IOException {
-        // First extract Python dependencies
-        extractPythonDependencies(projectPath, analysis);
-        
-        // Framework identification moved to main analysis method to support quick analysis
-        
-        // Scan for additional patterns
-        scanCodePatterns(projectPath, analysis);
-    }
-
-    /**
-     * Extract React dependencies from package.json
-     */
-    private void extractReactDependencies(Path projectPath, ProjectAnalysis analysis) throws IOException {
-        extractNodeDependencies(projectPath, analysis); // Reuse Node.js extraction
-        analysis.addFramework("React");
-        generateFrameworkDocumentation("React", analysis);
-    }
-
-    /**
-     * Extract React Native dependencies from package.json
+     * Add framework features indicated by code patterns, supplementing the AI's analysis
      */
-    private void extractReactNativeDependencies(Path projectPath, ProjectAnalysis analysis) throws IOException {
-        extractNodeDependencies(projectPath, analysis); // Reuse Node.js extraction
-        analysis.addFramework("React Native");
-        generateFrameworkDocumentation("React Native", analysis);
+    private void addCodePatterns(ProjectScan scan, ProjectAnalysis analysis) {
+        scan.getPatternIndicators().forEach(analysis::addFramework);
     }
 
     /**
-     * Extract Angular dependencies from package.json and angular.json
+     * Extract Angular-specific configuration from angular.json
      */
-    private void extractAngularDependencies(Path projectPath, ProjectAnalysis analysis) throws IOException {
-        extractNodeDependencies(projectPath, analysis); // Reuse Node.js extraction
-        analysis.addFramework("Angular");
-        generateFrameworkDocumentation("Angular", analysis);
-        
-        // Extract Angular-specific configuration
-        Path angularJsonPath = projectPath.resolve("angular.json");
-        if (Files.exists(angularJsonPath)) {
-            String content = Files.readString(angularJsonPath);
+    private void extractAngularConfiguration(ProjectScan scan, ProjectAnalysis analysis) {
+        if (scan.manifest("angular.json") != null) {
             // Could extract Angular-specific settings here
             analysis.addMetadata("angularConfig", "detected");
         }
     }
 
-    /**
-     * Extract Vue.js dependencies from package.json
-     */
-    private void extractVueDependencies(Path projectPath, ProjectAnalysis analysis) throws IOException {
-        extractNodeDependencies(projectPath, analysis); // Reuse Node.js extraction
-        analysis.addFramework("Vue.js");
-        generateFrameworkDocumentation("Vue.js", analysis);
-    }
-
     /**
      * Extract Flutter dependencies from pubspec.yaml
+     *
+     * @return whether the project has a pubspec.yaml
      */
-    private void extractFlutterDependencies(Path projectPath, ProjectAnalysis analysis) throws IOException {
-        Path pubspecPath = projectPath.resolve("pubspec.yaml");
-        if (Files.exists(pubspecPath)) {
-            extractFromPubspecYaml(pubspecPath, analysis);
+    private boolean extractFlutterDependencies(ProjectScan scan, ProjectAnalysis analysis) {
+        String content = scan.manifest("pubspec.yaml");
+        if (content == null) {
+            return false;
         }
-        analysis.addFramework("Flutter");
-        generateFrameworkDocumentation("Flutter", analysis);
+        extractFromPubspecYaml(content, analysis);
+        return true;
     }
 
-    private void extractFromPubspecYaml(Path pubspecPath, ProjectAnalysis analysis) throws IOException {
-        List<String> lines = Files.readAllLines(pubspecPath);
+    private void extractFromPubspecYaml(String content, ProjectAnalysis analysis) {
+        List<String> lines = content.lines().toList();
         boolean inDependencies = false;
         
         for (String line : lines) {
@@ -716,18 +713,20 @@ public class ProjectAnalysisService {
 
     /**
      * Extract Rust dependencies from Cargo.toml
+     *
+     * @return whether the project has a Cargo.toml
      */
-    private void extractRustDependencies(Path projectPath, ProjectAnalysis analysis) throws IOException {
-        Path cargoPath = projectPath.resolve("Cargo.toml");
-        if (Files.exists(cargoPath)) {
-            extractFromCargoToml(cargoPath, analysis);
+    private boolean extractRustDependencies(ProjectScan scan, ProjectAnalysis analysis) {
+        String content = scan.manifest("Cargo.toml");
+        if (content == null) {
+            return false;
         }
-        analysis.addFramework("Rust");
-        generateFrameworkDocumentation("Rust", analysis);
+        extractFromCargoToml(content, analysis);
+        return true;
     }
 
-    private void extractFromCargoToml(Path cargoPath, ProjectAnalysis analysis) throws IOException {
-        List<String> lines = Files.readAllLines(cargoPath);
+    private void extractFromCargoToml(String content, ProjectAnalysis analysis) {
+        List<String> lines = content.lines().toList();
         boolean inDependencies = false;
         
         for (String line : lines) {
@@ -755,18 +754,20 @@ public class ProjectAnalysisService {
 
     /**
      * Extract Go dependencies from go.mod
+     *
+     * @return whether the project has a go.mod
      */
-    private void extractGoDependencies(Path projectPath, ProjectAnalysis analysis) throws IOException {
-        Path goModPath = projectPath.resolve("go.mod");
-        if (Files.exists(goModPath)) {
-            extractFromGoMod(goModPath, analysis);
+    private boolean extractGoDependencies(ProjectScan scan, ProjectAnalysis analysis) {
+        String content = scan.manifest("go.mod");
+        if (content == null) {
+            return false;
         }
-        analysis.addFramework("Go");
-        generateFrameworkDocumentation("Go", analysis);
+        extractFromGoMod(content, analysis);
+        return true;
     }
 
-    private void extractFromGoMod(Path goModPath, ProjectAnalysis analysis) throws IOException {
-        List<String> lines = Files.readAllLines(goModPath);
+    private void extractFromGoMod(String content, ProjectAnalysis analysis) {
+        List<String> lines = content.lines().toList();
         boolean inRequire = false;
         
         for (String line : lines) {
@@ -798,26 +799,16 @@ public class ProjectAnalysisService {
 
     /**
      * Extract .NET dependencies from .csproj files
+     *
+     * @return whether the project has any .csproj file
      */
-    private void extractDotNetDependencies(Path projectPath, ProjectAnalysis analysis) throws IOException {
-        try (Stream<Path> paths = Files.walk(projectPath)) {
-            paths
-                .filter(path -> path.toString().endsWith(".csproj"))
-                .forEach(path -> {
-                    try {
-                        extractFromCsproj(path, analysis);
-                    } catch (IOException e) {
-                        System.err.println("Error reading .csproj file: " + path + " - " + e.getMessage());
-                    }
-                });
-        }
-        analysis.addFramework("C#/.NET");
-        generateFrameworkDocumentation("C#/.NET", analysis);
+    private boolean extractDotNetDependencies(ProjectScan scan, ProjectAnalysis analysis) {
+        Map<String, String> csprojFiles = scan.csprojManifests();
+        csprojFiles.values().forEach(content -> extractFromCsproj(content, analysis));
+        return !csprojFiles.isEmpty();
     }
 
-    private void extractFromCsproj(Path csprojPath, ProjectAnalysis analysis) throws IOException {
-        String content = Files.readString(csprojPath);
-        
+    private void extractFromCsproj(String content, ProjectAnalysis analysis) {
         // Extract PackageReference elements
         Pattern pattern = Pattern.compile(
             "<PackageReference\\s+Include\\s*=\\s*['\"]([^'\"]+)['\"]\\s*Version\\s*=\\s*['\"]([^'\"]+)['\"]",
@@ -848,29 +839,38 @@ public class ProjectAnalysisService {
     /**
      * Use AI to dynamically identify frameworks from dependencies and code patterns
      */
-    private void identifyFrameworksFromDependenciesAndCode(Path projectPath, ProjectAnalysis analysis, boolean quickAnalysis) {
+    private void identifyFrameworksFromDependenciesAndCode(ProjectScan scan, ProjectAnalysis analysis, boolean quickAnalysis) {
         try {
             // For quick analysis (during search), skip expensive AI operations
             if (quickAnalysis) {
                 // Only do basic pattern detection for search operations
-                fallbackFrameworkDetection(projectPath, analysis);
+                fallbackFrameworkDetection(analysis);
                 return;
             }
             
-            // Create a comprehensive prompt with dependencies and code samples
-            String prompt = createFrameworkIdentificationPrompt(analysis, projectPath);
-            String response = callAIService(prompt);
+            // Create a comprehensive prompt with dependencies and code samples; the rendered prompt
+            // stands in for the version, so the cached answer is reused while its inputs are unchanged
+            String prompt = createFrameworkIdentificationPrompt(analysis, scan);
+            LlmResponseCache.Key key = new LlmResponseCache.Key(FRAMEWORK_IDENTIFICATION,
+                LlmResponseCache.hash(prompt), IDENTIFICATION_PROMPT_HASH, chatModelName());
+            String response = llmResponseCache.get(key);
+            if (response != null) {
+                System.out.println("💾 Reusing cached framework identification");
+            } else {
+                response = callAIService(prompt);
+                llmResponseCache.put(key, response);
+            }
             
             if (response != null && !response.trim().isEmpty()) {
                 parseFrameworkIdentificationResponse(response, analysis);
             } else {
                 // Fallback to basic pattern detection if AI service fails
-                fallbackFrameworkDetection(projectPath, analysis);
+                fallbackFrameworkDetection(analysis);
             }
         } catch (Exception e) {
             System.err.println("❌ Error identifying frameworks with AI providers: " + e.getMessage());
             // Fallback to basic pattern detection
-            fallbackFrameworkDetection(projectPath, analysis);
+            fallbackFrameworkDetection(analysis);
         }
     }
 
@@ -879,11 +879,21 @@ public class ProjectAnalysisService {
      */
     private void generateFrameworkDocumentation(String framework, ProjectAnalysis analysis) {
         try {
+            LlmResponseCache.Key key = new LlmResponseCache.Key(framework, detectedVersion(framework, analysis),
+                DOCUMENTATION_PROMPT_HASH, chatModelName());
+            String documentation = llmResponseCache.get(key);
+            if (documentation != null) {
+                analysis.addFrameworkDocumentation(framework, documentation);
+                System.out.println("💾 Reusing cached " + framework + " documentation");
+                return;
+            }
+            
             String prompt = createFrameworkDocumentationPrompt(framework);
-            String documentation = callAIService(prompt);
+            documentation = callAIService(prompt);
             
             if (documentation != null && !documentation.trim().isEmpty()) {
                 analysis.addFrameworkDocumentation(framework, documentation);
+                llmResponseCache.put(key, documentation);
                 System.out.println("📚 Generated " + framework + " documentation using AI");
             } else {
                 // Fallback to basic documentation if AI service fails
@@ -900,190 +910,68 @@ public class ProjectAnalysisService {
      * Create a comprehensive prompt for framework documentation generation
      */
     private String createFrameworkDocumentationPrompt(String framework) {
-        return String.format("""
-            You are a technical documentation expert. Generate comprehensive documentation for the %s framework that will be stored in a vector database for semantic search.
-
-            Please provide:
-
-            1. SYNTAX PATTERNS for creating applications/APIs in %s
-            2. COMMON PATTERNS/CONVENTIONS used in %s
-            3. PROJECT STRUCTURE and file organization
-            4. CONFIGURATION patterns and setup
-            5. DEPENDENCY MANAGEMENT patterns
-            6. BUILD/COMPILATION patterns
-            7. TESTING patterns
-            8. DEPLOYMENT patterns
-            9. PERFORMANCE best practices
-            10. COMMON LIBRARIES/PACKAGES used with %s
-
-            For web frameworks, include:
-            - REST API endpoints and routing
-            - Request/response handling
-            - Authentication/authorization
-            - Database integration
-
-            For mobile frameworks, include:
-            - UI components and layouts
-            - State management
-            - Navigation patterns
-            - Platform-specific features
-
-            Format the response as clear, searchable documentation with specific code examples. Include exact syntax that developers would search for.
+        return String.format(FRAMEWORK_DOCUMENTATION_PROMPT, framework);
+    }
 
-            Make it comprehensive but concise. Focus on patterns that developers commonly search for when building applications.
+    /**
+     * Version of the dependency a framework comes from, or "unspecified" when none matches
+     * An exact name match wins over a dependency whose name merely contains the framework.
+     */
+    private String detectedVersion(String framework, ProjectAnalysis analysis) {
+        String wanted = framework.toLowerCase().replaceAll("[^a-z0-9]", "");
+        String version = "unspecified";
+        for (Dependency dependency : analysis.getDependencies()) {
+            String name = dependency.getName().toLowerCase();
+            String artifact = name.substring(name.lastIndexOf(':') + 1).replaceAll("[^a-z0-9]", "");
+            if (artifact.equals(wanted)) {
+                return dependency.getVersion();
+            }
+            if (version.equals("unspecified") && name.replaceAll("[^a-z0-9]", "").contains(wanted)) {
+                version = dependency.getVersion();
+            }
+        }
+        return version;
+    }
 
-            Framework: %s
-            """, framework, framework, framework, framework, framework);
+    private String chatModelName() {
+        try {
+            String model = chatModel.getDefaultOptions().getModel();
+            return model != null ? model : chatModel.getClass().getSimpleName();
+        } catch (Exception e) {
+            return chatModel.getClass().getSimpleName();
+        }
     }
 
     /**
      * Create a prompt to identify frameworks from dependencies and code patterns
      */
-    private String createFrameworkIdentificationPrompt(ProjectAnalysis analysis, Path projectPath) {
+    private String createFrameworkIdentificationPrompt(ProjectAnalysis analysis, ProjectScan scan) {
         StringBuilder prompt = new StringBuilder();
-        prompt.append("You are an expert software architect. Analyze the following project dependencies and code patterns to identify frameworks and technologies.\n\n");
+        prompt.append(FRAMEWORK_IDENTIFICATION_HEADER);
         
         // Add dependencies to the prompt
         if (!analysis.getDependencies().isEmpty()) {
             prompt.append("DEPENDENCIES FOUND:\n");
             analysis.getDependencies().stream()
-                .sorted((a, b) -> a.getName().compareTo(b.getName()))
+                .sorted(Comparator.comparing(Dependency::getName).thenComparing(Dependency::getLanguage))
                 .forEach(dep -> prompt.append("- ").append(dep.getName())
                     .append(" (").append(dep.getLanguage()).append(")\n"));
             prompt.append("\n");
         }
         
         // Add code patterns to the prompt
-        String codePatterns = extractCodePatternsForAnalysis(projectPath);
+        String codePatterns = scan.patternSamples();
         if (!codePatterns.isEmpty()) {
             prompt.append("CODE PATTERNS FOUND:\n");
             prompt.append(codePatterns);
             prompt.append("\n");
         }
         
-        prompt.append("""
-            Please identify:
-            1. WEB FRAMEWORKS (e.g., Flask, Django, Spring Boot, Express, React, Vue, Angular)
-            2. MOBILE FRAMEWORKS (e.g., React Native, Flutter)
-            3. DATABASE FRAMEWORKS (e.g., SQLAlchemy, JPA, Mongoose)
-            4. TESTING FRAMEWORKS (e.g., pytest, JUnit, Jest)
-            5. UI FRAMEWORKS (e.g., Bootstrap, Material-UI, Tailwind)
-            6. BACKEND FRAMEWORKS (e.g., Rust web frameworks, Go frameworks)
-            7. OTHER FRAMEWORKS/LIBRARIES that are commonly used
-            
-            For each framework identified, provide:
-            - Framework name
-            - Framework type (web, mobile, database, testing, ui, etc.)
-            - Confidence level (high/medium/low)
-            
-            Format your response as:
-            FRAMEWORK: [name] | TYPE: [type] | CONFIDENCE: [level]
-            
-            Only include frameworks you are confident about based on the dependencies and code patterns.
-            """);
+        prompt.append(FRAMEWORK_IDENTIFICATION_INSTRUCTIONS);
         
         return prompt.toString();
     }
 
-    /**
-     * Extract relevant code patterns for framework identification
-     */
-    private String extractCodePatternsForAnalysis(Path projectPath) {
-        StringBuilder patterns = new StringBuilder();
-        
-        try (Stream<Path> paths = Files.walk(projectPath)) {
-            paths
-                .filter(path -> isRelevantCodeFile(path))
-                .limit(10) // Limit to avoid overwhelming the prompt
-                .forEach(path -> {
-                    try {
-                        String content = Files.readString(path);
-                        String relevantPatterns = extractRelevantPatternsFromFile(content, path);
-                        if (!relevantPatterns.isEmpty()) {
-                            patterns.append("File: ").append(path.getFileName()).append("\n");
-                            patterns.append(relevantPatterns).append("\n");
-                        }
-                    } catch (IOException e) {
-                        // Continue with other files
-                    }
-                });
-        } catch (IOException e) {
-            // Return what we have so far
-        }
-        
-        return patterns.toString();
-    }
-
-    private boolean isRelevantCodeFile(Path path) {
-        String fileName = path.getFileName().toString().toLowerCase();
-        return fileName.endsWith(".py") || fileName.endsWith(".java") || 
-               fileName.endsWith(".js") || fileName.endsWith(".ts") ||
-               fileName.endsWith(".jsx") || fileName.endsWith(".tsx") ||
-               fileName.endsWith(".rs") || fileName.endsWith(".go") ||
-               fileName.endsWith(".cs") || fileName.endsWith(".dart") ||
-               fileName.equals("requirements.txt") || fileName.equals("pom.xml") ||
-               fileName.equals("package.json") || fileName.equals("cargo.toml") ||
-               fileName.equals("go.mod") || fileName.equals("pubspec.yaml");
-    }
-
-    private String extractRelevantPatternsFromFile(String content, Path path) {
-        StringBuilder patterns = new StringBuilder();
-        String fileName = path.getFileName().toString().toLowerCase();
-        
-        // Extract imports and annotations
-        String[] lines = content.split("\n");
-        for (String line : lines) {
-            line = line.trim();
-            
-            // Python imports and decorators
-            if (fileName.endsWith(".py")) {
-                if (line.startsWith("from ") || line.startsWith("import ") || line.startsWith("@")) {
-                    patterns.append(line).append("\n");
-                }
-            }
-            // Java annotations and imports
-            else if (fileName.endsWith(".java")) {
-                if (line.startsWith("import ") || line.startsWith("@")) {
-                    patterns.append(line).append("\n");
-                }
-            }
-            // JavaScript/TypeScript imports
-            else if (fileName.endsWith(".js") || fileName.endsWith(".ts") || 
-                     fileName.endsWith(".jsx") || fileName.endsWith(".tsx")) {
-                if (line.startsWith("import ") || line.startsWith("const ") || 
-                    line.startsWith("require(")) {
-                    patterns.append(line).append("\n");
-                }
-            }
-            // Rust use statements
-            else if (fileName.endsWith(".rs")) {
-                if (line.startsWith("use ") || line.startsWith("extern crate")) {
-                    patterns.append(line).append("\n");
-                }
-            }
-            // Go imports
-            else if (fileName.endsWith(".go")) {
-                if (line.startsWith("import ") || line.startsWith("package ")) {
-                    patterns.append(line).append("\n");
-                }
-            }
-            // C# using statements
-            else if (fileName.endsWith(".cs")) {
-                if (line.startsWith("using ") || line.startsWith("[")) {
-                    patterns.append(line).append("\n");
-                }
-            }
-            // Dart imports
-            else if (fileName.endsWith(".dart")) {
-                if (line.startsWith("import ") || line.startsWith("export ")) {
-                    patterns.append(line).append("\n");
-                }
-            }
-        }
-        
-        return patterns.toString();
-    }
-
     /**
      * Parse AI's framework identification response
      */
@@ -1126,7 +1014,8 @@ public class ProjectAnalysisService {
     /**
      * Fallback framework detection when AI is unavailable
      */
-    private void fallbackFrameworkDetection(Path projectPath, ProjectAnalysis analysis) {
+    private void fallbackFrameworkDetection(ProjectAnalysis analysis) {
+        analysis.setFallbackUsed(true);
         Set<Dependency> dependencies = analysis.getDependencies();
         
         // Simple keyword-based detection for common frameworks
@@ -1215,84 +1104,10 @@ public class ProjectAnalysisService {
         }
         
         analysis.addFrameworkDocumentation(framework, documentation);
+        analysis.setFallbackUsed(true);
         System.out.println("📚 Generated fallback documentation for " + framework);
     }
 
-    /**
-     * Generic method to scan for additional code patterns
-     */
-    private void scanCodePatterns(Path projectPath, ProjectAnalysis analysis) throws IOException {
-        try (Stream<Path> paths = Files.walk(projectPath)) {
-            paths
-                .filter(path -> isRelevantCodeFile(path))
-                .forEach(path -> {
-                    try {
-                        String content = Files.readString(path);
-                        extractAdditionalPatternsFromFile(content, analysis);
-                    } catch (IOException e) {
-                        // Continue with other files
-                    }
-                });
-        }
-    }
-
-    /**
-     * Extract additional patterns that might indicate specific framework features
-     */
-    private void extractAdditionalPatternsFromFile(String content, ProjectAnalysis analysis) {
-        // These are additional pattern indicators that can supplement AI's analysis
-        if (content.contains("@app.route")) {
-            analysis.addFramework("Flask Routing");
-        }
-        if (content.contains("render_template")) {
-            analysis.addFramework("Flask Templates");
-        }
-        if (content.contains("request.get_json")) {
-            analysis.addFramework("Flask JSON API");
-        }
-        if (content.contains("SQLAlchemy") || content.contains("db.Model")) {
-            analysis.addFramework("Flask-SQLAlchemy");
-        }
-        if (content.contains("@RestController") || content.contains("@Controller")) {
-            analysis.addFramework("Spring MVC");
-        }
-        if (content.contains("@Repository")) {
-            analysis.addFramework("Spring Data");
-        }
-        if (content.contains("@Service")) {
-            analysis.addFramework("Spring Core");
-        }
-        if (content.contains("@EnableJpaRepositories")) {
-            analysis.addFramework("Spring Data JPA");
-        }
-        if (content.contains("@EnableWebSecurity")) {
-            analysis.addFramework("Spring Security");
-        }
-        // React patterns
-        if (content.contains("useState") || content.contains("useEffect")) {
-            analysis.addFramework("React Hooks");
-        }
-        if (content.contains("React.Component") || content.contains("Component")) {
-            analysis.addFramework("React Components");
-        }
-        // Angular patterns
-        if (content.contains("@Component") || content.contains("@Injectable")) {
-            analysis.addFramework("Angular Core");
-        }
-        // Flutter patterns
-        if (content.contains("StatelessWidget") || content.contains("StatefulWidget")) {
-            analysis.addFramework("Flutter Widgets");
-        }
-        // Rust patterns
-        if (content.contains("actix_web") || content.contains("warp") || content.contains("rocket")) {
-            analysis.addFramework("Rust Web Framework");
-        }
-        // Go patterns
-        if (content.contains("http.HandleFunc") || content.contains("gin.Default")) {
-            analysis.addFramework("Go Web Framework");
-        }
-    }
-
     private String extractVersion(String dependencyString) {
         Pattern pattern = Pattern.compile("[>=<!=]+([0-9.]+)");
         Matcher matcher = pattern.matcher(dependencyString);
@@ -1341,13 +1156,16 @@ public class ProjectAnalysisService {
         private final Set<String> frameworks;
         private final Map<String, String> metadata;
         private final Map<String, String> frameworkDocumentation;
+        private volatile boolean changed = true;
+        private volatile boolean fallbackUsed = false;
 
         public ProjectAnalysis(String projectPath) {
             this.projectPath = projectPath;
-            this.dependencies = new HashSet<>();
-            this.frameworks = new HashSet<>();
-            this.metadata = new HashMap<>();
-            this.frameworkDocumentation = new HashMap<>();
+            // Concurrent, since detectors fill them in parallel
+            this.dependencies = ConcurrentHashMap.newKeySet();
+            this.frameworks = ConcurrentHashMap.newKeySet();
+            this.metadata = new ConcurrentHashMap<>();
+            this.frameworkDocumentation = new ConcurrentHashMap<>();
         }
 
         public void setProjectType(ProjectType projectType) {
@@ -1370,6 +1188,34 @@ public class ProjectAnalysisService {
             this.metadata.put(key, value);
         }
 
+        /**
+         * Add the dependencies, frameworks and metadata another analysis found
+         */
+        public void addAll(ProjectAnalysis other) {
+            this.dependencies.addAll(other.dependencies);
+            this.frameworks.addAll(other.frameworks);
+            this.metadata.putAll(other.metadata);
+        }
+
+        /**
+         * Whether this analysis differs from the previous one stored for the project
+         */
+        public boolean isChanged() {
+            return changed;
+        }
+
+        public void setChanged(boolean changed) {
+            this.changed = changed;
+        }
+
+        boolean isFallbackUsed() {
+            return fallbackUsed;
+        }
+
+        void setFallbackUsed(boolean fallbackUsed) {
+            this.fallbackUsed = fallbackUsed;
+        }
+
         // Getters
         public String getProjectPath() { return projectPath; }
         public ProjectType getProjectType() { return projectType; }
@@ -1388,7 +1234,7 @@ public class ProjectAnalysisService {
             sb.append("Project Path: ").append(projectPath).append("\n\n");
             
             if (!frameworks.isEmpty()) {
-                sb.append("Frameworks: ").append(String.join(", ", frameworks)).append("\n\n");
+                sb.append("Frameworks: ").append(String.join(", ", new TreeSet<>(frameworks))).append("\n\n");
             }
             
             if (!dependencies.isEmpty()) {
@@ -1441,45 +1287,24 @@ public class ProjectAnalysisService {
         }
     }
 
-    /**
-     * Extract dependencies for mixed projects
-     */
-    private void extractMixedProjectDependencies(Path projectPath, ProjectAnalysis analysis) {
-        // Try all dependency extraction methods for mixed projects
-        try {
-            extractPythonDependencies(projectPath, analysis);
-            extractNodeDependencies(projectPath, analysis);
-            extractMavenDependencies(projectPath, analysis);
-            extractGradleDependencies(projectPath, analysis);
-            extractRustDependencies(projectPath, analysis);
-            extractGoDependencies(projectPath, analysis);
-            extractDotNetDependencies(projectPath, analysis);
-            extractFlutterDependencies(projectPath, analysis);
-        } catch (IOException e) {
-            System.err.println("Error extracting mixed project dependencies: " + e.getMessage());
-        }
-    }
-
     /**
      * Extract generic dependencies when project type is unknown
      */
-    private void extractGenericDependencies(Path projectPath, ProjectAnalysis analysis) {
-        // Use pattern matching to find common dependency files
-        try (Stream<Path> files = Files.walk(projectPath, 3)) {
-            files.filter(Files::isRegularFile)
-                 .forEach(file -> {
-                     String fileName = file.getFileName().toString().toLowerCase();
-                     if (fileName.contains("requirement") || fileName.contains("package") || 
-                         fileName.contains("dependency") || fileName.contains("lock")) {
-                         analysis.getDependencies().add(new Dependency(
-                             "Generic dependency file: " + fileName, 
-                             "unknown", 
-                             "unknown"
-                         ));
-                     }
-                 });
-        } catch (IOException e) {
-            System.err.println("Error scanning for generic dependencies: " + e.getMessage());
+    private void extractGenericDependencies(ProjectScan scan, ProjectAnalysis analysis) {
+        // Use pattern matching to find common dependency files near the root
+        for (Path file : scan.getFiles()) {
+            if (file.getNameCount() > 3) {
+                continue;
+            }
+            String fileName = file.getFileName().toString().toLowerCase();
+            if (fileName.contains("requirement") || fileName.contains("package") || 
+                fileName.contains("dependency") || fileName.contains("lock")) {
+                analysis.addDependency(new Dependency(
+                    "Generic dependency file: " + fileName, 
+                    "unknown", 
+                    "unknown"
+                ));
+            }
         }
     }
 
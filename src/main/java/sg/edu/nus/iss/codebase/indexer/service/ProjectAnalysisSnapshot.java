@@ -0,0 +1,187 @@
+package sg.edu.nus.iss.codebase.indexer.service;
+
+import sg.edu.nus.iss.codebase.indexer.service.impl.LlmResponseCache;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Last project analysis of a directory, persisted with the hashes of the inputs each detector
+ * read (manifest contents, import sets, code patterns). A detector whose inputs hash the same is
+ * not run again, and when nothing changed the whole analysis, framework documentation included,
+ * is reused. The signature tells whether a new analysis differs from the stored one.
+ */
+public class ProjectAnalysisSnapshot {
+
+    private static final int FORMAT_VERSION = 1;
+    static final String FULL_INPUTS = "*"; // Hash over every input, including the identification prompt's
+
+    private final ProjectAnalysisService.ProjectAnalysis analysis;
+    private final Map<String, String> inputHashes;
+    private final Map<String, ProjectAnalysisService.ProjectAnalysis> partials;
+
+    public ProjectAnalysisSnapshot(ProjectAnalysisService.ProjectAnalysis analysis, Map<String, String> inputHashes,
+            Map<String, ProjectAnalysisService.ProjectAnalysis> partials) {
+        this.analysis = analysis;
+        this.inputHashes = inputHashes;
+        this.partials = partials;
+    }
+
+    /**
+     * Where the snapshot of a project directory is kept, next to the other index state files
+     */
+    public static Path pathFor(Path projectPath) {
+        String key = LlmResponseCache.hash(projectPath.toAbsolutePath().normalize().toString()).substring(0, 16);
+        return Paths.get(".project_analysis_" + key + ".properties");
+    }
+
+    public ProjectAnalysisService.ProjectAnalysis getAnalysis() {
+        return analysis;
+    }
+
+    public String inputHash(String detector) {
+        return inputHashes.get(detector);
+    }
+
+    /**
+     * What one detector contributed, or null when it did not run for this snapshot
+     */
+    public ProjectAnalysisService.ProjectAnalysis partial(String detector) {
+        return partials.get(detector);
+    }
+
+    /**
+     * Hash of everything the analysis reports, independent of the order it was collected in
+     */
+    public static String signature(ProjectAnalysisService.ProjectAnalysis analysis) {
+        StringBuilder content = new StringBuilder();
+        content.append(analysis.getProjectType()).append('\n');
+        analysis.getDependencies().stream().map(ProjectAnalysisSnapshot::formatDependency).sorted()
+                .forEach(line -> content.append(line).append('\n'));
+        analysis.getFrameworks().stream().sorted().forEach(framework -> content.append(framework).append('\n'));
+        new TreeMap<>(analysis.getMetadata()).forEach((key, value) -> content.append(key).append('=').append(value).append('\n'));
+        new TreeMap<>(analysis.getFrameworkDocumentation())
+                .forEach((framework, documentation) -> content.append(framework).append('\n').append(documentation).append('\n'));
+        return LlmResponseCache.hash(content.toString());
+    }
+
+    /**
+     * @return the stored snapshot, or null when there is none or it cannot be read
+     */
+    public static ProjectAnalysisSnapshot load(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+            if (!String.valueOf(FORMAT_VERSION).equals(properties.getProperty("format"))) {
+                return null;
+            }
+            String projectPath = properties.getProperty("projectPath");
+            ProjectAnalysisService.ProjectType projectType =
+                    ProjectAnalysisService.ProjectType.valueOf(properties.getProperty("projectType"));
+
+            Map<String, String> inputHashes = new HashMap<>();
+            Map<String, ProjectAnalysisService.ProjectAnalysis> partials = new HashMap<>();
+            for (String name : properties.stringPropertyNames()) {
+                if (name.startsWith("inputs.")) {
+                    String detector = name.substring("inputs.".length());
+                    inputHashes.put(detector, properties.getProperty(name));
+                    if (!FULL_INPUTS.equals(detector)) {
+                        ProjectAnalysisService.ProjectAnalysis partial = new ProjectAnalysisService.ProjectAnalysis(projectPath);
+                        readContents(properties, "partial." + detector + ".", partial);
+                        partials.put(detector, partial);
+                    }
+                }
+            }
+
+            ProjectAnalysisService.ProjectAnalysis analysis = new ProjectAnalysisService.ProjectAnalysis(projectPath);
+            analysis.setProjectType(projectType);
+            readContents(properties, "analysis.", analysis);
+            int documents = Integer.parseInt(properties.getProperty("documentation.count", "0"));
+            for (int i = 0; i < documents; i++) {
+                analysis.addFrameworkDocumentation(properties.getProperty("documentation." + i + ".framework"),
+                        properties.getProperty("documentation." + i + ".text"));
+            }
+            return new ProjectAnalysisSnapshot(analysis, inputHashes, partials);
+        } catch (Exception e) {
+            System.err.println("⚠️ Warning: Ignoring unreadable project analysis snapshot " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    public void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("format", String.valueOf(FORMAT_VERSION));
+        properties.setProperty("projectPath", analysis.getProjectPath());
+        properties.setProperty("projectType", analysis.getProjectType().name());
+        properties.setProperty("signature", signature(analysis));
+        inputHashes.forEach((detector, hash) -> properties.setProperty("inputs." + detector, hash));
+        partials.forEach((detector, partial) -> writeContents(properties, "partial." + detector + ".", partial));
+        writeContents(properties, "analysis.", analysis);
+        List<Map.Entry<String, String>> documentation = new ArrayList<>(new TreeMap<>(analysis.getFrameworkDocumentation()).entrySet());
+        properties.setProperty("documentation.count", String.valueOf(documentation.size()));
+        for (int i = 0; i < documentation.size(); i++) {
+            properties.setProperty("documentation." + i + ".framework", documentation.get(i).getKey());
+            properties.setProperty("documentation." + i + ".text", documentation.get(i).getValue());
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            properties.store(writer, "Project analysis of " + analysis.getProjectPath());
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeContents(Properties properties, String prefix, ProjectAnalysisService.ProjectAnalysis analysis) {
+        properties.setProperty(prefix + "dependencies", joinSorted(analysis.getDependencies().stream()
+                .map(ProjectAnalysisSnapshot::formatDependency).toList()));
+        properties.setProperty(prefix + "frameworks", joinSorted(analysis.getFrameworks()));
+        properties.setProperty(prefix + "metadata", joinSorted(analysis.getMetadata().entrySet().stream()
+                .map(entry -> entry.getKey() + "\t" + entry.getValue()).toList()));
+    }
+
+    private static void readContents(Properties properties, String prefix, ProjectAnalysisService.ProjectAnalysis analysis) {
+        for (String line : lines(properties.getProperty(prefix + "dependencies"))) {
+            String[] parts = line.split("\t", 3);
+            if (parts.length == 3) {
+                analysis.addDependency(new ProjectAnalysisService.Dependency(parts[0], parts[1], parts[2]));
+            }
+        }
+        for (String framework : lines(properties.getProperty(prefix + "frameworks"))) {
+            analysis.addFramework(framework);
+        }
+        for (String line : lines(properties.getProperty(prefix + "metadata"))) {
+            String[] parts = line.split("\t", 2);
+            if (parts.length == 2) {
+                analysis.addMetadata(parts[0], parts[1]);
+            }
+        }
+    }
+
+    private static String formatDependency(ProjectAnalysisService.Dependency dependency) {
+        return dependency.getName() + "\t" + dependency.getVersion() + "\t" + dependency.getLanguage();
+    }
+
+    private static String joinSorted(Collection<String> values) {
+        return String.join("\n", values.stream().sorted().toList());
+    }
+
+    private static List<String> lines(String value) {
+        return value == null || value.isEmpty() ? List.of() : List.of(value.split("\n"));
+    }
+}
@@ -0,0 +1,385 @@
+package sg.edu.nus.iss.codebase.indexer.service;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Everything project analysis reads from a project tree, collected in one pass
+ * Each file is listed once (or taken from a listing the indexer already made) and each relevant
+ * file is read once, in parallel; detectors then work on the manifest contents, import sets,
+ * pattern samples and indicators gathered here instead of walking the tree again.
+ */
+public class ProjectScan {
+
+    static final int MAX_PATTERN_SAMPLES = 10;
+    private static final long MAX_FILE_SIZE = 1024 * 1024;
+
+    private static final Set<String> EXCLUDED_DIRECTORIES = Set.of(
+        "target", ".git", "node_modules", ".idea", ".vscode"
+    );
+
+    private static final Set<String> ROOT_MANIFESTS = Set.of(
+        "requirements.txt", "setup.py", "pyproject.toml", "pom.xml", "build.gradle",
+        "package.json", "angular.json", "pubspec.yaml", "Cargo.toml", "go.mod"
+    );
+
+    private static final Set<String> PYTHON_STANDARD_LIBRARY = Set.of(
+        "os", "sys", "json", "re", "datetime", "time", "math", "random",
+        "collections", "itertools", "functools", "operator", "copy",
+        "pickle", "csv", "xml", "html", "urllib", "http", "email",
+        "logging", "unittest", "threading", "multiprocessing", "subprocess",
+        "io", "pathlib", "tempfile", "shutil", "glob", "fnmatch", "sqlite3"
+    );
+
+    private final Path root;
+    private final List<Path> files; // Relative to root, in listing order
+    private final Set<String> shallowFileNames = new HashSet<>();
+    private final Set<String> shallowDirectoryNames = new HashSet<>();
+    private final Map<String, String> manifests = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> importsByLanguage = new ConcurrentHashMap<>();
+    private final Set<String> patternIndicators = ConcurrentHashMap.newKeySet();
+    private final List<String> patternSamples;
+    private volatile boolean flaskIndicators = false;
+
+    private ProjectScan(Path root, List<Path> files) {
+        this.root = root;
+        this.files = files;
+        this.patternSamples = new ArrayList<>();
+    }
+
+    /**
+     * Scan a project, walking it unless the files in it are already known
+     *
+     * @param knownFiles absolute or root-relative paths of the project's files, or null to walk
+     */
+    public static ProjectScan of(Path root, Collection<Path> knownFiles) throws IOException {
+        List<Path> relative = new ArrayList<>();
+        if (knownFiles != null) {
+            Path absoluteRoot = root.toAbsolutePath().normalize();
+            for (Path file : knownFiles) {
+                Path absolute = file.isAbsolute() || file.startsWith(root)
+                        ? file.toAbsolutePath().normalize()
+                        : absoluteRoot.resolve(file).normalize();
+                if (!absolute.startsWith(absoluteRoot)) {
+                    continue;
+                }
+                Path path = absoluteRoot.relativize(absolute);
+                if (!isExcluded(path)) {
+                    relative.add(path);
+                }
+            }
+        } else {
+            relative.addAll(walk(root));
+        }
+        ProjectScan scan = new ProjectScan(root, relative);
+        scan.collect();
+        return scan;
+    }
+
+    private static List<Path> walk(Path root) throws IOException {
+        List<Path> found = new ArrayList<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(root) && EXCLUDED_DIRECTORIES.contains(dir.getFileName().toString())) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile()) {
+                    found.add(root.relativize(file));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return found;
+    }
+
+    private static boolean isExcluded(Path relative) {
+        for (Path segment : relative) {
+            if (EXCLUDED_DIRECTORIES.contains(segment.toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void collect() {
+        for (Path file : files) {
+            int depth = file.getNameCount();
+            if (depth <= 2) {
+                shallowFileNames.add(file.getFileName().toString());
+            }
+            for (int i = 0; i < Math.min(depth - 1, 2); i++) {
+                shallowDirectoryNames.add(file.getName(i).toString());
+            }
+        }
+
+        String[] samples = new String[files.size()];
+        IntStream.range(0, files.size()).parallel().forEach(i -> samples[i] = read(files.get(i)));
+
+        int sampled = 0;
+        for (int i = 0; i < files.size() && sampled < MAX_PATTERN_SAMPLES; i++) {
+            if (samples[i] == null) {
+                continue;
+            }
+            sampled++;
+            if (!samples[i].isEmpty()) {
+                patternSamples.add("File: " + files.get(i).getFileName() + "\n" + samples[i]);
+            }
+        }
+    }
+
+    /**
+     * Read one file and record what it contributes
+     *
+     * @return its pattern lines (possibly empty) when it is a relevant code file, otherwise null
+     */
+    private String read(Path file) {
+        String fileName = file.getFileName().toString();
+        String lowerName = fileName.toLowerCase();
+        boolean manifest = (file.getNameCount() == 1 && ROOT_MANIFESTS.contains(fileName))
+                || lowerName.endsWith(".csproj");
+        boolean relevant = isRelevantCodeFile(lowerName);
+        if (!manifest && !relevant) {
+            return null;
+        }
+        String content;
+        try {
+            Path absolute = root.resolve(file);
+            if (Files.size(absolute) > MAX_FILE_SIZE) {
+                return relevant ? "" : null;
+            }
+            content = Files.readString(absolute);
+        } catch (IOException | RuntimeException e) {
+            return relevant ? "" : null;
+        }
+        if (manifest) {
+            manifests.put(file.toString().replace('\\', '/'), content);
+        }
+        if (!relevant) {
+            return null;
+        }
+        if (lowerName.endsWith(".py")) {
+            collectPythonImports(content);
+            if (content.contains("from flask import") || content.contains("import flask")
+                    || content.contains("@app.route")) {
+                flaskIndicators = true;
+            }
+        }
+        collectPatternIndicators(content);
+        return extractRelevantPatterns(content, lowerName);
+    }
+
+    static boolean isRelevantCodeFile(String fileName) {
+        return fileName.endsWith(".py") || fileName.endsWith(".java") ||
+               fileName.endsWith(".js") || fileName.endsWith(".ts") ||
+               fileName.endsWith(".jsx") || fileName.endsWith(".tsx") ||
+               fileName.endsWith(".rs") || fileName.endsWith(".go") ||
+               fileName.endsWith(".cs") || fileName.endsWith(".dart") ||
+               fileName.equals("requirements.txt") || fileName.equals("pom.xml") ||
+               fileName.equals("package.json") || fileName.equals("cargo.toml") ||
+               fileName.equals("go.mod") || fileName.equals("pubspec.yaml");
+    }
+
+    private void collectPythonImports(String content) {
+        Set<String> imports = importsByLanguage.computeIfAbsent("python", key -> ConcurrentHashMap.newKeySet());
+        for (String line : content.split("\n")) {
+            line = line.trim();
+            if (line.startsWith("import ") || line.startsWith("from ")) {
+                String packageName = packageFromPythonImport(line);
+                if (packageName != null && !packageName.isEmpty() && !PYTHON_STANDARD_LIBRARY.contains(packageName)) {
+                    imports.add(packageName);
+                }
+            }
+        }
+    }
+
+    private static String packageFromPythonImport(String importLine) {
+        if (importLine.startsWith("import ")) {
+            return importLine.substring(7).split("\\s+")[0].split("\\.")[0].trim();
+        }
+        String[] parts = importLine.split("\\s+");
+        return parts.length >= 2 ? parts[1].split("\\.")[0] : null;
+    }
+
+    /**
+     * Pattern indicators that can supplement the AI's framework analysis
+     */
+    private void collectPatternIndicators(String content) {
+        if (content.contains("@app.route")) {
+            patternIndicators.add("Flask Routing");
+        }
+        if (content.contains("render_template")) {
+            patternIndicators.add("Flask Templates");
+        }
+        if (content.contains("request.get_json")) {
+            patternIndicators.add("Flask JSON API");
+        }
+        if (content.contains("SQLAlchemy") || content.contains("db.Model")) {
+            patternIndicators.add("Flask-SQLAlchemy");
+        }
+        if (content.contains("@RestController") || content.contains("@Controller")) {
+            patternIndicators.add("Spring MVC");
+        }
+        if (content.contains("@Repository")) {
+            patternIndicators.add("Spring Data");
+        }
+        if (content.contains("@Service")) {
+            patternIndicators.add("Spring Core");
+        }
+        if (content.contains("@EnableJpaRepositories")) {
+            patternIndicators.add("Spring Data JPA");
+        }
+        if (content.contains("@EnableWebSecurity")) {
+            patternIndicators.add("Spring Security");
+        }
+        // React patterns
+        if (content.contains("useState") || content.contains("useEffect")) {
+            patternIndicators.add("React Hooks");
+        }
+        if (content.contains("React.Component") || content.contains("Component")) {
+            patternIndicators.add("React Components");
+        }
+        // Angular patterns
+        if (content.contains("@Component") || content.contains("@Injectable")) {
+            patternIndicators.add("Angular Core");
+        }
+        // Flutter patterns
+        if (content.contains("StatelessWidget") || content.contains("StatefulWidget")) {
+            patternIndicators.add("Flutter Widgets");
+        }
+        // Rust patterns
+        if (content.contains("actix_web") || content.contains("warp") || content.contains("rocket")) {
+            patternIndicators.add("Rust Web Framework");
+        }
+        // Go patterns
+        if (content.contains("http.HandleFunc") || content.contains("gin.Default")) {
+            patternIndicators.add("Go Web Framework");
+        }
+    }
+
+    /**
+     * Imports, annotations and similar lines that identify frameworks in a code file
+     */
+    private static String extractRelevantPatterns(String content, String fileName) {
+        StringBuilder patterns = new StringBuilder();
+        for (String line : content.split("\n")) {
+            line = line.trim();
+            boolean relevant;
+            if (fileName.endsWith(".py")) {
+                relevant = line.startsWith("from ") || line.startsWith("import ") || line.startsWith("@");
+            } else if (fileName.endsWith(".java")) {
+                relevant = line.startsWith("import ") || line.startsWith("@");
+            } else if (fileName.endsWith(".js") || fileName.endsWith(".ts")
+                    || fileName.endsWith(".jsx") || fileName.endsWith(".tsx")) {
+                relevant = line.startsWith("import ") || line.startsWith("const ") || line.startsWith("require(");
+            } else if (fileName.endsWith(".rs")) {
+                relevant = line.startsWith("use ") || line.startsWith("extern crate");
+            } else if (fileName.endsWith(".go")) {
+                relevant = line.startsWith("import ") || line.startsWith("package ");
+            } else if (fileName.endsWith(".cs")) {
+                relevant = line.startsWith("using ") || line.startsWith("[");
+            } else if (fileName.endsWith(".dart")) {
+                relevant = line.startsWith("import ") || line.startsWith("export ");
+            } else {
+                relevant = false;
+            }
+            if (relevant) {
+                patterns.append(line).append("\n");
+            }
+        }
+        return patterns.toString();
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Files in the project, relative to its root
+     */
+    public List<Path> getFiles() {
+        return Collections.unmodifiableList(files);
+    }
+
+    /**
+     * Names of files at most two levels below the root
+     */
+    public Set<String> getShallowFileNames() {
+        return shallowFileNames;
+    }
+
+    /**
+     * Names of directories at most two levels below the root
+     */
+    public Set<String> getShallowDirectoryNames() {
+        return shallowDirectoryNames;
+    }
+
+    /**
+     * Content of a root manifest such as "pom.xml", or null when the project has none
+     */
+    public String manifest(String fileName) {
+        return manifests.get(fileName);
+    }
+
+    /**
+     * Contents of every .csproj file, keyed by root-relative path
+     */
+    public Map<String, String> csprojManifests() {
+        Map<String, String> csproj = new ConcurrentHashMap<>();
+        manifests.forEach((path, content) -> {
+            if (path.toLowerCase().endsWith(".csproj")) {
+                csproj.put(path, content);
+            }
+        });
+        return csproj;
+    }
+
+    /**
+     * Third-party packages imported by a language's source files
+     */
+    public Set<String> imports(String language) {
+        return importsByLanguage.getOrDefault(language, Set.of());
+    }
+
+    /**
+     * Framework indicators found in code, such as "Spring MVC" or "React Hooks"
+     */
+    public Set<String> getPatternIndicators() {
+        return patternIndicators;
+    }
+
+    /**
+     * Pattern lines from the first relevant files, for the framework identification prompt
+     */
+    public String patternSamples() {
+        return String.join("\n", patternSamples) + (patternSamples.isEmpty() ? "" : "\n");
+    }
+
+    public boolean hasFlaskIndicators() {
+        return flaskIndicators;
+    }
+}
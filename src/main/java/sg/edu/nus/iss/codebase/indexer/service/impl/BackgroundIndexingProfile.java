@@ -0,0 +1,199 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.util.RateLimiter;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Resource-friendly "background" indexing profile
+ * While active, CPU-bound document work runs on a small low-priority pool, disk reads
+ * and embedding calls are rate limited, and indexing pauses between files whenever the
+ * system is busy or the user is searching. The profile can be switched at runtime;
+ * running jobs pick up the change at their next file.
+ */
+@Component
+public class BackgroundIndexingProfile {
+
+    private static final long YIELD_CHECK_MS = 250;
+
+    private final IndexingConfiguration.BackgroundProfileConfig config;
+    private final ExecutorService cpuPool;
+    private final int cpuThreads;
+    private final RateLimiter diskLimiter;
+    private final RateLimiter embeddingLimiter;
+    private final DoubleSupplier loadPerCore;
+
+    private volatile boolean enabled;
+    private volatile String yieldReason;
+    private volatile long lastSearchActivity = 0L;
+    private final AtomicInteger activeSearches = new AtomicInteger();
+    private final AtomicLong yields = new AtomicLong();
+    private final AtomicLong yieldedMillis = new AtomicLong();
+
+    @Autowired
+    public BackgroundIndexingProfile(IndexingConfiguration config) {
+        this(config, BackgroundIndexingProfile::systemLoadPerCore);
+    }
+
+    BackgroundIndexingProfile(IndexingConfiguration config, DoubleSupplier loadPerCore) {
+        this.config = config.getBackground();
+        this.enabled = this.config.isEnabled();
+        this.loadPerCore = loadPerCore;
+        this.cpuThreads = this.config.getCpuThreads() > 0
+                ? this.config.getCpuThreads()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.cpuPool = Executors.newFixedThreadPool(cpuThreads, runnable -> {
+            Thread thread = new Thread(runnable, "background-indexing-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        this.diskLimiter = new RateLimiter(this.config.getDiskBytesPerSecond(), 1.0);
+        this.embeddingLimiter = new RateLimiter(this.config.getEmbeddingsPerSecond(), 1.0);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        System.out.println(enabled
+                ? "🐢 Background indexing profile ON (" + cpuThreads + " CPU threads, rate limited)"
+                : "🚀 Background indexing profile OFF (full speed)");
+    }
+
+    /**
+     * Run sanitize/chunk/analyze work, on the bounded low-priority pool while the profile is active
+     */
+    public <T> T runCpuBound(Callable<T> work) throws Exception {
+        if (!enabled) {
+            return work.call();
+        }
+        try {
+            return cpuPool.submit(work).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Pace disk reads to the configured bytes per second
+     */
+    public void acquireDiskBytes(long bytes) throws InterruptedException {
+        if (enabled) {
+            diskLimiter.acquire(bytes);
+        }
+    }
+
+    /**
+     * Pace documents sent for embedding to the configured rate
+     */
+    public void acquireEmbeddings(int documents) throws InterruptedException {
+        if (enabled) {
+            embeddingLimiter.acquire(documents);
+        }
+    }
+
+    /**
+     * Wait between files while the machine is busy or the user is searching
+     */
+    public void awaitTurn() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        String reason = currentYieldReason();
+        if (reason == null) {
+            return;
+        }
+
+        yields.incrementAndGet();
+        long start = System.currentTimeMillis();
+        try {
+            while (enabled && reason != null) {
+                yieldReason = reason;
+                Thread.sleep(YIELD_CHECK_MS);
+                reason = currentYieldReason();
+            }
+        } finally {
+            yieldReason = null;
+            yieldedMillis.addAndGet(System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Mark the start of an interactive search; indexing yields until searches go quiet
+     */
+    public void beginSearch() {
+        activeSearches.incrementAndGet();
+        lastSearchActivity = System.currentTimeMillis();
+    }
+
+    public void endSearch() {
+        activeSearches.decrementAndGet();
+        lastSearchActivity = System.currentTimeMillis();
+    }
+
+    private String currentYieldReason() {
+        if (activeSearches.get() > 0) {
+            return "search in progress";
+        }
+        if (System.currentTimeMillis() - lastSearchActivity < config.getSearchQuietMs()) {
+            return "recent search activity";
+        }
+        double load = loadPerCore.getAsDouble();
+        if (load >= 0 && load > config.getMaxLoadPerCore()) {
+            return String.format("system load %.2f per core", load);
+        }
+        return null;
+    }
+
+    /**
+     * System load average per core, or -1 where the platform does not report it
+     */
+    private static double systemLoadPerCore() {
+        double load = ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage();
+        return load < 0 ? -1 : load / Runtime.getRuntime().availableProcessors();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cpuPool.shutdownNow();
+    }
+
+    public int getCpuThreads() {
+        return cpuThreads;
+    }
+
+    /**
+     * Why indexing is currently paused, or null when it is running
+     */
+    public String getYieldReason() {
+        return yieldReason;
+    }
+
+    public long getYieldCount() {
+        return yields.get();
+    }
+
+    public long getYieldedMillis() {
+        return yieldedMillis.get();
+    }
+}
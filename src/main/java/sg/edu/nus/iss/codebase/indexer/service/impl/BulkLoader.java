@@ -0,0 +1,299 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import io.qdrant.client.QdrantClient;
+import io.qdrant.client.grpc.Collections.CollectionInfo;
+import io.qdrant.client.grpc.Collections.CollectionStatus;
+import io.qdrant.client.grpc.Collections.OptimizersConfigDiff;
+import io.qdrant.client.grpc.Collections.UpdateCollection;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import sg.edu.nus.iss.codebase.indexer.config.DynamicVectorStoreFactory;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.model.EmbeddingPriority;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk-load mode for the first full index into an empty collection
+ * Qdrant would otherwise keep rebuilding HNSW segments while points stream in. During the
+ * load the optimizer's indexing threshold is set to 0 (no HNSW), chunks from many files are
+ * buffered into large upserts sent with wait=false, and afterwards the profile's threshold is
+ * restored and the graph is built once before indexing is reported complete. Buffered chunks
+ * keep their memory reservations until their batch is written, and a producer that would block
+ * on the memory budget writes the buffer first.
+ */
+@Component
+public class BulkLoader {
+
+    private static final long STATUS_POLL_MILLIS = 500;
+
+    private final QdrantClient qdrantClient;
+    private final DynamicVectorStoreFactory vectorStoreFactory;
+    private final IndexingConfiguration.BulkLoadConfig config;
+    private final IndexingConfiguration.CollectionProfileConfig profile;
+    private final IndexingMetrics metrics;
+    private final MemoryGovernor memoryGovernor;
+
+    @Autowired
+    public BulkLoader(QdrantClient qdrantClient, DynamicVectorStoreFactory vectorStoreFactory,
+            IndexingConfiguration config, IndexingMetrics metrics, MemoryGovernor memoryGovernor) {
+        this.qdrantClient = qdrantClient;
+        this.vectorStoreFactory = vectorStoreFactory;
+        this.config = config.getBulkLoad();
+        this.profile = config.getCollection();
+        this.metrics = metrics;
+        this.memoryGovernor = memoryGovernor;
+    }
+
+    /**
+     * Start a bulk load into a collection that exists and is empty
+     *
+     * @return the session to write through, or null when the collection already holds points,
+     *         bulk loading is disabled or the collection could not be switched over
+     */
+    public Session begin(String collectionName) {
+        if (!config.isEnabled()) {
+            return null;
+        }
+        try {
+            if (qdrantClient.countAsync(collectionName).get() > 0) {
+                restoreAbandonedThreshold(collectionName);
+                return null;
+            }
+            setIndexingThreshold(collectionName, 0);
+            System.out.println("🚛 Bulk load into empty collection " + collectionName
+                    + ": HNSW indexing paused, unacknowledged upserts of " + config.getBatchDocuments() + " chunks");
+            Session session = new Session(collectionName,
+                    vectorStoreFactory.createUnacknowledgedVectorStore(collectionName), config.getBatchDocuments(), metrics);
+            memoryGovernor.addPressureRelief(session.relief);
+            return session;
+        } catch (Exception e) {
+            System.err.println("⚠️ Warning: Bulk load unavailable, indexing normally: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Write what is still buffered, restore the configured indexing threshold and wait until
+     * the optimizer has built the index
+     */
+    public void finish(Session session) {
+        memoryGovernor.removePressureRelief(session.relief);
+        session.flush();
+        try {
+            setIndexingThreshold(session.collectionName, profile.getIndexingThreshold());
+            System.out.printf("🚛 Bulk load stored %d chunks in %d upserts, building HNSW index...%n",
+                    session.getDocuments(), session.getUpserts());
+            awaitOptimized(session.collectionName);
+        } catch (Exception e) {
+            System.err.println("⚠️ Warning: Could not restore indexing on " + session.collectionName + ": "
+                    + e.getMessage());
+        }
+    }
+
+    /**
+     * A bulk load that never finished leaves HNSW indexing paused on a collection that holds
+     * points by the next run, so the graph would never be built; put the profile's threshold back
+     */
+    private void restoreAbandonedThreshold(String collectionName) throws Exception {
+        long threshold = profile.getIndexingThreshold();
+        var optimizer = qdrantClient.getCollectionInfoAsync(collectionName).get().getConfig().getOptimizerConfig();
+        if (threshold != 0 && optimizer.hasIndexingThreshold() && optimizer.getIndexingThreshold() == 0) {
+            System.out.println("🚛 " + collectionName + " was left with HNSW indexing paused by an unfinished "
+                    + "bulk load, restoring indexing threshold " + threshold);
+            setIndexingThreshold(collectionName, threshold);
+        }
+    }
+
+    private void setIndexingThreshold(String collectionName, long threshold) throws Exception {
+        qdrantClient.updateCollectionAsync(UpdateCollection.newBuilder()
+                .setCollectionName(collectionName)
+                .setOptimizersConfig(OptimizersConfigDiff.newBuilder().setIndexingThreshold(threshold))
+                .build()).get();
+    }
+
+    private void awaitOptimized(String collectionName) throws Exception {
+        long deadline = System.currentTimeMillis() + config.getOptimizeTimeoutSeconds() * 1000;
+        while (true) {
+            CollectionInfo info = qdrantClient.getCollectionInfoAsync(collectionName).get();
+            if (info.getStatus() == CollectionStatus.Green) {
+                System.out.printf("✅ %s optimized: %d points indexed%n", collectionName, info.getPointsCount());
+                return;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                System.out.println("⚠️ " + collectionName + " is still optimizing (" + info.getStatus()
+                        + "), continuing without waiting");
+                return;
+            }
+            Thread.sleep(STATUS_POLL_MILLIS);
+        }
+    }
+
+    /**
+     * Buffer of chunks for one bulk load. Files are reported stored only once the batch holding
+     * their chunks has been accepted by Qdrant. When a batch is rejected its files are written
+     * one by one, so a single bad file does not cost the chunks of every file buffered with it.
+     */
+    public static class Session {
+        private final String collectionName;
+        private final VectorStore vectorStore;
+        private final int batchSize;
+        private final IndexingMetrics metrics;
+        private final Runnable relief = this::flush;
+        private final List<PendingFile> buffer = new ArrayList<>();
+        private int bufferedDocuments;
+        private final AtomicInteger upserts = new AtomicInteger();
+        private final AtomicLong documents = new AtomicLong();
+
+        public Session(String collectionName, VectorStore vectorStore, int batchSize) {
+            this(collectionName, vectorStore, batchSize, null);
+        }
+
+        public Session(String collectionName, VectorStore vectorStore, int batchSize, IndexingMetrics metrics) {
+            this.collectionName = collectionName;
+            this.vectorStore = vectorStore;
+            this.batchSize = Math.max(1, batchSize);
+            this.metrics = metrics;
+        }
+
+        public String getCollectionName() {
+            return collectionName;
+        }
+
+        /**
+         * Store for callers that already write in large batches
+         */
+        public VectorStore getVectorStore() {
+            return vectorStore;
+        }
+
+        /**
+         * Buffer a file's chunks; the calling thread writes the batch once it is full
+         *
+         * @param onStored run after the batch containing these chunks has been accepted
+         */
+        public void add(List<Document> fileDocuments, Runnable onStored) {
+            add(fileDocuments, null, onStored, () -> { });
+        }
+
+        /**
+         * Buffer a file's chunks together with the memory reserved for them, which is released
+         * once they have been written or given up on
+         *
+         * @param onFailed run instead of onStored when the chunks could not be written
+         */
+        public void add(List<Document> fileDocuments, MemoryGovernor.Reservation reservation,
+                Runnable onStored, Runnable onFailed) {
+            List<PendingFile> batch = null;
+            synchronized (this) {
+                buffer.add(new PendingFile(fileDocuments, reservation, onStored, onFailed));
+                bufferedDocuments += fileDocuments.size();
+                if (bufferedDocuments >= batchSize) {
+                    batch = drain();
+                }
+            }
+            if (batch != null) {
+                store(batch);
+            }
+        }
+
+        /**
+         * Write whatever is buffered
+         */
+        public void flush() {
+            List<PendingFile> batch;
+            synchronized (this) {
+                if (buffer.isEmpty()) {
+                    return;
+                }
+                batch = drain();
+            }
+            store(batch);
+        }
+
+        private List<PendingFile> drain() {
+            List<PendingFile> batch = new ArrayList<>(buffer);
+            buffer.clear();
+            bufferedDocuments = 0;
+            return batch;
+        }
+
+        private void store(List<PendingFile> batch) {
+            try {
+                List<Document> chunks = new ArrayList<>();
+                batch.forEach(file -> chunks.addAll(file.documents));
+                try {
+                    write(chunks);
+                    batch.forEach(file -> file.onStored.run());
+                } catch (RuntimeException e) {
+                    System.err.println("❌ Bulk batch of " + chunks.size() + " chunks failed, storing its "
+                            + batch.size() + " files one by one: " + e.getMessage());
+                    batch.forEach(this::storeAlone);
+                }
+            } finally {
+                batch.forEach(PendingFile::release);
+            }
+        }
+
+        private void storeAlone(PendingFile file) {
+            try {
+                write(file.documents);
+                file.onStored.run();
+            } catch (RuntimeException e) {
+                file.onFailed.run();
+            }
+        }
+
+        private void write(List<Document> chunks) {
+            if (metrics != null) {
+                EmbeddingScheduler.runAs(EmbeddingPriority.BULK,
+                        () -> metrics.store(chunks.size(), () -> vectorStore.add(chunks)));
+            } else {
+                EmbeddingScheduler.runAs(EmbeddingPriority.BULK, () -> vectorStore.add(chunks));
+            }
+            upserts.incrementAndGet();
+            documents.addAndGet(chunks.size());
+        }
+
+        /**
+         * Chunks waiting for the batch to fill
+         */
+        public synchronized int getBuffered() {
+            return bufferedDocuments;
+        }
+
+        public int getUpserts() {
+            return upserts.get();
+        }
+
+        public long getDocuments() {
+            return documents.get();
+        }
+    }
+
+    private static class PendingFile {
+        private final List<Document> documents;
+        private final MemoryGovernor.Reservation reservation;
+        private final Runnable onStored;
+        private final Runnable onFailed;
+
+        PendingFile(List<Document> documents, MemoryGovernor.Reservation reservation, Runnable onStored,
+                Runnable onFailed) {
+            this.documents = documents;
+            this.reservation = reservation;
+            this.onStored = onStored;
+            this.onFailed = onFailed;
+        }
+
+        void release() {
+            if (reservation != null) {
+                reservation.close();
+            }
+        }
+    }
+}
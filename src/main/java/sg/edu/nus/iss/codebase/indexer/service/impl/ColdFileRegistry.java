@@ -0,0 +1,115 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lightweight lexical registry of files that have not been embedded yet
+ * Cold files are tracked by path tokens only, so registering them costs no
+ * file reads or embedding calls until a query actually needs them
+ */
+@Component
+public class ColdFileRegistry {
+
+    private final Map<String, ColdFile> coldFiles = new ConcurrentHashMap<>();
+
+    /**
+     * Register a file as cold (known but not embedded)
+     */
+    public void register(File file) {
+        String path = file.getAbsolutePath();
+        coldFiles.putIfAbsent(path, new ColdFile(file, tokenize(path)));
+    }
+
+    public boolean isCold(String filePath) {
+        return filePath != null && coldFiles.containsKey(new File(filePath).getAbsolutePath());
+    }
+
+    /**
+     * Atomically take a cold file for embedding.
+     * Returns null when the file is not cold or another caller already claimed it.
+     */
+    public File claim(String filePath) {
+        ColdFile coldFile = coldFiles.remove(new File(filePath).getAbsolutePath());
+        return coldFile != null ? coldFile.file : null;
+    }
+
+    /**
+     * Find the cold files most similar to the given path, best match first.
+     * Similarity is the Jaccard overlap of path tokens with a bonus for sharing a directory.
+     */
+    public List<File> findSimilar(String filePath, int limit) {
+        if (limit <= 0 || coldFiles.isEmpty()) {
+            return List.of();
+        }
+
+        File reference = new File(filePath).getAbsoluteFile();
+        Set<String> referenceTokens = tokenize(reference.getPath());
+        String referenceParent = reference.getParent();
+
+        return coldFiles.values().stream()
+                .map(cold -> Map.entry(cold, similarity(referenceTokens, referenceParent, cold)))
+                .filter(entry -> entry.getValue() > 0.0)
+                .sorted(Map.Entry.<ColdFile, Double>comparingByValue().reversed())
+                .limit(limit)
+                .map(entry -> entry.getKey().file)
+                .toList();
+    }
+
+    public int size() {
+        return coldFiles.size();
+    }
+
+    public void clear() {
+        coldFiles.clear();
+    }
+
+    private double similarity(Set<String> referenceTokens, String referenceParent, ColdFile candidate) {
+        if (referenceTokens.isEmpty() || candidate.tokens.isEmpty()) {
+            return 0.0;
+        }
+
+        int shared = 0;
+        for (String token : candidate.tokens) {
+            if (referenceTokens.contains(token)) {
+                shared++;
+            }
+        }
+        int union = referenceTokens.size() + candidate.tokens.size() - shared;
+        double score = union > 0 ? (double) shared / union : 0.0;
+
+        if (referenceParent != null && referenceParent.equals(candidate.file.getParent())) {
+            score += 0.5;
+        }
+        return score;
+    }
+
+    /**
+     * Split a path into lowercase tokens on separators, punctuation and camelCase boundaries
+     */
+    static Set<String> tokenize(String path) {
+        Set<String> tokens = new HashSet<>();
+        String spaced = path.replace('\\', '/')
+                .replaceAll("([a-z0-9])([A-Z])", "$1 $2")
+                .replaceAll("[^A-Za-z0-9]+", " ");
+        for (String token : spaced.toLowerCase().split(" ")) {
+            if (token.length() > 1) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static class ColdFile {
+        private final File file;
+        private final Set<String> tokens;
+
+        ColdFile(File file, Set<String> tokens) {
+            this.file = file;
+            this.tokens = tokens;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import io.qdrant.client.QdrantClient;
+import io.qdrant.client.grpc.Collections.AliasDescription;
+import io.qdrant.client.grpc.Collections.AliasOperations;
+import io.qdrant.client.grpc.Collections.BinaryQuantization;
+import io.qdrant.client.grpc.Collections.CreateAlias;
+import io.qdrant.client.grpc.Collections.CreateCollection;
+import io.qdrant.client.grpc.Collections.DeleteAlias;
+import io.qdrant.client.grpc.Collections.Distance;
+import io.qdrant.client.grpc.Collections.HnswConfigDiff;
+import io.qdrant.client.grpc.Collections.OptimizersConfigDiff;
+import io.qdrant.client.grpc.Collections.PayloadSchemaType;
+import io.qdrant.client.grpc.Collections.QuantizationConfig;
+import io.qdrant.client.grpc.Collections.QuantizationType;
+import io.qdrant.client.grpc.Collections.ScalarQuantization;
+import io.qdrant.client.grpc.Collections.VectorParams;
+import io.qdrant.client.grpc.Collections.VectorsConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Blue/green management of Qdrant collections behind a stable alias
+ * The name searches use is an alias; a rebuild fills a new generation collection
+ * while the alias keeps pointing at the live one, then the alias is switched in a
+ * single atomic update and the previous generation is dropped after a grace period.
+ */
+@Component
+public class CollectionAliasManager {
+
+    private static final DateTimeFormatter GENERATION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final Pattern GENERATION_SUFFIX = Pattern.compile("-gen-\\d{14}$");
+
+    // Metadata fields filtered and looked up by search, indexed on every collection
+    static final Map<String, PayloadSchemaType> PAYLOAD_INDEXES = new LinkedHashMap<>();
+
+    static {
+        PAYLOAD_INDEXES.put("filepath", PayloadSchemaType.Keyword);
+        PAYLOAD_INDEXES.put("filename", PayloadSchemaType.Keyword);
+        PAYLOAD_INDEXES.put("filetype", PayloadSchemaType.Keyword);
+        PAYLOAD_INDEXES.put("documentType", PayloadSchemaType.Keyword);
+        PAYLOAD_INDEXES.put("priority", PayloadSchemaType.Integer);
+        PAYLOAD_INDEXES.put("size", PayloadSchemaType.Integer);
+        PAYLOAD_INDEXES.put("lastModified", PayloadSchemaType.Datetime);
+    }
+
+    private final QdrantClient qdrantClient;
+    private final IndexingConfiguration.BlueGreenConfig config;
+    private final IndexingConfiguration.CollectionProfileConfig profile;
+    private final DimensionReducer dimensionReducer;
+    private final Set<String> payloadIndexedCollections = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public CollectionAliasManager(QdrantClient qdrantClient, IndexingConfiguration config,
+            DimensionReducer dimensionReducer) {
+        this.qdrantClient = qdrantClient;
+        this.config = config.getBlueGreen();
+        this.profile = config.getCollection();
+        this.dimensionReducer = dimensionReducer;
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Create a collection with the vector parameters the embedding model produces and the
+     * configured collection profile
+     */
+    public void createCollection(String collectionName) throws Exception {
+        createCollection(collectionName, dimensionReducer.dimensionsFor(collectionName));
+    }
+
+    /**
+     * Vector size expected in a collection: the embedding model's, or that of the projection
+     * fitted for it. 0 while the embedding model cannot be reached to detect its dimension.
+     */
+    public int dimensionsFor(String collectionName) {
+        return dimensionReducer.dimensionsFor(collectionName);
+    }
+
+    private void createCollection(String collectionName, int dimensions) throws Exception {
+        if (dimensions <= 0) {
+            throw new IllegalStateException("Cannot create " + collectionName
+                    + " before the embedding model's vector size is known");
+        }
+        qdrantClient.createCollectionAsync(collectionSpec(collectionName, dimensions, profile)).get();
+        System.out.printf("✅ Created collection: %s (m=%d, ef_construct=%d, quantization=%s%s)%n",
+                collectionName, profile.getHnswM(), profile.getHnswEfConstruct(), profile.getQuantization(),
+                profile.isOnDiskVectors() ? ", vectors on disk" : "");
+        // Filters still work unindexed, so a failure here is left for ensurePayloadIndexes to retry
+        try {
+            for (Map.Entry<String, PayloadSchemaType> index : PAYLOAD_INDEXES.entrySet()) {
+                createPayloadIndex(collectionName, index.getKey(), index.getValue());
+            }
+            payloadIndexedCollections.add(collectionName);
+        } catch (Exception e) {
+            System.err.println("⚠️ Warning: Could not create payload indexes on " + collectionName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Create whichever payload indexes an existing collection is missing; checked once per
+     * collection per run. Qdrant indexes the points already stored when an index is added.
+     */
+    public void ensurePayloadIndexes(String collectionName) {
+        if (!payloadIndexedCollections.add(collectionName)) {
+            return;
+        }
+        try {
+            Set<String> existing = qdrantClient.getCollectionInfoAsync(collectionName).get().getPayloadSchemaMap().keySet();
+            for (Map.Entry<String, PayloadSchemaType> index : PAYLOAD_INDEXES.entrySet()) {
+                if (!existing.contains(index.getKey())) {
+                    createPayloadIndex(collectionName, index.getKey(), index.getValue());
+                    System.out.println("🗂️ Backfilled payload index " + index.getKey() + " on " + collectionName);
+                }
+            }
+        } catch (Exception e) {
+            payloadIndexedCollections.remove(collectionName);
+            System.err.println("⚠️ Warning: Could not check payload indexes on " + collectionName + ": " + e.getMessage());
+        }
+    }
+
+    private void createPayloadIndex(String collectionName, String field, PayloadSchemaType type) throws Exception {
+        qdrantClient.createPayloadIndexAsync(collectionName, field, type, null, true, null, null).get();
+    }
+
+    /**
+     * Creation request for a cosine collection laid out according to a profile
+     */
+    public static CreateCollection collectionSpec(String collectionName, int dimensions,
+            IndexingConfiguration.CollectionProfileConfig profile) {
+        VectorParams vectorParams = VectorParams.newBuilder()
+                .setSize(dimensions)
+                .setDistance(Distance.Cosine)
+                .setOnDisk(profile.isOnDiskVectors())
+                .build();
+
+        CreateCollection.Builder createCollection = CreateCollection.newBuilder()
+                .setCollectionName(collectionName)
+                .setVectorsConfig(VectorsConfig.newBuilder().setParams(vectorParams).build())
+                .setOnDiskPayload(profile.isOnDiskPayload())
+                .setHnswConfig(HnswConfigDiff.newBuilder()
+                        .setM(profile.getHnswM())
+                        .setEfConstruct(profile.getHnswEfConstruct())
+                        .setOnDisk(profile.isHnswOnDisk()));
+
+        OptimizersConfigDiff.Builder optimizers = OptimizersConfigDiff.newBuilder()
+                .setIndexingThreshold(profile.getIndexingThreshold());
+        if (profile.getSegmentNumber() > 0) {
+            optimizers.setDefaultSegmentNumber(profile.getSegmentNumber());
+        }
+        createCollection.setOptimizersConfig(optimizers);
+
+        switch (profile.getQuantization().toLowerCase()) {
+            case "scalar", "int8" -> createCollection.setQuantizationConfig(QuantizationConfig.newBuilder()
+                    .setScalar(ScalarQuantization.newBuilder()
+                            .setType(QuantizationType.Int8)
+                            .setQuantile(profile.getScalarQuantile())
+                            .setAlwaysRam(profile.isQuantizationAlwaysRam())));
+            case "binary" -> createCollection.setQuantizationConfig(QuantizationConfig.newBuilder()
+                    .setBinary(BinaryQuantization.newBuilder()
+                            .setAlwaysRam(profile.isQuantizationAlwaysRam())));
+            case "none", "" -> {
+            }
+            default -> System.err.println("⚠️ Warning: Unknown quantization '" + profile.getQuantization()
+                    + "', creating collection without quantization");
+        }
+        return createCollection.build();
+    }
+
+    /**
+     * Create an empty generation collection for a rebuild of the given alias,
+     * dropping generations left behind by rebuilds that never went live
+     */
+    public String createShadow(String alias) throws Exception {
+        return createShadow(alias, dimensionReducer.dimensionsFor(alias));
+    }
+
+    /**
+     * Create an empty generation collection for a migration that reduces vectors with a
+     * projection; the projection is staged for the new collection so it applies to the alias
+     * from the moment the alias switches to it
+     */
+    public String createShadow(String alias, VectorProjection projection) throws Exception {
+        String shadow = createShadow(alias, projection.getOutputDimensions());
+        dimensionReducer.stage(shadow, projection);
+        return shadow;
+    }
+
+    private String createShadow(String alias, int dimensions) throws Exception {
+        String live = aliasTarget(alias);
+        Pattern generation = generationPattern(alias);
+        for (String collection : qdrantClient.listCollectionsAsync().get()) {
+            if (generation.matcher(collection).matches() && !collection.equals(live)) {
+                System.out.println("🧹 Dropping abandoned shadow collection: " + collection);
+                deleteQuietly(collection);
+            }
+        }
+
+        String shadow = alias + "-gen-" + LocalDateTime.now().format(GENERATION_FORMAT);
+        createCollection(shadow, dimensions);
+        System.out.println("🟢 Rebuilding into shadow collection " + shadow + " while " + alias + " keeps serving");
+        return shadow;
+    }
+
+    /**
+     * Collection an alias currently points at, or null when no such alias exists
+     */
+    public String aliasTarget(String alias) throws Exception {
+        for (AliasDescription description : qdrantClient.listAliasesAsync().get()) {
+            if (description.getAliasName().equals(alias)) {
+                return description.getCollectionName();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Validate a completed shadow and atomically point the alias at it.
+     * The previous generation is deleted once in-flight searches have had time to finish.
+     *
+     * @throws IllegalStateException when the shadow is empty or much smaller than the live collection
+     */
+    public void promote(String alias, String shadow) throws Exception {
+        long shadowPoints = qdrantClient.countAsync(shadow).get();
+        String previous = aliasTarget(alias);
+        boolean legacyCollection = previous == null && qdrantClient.collectionExistsAsync(alias).get();
+        long livePoints = previous != null || legacyCollection ? qdrantClient.countAsync(alias).get() : 0L;
+
+        if (shadowPoints == 0 || shadowPoints < livePoints * config.getMinPointRatio()) {
+            throw new IllegalStateException(String.format(
+                    "Shadow collection %s holds %d points against %d live, keeping %s unchanged",
+                    shadow, shadowPoints, livePoints, alias));
+        }
+
+        List<AliasOperations> operations = new ArrayList<>();
+        if (previous != null) {
+            operations.add(AliasOperations.newBuilder()
+                    .setDeleteAlias(DeleteAlias.newBuilder().setAliasName(alias))
+                    .build());
+        } else if (legacyCollection) {
+            // A physical collection still holds the alias name; it has to go before the
+            // alias can exist, so this first switch has a brief gap. Later ones are atomic.
+            System.out.println("⚠️ Replacing physical collection " + alias + " with an alias (one-time migration)");
+            qdrantClient.deleteCollectionAsync(alias).get();
+        }
+        operations.add(AliasOperations.newBuilder()
+                .setCreateAlias(CreateAlias.newBuilder().setAliasName(alias).setCollectionName(shadow))
+                .build());
+        qdrantClient.updateAliasesAsync(operations).get();
+        System.out.printf("🔀 %s now serves %s (%d points, previously %d)%n", alias, shadow, shadowPoints, livePoints);
+
+        if (previous != null && !previous.equals(shadow)) {
+            scheduleDelete(previous);
+        }
+    }
+
+    /**
+     * Drop a shadow that will not go live
+     */
+    public void discard(String shadow) {
+        System.out.println("🗑️ Discarding shadow collection: " + shadow);
+        deleteQuietly(shadow);
+    }
+
+    private void scheduleDelete(String collection) {
+        long delay = Math.max(0, config.getGcDelaySeconds());
+        System.out.println("🧹 Old collection " + collection + " will be dropped in " + delay + "s");
+        CompletableFuture.runAsync(() -> deleteQuietly(collection),
+                CompletableFuture.delayedExecutor(delay, TimeUnit.SECONDS));
+    }
+
+    private void deleteQuietly(String collection) {
+        try {
+            qdrantClient.deleteCollectionAsync(collection).get();
+            System.out.println("🗑️ Deleted collection: " + collection);
+        } catch (Exception e) {
+            System.err.println("⚠️ Warning: Error deleting collection " + collection + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Alias a generation collection belongs to; other names are returned unchanged
+     */
+    public static String logicalName(String collectionName) {
+        return GENERATION_SUFFIX.matcher(collectionName).replaceFirst("");
+    }
+
+    private static Pattern generationPattern(String alias) {
+        return Pattern.compile(Pattern.quote(alias) + "-gen-\\d{14}");
+    }
+}
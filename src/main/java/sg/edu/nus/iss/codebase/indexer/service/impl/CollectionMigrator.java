@@ -0,0 +1,400 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.qdrant.client.PointIdFactory;
+import io.qdrant.client.QdrantClient;
+import io.qdrant.client.ValueFactory;
+import io.qdrant.client.VectorFactory;
+import io.qdrant.client.VectorsFactory;
+import io.qdrant.client.WithPayloadSelectorFactory;
+import io.qdrant.client.WithVectorsSelectorFactory;
+import io.qdrant.client.grpc.JsonWithInt.Value;
+import io.qdrant.client.grpc.Points.PointId;
+import io.qdrant.client.grpc.Points.PointStruct;
+import io.qdrant.client.grpc.Points.RetrievedPoint;
+import io.qdrant.client.grpc.Points.ScrollPoints;
+import io.qdrant.client.grpc.Points.ScrollResponse;
+import io.qdrant.client.grpc.Points.UpdateResult;
+import io.qdrant.client.grpc.Points.Vector;
+import io.qdrant.client.grpc.Points.VectorOutput;
+import io.qdrant.client.grpc.Points.Vectors;
+import io.qdrant.client.grpc.Points.VectorsOutput;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.model.IndexTier;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.function.UnaryOperator;
+
+/**
+ * Copies every point of a collection into a new one without re-embedding
+ * Pages are scrolled with vectors and payload and upserted with their original ids, so
+ * a new collection with different parameters is filled in minutes rather than the hours
+ * a full re-embed through Ollama takes. The next page is read while earlier batches are
+ * still being written, the batch size follows upsert latency, and progress is checkpointed
+ * so an interrupted migration picks up where it stopped.
+ */
+@Component
+public class CollectionMigrator {
+
+    private final QdrantClient qdrantClient;
+    private final CollectionAliasManager collectionAliasManager;
+    private final IndexingConfiguration.MigrationConfig config;
+
+    @Autowired
+    public CollectionMigrator(QdrantClient qdrantClient, CollectionAliasManager collectionAliasManager,
+            IndexingConfiguration config) {
+        this.qdrantClient = qdrantClient;
+        this.collectionAliasManager = collectionAliasManager;
+        this.config = config.getMigration();
+    }
+
+    /**
+     * Migrate the collection behind an alias into a new generation created with the current
+     * collection settings, then switch the alias to it.
+     *
+     * @param transform applied to each payload on the way; returning null drops the point
+     * @return number of points written to the new collection
+     */
+    public long migrate(String alias, UnaryOperator<Map<String, Value>> transform) throws Exception {
+        return migrate(alias, transform, null);
+    }
+
+    /**
+     * Migrate as above, reducing every vector with a projection on the way. The new collection
+     * is created with the projection's output dimension.
+     */
+    public long migrate(String alias, UnaryOperator<Map<String, Value>> transform, VectorProjection projection)
+            throws Exception {
+        String live = collectionAliasManager.aliasTarget(alias);
+        String source = live != null ? live : alias;
+        if (!qdrantClient.collectionExistsAsync(source).get()) {
+            throw new IllegalStateException("Nothing to migrate, collection " + alias + " does not exist");
+        }
+
+        Checkpoint checkpoint = Checkpoint.load(checkpointPath(alias));
+        if (checkpoint != null && checkpoint.source.equals(source)
+                && qdrantClient.collectionExistsAsync(checkpoint.target).get()) {
+            System.out.printf(checkpoint.complete
+                            ? "⏯️ Migration of %s into %s already copied %d points, switching over%n"
+                            : "⏯️ Resuming migration of %s into %s after %d points%n",
+                    alias, checkpoint.target, checkpoint.copied);
+        } else {
+            String target = projection != null
+                    ? collectionAliasManager.createShadow(alias, projection)
+                    : collectionAliasManager.createShadow(alias);
+            checkpoint = new Checkpoint(source, target, null, 0);
+        }
+
+        long copied = copy(checkpoint, transform, projection, checkpointPath(alias));
+        collectionAliasManager.promote(alias, checkpoint.target);
+        Files.deleteIfExists(checkpointPath(alias));
+        return copied;
+    }
+
+    /**
+     * Every payload upgrade, bringing points written by older versions to the current schema
+     */
+    public static UnaryOperator<Map<String, Value>> currentPayloadSchema() {
+        UnaryOperator<Map<String, Value>> nativeTypes = nativeMetadataTypes();
+        UnaryOperator<Map<String, Value>> slim = slimPayload();
+        return payload -> slim.apply(nativeTypes.apply(payload));
+    }
+
+    /**
+     * Payload upgrade for points indexed before metadata was stored with native types:
+     * numeric fields become integers and lastModified an RFC 3339 timestamp, so the
+     * collection's integer and datetime payload indexes cover them.
+     */
+    public static UnaryOperator<Map<String, Value>> nativeMetadataTypes() {
+        return payload -> {
+            Map<String, Value> upgraded = new HashMap<>(payload);
+            for (String field : List.of("priority", "size", "chunk", "total_chunks", "startLine", "endLine",
+                    "lineNumber", IndexTier.METADATA_KEY)) {
+                Value value = payload.get(field);
+                if (value != null && value.hasStringValue() && value.getStringValue().matches("-?\\d+")) {
+                    upgraded.put(field, ValueFactory.value(Long.parseLong(value.getStringValue())));
+                }
+            }
+            Value lastModified = payload.get("lastModified");
+            if (lastModified != null && lastModified.hasStringValue() && lastModified.getStringValue().matches("\\d+")) {
+                String timestamp = Instant.ofEpochMilli(Long.parseLong(lastModified.getStringValue())).toString();
+                upgraded.put("lastModified", ValueFactory.value(timestamp));
+            }
+            return upgraded;
+        };
+    }
+
+    /**
+     * Payload upgrade dropping fields older versions stored alongside what they duplicate: the
+     * chunk text copied into "text" (the store keeps it in doc_content) and lastModifiedDate,
+     * which is derived from lastModified when displayed.
+     */
+    public static UnaryOperator<Map<String, Value>> slimPayload() {
+        return payload -> {
+            if (!payload.containsKey("text") && !payload.containsKey("lastModifiedDate")) {
+                return payload;
+            }
+            Map<String, Value> slim = new HashMap<>(payload);
+            slim.remove("lastModifiedDate");
+            Value text = slim.get("text");
+            if (text != null && (text.equals(slim.get("doc_content")) || !slim.containsKey("doc_content"))) {
+                slim.remove("text");
+                slim.putIfAbsent("doc_content", text);
+            }
+            return slim;
+        };
+    }
+
+    /**
+     * Copy points from the checkpoint's position to the end of the source collection
+     */
+    long copy(Checkpoint checkpoint, UnaryOperator<Map<String, Value>> transform, Path checkpointFile)
+            throws Exception {
+        return copy(checkpoint, transform, null, checkpointFile);
+    }
+
+    long copy(Checkpoint checkpoint, UnaryOperator<Map<String, Value>> transform, VectorProjection projection,
+            Path checkpointFile) throws Exception {
+        if (checkpoint.complete) {
+            return checkpoint.copied;
+        }
+        long started = System.currentTimeMillis();
+        long startCount = checkpoint.copied;
+        int pageSize = Math.max(1, config.getPageSize());
+        Semaphore inFlight = new Semaphore(Math.max(1, config.getParallelUpserts()));
+        Deque<Batch> pending = new ArrayDeque<>();
+
+        ListenableFuture<ScrollResponse> nextPage = scroll(checkpoint.source, checkpoint.offset, pageSize);
+        while (nextPage != null) {
+            ScrollResponse page = nextPage.get();
+            PointId nextOffset = page.hasNextPageOffset() ? page.getNextPageOffset() : null;
+
+            // Read ahead so scrolling overlaps with the upserts still in flight
+            pageSize = adjustPageSize(pageSize, pending);
+            nextPage = nextOffset != null ? scroll(checkpoint.source, nextOffset, pageSize) : null;
+
+            List<PointStruct> points = new ArrayList<>(page.getResultCount());
+            for (RetrievedPoint point : page.getResultList()) {
+                Map<String, Value> payload = transform.apply(point.getPayloadMap());
+                if (payload != null) {
+                    points.add(PointStruct.newBuilder()
+                            .setId(point.getId())
+                            .setVectors(toVectors(point.getVectors(), projection))
+                            .putAllPayload(payload)
+                            .build());
+                }
+            }
+
+            inFlight.acquire();
+            Batch batch = new Batch(nextOffset, points.size());
+            if (points.isEmpty()) {
+                inFlight.release();
+            } else {
+                batch.upsert = qdrantClient.upsertAsync(checkpoint.target, points);
+                batch.upsert.addListener(() -> {
+                    batch.elapsedMillis = (System.nanoTime() - batch.startedNanos) / 1_000_000;
+                    inFlight.release();
+                }, MoreExecutors.directExecutor());
+            }
+            pending.add(batch);
+            drain(pending, checkpoint, checkpointFile, false);
+        }
+        drain(pending, checkpoint, checkpointFile, true);
+
+        long seconds = Math.max(1, (System.currentTimeMillis() - started) / 1000);
+        System.out.printf("✅ Copied %d points into %s (%d pts/s)%n", checkpoint.copied, checkpoint.target,
+                (checkpoint.copied - startCount) / seconds);
+        return checkpoint.copied;
+    }
+
+    /**
+     * Complete batches in scroll order and move the checkpoint past them. The checkpoint only
+     * advances over a contiguous prefix, so a resume never skips an unwritten page; pages after
+     * it that were already written are simply upserted again under the same ids. Once the last
+     * page is written the checkpoint is marked complete, so a resume goes straight to the switch.
+     */
+    private void drain(Deque<Batch> pending, Checkpoint checkpoint, Path checkpointFile, boolean all)
+            throws Exception {
+        boolean advanced = false;
+        while (!pending.isEmpty() && (all || pending.peekFirst().isDone())) {
+            Batch batch = pending.pollFirst();
+            if (batch.upsert != null) {
+                batch.upsert.get();
+            }
+            checkpoint.offset = batch.nextOffset;
+            checkpoint.copied += batch.written;
+            checkpoint.complete = batch.nextOffset == null;
+            advanced = true;
+        }
+        if (advanced) {
+            checkpoint.save(checkpointFile);
+        }
+    }
+
+    /**
+     * Grow the batch while upserts finish well under the target latency and halve it when they
+     * run over, using the most recent completed batch as the signal
+     */
+    private int adjustPageSize(int pageSize, Deque<Batch> pending) {
+        long elapsed = -1;
+        for (Batch batch : pending) {
+            if (batch.elapsedMillis >= 0) {
+                elapsed = batch.elapsedMillis;
+            }
+        }
+        if (elapsed < 0) {
+            return pageSize;
+        }
+        if (elapsed > config.getTargetBatchMillis()) {
+            return Math.max(config.getPageSize() / 4, pageSize / 2);
+        }
+        if (elapsed < config.getTargetBatchMillis() / 2) {
+            return Math.min(config.getMaxPageSize(), pageSize * 2);
+        }
+        return pageSize;
+    }
+
+    private ListenableFuture<ScrollResponse> scroll(String collection, PointId offset, int limit) {
+        ScrollPoints.Builder request = ScrollPoints.newBuilder()
+                .setCollectionName(collection)
+                .setLimit(limit)
+                .setWithPayload(WithPayloadSelectorFactory.enable(true))
+                .setWithVectors(WithVectorsSelectorFactory.enable(true));
+        if (offset != null) {
+            request.setOffset(offset);
+        }
+        return qdrantClient.scrollAsync(request.build());
+    }
+
+    private static Vectors toVectors(VectorsOutput output, VectorProjection projection) {
+        if (output.hasVectors()) {
+            Map<String, Vector> named = new HashMap<>();
+            for (Map.Entry<String, VectorOutput> entry : output.getVectors().getVectorsMap().entrySet()) {
+                named.put(entry.getKey(), toVector(entry.getValue().getDataList(), projection));
+            }
+            return VectorsFactory.namedVectors(named);
+        }
+        return VectorsFactory.vectors(toVector(output.getVector().getDataList(), projection));
+    }
+
+    /**
+     * Project a vector, keeping it as is when it already has the projection's output size:
+     * a resumed reduction may read from a collection an earlier run already reduced
+     */
+    private static Vector toVector(List<Float> data, VectorProjection projection) {
+        if (projection == null || data.size() == projection.getOutputDimensions()
+                && data.size() != projection.getInputDimensions()) {
+            return VectorFactory.vector(data);
+        }
+        float[] vector = new float[data.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = data.get(i);
+        }
+        return VectorFactory.vector(projection.project(vector));
+    }
+
+    static Path checkpointPath(String alias) {
+        return Paths.get(".migration_" + alias + ".properties");
+    }
+
+    private static class Batch {
+        private final PointId nextOffset;
+        private final int written;
+        private final long startedNanos = System.nanoTime();
+        private ListenableFuture<UpdateResult> upsert;
+        private volatile long elapsedMillis = -1;
+
+        Batch(PointId nextOffset, int written) {
+            this.nextOffset = nextOffset;
+            this.written = written;
+        }
+
+        boolean isDone() {
+            return upsert == null || upsert.isDone();
+        }
+    }
+
+    /**
+     * Where a migration stands: the source and target collections, the scroll offset of the
+     * first page not yet known to be written, how many points were written before it, and
+     * whether every page has been written (the offset is null both before the first page and
+     * after the last)
+     */
+    static class Checkpoint {
+        private final String source;
+        private final String target;
+        private PointId offset;
+        private long copied;
+        private boolean complete;
+
+        Checkpoint(String source, String target, PointId offset, long copied) {
+            this.source = source;
+            this.target = target;
+            this.offset = offset;
+            this.copied = copied;
+        }
+
+        static Checkpoint load(Path file) {
+            if (!Files.exists(file)) {
+                return null;
+            }
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file)) {
+                properties.load(reader);
+                String offset = properties.getProperty("offset", "");
+                Checkpoint checkpoint = new Checkpoint(properties.getProperty("source"),
+                        properties.getProperty("target"), offset.isEmpty() ? null : parseId(offset),
+                        Long.parseLong(properties.getProperty("copied", "0")));
+                checkpoint.complete = Boolean.parseBoolean(properties.getProperty("complete", "false"));
+                return checkpoint;
+            } catch (Exception e) {
+                System.err.println("⚠️ Warning: Ignoring unreadable migration checkpoint " + file + ": " + e.getMessage());
+                return null;
+            }
+        }
+
+        void save(Path file) throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty("source", source);
+            properties.setProperty("target", target);
+            properties.setProperty("offset", offset == null ? "" : formatId(offset));
+            properties.setProperty("copied", String.valueOf(copied));
+            properties.setProperty("complete", String.valueOf(complete));
+            try (Writer writer = Files.newBufferedWriter(file)) {
+                properties.store(writer, "Collection migration checkpoint");
+            }
+        }
+
+        boolean isComplete() {
+            return complete;
+        }
+
+        private static String formatId(PointId id) {
+            return id.hasUuid() ? "uuid:" + id.getUuid() : "num:" + id.getNum();
+        }
+
+        private static PointId parseId(String value) {
+            return value.startsWith("uuid:")
+                    ? PointIdFactory.id(UUID.fromString(value.substring(5)))
+                    : PointIdFactory.id(Long.parseLong(value.substring(4)));
+        }
+    }
+}
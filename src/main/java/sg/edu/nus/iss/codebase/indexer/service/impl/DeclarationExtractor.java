@@ -0,0 +1,638 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import sg.edu.nus.iss.codebase.indexer.service.impl.SourceLexer.Language;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Declarations of a source file, read from its tokens with one rule table per language.
+ * REST endpoints (route annotations, decorators, attributes and router calls), types,
+ * functions, methods and imports are reported with the 1-based line and column range they
+ * span. Block ends come from the lexer's bracket links, or from indentation for Python.
+ */
+public class DeclarationExtractor {
+
+    public enum Kind { ENDPOINT, CLASS, FUNCTION, METHOD, IMPORT }
+
+    private static final String[] HTTP_VERBS = {"get", "post", "put", "delete", "patch"};
+    private static final Map<String, String> SPRING_MAPPINGS = Map.of(
+            "RequestMapping", "Spring REST endpoint", "GetMapping", "Spring REST endpoint",
+            "PostMapping", "Spring REST endpoint", "PutMapping", "Spring REST endpoint",
+            "DeleteMapping", "Spring REST endpoint", "PatchMapping", "Spring REST endpoint");
+    private static final Map<String, String> FLASK_FASTAPI_DECORATORS = Map.of(
+            "route", "REST API endpoint", "get", "FastAPI endpoint", "post", "FastAPI endpoint",
+            "put", "FastAPI endpoint", "delete", "FastAPI endpoint", "patch", "FastAPI endpoint");
+    private static final Map<String, String> NEST_DECORATORS = Map.of(
+            "Get", "NestJS endpoint", "Post", "NestJS endpoint", "Put", "NestJS endpoint",
+            "Delete", "NestJS endpoint", "Patch", "NestJS endpoint");
+
+    // Words that are followed by a parenthesis without being a method declaration
+    private static final String[] NOT_METHODS = {
+            "if", "for", "foreach", "while", "switch", "catch", "using", "lock", "return", "new", "throw",
+            "synchronized", "when", "typeof", "sizeof", "nameof", "default", "super", "this", "base",
+            "await", "yield", "else", "do", "try", "fixed", "checked", "unchecked", "function"};
+    private static final String[] SQL_CREATE_MODIFIERS = {
+            "or", "replace", "temp", "temporary", "materialized", "unique", "global", "local", "unlogged", "recursive"};
+    private static final String[] SQL_TYPES = {"table", "view"};
+    private static final String[] SQL_ROUTINES = {"function", "procedure", "trigger"};
+
+    private static final Map<Language, Rules> RULES = new EnumMap<>(Language.class);
+
+    static {
+        RULES.put(Language.JAVA, new Rules()
+                .types("class", "interface", "enum", "record", "@interface").imports("import").memberMethods()
+                .annotationEndpoints(SPRING_MAPPINGS, false));
+        RULES.put(Language.KOTLIN, new Rules()
+                .types("class", "interface", "object").functions("fun").imports("import")
+                .annotationEndpoints(SPRING_MAPPINGS, false)
+                .callEndpoints(HTTP_VERBS, null, true, "Ktor endpoint"));
+        RULES.put(Language.PYTHON, new Rules()
+                .types("class").functions("def").imports("import", "from").indentBlocks()
+                .annotationEndpoints(FLASK_FASTAPI_DECORATORS, true));
+        RULES.put(Language.JAVASCRIPT, new Rules()
+                .types("class").functions("function").imports("import").memberMethods().arrowFunctions()
+                .callEndpoints(HTTP_VERBS, new String[] {"app", "router"}, false, "Express endpoint"));
+        RULES.put(Language.TYPESCRIPT, new Rules()
+                .types("class", "interface", "enum").functions("function").imports("import").memberMethods().arrowFunctions()
+                .annotationEndpoints(NEST_DECORATORS, false)
+                .callEndpoints(HTTP_VERBS, new String[] {"app", "router"}, false, "Express endpoint"));
+        RULES.put(Language.GO, new Rules()
+                .functions("func").imports("import").goTypes()
+                .callEndpoints(new String[] {"HandleFunc", "Handle", "GET", "POST", "PUT", "DELETE", "PATCH",
+                        "Get", "Post", "Put", "Delete", "Patch"}, null, false, "Go HTTP endpoint"));
+        RULES.put(Language.CSHARP, new Rules()
+                .types("class", "interface", "struct", "enum", "record").imports("using").memberMethods()
+                .attributeEndpoints("HttpGet", "HttpPost", "HttpPut", "HttpDelete", "HttpPatch", "Route"));
+        RULES.put(Language.SQL, new Rules().sqlCreate());
+    }
+
+    /**
+     * What to look for in one language
+     */
+    private static final class Rules {
+        private String[] typeKeywords = {};
+        private String[] functionKeywords = {};
+        private String[] importKeywords = {};
+        private boolean memberMethods;          // name(...) { directly inside a type body
+        private boolean arrowFunctions;         // const name = (...) =>
+        private boolean indentBlocks;           // Blocks end where indentation drops
+        private boolean goTypes;                // type Name struct|interface
+        private boolean sqlCreate;              // CREATE TABLE/VIEW/FUNCTION/PROCEDURE/TRIGGER
+        private Map<String, String> endpointAnnotations = Map.of(); // Last name segment -> label
+        private boolean annotationNeedsReceiver;                     // @app.route but not @route
+        private String[] endpointAttributes = {};                    // C# [HttpGet("/path")]
+        private String[] endpointCalls = {};                         // receiver.get("/path", ...)
+        private String[] endpointReceivers;                          // null accepts any receiver
+        private boolean bareEndpointCalls;                           // get("/path") { } without receiver
+        private String endpointCallLabel;
+
+        Rules types(String... keywords) { typeKeywords = keywords; return this; }
+        Rules functions(String... keywords) { functionKeywords = keywords; return this; }
+        Rules imports(String... keywords) { importKeywords = keywords; return this; }
+        Rules memberMethods() { memberMethods = true; return this; }
+        Rules arrowFunctions() { arrowFunctions = true; return this; }
+        Rules indentBlocks() { indentBlocks = true; return this; }
+        Rules goTypes() { goTypes = true; return this; }
+        Rules sqlCreate() { sqlCreate = true; return this; }
+
+        Rules annotationEndpoints(Map<String, String> labels, boolean needsReceiver) {
+            endpointAnnotations = labels;
+            annotationNeedsReceiver = needsReceiver;
+            return this;
+        }
+
+        Rules attributeEndpoints(String... attributes) {
+            endpointAttributes = attributes;
+            return this;
+        }
+
+        Rules callEndpoints(String[] methods, String[] receivers, boolean bare, String label) {
+            endpointCalls = methods;
+            endpointReceivers = receivers;
+            bareEndpointCalls = bare;
+            endpointCallLabel = label;
+            return this;
+        }
+    }
+
+    public static List<Declaration> extract(SourceLexer.Tokens tokens) {
+        return new Extraction(tokens, RULES.get(tokens.getLanguage())).run();
+    }
+
+    /**
+     * A declaration and the source range it spans (1-based, end column inclusive)
+     */
+    public static class Declaration {
+        private final Kind kind;
+        private final String label;
+        private final String name;
+        private final int line;
+        private final int column;
+        private final int endLine;
+        private final int endColumn;
+
+        public Declaration(Kind kind, String label, String name, int line, int column, int endLine, int endColumn) {
+            this.kind = kind;
+            this.label = label;
+            this.name = name;
+            this.line = line;
+            this.column = column;
+            this.endLine = endLine;
+            this.endColumn = endColumn;
+        }
+
+        public Kind getKind() { return kind; }
+        public String getLabel() { return label; }
+        public String getName() { return name; }
+        public int getLine() { return line; }
+        public int getColumn() { return column; }
+        public int getEndLine() { return endLine; }
+        public int getEndColumn() { return endColumn; }
+
+        @Override
+        public String toString() {
+            return label + " " + name + " [" + line + ":" + column + "-" + endLine + ":" + endColumn + "]";
+        }
+    }
+
+    /**
+     * One pass over the tokens of a file
+     */
+    private static final class Extraction {
+        private final SourceLexer.Tokens t;
+        private final Rules rules;
+        private final int size;
+        private final List<Declaration> found = new ArrayList<>();
+        private final BitSet typeBodies = new BitSet();
+        private int[] scopes = new int[32];
+        private int depth;
+
+        Extraction(SourceLexer.Tokens tokens, Rules rules) {
+            this.t = tokens;
+            this.rules = rules;
+            this.size = tokens.size();
+        }
+
+        List<Declaration> run() {
+            for (int i = 0; i < size; i++) {
+                switch (t.kind(i)) {
+                    case PUNCT -> {
+                        if (t.isPunct(i, '{')) {
+                            if (depth == scopes.length) {
+                                scopes = Arrays.copyOf(scopes, depth * 2);
+                            }
+                            scopes[depth++] = i;
+                        } else if (t.isPunct(i, '}')) {
+                            depth = Math.max(0, depth - 1);
+                        } else if (t.isPunct(i, '[') && rules.endpointAttributes.length > 0) {
+                            attributeEndpoint(i);
+                        }
+                    }
+                    case ANNOTATION -> {
+                        if (isAny(i, rules.typeKeywords)) {
+                            typeDeclaration(i); // @interface
+                        } else {
+                            annotationEndpoint(i);
+                        }
+                    }
+                    case WORD -> word(i);
+                    default -> { }
+                }
+            }
+            return found;
+        }
+
+        private void word(int i) {
+            if (rules.sqlCreate) {
+                if (t.is(i, "create")) {
+                    sqlDeclaration(i);
+                }
+                return;
+            }
+            if (isAny(i, rules.typeKeywords)) {
+                typeDeclaration(i);
+            } else if (isAny(i, rules.functionKeywords)) {
+                functionDeclaration(i);
+            } else if (isAny(i, rules.importKeywords)) {
+                importDeclaration(i);
+            } else if (rules.goTypes && t.is(i, "type")) {
+                goType(i);
+            } else {
+                if (rules.arrowFunctions && (t.is(i, "const") || t.is(i, "let") || t.is(i, "var"))) {
+                    arrowFunction(i);
+                }
+                if (rules.endpointCalls.length > 0 && isAny(i, rules.endpointCalls)) {
+                    callEndpoint(i);
+                }
+                if (rules.memberMethods && inTypeBody()) {
+                    memberMethod(i);
+                }
+            }
+        }
+
+        // Types
+
+        private void typeDeclaration(int i) {
+            if (followsDot(i)) {
+                return; // Foo.class, Foo::class
+            }
+            int name = i + 1;
+            while (name < size && isAny(name, rules.typeKeywords)) {
+                name++; // enum class, record struct
+            }
+            if (!isWord(name)) {
+                return; // Anonymous: companion object, class expressions
+            }
+            int end;
+            if (rules.indentBlocks) {
+                end = indentBlockEnd(i);
+            } else {
+                int header = headerEnd(name + 1);
+                if (t.isPunct(header, '{')) {
+                    typeBodies.set(header);
+                }
+                end = blockEnd(header);
+            }
+            add(Kind.CLASS, "Class", t.text(name), declarationStart(i), end);
+        }
+
+        private void goType(int i) {
+            int name = i + 1;
+            int kind = name + 1;
+            if (t.isPunct(kind, '[') && t.match(kind) > 0) {
+                kind = t.match(kind) + 1; // Type parameters
+            }
+            if (!isWord(name) || !(t.is(kind, "struct") || t.is(kind, "interface"))) {
+                return;
+            }
+            add(Kind.CLASS, "Type", t.text(name), i, blockEnd(headerEnd(kind)));
+        }
+
+        // Functions and methods
+
+        private void functionDeclaration(int i) {
+            int j = i + 1;
+            Kind kind = Kind.FUNCTION;
+            if (t.is(i, "func") && t.isPunct(j, '(')) {
+                if (t.match(j) < 0) {
+                    return;
+                }
+                j = t.match(j) + 1; // Go method receiver
+                kind = Kind.METHOD;
+            }
+            if (t.isPunct(j, '*')) {
+                j++; // Generator
+            }
+            if (t.isPunct(j, '<')) {
+                j = skipAngles(j); // Kotlin type parameters
+            }
+            int name = -1;
+            while (j < size && (t.kind(j) == SourceLexer.Kind.WORD || t.isPunct(j, '.') || t.isPunct(j, '?'))) {
+                if (t.kind(j) == SourceLexer.Kind.WORD) {
+                    name = j; // Kotlin extension functions: the last segment
+                }
+                j++;
+            }
+            if (name < 0 || !(t.isPunct(j, '(') || t.isPunct(j, '[') || t.isPunct(j, '<'))) {
+                return; // Anonymous function
+            }
+            if (kind == Kind.FUNCTION && inTypeBody()) {
+                kind = Kind.METHOD; // Kotlin member functions
+            }
+            int end = rules.indentBlocks ? indentBlockEnd(i) : blockEnd(headerEnd(j));
+            add(kind, kind == Kind.METHOD ? "Method" : "Function", t.text(name), declarationStart(i), end);
+        }
+
+        private void memberMethod(int i) {
+            if (!t.isPunct(i + 1, '(')) {
+                if (rules.arrowFunctions && t.isPunct(i + 1, '=') && isArrowFunction(i + 2)) {
+                    add(Kind.METHOD, "Method", t.text(i), declarationStart(i), blockEnd(headerEnd(i + 2)));
+                }
+                return;
+            }
+            int previous = i - 1;
+            if (isAny(i, NOT_METHODS) || previous >= 0 && (t.isPunct(previous, '.') || t.isPunct(previous, '=')
+                    || t.isPunct(previous, ',') || t.isPunct(previous, '(') || t.isPunct(previous, '[')
+                    || t.isPunct(previous, ':') || t.isPunct(previous, "=>") || isAny(previous, NOT_METHODS))) {
+                return;
+            }
+            int close = t.match(i + 1);
+            if (close < 0) {
+                return;
+            }
+            int after = close + 1;
+            if (!(t.isPunct(after, '{') || t.isPunct(after, ';') || t.isPunct(after, "=>") || t.isPunct(after, ':')
+                    || t.is(after, "throws") || t.is(after, "where"))) {
+                return;
+            }
+            add(Kind.METHOD, "Method", t.text(i), declarationStart(i), blockEnd(headerEnd(after)));
+        }
+
+        private void arrowFunction(int i) {
+            int name = i + 1;
+            if (!isWord(name)) {
+                return;
+            }
+            int j = name + 1;
+            if (t.isPunct(j, ':')) {
+                // Type annotation: up to the assignment
+                int limit = Math.min(size, j + 64);
+                while (j < limit && !t.isPunct(j, '=') && !t.isPunct(j, ';')) {
+                    j = isOpening(j) && t.match(j) > 0 ? t.match(j) + 1 : j + 1;
+                }
+            }
+            if (!t.isPunct(j, '=') || !isArrowFunction(j + 1)) {
+                return;
+            }
+            add(Kind.FUNCTION, "Function", t.text(name), declarationStart(i), blockEnd(headerEnd(j + 1)));
+        }
+
+        private boolean isArrowFunction(int j) {
+            if (t.is(j, "async")) {
+                j++;
+            }
+            if (t.is(j, "function")) {
+                return true;
+            }
+            if (t.isPunct(j, '(') && t.match(j) > 0) {
+                int after = t.match(j) + 1;
+                return t.isPunct(after, "=>") || t.isPunct(after, ':');
+            }
+            return isWord(j) && t.isPunct(j + 1, "=>");
+        }
+
+        // Imports
+
+        private void importDeclaration(int i) {
+            boolean statementStart = t.startsLine(i) || t.isPunct(i - 1, ';') || t.isPunct(i - 1, '}');
+            if (!statementStart || followsDot(i)) {
+                return;
+            }
+            if (t.getLanguage() != Language.GO && t.isPunct(i + 1, '(') || t.is(i + 1, "var")) {
+                return; // import(), using (...) and using var statements
+            }
+            add(Kind.IMPORT, "Import", "import", i, statementEnd(i));
+        }
+
+        // Endpoints
+
+        private void annotationEndpoint(int i) {
+            if (rules.endpointAnnotations.isEmpty()) {
+                return;
+            }
+            String annotation = t.text(i);
+            int dot = annotation.lastIndexOf('.');
+            String label = rules.endpointAnnotations.get(annotation.substring(dot < 0 ? 1 : dot + 1));
+            if (label == null || rules.annotationNeedsReceiver && dot < 0) {
+                return;
+            }
+            int end = t.isPunct(i + 1, '(') && t.match(i + 1) > 0 ? t.match(i + 1) : i;
+            add(Kind.ENDPOINT, label, routeArgument(i + 1), i, end);
+        }
+
+        private void attributeEndpoint(int i) {
+            int name = i + 1;
+            if (!isAny(name, rules.endpointAttributes)) {
+                return;
+            }
+            int end = t.match(i) > 0 ? t.match(i) : name;
+            add(Kind.ENDPOINT, "ASP.NET endpoint", routeArgument(name + 1), i, end);
+        }
+
+        private void callEndpoint(int i) {
+            if (!t.isPunct(i + 1, '(') || !isString(i + 2)
+                    || !t.stringValue(i + 2).startsWith("/")) {
+                return;
+            }
+            int start;
+            if (rules.bareEndpointCalls && !followsDot(i)) {
+                start = i;
+            } else if (t.isPunct(i - 1, '.') && isWord(i - 2)
+                    && (rules.endpointReceivers == null || isAny(i - 2, rules.endpointReceivers))) {
+                start = i - 2;
+            } else {
+                return;
+            }
+            int end = t.match(i + 1) > 0 ? t.match(i + 1) : i + 2;
+            if (t.isPunct(end + 1, '{') && t.match(end + 1) > 0) {
+                end = t.match(end + 1); // Trailing lambda handler
+            }
+            add(Kind.ENDPOINT, rules.endpointCallLabel, t.stringValue(i + 2), start, end);
+        }
+
+        /**
+         * First string literal of an argument list, or "unknown"
+         */
+        private String routeArgument(int open) {
+            if (!t.isPunct(open, '(')) {
+                return "unknown";
+            }
+            int close = t.match(open) > 0 ? t.match(open) : Math.min(size, open + 16);
+            for (int k = open + 1; k < close; k++) {
+                if (t.kind(k) == SourceLexer.Kind.STRING) {
+                    return t.stringValue(k);
+                }
+            }
+            return "unknown";
+        }
+
+        // SQL
+
+        private void sqlDeclaration(int i) {
+            int j = i + 1;
+            while (isAny(j, SQL_CREATE_MODIFIERS)) {
+                j++;
+            }
+            Kind kind;
+            if (isAny(j, SQL_TYPES)) {
+                kind = Kind.CLASS;
+            } else if (isAny(j, SQL_ROUTINES)) {
+                kind = Kind.FUNCTION;
+            } else {
+                return;
+            }
+            String label = capitalize(t.text(j));
+            j++;
+            if (t.is(j, "if") && t.is(j + 1, "not") && t.is(j + 2, "exists")) {
+                j += 3;
+            }
+            StringBuilder name = new StringBuilder();
+            while (j < size && (t.kind(j) == SourceLexer.Kind.WORD || t.kind(j) == SourceLexer.Kind.STRING)) {
+                name.append(t.kind(j) == SourceLexer.Kind.WORD ? t.text(j) : t.stringValue(j));
+                if (!t.isPunct(j + 1, '.')) {
+                    break;
+                }
+                name.append('.');
+                j += 2;
+            }
+            if (name.isEmpty()) {
+                return;
+            }
+            int end = j;
+            while (end < size - 1 && !t.isPunct(end, ';')) {
+                end = isOpening(end) && t.match(end) > 0 ? t.match(end) + 1 : end + 1;
+            }
+            add(kind, label, name.toString(), i, Math.min(end, size - 1));
+        }
+
+        // Ranges
+
+        /**
+         * Where a declaration header stops: its opening brace, a semicolon, or the last token
+         * before a line break that does not continue the header
+         */
+        private int headerEnd(int from) {
+            int j = from;
+            while (j < size) {
+                if (t.isPunct(j, '{') || t.isPunct(j, ';')) {
+                    return j;
+                }
+                if ((t.isPunct(j, '(') || t.isPunct(j, '[')) && t.match(j) > 0) {
+                    j = t.match(j);
+                }
+                int next = j + 1;
+                if (next >= size) {
+                    return j;
+                }
+                if (t.line(next) > t.endLine(j) && !continuesHeader(j, next)) {
+                    return j;
+                }
+                j = next;
+            }
+            return size - 1;
+        }
+
+        private boolean continuesHeader(int last, int next) {
+            return t.isPunct(next, '{') || t.isPunct(next, ':') || t.isPunct(next, '.') || t.isPunct(next, "=>")
+                    || t.is(next, "throws") || t.is(next, "extends") || t.is(next, "implements") || t.is(next, "where")
+                    || t.isPunct(last, ',') || t.isPunct(last, '(') || t.isPunct(last, ':') || t.isPunct(last, '=')
+                    || t.isPunct(last, "=>") || t.isPunct(last, "->") || t.isPunct(last, '&') || t.isPunct(last, '|');
+        }
+
+        private int blockEnd(int header) {
+            if (t.isPunct(header, '{')) {
+                return t.match(header) > 0 ? t.match(header) : size - 1;
+            }
+            return header;
+        }
+
+        /**
+         * Python: the block runs until a line starts at or left of the declaration's indentation
+         */
+        private int indentBlockEnd(int i) {
+            int first = i;
+            while (!t.startsLine(first)) {
+                first--;
+            }
+            int indent = t.column(first);
+            int colon = i;
+            while (colon < size && !t.isPunct(colon, ':')) {
+                colon = isOpening(colon) && t.match(colon) > 0 ? t.match(colon) + 1 : colon + 1;
+            }
+            int j = colon + 1;
+            if (j < size && !t.startsLine(j)) {
+                while (j + 1 < size && !t.startsLine(j + 1)) {
+                    j++; // One-line body
+                }
+                return j;
+            }
+            while (j < size && !(t.startsLine(j) && t.column(j) <= indent)) {
+                j++;
+            }
+            return Math.min(j, size) - 1;
+        }
+
+        private int statementEnd(int i) {
+            int j = i;
+            while (j < size - 1) {
+                if (isOpening(j) && t.match(j) > 0) {
+                    j = t.match(j);
+                }
+                if (t.isPunct(j, ';') || t.line(j + 1) > t.endLine(j)) {
+                    return j;
+                }
+                j++;
+            }
+            return Math.min(j, size - 1);
+        }
+
+        /**
+         * Modifiers and annotations on the same line belong to the declaration
+         */
+        private int declarationStart(int i) {
+            int start = i;
+            while (start > 0 && t.line(start - 1) == t.line(i)
+                    && (t.kind(start - 1) == SourceLexer.Kind.WORD || t.kind(start - 1) == SourceLexer.Kind.ANNOTATION)) {
+                start--;
+            }
+            return start;
+        }
+
+        private int skipAngles(int j) {
+            int open = 0;
+            int limit = Math.min(size, j + 64);
+            for (; j < limit; j++) {
+                if (t.isPunct(j, '<')) {
+                    open++;
+                } else if (t.isPunct(j, '>') && --open == 0) {
+                    return j + 1;
+                }
+            }
+            return j;
+        }
+
+        private boolean inTypeBody() {
+            return depth > 0 && typeBodies.get(scopes[depth - 1]);
+        }
+
+        private boolean followsDot(int i) {
+            return t.isPunct(i - 1, '.') || t.isPunct(i - 1, "::");
+        }
+
+        private boolean isWord(int i) {
+            return i >= 0 && i < size && t.kind(i) == SourceLexer.Kind.WORD;
+        }
+
+        private boolean isString(int i) {
+            return i >= 0 && i < size && t.kind(i) == SourceLexer.Kind.STRING;
+        }
+
+        private boolean isOpening(int j) {
+            return t.isPunct(j, '(') || t.isPunct(j, '[') || t.isPunct(j, '{');
+        }
+
+        private boolean isAny(int i, String[] words) {
+            if (i < 0 || i >= size) {
+                return false;
+            }
+            if (t.kind(i) == SourceLexer.Kind.ANNOTATION) {
+                for (String word : words) {
+                    if (word.startsWith("@") && t.end(i) - t.start(i) == word.length()
+                            && t.getSource().startsWith(word, t.start(i))) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            for (String word : words) {
+                if (t.is(i, word)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void add(Kind kind, String label, String name, int start, int end) {
+            found.add(new Declaration(kind, label, name, t.line(start), t.column(start), t.endLine(end), t.endColumn(end)));
+        }
+
+        private static String capitalize(String word) {
+            return Character.toUpperCase(word.charAt(0)) + word.substring(1).toLowerCase();
+        }
+    }
+}
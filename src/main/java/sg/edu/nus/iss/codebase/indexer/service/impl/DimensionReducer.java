@@ -0,0 +1,440 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import io.qdrant.client.QdrantClient;
+import io.qdrant.client.WithPayloadSelectorFactory;
+import io.qdrant.client.WithVectorsSelectorFactory;
+import io.qdrant.client.grpc.Collections.AliasDescription;
+import io.qdrant.client.grpc.Points.PointId;
+import io.qdrant.client.grpc.Points.RetrievedPoint;
+import io.qdrant.client.grpc.Points.ScrollPoints;
+import io.qdrant.client.grpc.Points.ScrollResponse;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Vector dimensions per collection, and the optional projection that reduces them
+ * Collections are created with the embedding model's native dimension, detected once from the
+ * model, unless a projection has been fitted for the collection. Projections are stored next to
+ * migration checkpoints, keyed by the collection's alias so every generation behind it uses the
+ * same one. A projection being migrated to is staged under the generation collection it fills,
+ * and applies to the alias as soon as the alias points at that collection.
+ */
+@Component
+public class DimensionReducer {
+
+    private static final int MAX_QUERIES = 100;
+    private static final int SCROLL_PAGE = 256;
+
+    private final QdrantClient qdrantClient;
+    private final EmbeddingModel embeddingModel;
+    private final IndexingConfiguration.ReductionConfig config;
+    private final Map<String, Optional<VectorProjection>> activeProjections = new ConcurrentHashMap<>();
+    private final Map<String, Optional<StagedProjection>> stagedProjections = new ConcurrentHashMap<>();
+    private volatile int nativeDimensions = 0;
+
+    @Autowired
+    public DimensionReducer(QdrantClient qdrantClient, EmbeddingModel embeddingModel, IndexingConfiguration config) {
+        this.qdrantClient = qdrantClient;
+        this.embeddingModel = embeddingModel;
+        this.config = config.getReduction();
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Dimension of the vectors the embedding model produces. Detected on first use; 0 while the
+     * model cannot be reached, in which case detection is retried next time.
+     */
+    public int nativeDimensions() {
+        int dimensions = nativeDimensions;
+        if (dimensions > 0) {
+            return dimensions;
+        }
+        try {
+            dimensions = embeddingModel.dimensions();
+        } catch (Exception e) {
+            System.err.println("⚠️ Warning: Could not detect embedding dimensions: " + e.getMessage());
+            return 0;
+        }
+        if (dimensions <= 0) {
+            return 0;
+        }
+        System.out.println("📐 Embedding model produces " + dimensions + "-dimensional vectors");
+        nativeDimensions = dimensions;
+        return dimensions;
+    }
+
+    /**
+     * Vector size a collection (or a generation behind its alias) is created and checked with,
+     * or 0 when it has no projection and the embedding model's dimension is not known yet
+     */
+    public int dimensionsFor(String collectionName) {
+        VectorProjection projection = projectionFor(collectionName);
+        return projection != null ? projection.getOutputDimensions() : nativeDimensions();
+    }
+
+    /**
+     * Projection applied to vectors written to and searched in a collection, or null when its
+     * vectors are stored at the native dimension. While a migration is staged, the alias is
+     * resolved on each call so the staged projection applies from the moment it switches.
+     */
+    public VectorProjection projectionFor(String collectionName) {
+        if (!config.isEnabled()) {
+            return null;
+        }
+        String alias = CollectionAliasManager.logicalName(collectionName);
+        StagedProjection staged = staged(alias);
+        if (staged != null && (collectionName.equals(staged.target)
+                || collectionName.equals(alias) && staged.target.equals(aliasTarget(alias)))) {
+            return staged.projection;
+        }
+        return activeProjections.computeIfAbsent(alias, key -> Optional.ofNullable(loadQuietly(projectionPath(key))))
+                .orElse(null);
+    }
+
+    /**
+     * Read up to the configured sample size of stored vectors from a collection
+     */
+    public List<float[]> sample(String collectionName) throws Exception {
+        List<float[]> vectors = new ArrayList<>();
+        PointId offset = null;
+        while (vectors.size() < config.getSampleSize()) {
+            ScrollPoints.Builder request = ScrollPoints.newBuilder()
+                    .setCollectionName(collectionName)
+                    .setLimit(Math.min(SCROLL_PAGE, config.getSampleSize() - vectors.size()))
+                    .setWithPayload(WithPayloadSelectorFactory.enable(false))
+                    .setWithVectors(WithVectorsSelectorFactory.enable(true));
+            if (offset != null) {
+                request.setOffset(offset);
+            }
+            ScrollResponse page = qdrantClient.scrollAsync(request.build()).get();
+            for (RetrievedPoint point : page.getResultList()) {
+                List<Float> data = point.getVectors().getVector().getDataList();
+                if (!data.isEmpty()) {
+                    float[] vector = new float[data.size()];
+                    for (int i = 0; i < vector.length; i++) {
+                        vector[i] = data.get(i);
+                    }
+                    vectors.add(vector);
+                }
+            }
+            if (!page.hasNextPageOffset()) {
+                break;
+            }
+            offset = page.getNextPageOffset();
+        }
+        return vectors;
+    }
+
+    /**
+     * Fit the configured projection on a sample and measure recall@k against the unreduced
+     * vectors for each candidate size. A slice of the sample is held out as queries and the
+     * projection is fitted on the rest.
+     */
+    public Report evaluate(List<float[]> sample) {
+        int dimensions = sample.get(0).length;
+        int queryCount = Math.max(1, Math.min(MAX_QUERIES, sample.size() / 10));
+        List<float[]> queries = sample.subList(0, queryCount);
+        List<float[]> base = sample.subList(queryCount, sample.size());
+        int k = Math.min(config.getRecallK(), base.size());
+
+        List<Integer> candidates = Stream.concat(config.getCandidateDimensions().stream(),
+                        Stream.of(config.getTargetDimensions()))
+                .filter(candidate -> candidate > 0 && candidate < dimensions)
+                .sorted()
+                .distinct()
+                .toList();
+        if (candidates.isEmpty()) {
+            throw new IllegalArgumentException("No candidate dimension below the native " + dimensions);
+        }
+        int largest = candidates.get(candidates.size() - 1);
+        VectorProjection fitted = VectorProjection.RANDOM.equals(config.getMethod())
+                ? VectorProjection.random(dimensions, largest, dimensions * 7919L)
+                : VectorProjection.pca(base, largest);
+
+        List<float[]> normalizedBase = normalizeAll(base);
+        int[][] truth = new int[queryCount][];
+        for (int q = 0; q < queryCount; q++) {
+            truth[q] = topK(normalizedBase, normalize(queries.get(q)), k);
+        }
+        Report report = new Report(fitted, dimensions, config.getMinRecall(), config.getTargetDimensions());
+        for (int candidate : candidates) {
+            VectorProjection projection = fitted.truncate(candidate);
+            List<float[]> projectedBase = new ArrayList<>(base.size());
+            for (float[] vector : base) {
+                projectedBase.add(normalize(projection.project(vector)));
+            }
+            int hits = 0;
+            for (int q = 0; q < queryCount; q++) {
+                int[] found = topK(projectedBase, normalize(projection.project(queries.get(q))), k);
+                hits += overlap(found, truth[q]);
+            }
+            report.rows.add(new Report.Row(candidate, (double) hits / (queryCount * k)));
+        }
+        return report;
+    }
+
+    /**
+     * Keep a projection for the generation collection a migration fills. It applies to that
+     * collection right away and to its alias once the alias points at it.
+     */
+    public void stage(String target, VectorProjection projection) throws IOException {
+        String alias = CollectionAliasManager.logicalName(target);
+        StagedProjection previous = staged(alias);
+        if (previous != null && !previous.target.equals(target)) {
+            Files.deleteIfExists(stagedPath(previous.target));
+        }
+        projection.save(stagedPath(target));
+        stagedProjections.put(alias, Optional.of(new StagedProjection(target, projection)));
+    }
+
+    /**
+     * Projection staged by a migration that has not completed, or null
+     */
+    public VectorProjection stagedProjection(String alias) {
+        StagedProjection staged = staged(alias);
+        return staged != null ? staged.projection : null;
+    }
+
+    /**
+     * Whether the alias already points at the collection filled with the staged projection,
+     * i.e. a migration switched over but was interrupted before activating it
+     */
+    public boolean servesStagedProjection(String alias) {
+        StagedProjection staged = staged(alias);
+        return staged != null && staged.target.equals(aliasTarget(alias));
+    }
+
+    /**
+     * Make the staged projection the one applied to every generation behind the alias, once
+     * the alias serves the reduced vectors
+     */
+    public void activate(String alias) throws IOException {
+        StagedProjection staged = staged(alias);
+        if (staged == null) {
+            throw new IllegalStateException("No projection staged for " + alias);
+        }
+        Files.move(stagedPath(staged.target), projectionPath(alias), StandardCopyOption.REPLACE_EXISTING);
+        stagedProjections.put(alias, Optional.empty());
+        activeProjections.remove(alias);
+    }
+
+    public static Path projectionPath(String alias) {
+        return Paths.get(".projection_" + alias + ".bin");
+    }
+
+    static Path stagedPath(String target) {
+        return Paths.get(".projection_" + target + ".staged.bin");
+    }
+
+    /**
+     * Projection staged for a generation of the alias, read from disk the first time so an
+     * interrupted migration is picked up after a restart. The latest generation wins.
+     */
+    private StagedProjection staged(String alias) {
+        return stagedProjections.computeIfAbsent(alias, key -> {
+            String prefix = ".projection_" + key + "-gen-";
+            String suffix = ".staged.bin";
+            Path latest = null;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get("."), prefix + "*" + suffix)) {
+                for (Path file : files) {
+                    if (latest == null || file.getFileName().toString().compareTo(latest.getFileName().toString()) > 0) {
+                        latest = file;
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("⚠️ Warning: Could not look for staged projections: " + e.getMessage());
+            }
+            if (latest == null) {
+                return Optional.empty();
+            }
+            String name = latest.getFileName().toString();
+            String target = name.substring(".projection_".length(), name.length() - suffix.length());
+            VectorProjection projection = loadQuietly(latest);
+            return Optional.ofNullable(projection != null ? new StagedProjection(target, projection) : null);
+        }).orElse(null);
+    }
+
+    private String aliasTarget(String alias) {
+        try {
+            for (AliasDescription description : qdrantClient.listAliasesAsync().get()) {
+                if (description.getAliasName().equals(alias)) {
+                    return description.getCollectionName();
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Warning: Could not resolve alias " + alias + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    private static VectorProjection loadQuietly(Path file) {
+        try {
+            return VectorProjection.load(file);
+        } catch (IOException e) {
+            System.err.println("⚠️ Warning: Ignoring unreadable projection " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static List<float[]> normalizeAll(List<float[]> vectors) {
+        List<float[]> normalized = new ArrayList<>(vectors.size());
+        for (float[] vector : vectors) {
+            normalized.add(normalize(vector));
+        }
+        return normalized;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        float scale = norm > 0 ? (float) (1.0 / Math.sqrt(norm)) : 0f;
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] * scale;
+        }
+        return normalized;
+    }
+
+    /**
+     * Indexes of the k vectors with the highest cosine similarity to the query, both normalized
+     */
+    static int[] topK(List<float[]> vectors, float[] query, int k) {
+        float[] scores = new float[vectors.size()];
+        for (int i = 0; i < scores.length; i++) {
+            float[] vector = vectors.get(i);
+            float dot = 0;
+            for (int d = 0; d < query.length; d++) {
+                dot += vector[d] * query[d];
+            }
+            scores[i] = dot;
+        }
+        Integer[] order = new Integer[scores.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Float.compare(scores[b], scores[a]));
+        int[] top = new int[Math.min(k, order.length)];
+        for (int i = 0; i < top.length; i++) {
+            top[i] = order[i];
+        }
+        return top;
+    }
+
+    private static int overlap(int[] found, int[] expected) {
+        int hits = 0;
+        for (int id : found) {
+            for (int wanted : expected) {
+                if (id == wanted) {
+                    hits++;
+                    break;
+                }
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * A projection waiting for its alias to switch to the generation collection it was applied to
+     */
+    private static class StagedProjection {
+        private final String target;
+        private final VectorProjection projection;
+
+        StagedProjection(String target, VectorProjection projection) {
+            this.target = target;
+            this.projection = projection;
+        }
+    }
+
+    /**
+     * Recall-vs-size report for one fitted projection
+     */
+    public static class Report {
+        private final VectorProjection fitted;
+        private final int nativeDimensions;
+        private final double minRecall;
+        private final int targetDimensions;
+        private final List<Row> rows = new ArrayList<>();
+
+        Report(VectorProjection fitted, int nativeDimensions, double minRecall, int targetDimensions) {
+            this.fitted = fitted;
+            this.nativeDimensions = nativeDimensions;
+            this.minRecall = minRecall;
+            this.targetDimensions = targetDimensions;
+        }
+
+        public List<Row> getRows() {
+            return rows;
+        }
+
+        public int getNativeDimensions() {
+            return nativeDimensions;
+        }
+
+        /**
+         * Configured target dimension when set and below the native one, otherwise the smallest
+         * candidate reaching the minimum recall, or 0 when none does
+         */
+        public int recommendedDimensions() {
+            if (targetDimensions > 0 && targetDimensions < nativeDimensions) {
+                return targetDimensions;
+            }
+            for (Row row : rows) {
+                if (row.recall >= minRecall) {
+                    return row.dimensions;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * The fitted projection cut to a size from the report
+         */
+        public VectorProjection projection(int dimensions) {
+            return fitted.truncate(dimensions);
+        }
+
+        public static class Row {
+            private final int dimensions;
+            private final double recall;
+
+            Row(int dimensions, double recall) {
+                this.dimensions = dimensions;
+                this.recall = recall;
+            }
+
+            public int getDimensions() {
+                return dimensions;
+            }
+
+            public double getRecall() {
+                return recall;
+            }
+
+            public long getBytesPerVector() {
+                return (long) dimensions * Float.BYTES;
+            }
+        }
+    }
+}
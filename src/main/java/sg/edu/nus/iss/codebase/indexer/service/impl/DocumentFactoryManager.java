@@ -3,6 +3,7 @@ package sg.edu.nus.iss.codebase.indexer.service.impl;
 import org.springframework.ai.document.Document;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import sg.edu.nus.iss.codebase.indexer.model.FileContent;
 import sg.edu.nus.iss.codebase.indexer.service.interfaces.DocumentFactory;
 
 import java.io.File;
@@ -34,6 +35,18 @@ public class DocumentFactoryManager {
         return List.of(); // No factory supports this file type
     }
 
+    /**
+     * Create documents from already-read content using the appropriate factory
+     */
+    public List<Document> createDocumentsFromContent(FileContent content) {
+        for (DocumentFactory factory : factories) {
+            if (factory.supports(content.getFile())) {
+                return factory.createDocumentsFromContent(content);
+            }
+        }
+        return List.of(); // No factory supports this file type
+    }
+
     /**
      * Check if any factory supports the file
      */
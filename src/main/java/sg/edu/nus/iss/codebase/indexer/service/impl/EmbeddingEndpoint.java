@@ -0,0 +1,189 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One embedding server behind the load balancer, with its live load and health state
+ */
+public class EmbeddingEndpoint {
+
+    // Weight of the newest sample in the smoothed per-input latency
+    private static final double LATENCY_SMOOTHING = 0.3;
+
+    private final String baseUrl;
+    private final EmbeddingModel model;
+    private final long createdAt = System.nanoTime();
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicInteger ejections = new AtomicInteger();
+    private final AtomicInteger samplesSinceAdmission = new AtomicInteger();
+
+    private volatile double smoothedLatencyMs = 0.0;
+    private volatile long ejectedUntil = 0L;
+    private volatile boolean healthy = true;
+    private volatile String lastError;
+
+    public EmbeddingEndpoint(String baseUrl, EmbeddingModel model) {
+        this.baseUrl = baseUrl;
+        this.model = model;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    EmbeddingModel getModel() {
+        return model;
+    }
+
+    /**
+     * Endpoint can take traffic: healthy and not inside an ejection window
+     */
+    boolean isAvailable(long nowMillis) {
+        return healthy && nowMillis >= ejectedUntil;
+    }
+
+    boolean isEjected(long nowMillis) {
+        return nowMillis < ejectedUntil;
+    }
+
+    long getEjectedUntil() {
+        return ejectedUntil;
+    }
+
+    void begin() {
+        outstanding.incrementAndGet();
+    }
+
+    /**
+     * @param inputs texts embedded by the call; the smoothed latency is kept per input so
+     *               endpoints serving bulk batches compare fairly with ones serving single queries
+     */
+    void recordSuccess(long latencyNanos, int inputs) {
+        outstanding.decrementAndGet();
+        requests.incrementAndGet();
+        totalLatencyNanos.addAndGet(latencyNanos);
+        consecutiveFailures.set(0);
+        samplesSinceAdmission.incrementAndGet();
+
+        double latencyMs = latencyNanos / (double) TimeUnit.MILLISECONDS.toNanos(1) / Math.max(1, inputs);
+        double previous = smoothedLatencyMs;
+        smoothedLatencyMs = previous == 0.0
+                ? latencyMs
+                : LATENCY_SMOOTHING * latencyMs + (1 - LATENCY_SMOOTHING) * previous;
+    }
+
+    /**
+     * @return consecutive failures including this one
+     */
+    int recordFailure(String error) {
+        outstanding.decrementAndGet();
+        requests.incrementAndGet();
+        failures.incrementAndGet();
+        lastError = error;
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    /**
+     * Take the endpoint out of rotation; its latency history is dropped so it is judged afresh on return
+     */
+    void eject(long untilMillis, String reason) {
+        ejectedUntil = untilMillis;
+        ejections.incrementAndGet();
+        lastError = reason;
+        smoothedLatencyMs = 0.0;
+        samplesSinceAdmission.set(0);
+    }
+
+    void markHealthy(boolean healthy) {
+        this.healthy = healthy;
+        if (healthy) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    int getOutstanding() {
+        return outstanding.get();
+    }
+
+    double getSmoothedLatencyMs() {
+        return smoothedLatencyMs;
+    }
+
+    int getSamplesSinceAdmission() {
+        return samplesSinceAdmission.get();
+    }
+
+    /**
+     * Point-in-time statistics for display
+     */
+    public EndpointStats snapshot() {
+        long now = System.currentTimeMillis();
+        long calls = requests.get();
+        long succeeded = calls - failures.get();
+        double uptimeSeconds = Math.max(0.001, (System.nanoTime() - createdAt) / 1e9);
+        String state = !healthy ? "UNHEALTHY" : isEjected(now) ? "EJECTED" : "ACTIVE";
+        return new EndpointStats(
+                baseUrl,
+                state,
+                outstanding.get(),
+                calls,
+                failures.get(),
+                succeeded > 0 ? totalLatencyNanos.get() / (double) succeeded / 1e6 : 0.0,
+                smoothedLatencyMs,
+                calls / uptimeSeconds,
+                ejections.get(),
+                lastError);
+    }
+
+    /**
+     * Immutable endpoint statistics, latencies in milliseconds: the average per call,
+     * the recent one per embedded input
+     */
+    public static class EndpointStats {
+        private final String baseUrl;
+        private final String state;
+        private final int outstanding;
+        private final long requests;
+        private final long failures;
+        private final double averageLatencyMs;
+        private final double recentLatencyMs;
+        private final double requestsPerSecond;
+        private final int ejections;
+        private final String lastError;
+
+        EndpointStats(String baseUrl, String state, int outstanding, long requests, long failures,
+                double averageLatencyMs, double recentLatencyMs, double requestsPerSecond,
+                int ejections, String lastError) {
+            this.baseUrl = baseUrl;
+            this.state = state;
+            this.outstanding = outstanding;
+            this.requests = requests;
+            this.failures = failures;
+            this.averageLatencyMs = averageLatencyMs;
+            this.recentLatencyMs = recentLatencyMs;
+            this.requestsPerSecond = requestsPerSecond;
+            this.ejections = ejections;
+            this.lastError = lastError;
+        }
+
+        public String getBaseUrl() { return baseUrl; }
+        public String getState() { return state; }
+        public int getOutstanding() { return outstanding; }
+        public long getRequests() { return requests; }
+        public long getFailures() { return failures; }
+        public double getAverageLatencyMs() { return averageLatencyMs; }
+        public double getRecentLatencyMs() { return recentLatencyMs; }
+        public double getRequestsPerSecond() { return requestsPerSecond; }
+        public int getEjections() { return ejections; }
+        public String getLastError() { return lastError; }
+    }
+}
@@ -0,0 +1,283 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.ollama.OllamaEmbeddingModel;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.ai.ollama.api.OllamaOptions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Spreads embedding calls over several Ollama instances
+ * Endpoints are picked by least outstanding requests or power-of-two-choices,
+ * failing or slow endpoints are ejected for a while, and a background health
+ * check keeps unreachable ones out of rotation.
+ *
+ * Only active when indexer.embedding.endpoints lists at least one URL; otherwise the
+ * single spring.ai.ollama.base-url model is used as before.
+ */
+@Component
+public class EmbeddingLoadBalancer {
+
+    static final String LEAST_OUTSTANDING = "least-outstanding";
+    static final String POWER_OF_TWO = "power-of-two";
+
+    // Samples an endpoint needs before it can be compared with others for slowness
+    private static final int MIN_LATENCY_SAMPLES = 5;
+
+    private final IndexingConfiguration.EmbeddingConfig config;
+    private final List<EmbeddingEndpoint> endpoints;
+    private final HttpClient healthClient;
+    private final ScheduledExecutorService healthChecker;
+    private final EmbeddingModel embeddingModel = new BalancedEmbeddingModel();
+
+    @Autowired
+    public EmbeddingLoadBalancer(IndexingConfiguration config,
+            @Value("${spring.ai.ollama.embedding.options.model:nomic-embed-text}") String modelName) {
+        this(config, baseUrl -> OllamaEmbeddingModel.builder()
+                .ollamaApi(OllamaApi.builder().baseUrl(baseUrl).build())
+                .defaultOptions(OllamaOptions.builder().model(modelName).build())
+                .build());
+    }
+
+    EmbeddingLoadBalancer(IndexingConfiguration config, Function<String, EmbeddingModel> modelFactory) {
+        this.config = config.getEmbedding();
+        this.endpoints = this.config.getEndpoints().stream()
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .distinct()
+                .map(url -> new EmbeddingEndpoint(url, modelFactory.apply(url)))
+                .toList();
+        this.healthClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(this.config.getHealthCheckTimeoutMs()))
+                .build();
+
+        if (isEnabled() && this.config.getHealthCheckIntervalMs() > 0) {
+            healthChecker = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofVirtual().name("embedding-health-", 0).factory());
+            long interval = this.config.getHealthCheckIntervalMs();
+            healthChecker.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+            System.out.println("⚖️ Embedding load balancer: " + endpoints.size() + " endpoints ("
+                    + this.config.getBalancingStrategy() + ")");
+        } else {
+            healthChecker = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return !endpoints.isEmpty();
+    }
+
+    /**
+     * Embedding model view that routes each call to the best available endpoint
+     */
+    public EmbeddingModel getEmbeddingModel() {
+        return embeddingModel;
+    }
+
+    /**
+     * Per-endpoint statistics in configuration order
+     */
+    public List<EmbeddingEndpoint.EndpointStats> getEndpointStats() {
+        return endpoints.stream().map(EmbeddingEndpoint::snapshot).toList();
+    }
+
+    /**
+     * Probe every endpoint once; unreachable endpoints leave rotation until a probe succeeds
+     */
+    public void checkHealth() {
+        for (EmbeddingEndpoint endpoint : endpoints) {
+            boolean healthy = probe(endpoint);
+            if (!healthy) {
+                System.err.println("⚠️ Embedding endpoint unhealthy: " + endpoint.getBaseUrl());
+            }
+            endpoint.markHealthy(healthy);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+    }
+
+    private boolean probe(EmbeddingEndpoint endpoint) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(stripTrailingSlash(endpoint.getBaseUrl()) + "/api/version"))
+                    .timeout(Duration.ofMillis(config.getHealthCheckTimeoutMs()))
+                    .GET()
+                    .build();
+            HttpResponse<Void> response = healthClient.send(request, HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() == 200;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Run a call on the selected endpoint, failing over to the others.
+     * Embedding calls are idempotent, so retrying on another endpoint is safe.
+     *
+     * @param inputs texts the call embeds, so latency is compared per input across batch sizes
+     */
+    private <T> T invoke(int inputs, Function<EmbeddingModel, T> call) {
+        Set<EmbeddingEndpoint> tried = new HashSet<>();
+        RuntimeException lastFailure = null;
+
+        while (tried.size() < endpoints.size()) {
+            EmbeddingEndpoint endpoint = select(tried);
+            if (endpoint == null) {
+                break;
+            }
+            tried.add(endpoint);
+
+            endpoint.begin();
+            long start = System.nanoTime();
+            try {
+                T result = call.apply(endpoint.getModel());
+                endpoint.recordSuccess(System.nanoTime() - start, inputs);
+                ejectIfSlow(endpoint);
+                return result;
+            } catch (RuntimeException e) {
+                lastFailure = e;
+                int failuresInRow = endpoint.recordFailure(e.getMessage());
+                if (failuresInRow >= config.getMaxConsecutiveFailures()) {
+                    eject(endpoint, failuresInRow + " consecutive failures: " + e.getMessage());
+                }
+            }
+        }
+
+        if (lastFailure != null) {
+            throw lastFailure;
+        }
+        throw new IllegalStateException("No embedding endpoints available");
+    }
+
+    /**
+     * Pick the next endpoint, or null when every endpoint has been tried
+     */
+    EmbeddingEndpoint select(Set<EmbeddingEndpoint> excluded) {
+        long now = System.currentTimeMillis();
+        List<EmbeddingEndpoint> candidates = new ArrayList<>();
+        for (EmbeddingEndpoint endpoint : endpoints) {
+            if (!excluded.contains(endpoint) && endpoint.isAvailable(now)) {
+                candidates.add(endpoint);
+            }
+        }
+
+        if (candidates.isEmpty()) {
+            // Everything is out of rotation: use the endpoint closest to re-admission rather than fail outright
+            return endpoints.stream()
+                    .filter(endpoint -> !excluded.contains(endpoint))
+                    .min(Comparator.comparingLong(EmbeddingEndpoint::getEjectedUntil))
+                    .orElse(null);
+        }
+
+        if (POWER_OF_TWO.equalsIgnoreCase(config.getBalancingStrategy()) && candidates.size() > 2) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(candidates.size());
+            int second = random.nextInt(candidates.size() - 1);
+            if (second >= first) {
+                second++;
+            }
+            return lessLoaded(candidates.get(first), candidates.get(second));
+        }
+
+        EmbeddingEndpoint best = candidates.get(0);
+        for (int i = 1; i < candidates.size(); i++) {
+            best = lessLoaded(best, candidates.get(i));
+        }
+        return best;
+    }
+
+    private EmbeddingEndpoint lessLoaded(EmbeddingEndpoint a, EmbeddingEndpoint b) {
+        if (a.getOutstanding() != b.getOutstanding()) {
+            return a.getOutstanding() < b.getOutstanding() ? a : b;
+        }
+        return a.getSmoothedLatencyMs() <= b.getSmoothedLatencyMs() ? a : b;
+    }
+
+    /**
+     * Eject an endpoint whose recent per-input latency is far above the fastest available endpoint
+     */
+    private void ejectIfSlow(EmbeddingEndpoint endpoint) {
+        if (endpoints.size() < 2 || endpoint.getSamplesSinceAdmission() < MIN_LATENCY_SAMPLES) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        double fastest = Double.MAX_VALUE;
+        int otherAvailable = 0;
+        for (EmbeddingEndpoint other : endpoints) {
+            if (other != endpoint && other.isAvailable(now)) {
+                otherAvailable++;
+                if (other.getSamplesSinceAdmission() >= MIN_LATENCY_SAMPLES) {
+                    fastest = Math.min(fastest, other.getSmoothedLatencyMs());
+                }
+            }
+        }
+
+        // Never eject the last endpoint in rotation
+        if (otherAvailable == 0 || fastest == Double.MAX_VALUE) {
+            return;
+        }
+
+        double latency = endpoint.getSmoothedLatencyMs();
+        if (latency > fastest * config.getSlowEndpointFactor()) {
+            eject(endpoint, String.format("slow: %.0fms vs %.0fms", latency, fastest));
+        }
+    }
+
+    private void eject(EmbeddingEndpoint endpoint, String reason) {
+        endpoint.eject(System.currentTimeMillis() + config.getEjectionDurationMs(), reason);
+        System.err.println("⚠️ Ejected embedding endpoint " + endpoint.getBaseUrl() + " (" + reason + ")");
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /**
+     * Embedding model facade over the endpoint pool
+     */
+    private class BalancedEmbeddingModel implements EmbeddingModel {
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            return invoke(request.getInstructions().size(), model -> model.call(request));
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return invoke(1, model -> model.embed(document));
+        }
+
+        @Override
+        public int dimensions() {
+            return invoke(1, EmbeddingModel::dimensions);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.model.EmbeddingPriority;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Single gateway for every call to the embedding model
+ * Calls are admitted by priority class (interactive > incremental > bulk) into a
+ * bounded number of slots, with some slots reserved for interactive queries so a
+ * search never queues behind thousands of bulk indexing requests.
+ *
+ * Callers tag their work with {@link #callAs}/{@link #runAs}; the embedding model
+ * used by the vector stores reads the tag and routes the call through {@link #execute}.
+ * Untagged calls are treated as interactive.
+ */
+@Component
+public class EmbeddingScheduler {
+
+    private static final ThreadLocal<EmbeddingPriority> CURRENT_PRIORITY = new ThreadLocal<>();
+
+    private final int maxConcurrent;
+    private final int bulkLimit;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<EmbeddingPriority, Condition> slotAvailable = new EnumMap<>(EmbeddingPriority.class);
+    private final int[] waiting = new int[EmbeddingPriority.values().length];
+    private int inFlight = 0;
+
+    private final Map<EmbeddingPriority, ClassStats> stats = new EnumMap<>(EmbeddingPriority.class);
+
+    @Autowired
+    public EmbeddingScheduler(IndexingConfiguration config) {
+        IndexingConfiguration.EmbeddingConfig schedulerConfig = config.getEmbedding();
+        this.maxConcurrent = Math.max(1, schedulerConfig.getMaxConcurrent());
+        int reserved = Math.max(0, Math.min(schedulerConfig.getReservedInteractive(), maxConcurrent - 1));
+        this.bulkLimit = maxConcurrent - reserved;
+
+        for (EmbeddingPriority priority : EmbeddingPriority.values()) {
+            slotAvailable.put(priority, lock.newCondition());
+            stats.put(priority, new ClassStats(Math.max(1, schedulerConfig.getLatencySampleSize())));
+        }
+    }
+
+    /**
+     * Run work with every embedding call it makes on this thread tagged with the given priority
+     */
+    public static <T> T callAs(EmbeddingPriority priority, Supplier<T> work) {
+        EmbeddingPriority previous = CURRENT_PRIORITY.get();
+        CURRENT_PRIORITY.set(priority);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT_PRIORITY.remove();
+            } else {
+                CURRENT_PRIORITY.set(previous);
+            }
+        }
+    }
+
+    public static void runAs(EmbeddingPriority priority, Runnable work) {
+        callAs(priority, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Priority of the current thread's embedding calls
+     */
+    public static EmbeddingPriority currentPriority() {
+        EmbeddingPriority priority = CURRENT_PRIORITY.get();
+        return priority != null ? priority : EmbeddingPriority.INTERACTIVE;
+    }
+
+    /**
+     * Execute an embedding call once a slot for its priority class is free
+     */
+    public <T> T execute(EmbeddingPriority priority, Callable<T> call) throws Exception {
+        long enqueuedAt = System.nanoTime();
+        acquire(priority);
+        long startedAt = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = call.call();
+            success = true;
+            return result;
+        } finally {
+            release();
+            long finishedAt = System.nanoTime();
+            stats.get(priority).record(startedAt - enqueuedAt, finishedAt - enqueuedAt, success);
+        }
+    }
+
+    private void acquire(EmbeddingPriority priority) throws InterruptedException {
+        lock.lock();
+        try {
+            waiting[priority.ordinal()]++;
+            try {
+                while (!canStart(priority)) {
+                    slotAvailable.get(priority).await();
+                }
+            } finally {
+                waiting[priority.ordinal()]--;
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            // Wake every class; higher classes win because lower ones yield to waiting higher ones
+            for (EmbeddingPriority priority : EmbeddingPriority.values()) {
+                if (waiting[priority.ordinal()] > 0) {
+                    slotAvailable.get(priority).signalAll();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A class may start when its slot limit allows and no higher class is waiting.
+     * Must be called with the lock held.
+     */
+    private boolean canStart(EmbeddingPriority priority) {
+        int limit = priority == EmbeddingPriority.INTERACTIVE ? maxConcurrent : bulkLimit;
+        if (inFlight >= limit) {
+            return false;
+        }
+        for (int higher = 0; higher < priority.ordinal(); higher++) {
+            if (waiting[higher] > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting(EmbeddingPriority priority) {
+        lock.lock();
+        try {
+            return waiting[priority.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getReservedInteractive() {
+        return maxConcurrent - bulkLimit;
+    }
+
+    /**
+     * Latency metrics snapshot per priority class
+     */
+    public Map<EmbeddingPriority, LatencyStats> getLatencyStats() {
+        Map<EmbeddingPriority, LatencyStats> snapshot = new EnumMap<>(EmbeddingPriority.class);
+        stats.forEach((priority, classStats) -> snapshot.put(priority, classStats.snapshot()));
+        return snapshot;
+    }
+
+    /**
+     * Immutable latency summary for one priority class, times in milliseconds
+     */
+    public static class LatencyStats {
+        private final long completed;
+        private final long failed;
+        private final double averageWaitMs;
+        private final double averageLatencyMs;
+        private final double p50LatencyMs;
+        private final double p95LatencyMs;
+        private final double maxLatencyMs;
+
+        LatencyStats(long completed, long failed, double averageWaitMs, double averageLatencyMs,
+                double p50LatencyMs, double p95LatencyMs, double maxLatencyMs) {
+            this.completed = completed;
+            this.failed = failed;
+            this.averageWaitMs = averageWaitMs;
+            this.averageLatencyMs = averageLatencyMs;
+            this.p50LatencyMs = p50LatencyMs;
+            this.p95LatencyMs = p95LatencyMs;
+            this.maxLatencyMs = maxLatencyMs;
+        }
+
+        public long getCompleted() { return completed; }
+        public long getFailed() { return failed; }
+        public double getAverageWaitMs() { return averageWaitMs; }
+        public double getAverageLatencyMs() { return averageLatencyMs; }
+        public double getP50LatencyMs() { return p50LatencyMs; }
+        public double getP95LatencyMs() { return p95LatencyMs; }
+        public double getMaxLatencyMs() { return maxLatencyMs; }
+    }
+
+    /**
+     * Running totals plus a ring of recent end-to-end latencies for percentiles
+     */
+    private static class ClassStats {
+        private final long[] recentLatencies;
+        private int recentCount = 0;
+        private int nextSlot = 0;
+        private long completed = 0;
+        private long failed = 0;
+        private long totalWaitNanos = 0;
+        private long totalLatencyNanos = 0;
+        private long maxLatencyNanos = 0;
+
+        ClassStats(int sampleSize) {
+            this.recentLatencies = new long[sampleSize];
+        }
+
+        synchronized void record(long waitNanos, long latencyNanos, boolean success) {
+            if (success) {
+                completed++;
+            } else {
+                failed++;
+            }
+            totalWaitNanos += waitNanos;
+            totalLatencyNanos += latencyNanos;
+            maxLatencyNanos = Math.max(maxLatencyNanos, latencyNanos);
+
+            recentLatencies[nextSlot] = latencyNanos;
+            nextSlot = (nextSlot + 1) % recentLatencies.length;
+            recentCount = Math.min(recentCount + 1, recentLatencies.length);
+        }
+
+        synchronized LatencyStats snapshot() {
+            long calls = completed + failed;
+            long[] sorted = Arrays.copyOf(recentLatencies, recentCount);
+            Arrays.sort(sorted);
+            return new LatencyStats(
+                    completed,
+                    failed,
+                    calls > 0 ? toMillis(totalWaitNanos / calls) : 0.0,
+                    calls > 0 ? toMillis(totalLatencyNanos / calls) : 0.0,
+                    toMillis(percentile(sorted, 0.50)),
+                    toMillis(percentile(sorted, 0.95)),
+                    toMillis(maxLatencyNanos));
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -182,6 +183,29 @@ public class FileCacheRepositoryImpl implements FileCacheRepository {
         System.out.println("📁 Cache file set to: " + cacheFileName);
     }
 
+    @Override
+    public String getCacheFileName() {
+        return getCurrentCacheFileName();
+    }
+
+    @Override
+    public void moveCacheFile(String cacheFileName) {
+        if (config.getCache().isEnabled()) {
+            try {
+                Path source = Paths.get(getCurrentCacheFileName());
+                Path target = Paths.get(cacheFileName);
+                if (Files.exists(source)) {
+                    Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+                } else {
+                    Files.deleteIfExists(target);
+                }
+            } catch (Exception e) {
+                System.err.println("⚠️ Could not move cache file: " + e.getMessage());
+            }
+        }
+        setCacheFileName(cacheFileName);
+    }
+
     /**
      * Get the current cache file name (either dynamic or default)
      */
@@ -8,15 +8,19 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.model.DuplicateAlias;
+import sg.edu.nus.iss.codebase.indexer.model.EmbeddingPriority;
+import sg.edu.nus.iss.codebase.indexer.model.FileContent;
+import sg.edu.nus.iss.codebase.indexer.model.IndexTier;
 import sg.edu.nus.iss.codebase.indexer.model.IndexingStatus;
+import sg.edu.nus.iss.codebase.indexer.scoring.RESTEndpointFeatures;
+import sg.edu.nus.iss.codebase.indexer.service.CodeAnalysisService;
 import sg.edu.nus.iss.codebase.indexer.service.interfaces.FileCacheRepository;
 import sg.edu.nus.iss.codebase.indexer.service.interfaces.FileIndexingService;
 import sg.edu.nus.iss.codebase.indexer.service.interfaces.IndexingStatusObserver;
+import sg.edu.nus.iss.codebase.indexer.util.FilePriorities;
 
 import io.qdrant.client.QdrantClient;
-import io.qdrant.client.grpc.Collections.CreateCollection;
-import io.qdrant.client.grpc.Collections.Distance;
-import io.qdrant.client.grpc.Collections.VectorParams;
 import io.qdrant.client.grpc.Collections.CollectionInfo;
 
 import java.io.File;
@@ -26,10 +30,11 @@ import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Stream;
 
 /**
@@ -38,6 +43,8 @@ import java.util.stream.Stream;
  */
 @Service
 public class FileIndexingServiceImpl implements FileIndexingService {
+    private static final String REBUILD_CACHE_SUFFIX = ".rebuild";
+
     private final VectorStore vectorStore;
     private final DynamicVectorStoreFactory vectorStoreFactory;
     private final QdrantClient qdrantClient;
@@ -45,18 +52,33 @@ public class FileIndexingServiceImpl implements FileIndexingService {
     private final IndexingConfiguration config;
     private final FileCacheRepository cacheRepository;
     private final DocumentFactoryManager documentFactoryManager;
+    private final SummaryDocumentFactory summaryDocumentFactory;
+    private final ColdFileRegistry coldFileRegistry;
+    private final MemoryGovernor memoryGovernor;
+    private final BackgroundIndexingProfile backgroundProfile;
+    private final NearDuplicateIndex nearDuplicateIndex;
+    private final SymbolTable symbolTable;
+    private final StatusEventStream statusEvents;
+    private final CollectionAliasManager collectionAliasManager;
+    private final BulkLoader bulkLoader;
+    private final IndexingMetrics metrics;
 
-    // Observer pattern for status updates
-    private final List<IndexingStatusObserver> statusObservers = new CopyOnWriteArrayList<>();
 
     // Progress tracking
     private final AtomicInteger totalFiles = new AtomicInteger(0);
     private final AtomicInteger indexedFiles = new AtomicInteger(0);
+    private final AtomicInteger summaryIndexedFiles = new AtomicInteger(0);
     private final AtomicLong startTime = new AtomicLong();
     private volatile boolean indexingComplete = false;
     private volatile boolean indexingInProgress = false;
     private volatile boolean indexingPaused = false;
 
+    // Blue/green rebuild writing into a shadow collection while the live one keeps serving searches
+    private volatile RebuildGeneration rebuild;
+
+    // Set while the first full index of an empty collection runs in bulk-load mode
+    private volatile BulkLoader.Session bulkLoad;
+
     // Enhanced metrics tracking
     private final AtomicInteger activeVirtualThreads = new AtomicInteger(0);
     private final AtomicInteger peakVirtualThreads = new AtomicInteger(0);
@@ -77,7 +99,17 @@ public class FileIndexingServiceImpl implements FileIndexingService {
             @Qualifier("virtualThreadExecutor") Executor virtualThreadExecutor,
             IndexingConfiguration config,
             FileCacheRepository cacheRepository,
-            DocumentFactoryManager documentFactoryManager) {
+            DocumentFactoryManager documentFactoryManager,
+            SummaryDocumentFactory summaryDocumentFactory,
+            ColdFileRegistry coldFileRegistry,
+            MemoryGovernor memoryGovernor,
+            BackgroundIndexingProfile backgroundProfile,
+            NearDuplicateIndex nearDuplicateIndex,
+            SymbolTable symbolTable,
+            StatusEventStream statusEvents,
+            CollectionAliasManager collectionAliasManager,
+            BulkLoader bulkLoader,
+            IndexingMetrics metrics) {
 
         this.vectorStore = vectorStore;
         this.vectorStoreFactory = vectorStoreFactory;
@@ -86,6 +118,24 @@ public class FileIndexingServiceImpl implements FileIndexingService {
         this.config = config;
         this.cacheRepository = cacheRepository;
         this.documentFactoryManager = documentFactoryManager;
+        this.summaryDocumentFactory = summaryDocumentFactory;
+        this.coldFileRegistry = coldFileRegistry;
+        this.memoryGovernor = memoryGovernor;
+        this.backgroundProfile = backgroundProfile;
+        this.nearDuplicateIndex = nearDuplicateIndex;
+        this.symbolTable = symbolTable;
+        this.statusEvents = statusEvents;
+        statusEvents.setSnapshotSource(this::getIndexingStatus);
+        this.collectionAliasManager = collectionAliasManager;
+        this.bulkLoader = bulkLoader;
+        this.metrics = metrics;
+        metrics.registerQueue("memory_waiting_producers", memoryGovernor::getWaitingProducers);
+        metrics.registerQueue("cold_files", coldFileRegistry::size);
+        metrics.registerQueue("files_in_progress", activeVirtualThreads::get);
+        metrics.registerQueue("bulk_load_buffer", () -> {
+            BulkLoader.Session session = bulkLoad;
+            return session != null ? session.getBuffered() : 0;
+        });
     }
 
     @Override
@@ -102,15 +152,34 @@ public class FileIndexingServiceImpl implements FileIndexingService {
 
         // Load cache before starting
         cacheRepository.loadCache();
+        nearDuplicateIndex.load(getCurrentCollectionName());
+        requeueAliases(duplicatesFor(rebuild).forgetMissingFiles());
+        symbolTable.load(getCurrentCollectionName());
+        bulkLoad = beginBulkLoad();
+        metrics.startExport();
 
         // Notify observers that indexing started
         notifyStatusUpdate();
+
+        // In tiered mode every file also gets a summary, in a pass running alongside full indexing;
+        // summaries are embedded ahead of bulk chunk work so the tree is searchable at coarse grain first
+        CompletableFuture<Void> summaryTier = config.getTiering().isEnabled()
+                ? CompletableFuture.supplyAsync(this::indexSummaryTierAsync, virtualThreadExecutor)
+                        .thenCompose(tier -> tier)
+                : CompletableFuture.completedFuture(null);
+
         // Start with priority files first, then continue with remaining files
-        return indexPriorityFilesAsync()
-                .thenCompose(unused -> indexRemainingFilesAsync())
+        CompletableFuture<Void> fullTier = indexPriorityFilesAsync()
+                .thenCompose(unused -> indexRemainingFilesAsync());
+
+        // A phase that fails fails the run, so a rebuild missing its files is discarded, not promoted
+        return CompletableFuture.allOf(summaryTier, fullTier)
                 .whenComplete((unused, throwable) -> {
+                    finishBulkLoad();
                     indexingInProgress = false;
                     indexingComplete = true;
+                    finishRebuild(throwable);
+                    metrics.export();
                     if (throwable != null) {
                         notifyIndexingError(new Exception(throwable), "Error during indexing");
                     } else {
@@ -123,6 +192,12 @@ public class FileIndexingServiceImpl implements FileIndexingService {
     public void stopIndexing() {
         indexingInProgress = false;
         indexingPaused = false;
+        RebuildGeneration generation = rebuild;
+        if (generation != null) {
+            rebuild = null;
+            discardRebuild(generation);
+            System.out.println("🛑 Rebuild cancelled, " + getCurrentCollectionName() + " is unchanged");
+        }
         System.out.println("🛑 Indexing stopped");
         notifyStatusUpdate();
     }
@@ -155,6 +230,19 @@ public class FileIndexingServiceImpl implements FileIndexingService {
         return IndexingStatus.builder()
                 .totalFiles(totalFiles.get())
                 .indexedFiles(indexedFiles.get())
+                .summaryIndexedFiles(summaryIndexedFiles.get())
+                .coldFiles(coldFileRegistry.size())
+                .duplicateFiles(nearDuplicateIndex.getDuplicateFileCount())
+                .duplicateChunks(nearDuplicateIndex.getDuplicateChunkCount())
+                .memoryState(memoryGovernor.getState())
+                .memoryInFlightBytes(memoryGovernor.getInFlightBytes())
+                .memoryBudgetBytes(memoryGovernor.getBudgetBytes())
+                .memoryWaitingProducers(memoryGovernor.getWaitingProducers())
+                .memoryPressureEvents(memoryGovernor.getPressureEvents())
+                .backgroundProfile(backgroundProfile.isEnabled())
+                .backgroundYieldReason(backgroundProfile.getYieldReason())
+                .shadowCollection(getShadowCollectionName())
+                .bulkLoading(bulkLoad != null)
                 .failedFiles(failedFiles.get())
                 .skippedFiles(skippedFiles.get())
                 .indexingInProgress(indexingInProgress && !indexingPaused)
@@ -192,6 +280,7 @@ public class FileIndexingServiceImpl implements FileIndexingService {
     public void resetIndexing() {
         totalFiles.set(0);
         indexedFiles.set(0);
+        summaryIndexedFiles.set(0);
         indexingComplete = false;
         activeVirtualThreads.set(0);
         peakVirtualThreads.set(0);
@@ -200,6 +289,9 @@ public class FileIndexingServiceImpl implements FileIndexingService {
         skippedFiles.set(0);
         fileTypeStatistics.clear();
         skippedFileExtensions.clear();
+        coldFileRegistry.clear();
+        nearDuplicateIndex.clear();
+        symbolTable.clear();
 
         cacheRepository.clearCache();
         System.out.println("🔄 DEBUG: Indexing statistics reset - indexedFiles now: " + indexedFiles.get());
@@ -208,12 +300,94 @@ public class FileIndexingServiceImpl implements FileIndexingService {
 
     @Override
     public void addStatusObserver(IndexingStatusObserver observer) {
-        statusObservers.add(observer);
+        statusEvents.subscribe(observer);
     }
 
     @Override
     public void removeStatusObserver(IndexingStatusObserver observer) {
-        statusObservers.remove(observer);
+        statusEvents.unsubscribe(observer);
+    }
+
+    /**
+     * Tier 1: embed one summary document per file across the whole codebase
+     * so everything is searchable at coarse grain before full chunks land
+     */
+    @Async("indexingExecutor")
+    protected CompletableFuture<Void> indexSummaryTierAsync() {
+        try {
+            System.out.println("📋 Tier 1: Indexing file summaries...");
+
+            List<File> pendingFiles = scanCodebaseFiles(false).stream()
+                    .filter(cacheRepository::needsReindexing)
+                    .filter(file -> file.length() <= config.getProcessing().getMaxFileSize())
+                    .toList();
+
+            if (pendingFiles.isEmpty()) {
+                System.out.println("✅ No new files need summaries.");
+                return CompletableFuture.completedFuture(null);
+            }
+
+            String collectionName = prepareWriteCollection(rebuild);
+            if (collectionName == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            BulkLoader.Session session = bulkLoad;
+            VectorStore dynamicVectorStore = session != null
+                    ? session.getVectorStore()
+                    : vectorStoreFactory.createVectorStore(collectionName);
+
+            int dimensions = collectionAliasManager.dimensionsFor(collectionName);
+            int batchSize = Math.max(1, config.getTiering().getSummaryBatchSize());
+            for (int i = 0; i < pendingFiles.size() && indexingInProgress; i += batchSize) {
+                while (indexingPaused && indexingInProgress) {
+                    Thread.sleep(100);
+                }
+
+                List<File> batch = pendingFiles.subList(i, Math.min(i + batchSize, pendingFiles.size()));
+                backgroundProfile.awaitTurn();
+                backgroundProfile.acquireDiskBytes(batch.stream().mapToLong(File::length).sum());
+
+                // Each file is read whole while its summary is built
+                long batchEstimate = batch.stream()
+                        .mapToLong(file -> estimateFileBytes(file, dimensions))
+                        .sum();
+                try (MemoryGovernor.Reservation reservation = memoryGovernor.reserve(batchEstimate)) {
+                    // Summaries are cheap to build, embed them in one call per batch
+                    List<CompletableFuture<List<Document>>> summaryFutures = batch.stream()
+                            .map(file -> CompletableFuture.supplyAsync(
+                                    () -> createSummaryDocuments(file), virtualThreadExecutor))
+                            .toList();
+                    List<Document> summaries = summaryFutures.stream()
+                            .flatMap(future -> future.join().stream())
+                            .toList();
+
+                    if (summaries.isEmpty()) {
+                        continue;
+                    }
+                    reservation.resize(MemoryGovernor.estimateDocuments(summaries, dimensions));
+                    backgroundProfile.acquireEmbeddings(summaries.size());
+
+                    try {
+                        // Above bulk so summaries take embedding slots ahead of full chunks and
+                        // the whole tree becomes coarse-searchable before the chunk pass catches up
+                        EmbeddingScheduler.runAs(EmbeddingPriority.INCREMENTAL,
+                                () -> metrics.store(summaries.size(), () -> dynamicVectorStore.add(summaries)));
+                        summaryIndexedFiles.addAndGet(summaries.size());
+                    } catch (Exception e) {
+                        System.err.println("❌ Failed to index summary batch: " + e.getMessage());
+                    }
+                }
+                notifyStatusUpdate();
+            }
+
+            System.out.println("✅ Tier 1 complete: " + summaryIndexedFiles.get() + " file summaries searchable.");
+
+        } catch (Exception e) {
+            System.err.println("❌ Error indexing file summaries: " + e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return CompletableFuture.completedFuture(null);
     }
 
     /**
@@ -236,9 +410,12 @@ public class FileIndexingServiceImpl implements FileIndexingService {
                 return CompletableFuture.completedFuture(null);
             }
 
+            Set<String> previouslyIndexed = cacheRepository.getIndexedFilePaths();
+
             // Use virtual threads for parallel processing of priority files
             List<CompletableFuture<Void>> futures = newPriorityFiles.stream()
-                    .map(file -> CompletableFuture.runAsync(() -> indexFile(file), virtualThreadExecutor))
+                    .map(file -> CompletableFuture.runAsync(
+                            () -> indexFile(file, embeddingPriorityFor(file, previouslyIndexed)), virtualThreadExecutor))
                     .toList();
 
             // Wait for all priority files to complete
@@ -248,7 +425,7 @@ public class FileIndexingServiceImpl implements FileIndexingService {
 
         } catch (Exception e) {
             System.err.println("❌ Error indexing priority files: " + e.getMessage());
-            notifyIndexingError(e, "Priority files indexing");
+            return CompletableFuture.failedFuture(e);
         }
 
         return CompletableFuture.completedFuture(null);
@@ -269,6 +446,22 @@ public class FileIndexingServiceImpl implements FileIndexingService {
                     .filter(cacheRepository::needsReindexing)
                     .toList();
 
+            // In lazy mode only high priority files are embedded eagerly, the rest stay cold
+            if (config.getLazy().isEnabled()) {
+                int threshold = config.getLazy().getEagerPriorityThreshold();
+                List<File> eagerFiles = new ArrayList<>();
+                for (File file : remainingFiles) {
+                    if (getFilePriority(file) <= threshold) {
+                        eagerFiles.add(file);
+                    } else {
+                        coldFileRegistry.register(file);
+                    }
+                }
+                System.out.println("🧊 Lazy mode: " + coldFileRegistry.size()
+                        + " cold files registered for on-demand embedding");
+                remainingFiles = eagerFiles;
+            }
+
             totalFiles.addAndGet(remainingFiles.size());
 
             if (remainingFiles.isEmpty()) {
@@ -278,6 +471,8 @@ public class FileIndexingServiceImpl implements FileIndexingService {
 
             System.out.println("🚀 Processing " + remainingFiles.size() + " new/modified files in background");
 
+            Set<String> previouslyIndexed = cacheRepository.getIndexedFilePaths();
+
             // Process files in batches using virtual threads
             int batchSize = config.getProcessing().getBatchSize();
             for (int i = 0; i < remainingFiles.size() && indexingInProgress; i += batchSize) {
@@ -296,7 +491,8 @@ public class FileIndexingServiceImpl implements FileIndexingService {
 
                 List<CompletableFuture<Void>> batchFutures = batch.stream()
                         .filter(cacheRepository::needsReindexing)
-                        .map(file -> CompletableFuture.runAsync(() -> indexFile(file), virtualThreadExecutor))
+                        .map(file -> CompletableFuture.runAsync(
+                                () -> indexFile(file, embeddingPriorityFor(file, previouslyIndexed)), virtualThreadExecutor))
                         .toList();
 
                 CompletableFuture.allOf(batchFutures.toArray(new CompletableFuture[0])).join();
@@ -313,20 +509,84 @@ public class FileIndexingServiceImpl implements FileIndexingService {
 
         } catch (Exception e) {
             System.err.println("❌ Error in background indexing: " + e.getMessage());
-            notifyIndexingError(e, "Background indexing");
+            return CompletableFuture.failedFuture(e);
         }
 
         return CompletableFuture.completedFuture(null);
     }
 
     /**
-     * Index a single file
+     * Index a single file as part of the running indexing job
      */
-    private void indexFile(File file) {
+    private void indexFile(File file, EmbeddingPriority priority) {
         if (!indexingInProgress || indexingPaused) {
             return;
         }
+        try {
+            // In the background profile, wait while the machine is busy or the user is searching
+            backgroundProfile.awaitTurn();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        processFile(file, priority);
+    }
 
+    /**
+     * Build a file's summary, on the background CPU pool when that profile is active
+     */
+    private List<Document> createSummaryDocuments(File file) {
+        try {
+            return backgroundProfile.runCpuBound(() -> summaryDocumentFactory.createSummaryDocuments(file));
+        } catch (Exception e) {
+            System.err.println("❌ Error creating summary for " + file.getName() + ": " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Up-front memory estimate for indexing a file, refined once its documents exist
+     *
+     * @param dimensions vector size of the target collection, 0 while it is not known
+     */
+    private long estimateFileBytes(File file, int dimensions) {
+        return MemoryGovernor.estimateFileBytes(file.length(),
+                config.getProcessing().getChunkSize(), config.getProcessing().getChunkOverlap(), dimensions);
+    }
+
+    /**
+     * Vector size of the collection a write goes to, reduced when a projection is active;
+     * 0 while the embedding model's dimension is not known yet
+     */
+    private int embeddingDimensions(RebuildGeneration generation) {
+        return collectionAliasManager.dimensionsFor(
+                generation != null ? generation.collection : getCurrentCollectionName());
+    }
+
+    /**
+     * Files already in the cache are being re-indexed after a change, everything else is first-time bulk work
+     */
+    private EmbeddingPriority embeddingPriorityFor(File file, Set<String> previouslyIndexed) {
+        return previouslyIndexed.contains(file.getAbsolutePath())
+                ? EmbeddingPriority.INCREMENTAL
+                : EmbeddingPriority.BULK;
+    }
+
+    /**
+     * Embed and store a single file
+     *
+     * @param priority embedding scheduler class for this file's embedding calls
+     * @return true if the file was stored in the vector database
+     */
+    private boolean processFile(File file, EmbeddingPriority priority) {
+        return processFile(file, priority, true);
+    }
+
+    /**
+     * @param bulkBuffered whether the file may join a running bulk load, whose batches
+     *                     report failures only after this method has returned
+     */
+    private boolean processFile(File file, EmbeddingPriority priority, boolean bulkBuffered) {
         // Track virtual thread usage
         int currentThreads = activeVirtualThreads.incrementAndGet();
         totalTasksExecuted.incrementAndGet();
@@ -337,10 +597,15 @@ public class FileIndexingServiceImpl implements FileIndexingService {
             peak = peakVirtualThreads.get();
         }
 
+        // Side indexes and collection of the rebuild this file is written for, if one is running
+        RebuildGeneration generation = rebuild;
+        NearDuplicateIndex duplicates = duplicatesFor(generation);
+        SymbolTable symbols = symbolsFor(generation);
+
         try {
             if (file.length() > config.getProcessing().getMaxFileSize()) {
                 skippedFiles.incrementAndGet();
-                return;
+                return false;
             } // Track file type statistics
             String fileType = getFileExtension(file);
             AtomicInteger count = fileTypeStatistics.get(fileType);
@@ -350,33 +615,258 @@ public class FileIndexingServiceImpl implements FileIndexingService {
             }
             count.incrementAndGet();
 
-            // Create documents using factory
-            List<Document> documents = documentFactoryManager.createDocuments(file);
-            if (!documents.isEmpty()) {
-                // Use dynamic vector store with the correct collection name
-                String collectionName = getCurrentCollectionName();
+            // Wait for memory headroom before the file's documents and embeddings are built
+            int dimensions = embeddingDimensions(generation);
+            try (MemoryGovernor.Reservation reservation = memoryGovernor.reserve(estimateFileBytes(file, dimensions))) {
+                // Read the file once and share the content with every factory stage
+                backgroundProfile.acquireDiskBytes(file.length());
+                FileContent content = metrics.call(IndexingMetrics.Stage.READ, () -> FileContent.read(file));
+                metrics.addBytesRead(content.getSize());
+
+                // Declarations go into the symbol table for identifier lookups, duplicates included,
+                // but only once the file is stored so lookups never name files missing from the collection
+                CodeAnalysisService.FileAnalysis declarations = symbols.isEnabled()
+                        ? backgroundProfile.runCpuBound(() -> metrics.call(IndexingMetrics.Stage.ANALYZE,
+                                () -> symbols.analyze(content)))
+                        : null;
+                Runnable recordSymbols = declarations != null
+                        ? () -> symbols.update(file.getAbsolutePath(), declarations)
+                        : () -> { };
+
+                // Vendored copies and forks of files already indexed become aliases instead of embeddings
+                if (duplicates.isEnabled()) {
+                    String canonical = metrics.call(IndexingMetrics.Stage.DEDUP, () -> {
+                        requeueAliases(duplicates.forgetFile(file.getAbsolutePath()));
+                        return duplicates.registerFile(file.getAbsolutePath(), content.getText());
+                    });
+                    if (canonical != null) {
+                        System.out.println("🧬 " + file.getName() + " is a near-duplicate of " + canonical
+                                + ", stored as an alias");
+                        return markIndexed(generation, file, recordSymbols);
+                    }
+                }
 
-                // Ensure collection exists before indexing
-                ensureCollectionExists(collectionName);
+                // Create documents using factory
+                // REST endpoint features are extracted here once, so scoring never scans the text again
+                List<Document> created = backgroundProfile.runCpuBound(() -> {
+                    List<Document> factoryDocuments = metrics.call(IndexingMetrics.Stage.CHUNK,
+                            () -> documentFactoryManager.createDocumentsFromContent(content));
+                    metrics.run(IndexingMetrics.Stage.ANALYZE, () -> factoryDocuments.forEach(
+                            doc -> RESTEndpointFeatures.extract(doc.getText()).writeTo(doc.getMetadata())));
+                    return factoryDocuments;
+                });
+                metrics.addChunksCreated(created.size());
+                List<Document> documents = duplicates.isEnabled() && !created.isEmpty()
+                        ? metrics.call(IndexingMetrics.Stage.DEDUP,
+                                () -> duplicates.registerChunks(file.getAbsolutePath(), created))
+                        : created;
+                if (documents.isEmpty() && !created.isEmpty()) {
+                    // Every chunk duplicates one already embedded
+                    return markIndexed(generation, file, recordSymbols);
+                }
+                if (!documents.isEmpty()) {
+                    reservation.resize(content.getSize() + MemoryGovernor.estimateDocuments(documents, dimensions));
+                    documents.forEach(doc -> doc.getMetadata().put(IndexTier.METADATA_KEY, IndexTier.FULL.getValue()));
+
+                    // Ensure the collection exists before indexing, unless the rebuild was cancelled meanwhile
+                    String collectionName = prepareWriteCollection(generation);
+                    if (collectionName == null) {
+                        return false;
+                    }
+                    backgroundProfile.acquireEmbeddings(documents.size());
+                    if (generation != null && generation.closed) {
+                        return false; // The rebuild was cancelled while this file waited for its turn
+                    }
 
-                VectorStore dynamicVectorStore = vectorStoreFactory.createVectorStore(collectionName);
+                    // During a bulk load chunks from many files share one large upsert;
+                    // on-demand embeds bypass it because a query is waiting on them
+                    BulkLoader.Session session = bulkLoad;
+                    if (session != null && bulkBuffered && priority == EmbeddingPriority.BULK
+                            && session.getCollectionName().equals(collectionName)) {
+                        // The buffered chunks keep their memory reserved until their batch is written
+                        reservation.resize(MemoryGovernor.estimateDocuments(documents, dimensions));
+                        session.add(documents, reservation.transfer(),
+                                () -> markIndexed(generation, file, recordSymbols), () -> {
+                            failedFiles.incrementAndGet();
+                            forgetUnstoredFile(file, duplicates);
+                            System.err.println("❌ Failed to index " + file.getName() + " in a bulk batch");
+                        });
+                        return true;
+                    }
 
-                // Store in vector database with correct collection
-                dynamicVectorStore.add(documents);
+                    VectorStore dynamicVectorStore = vectorStoreFactory.createVectorStore(collectionName);
 
-                int newCount = indexedFiles.incrementAndGet();
-                System.out.println("🔍 DEBUG: File indexed, count now: " + newCount + " (file: " + file.getName() + ")");
-                cacheRepository.saveIndexedFile(file.getAbsolutePath());
-            } else {
-                skippedFiles.incrementAndGet();
+                    // Store in vector database with correct collection
+                    try {
+                        EmbeddingScheduler.runAs(priority,
+                                () -> metrics.store(documents.size(), () -> dynamicVectorStore.add(documents)));
+                    } catch (RuntimeException e) {
+                        forgetUnstoredFile(file, duplicates);
+                        throw e;
+                    }
+
+                    return markIndexed(generation, file, recordSymbols);
+                } else {
+                    skippedFiles.incrementAndGet();
+                }
             }
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failedFiles.incrementAndGet();
+            System.err.println("❌ Interrupted while waiting for memory to index " + file.getName());
         } catch (Exception e) {
             failedFiles.incrementAndGet();
             System.err.println("❌ Failed to index " + file.getName() + ": " + e.getMessage());
         } finally {
             activeVirtualThreads.decrementAndGet();
         }
+        return false;
+    }
+
+    /**
+     * Roll back the canonical entries of a file whose chunks never reached the vector store,
+     * so later duplicates are not aliased to content that cannot be found
+     */
+    private void forgetUnstoredFile(File file, NearDuplicateIndex duplicates) {
+        if (duplicates.isEnabled()) {
+            requeueAliases(duplicates.forgetFile(file.getAbsolutePath()));
+        }
+    }
+
+    /**
+     * Index near-duplicates again whose canonical file changed, was deleted or failed to store
+     */
+    private void requeueAliases(Set<String> aliasPaths) {
+        if (aliasPaths.isEmpty()) {
+            return;
+        }
+        System.out.println("🧬 Re-indexing " + aliasPaths.size() + " near-duplicate(s) that lost their canonical file");
+        for (String aliasPath : aliasPaths) {
+            File aliasFile = new File(aliasPath);
+            if (aliasFile.isFile()) {
+                CompletableFuture.runAsync(() -> processFile(aliasFile, EmbeddingPriority.INCREMENTAL),
+                        virtualThreadExecutor);
+            }
+        }
+    }
+
+    /**
+     * Record a stored file in the cache and symbol table of the rebuild it was written for
+     *
+     * @param recordSymbols applies the file's declarations to that rebuild's symbol table
+     * @return false when that rebuild was cancelled or finished before the file was recorded
+     */
+    private boolean markIndexed(RebuildGeneration generation, File file, Runnable recordSymbols) {
+        if (generation == null) {
+            recordSymbols.run();
+            markIndexed(file);
+            return true;
+        }
+        return generation.runIfOpen(() -> {
+            recordSymbols.run();
+            markIndexed(file);
+        });
+    }
+
+    private void markIndexed(File file) {
+        int newCount = indexedFiles.incrementAndGet();
+        notifyStatusUpdate();
+        System.out.println("🔍 DEBUG: File indexed, count now: " + newCount + " (file: " + file.getName() + ")");
+        metrics.run(IndexingMetrics.Stage.CACHE_WRITE, () -> cacheRepository.saveIndexedFile(file.getAbsolutePath()));
+    }
+
+    @Override
+    public CompletableFuture<Integer> embedOnDemand(List<String> filePaths) {
+        if (filePaths == null || coldFileRegistry.size() == 0) {
+            return CompletableFuture.completedFuture(0);
+        }
+
+        List<File> claimedFiles = filePaths.stream()
+                .filter(coldFileRegistry::isCold)
+                .distinct()
+                .limit(config.getLazy().getMaxOnDemandFiles())
+                .map(coldFileRegistry::claim)
+                .filter(Objects::nonNull)
+                .toList();
+
+        if (claimedFiles.isEmpty()) {
+            return CompletableFuture.completedFuture(0);
+        }
+
+        System.out.println("🔥 Embedding " + claimedFiles.size() + " cold files on demand");
+
+        // A query is waiting on these, so they go ahead of bulk indexing
+        List<CompletableFuture<Boolean>> futures = claimedFiles.stream()
+                .map(file -> embedColdFile(file, EmbeddingPriority.INCREMENTAL))
+                .toList();
+
+        CompletableFuture<Integer> embedded = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(unused -> (int) futures.stream().filter(CompletableFuture::join).count());
+
+        // Demand signal: files near the ones a query just needed are likely to be needed next
+        embedded.thenRun(() -> promoteSimilarFiles(claimedFiles));
+
+        // The caller stops waiting after the timeout; the embeds, and the promotion after them, carry on
+        return embedded.copy().completeOnTimeout(0, config.getLazy().getOnDemandWaitMs(),
+                java.util.concurrent.TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int getColdFileCount() {
+        return coldFileRegistry.size();
+    }
+
+    @Override
+    public boolean isColdFile(String filePath) {
+        return coldFileRegistry.isCold(filePath);
+    }
+
+    @Override
+    public Map<String, List<DuplicateAlias>> getDuplicateAliases(List<Document> documents) {
+        if (documents == null || documents.isEmpty()) {
+            return Map.of();
+        }
+        return nearDuplicateIndex.aliasesFor(documents);
+    }
+
+    /**
+     * Queue cold files similar to recently demanded ones for background embedding
+     */
+    private void promoteSimilarFiles(List<File> demandedFiles) {
+        int limit = config.getLazy().getPromotionLimit();
+        // A demanded file that failed is back in the registry; it waits for the next query, not a retry here
+        Set<String> demandedPaths = new HashSet<>();
+        demandedFiles.forEach(file -> demandedPaths.add(file.getAbsolutePath()));
+        for (File demanded : demandedFiles) {
+            for (File similar : coldFileRegistry.findSimilar(demanded.getAbsolutePath(), limit)) {
+                if (demandedPaths.contains(similar.getAbsolutePath())) {
+                    continue;
+                }
+                File claimed = coldFileRegistry.claim(similar.getAbsolutePath());
+                if (claimed != null) {
+                    embedColdFile(claimed, EmbeddingPriority.BULK);
+                }
+            }
+        }
+    }
+
+    /**
+     * Embed a file claimed from the cold registry, putting it back when it is not stored
+     * so a later query can still find and embed it
+     * Cold files bypass the bulk-load buffer, whose failures arrive after processing returns.
+     */
+    private CompletableFuture<Boolean> embedColdFile(File file, EmbeddingPriority priority) {
+        return CompletableFuture.supplyAsync(() -> processFile(file, priority, false), virtualThreadExecutor)
+                .handle((stored, throwable) -> {
+                    if (throwable == null && Boolean.TRUE.equals(stored)) {
+                        return true;
+                    }
+                    coldFileRegistry.register(file);
+                    System.err.println("🧊 " + file.getName() + " was not embedded, kept as a cold file"
+                            + (throwable != null ? ": " + throwable.getMessage() : ""));
+                    return false;
+                });
     }
 
     // Helper methods for file processing
@@ -414,6 +904,13 @@ public class FileIndexingServiceImpl implements FileIndexingService {
     }
 
     private List<File> getAllCodebaseFiles() {
+        long start = System.nanoTime();
+        List<File> files = scanCodebaseFiles(true);
+        metrics.record(IndexingMetrics.Stage.SCAN, System.nanoTime() - start);
+        return files;
+    }
+
+    private List<File> scanCodebaseFiles(boolean trackSkipped) {
         List<File> allFiles = new ArrayList<>();
 
         try (Stream<Path> paths = Files.walk(Paths.get(indexingDirectory), config.getProcessing().getMaxDepth())) {
@@ -427,7 +924,7 @@ public class FileIndexingServiceImpl implements FileIndexingService {
                 if (isSupportedFile(path)) {
                     allFiles.add(path.toFile());
                     System.out.println("🔍 DEBUG: File supported and added: " + path.getFileName());
-                } else {
+                } else if (trackSkipped) {
                     System.out.println("🔍 DEBUG: File NOT supported, skipping: " + path.getFileName());
                     String extension = getFileExtension(path.toFile());
                     if (!extension.isEmpty()) {
@@ -442,6 +939,7 @@ public class FileIndexingServiceImpl implements FileIndexingService {
             }
 
         } catch (Exception e) {
+            metrics.recordError(IndexingMetrics.Stage.SCAN, e);
             System.err.println("❌ Error scanning codebase in " + indexingDirectory + ": " + e.getMessage());
         }
 
@@ -459,15 +957,7 @@ public class FileIndexingServiceImpl implements FileIndexingService {
     }
 
     private int getFilePriority(File file) {
-        String fileName = file.getName();
-
-        for (Map.Entry<String, Integer> entry : config.getFilePriorities().entrySet()) {
-            if (fileName.contains(entry.getKey())) {
-                return entry.getValue();
-            }
-        }
-
-        return 10; // Default priority
+        return FilePriorities.of(file, config.getFilePriorities());
     }
 
     private String getFileExtension(File file) {
@@ -571,7 +1061,8 @@ public class FileIndexingServiceImpl implements FileIndexingService {
 
     @Override
     public int getIndexedFileCount() {
-        int memoryCount = indexedFiles.get();
+        // Tier 1 summaries already make files searchable
+        int memoryCount = Math.max(indexedFiles.get(), summaryIndexedFiles.get());
         System.out.println("🔍 DEBUG: getIndexedFileCount() - memory count: " + memoryCount);
         
         // If memory count is 0 but we have a collection, return 1 to enable vector search
@@ -605,25 +1096,35 @@ public class FileIndexingServiceImpl implements FileIndexingService {
         try {
             System.out.println("🔄 Restarting indexing process...");
 
-            // Step 1: Delete and recreate the Qdrant collection to remove all old vector
-            // data
-            deleteAndRecreateCollection();
+            // Step 1: Rebuild into a shadow collection while the live one keeps serving,
+            // or delete and recreate the Qdrant collection when blue/green is off
+            boolean shadowRebuild = startShadowRebuild();
+            if (!shadowRebuild) {
+                deleteAndRecreateCollection();
+            }
 
             // Step 2: Reset state and start indexing again
             indexingComplete = false;
             indexingInProgress = false;
             indexedFiles.set(0);
+            summaryIndexedFiles.set(0);
             totalFiles.set(0);
 
             // Step 3: Clear statistics
             fileTypeStatistics.clear();
+            coldFileRegistry.clear();
             skippedFileExtensions.clear();
             failedFiles.set(0);
             skippedFiles.set(0);
 
-            // Step 4: Reset cache repository
-            if (cacheRepository != null) {
-                cacheRepository.clearCache();
+            // Step 4: Reset side indexes and cache repository; a shadow rebuild writes its own
+            // and leaves the live ones serving until it is promoted
+            if (!shadowRebuild) {
+                nearDuplicateIndex.clear();
+                symbolTable.clear();
+                if (cacheRepository != null) {
+                    cacheRepository.clearCache();
+                }
             }
 
             // Step 5: Start indexing in current directory with clean collection
@@ -643,8 +1144,10 @@ public class FileIndexingServiceImpl implements FileIndexingService {
             System.out.println("🗑️ Clearing cache and starting fresh indexing...");
 
             // Step 1: Delete and recreate the Qdrant collection to remove all old vector
-            // data
-            deleteAndRecreateCollection();
+            // data; a blue/green rebuild leaves the live collection alone until it is replaced
+            if (!collectionAliasManager.isEnabled()) {
+                deleteAndRecreateCollection();
+            }
 
             // Step 2: Clear all caches and statistics
             fileTypeStatistics.clear();
@@ -652,8 +1155,8 @@ public class FileIndexingServiceImpl implements FileIndexingService {
             failedFiles.set(0);
             skippedFiles.set(0);
 
-            // Step 3: Reset cache repository
-            if (cacheRepository != null) {
+            // Step 3: Reset cache repository, which a blue/green rebuild replaces on promotion
+            if (cacheRepository != null && !collectionAliasManager.isEnabled()) {
                 cacheRepository.clearCache();
             }
 
@@ -673,6 +1176,132 @@ public class FileIndexingServiceImpl implements FileIndexingService {
         return generateCollectionName(indexingDirectory);
     }
 
+    private String getShadowCollectionName() {
+        RebuildGeneration generation = rebuild;
+        return generation != null ? generation.collection : null;
+    }
+
+    private NearDuplicateIndex duplicatesFor(RebuildGeneration generation) {
+        return generation != null ? generation.duplicates : nearDuplicateIndex;
+    }
+
+    private SymbolTable symbolsFor(RebuildGeneration generation) {
+        return generation != null ? generation.symbols : symbolTable;
+    }
+
+    /**
+     * Make sure the collection new documents go to exists: the shadow of the rebuild a write
+     * started in, otherwise the live one
+     *
+     * @return the collection to write into, or null when that rebuild was cancelled or finished
+     *         meanwhile, so a late write never recreates a dropped shadow
+     */
+    private String prepareWriteCollection(RebuildGeneration generation) {
+        if (generation == null) {
+            String collectionName = getCurrentCollectionName();
+            ensureCollectionExists(collectionName);
+            return collectionName;
+        }
+        return generation.runIfOpen(() -> ensureCollectionExists(generation.collection))
+                ? generation.collection
+                : null;
+    }
+
+    /**
+     * Point writes at a fresh shadow collection; false when blue/green is off or the shadow
+     * could not be created, in which case the caller falls back to an in-place rebuild
+     */
+    private boolean startShadowRebuild() {
+        if (!collectionAliasManager.isEnabled()) {
+            return false;
+        }
+        RebuildGeneration previous = rebuild;
+        rebuild = null;
+        if (previous != null) {
+            discardRebuild(previous);
+        }
+        try {
+            String shadow = collectionAliasManager.createShadow(getCurrentCollectionName());
+            String liveCacheFileName = cacheRepository.getCacheFileName();
+            rebuild = new RebuildGeneration(shadow, nearDuplicateIndex.newGeneration(shadow),
+                    symbolTable.newGeneration(shadow), liveCacheFileName);
+            // Files stored by the rebuild are recorded apart from the live cache until it is promoted
+            cacheRepository.setCacheFileName(liveCacheFileName + REBUILD_CACHE_SUFFIX);
+            cacheRepository.clearCache();
+            return true;
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not create shadow collection, rebuilding in place: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Switch to bulk-load mode when this run writes into an empty collection
+     */
+    private BulkLoader.Session beginBulkLoad() {
+        try {
+            String collectionName = prepareWriteCollection(rebuild);
+            return collectionName != null ? bulkLoader.begin(collectionName) : null;
+        } catch (Exception e) {
+            System.err.println("⚠️ Warning: Could not prepare bulk load: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Store the last buffered chunks and wait for the index to be built before indexing is
+     * reported complete
+     */
+    private void finishBulkLoad() {
+        BulkLoader.Session session = bulkLoad;
+        if (session != null) {
+            bulkLoad = null;
+            bulkLoader.finish(session);
+        }
+    }
+
+    /**
+     * Put a completed rebuild live, or drop its shadow when indexing failed or the shadow is not valid
+     */
+    private void finishRebuild(Throwable indexingError) {
+        RebuildGeneration generation = rebuild;
+        if (generation == null) {
+            return;
+        }
+        rebuild = null;
+        generation.close();
+        if (indexingError != null) {
+            discardRebuild(generation);
+            return;
+        }
+        try {
+            collectionAliasManager.promote(getCurrentCollectionName(), generation.collection);
+        } catch (Exception e) {
+            System.err.println("❌ Rebuild not promoted: " + e.getMessage());
+            discardRebuild(generation);
+            notifyIndexingError(e, "Error promoting rebuilt collection");
+            return;
+        }
+
+        // The side indexes and cache go live with the collection they describe
+        nearDuplicateIndex.adopt(generation.duplicates);
+        symbolTable.adopt(generation.symbols);
+        cacheRepository.moveCacheFile(generation.liveCacheFileName);
+    }
+
+    /**
+     * Drop a rebuild's shadow collection and side indexes, going back to the live cache
+     */
+    private void discardRebuild(RebuildGeneration generation) {
+        generation.close();
+        collectionAliasManager.discard(generation.collection);
+        generation.duplicates.clear();
+        generation.symbols.clear();
+        cacheRepository.clearCache();
+        cacheRepository.setCacheFileName(generation.liveCacheFileName);
+        cacheRepository.loadCache();
+    }
+
     @Override
     public String getCurrentIndexingDirectory() {
         return indexingDirectory;
@@ -715,37 +1344,18 @@ public class FileIndexingServiceImpl implements FileIndexingService {
         return "codebase-index-" + dirName.replaceAll("[^a-zA-Z0-9-]", "-");
     }
 
-    // Observer pattern implementation
+    // Observer pattern implementation: observers are fed by the status event stream,
+    // indexing threads only mark the status as changed
     private void notifyStatusUpdate() {
-        IndexingStatus status = getIndexingStatus();
-        statusObservers.forEach(observer -> {
-            try {
-                observer.onStatusUpdate(status);
-            } catch (Exception e) {
-                System.err.println("Error notifying status observer: " + e.getMessage());
-            }
-        });
+        statusEvents.markChanged();
     }
 
     private void notifyIndexingComplete() {
-        IndexingStatus status = getIndexingStatus();
-        statusObservers.forEach(observer -> {
-            try {
-                observer.onIndexingComplete(status);
-            } catch (Exception e) {
-                System.err.println("Error notifying completion observer: " + e.getMessage());
-            }
-        });
+        statusEvents.publishComplete(getIndexingStatus());
     }
 
     private void notifyIndexingError(Exception error, String context) {
-        statusObservers.forEach(observer -> {
-            try {
-                observer.onIndexingError(error, context);
-            } catch (Exception e) {
-                System.err.println("Error notifying error observer: " + e.getMessage());
-            }
-        });
+        statusEvents.publishError(error, context);
     }
 
     /**
@@ -755,6 +1365,8 @@ public class FileIndexingServiceImpl implements FileIndexingService {
         try {
             if (!checkCollectionExists(collectionName)) {
                 createCollection(collectionName);
+            } else {
+                collectionAliasManager.ensurePayloadIndexes(collectionName);
             }
         } catch (Exception e) {
             System.err.println("⚠️ Warning: Error ensuring collection exists: " + e.getMessage());
@@ -768,14 +1380,15 @@ public class FileIndexingServiceImpl implements FileIndexingService {
         try {
             CollectionInfo info = qdrantClient.getCollectionInfoAsync(targetCollectionName).get();
             if (info != null) {
-                // Check if the collection has the right vector dimensions
-                // nomic-embed-text produces 768-dimensional embeddings
+                // Check if the collection has the vector dimensions the embeddings will have
                 var vectorConfig = info.getConfig().getParams().getVectorsConfig();
                 if (vectorConfig.hasParams()) {
                     long dimensions = vectorConfig.getParams().getSize();
-                    if (dimensions != 768) {
+                    int expected = collectionAliasManager.dimensionsFor(targetCollectionName);
+                    // Unknown while the embedding model is unreachable; never delete on a guess
+                    if (expected > 0 && dimensions != expected) {
                         System.out.println("⚠️ Collection " + targetCollectionName + " has wrong dimensions: "
-                                + dimensions + " (expected 768)");
+                                + dimensions + " (expected " + expected + ")");
                         System.out.println("🗑️ Deleting and recreating collection with correct dimensions...");
                         deleteCollection(targetCollectionName);
                         return false; // Will trigger recreation
@@ -827,23 +1440,7 @@ public class FileIndexingServiceImpl implements FileIndexingService {
      * Create a new collection in Qdrant with correct vector dimensions
      */
     private void createCollection(String targetCollectionName) throws Exception {
-        // Create vector parameters for embeddings
-        // nomic-embed-text produces 768-dimensional embeddings
-        VectorParams vectorParams = VectorParams.newBuilder()
-                .setSize(768) // nomic-embed-text embedding dimension
-                .setDistance(Distance.Cosine)
-                .build();
-
-        // Create collection request
-        CreateCollection createCollection = CreateCollection.newBuilder()
-                .setCollectionName(targetCollectionName)
-                .setVectorsConfig(
-                        io.qdrant.client.grpc.Collections.VectorsConfig.newBuilder()
-                                .setParams(vectorParams)
-                                .build())
-                .build(); // Execute collection creation
-        qdrantClient.createCollectionAsync(createCollection).get();
-        System.out.println("✅ Created collection: " + targetCollectionName);
+        collectionAliasManager.createCollection(targetCollectionName);
     }
 
     /**
@@ -925,4 +1522,50 @@ public class FileIndexingServiceImpl implements FileIndexingService {
             // Ignore logging configuration errors
         }
     }
+
+    /**
+     * A blue/green rebuild: its shadow collection and the side indexes written alongside it,
+     * which go live or are dropped together. Once closed, writes that started for it are abandoned.
+     */
+    private static final class RebuildGeneration {
+        private final String collection;
+        private final NearDuplicateIndex duplicates;
+        private final SymbolTable symbols;
+        private final String liveCacheFileName;
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private volatile boolean closed;
+
+        RebuildGeneration(String collection, NearDuplicateIndex duplicates, SymbolTable symbols,
+                String liveCacheFileName) {
+            this.collection = collection;
+            this.duplicates = duplicates;
+            this.symbols = symbols;
+            this.liveCacheFileName = liveCacheFileName;
+        }
+
+        /**
+         * Run a write for this rebuild unless it is closed; closing waits for running writes
+         */
+        boolean runIfOpen(Runnable write) {
+            lock.readLock().lock();
+            try {
+                if (closed) {
+                    return false;
+                }
+                write.run();
+                return true;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void close() {
+            lock.writeLock().lock();
+            try {
+                closed = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
 }
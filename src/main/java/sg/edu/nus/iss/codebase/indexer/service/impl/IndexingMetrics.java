@@ -0,0 +1,458 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.CountingMode;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Latency, volume and error metrics for every stage of the indexing pipeline, kept in a Micrometer
+ * registry. Each stage has a timer with fixed histogram buckets and percentiles; bytes read, chunks
+ * created and stored, errors by stage and cause, and the depth of the queues a file can wait in are
+ * recorded alongside. The registry is written in the Prometheus text format to a local file on an
+ * interval and when indexing completes, and summarized as a table by the CLI.
+ */
+@Component
+public class IndexingMetrics {
+
+    private static final long MIN_EXPORT_INTERVAL_MS = 1000;
+
+    private static final Duration[] BUCKETS = {
+            Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25),
+            Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500),
+            Duration.ofSeconds(1), Duration.ofMillis(2500), Duration.ofSeconds(5), Duration.ofSeconds(10),
+            Duration.ofSeconds(30), Duration.ofSeconds(60)};
+
+    // Cumulative counts; histograms and percentiles cover the whole process instead of a sliding window
+    private static final SimpleConfig CUMULATIVE = new SimpleConfig() {
+        @Override
+        public String get(String key) {
+            return null;
+        }
+
+        @Override
+        public CountingMode mode() {
+            return CountingMode.CUMULATIVE;
+        }
+    };
+
+    /**
+     * Pipeline stages. Sanitizing happens while documents are built, so its time is also part of chunk's.
+     */
+    public enum Stage {
+        SCAN("scan"), READ("read"), SANITIZE("sanitize"), CHUNK("chunk"), ANALYZE("analyze"),
+        DEDUP("dedup"), EMBED("embed"), UPSERT("upsert"), CACHE_WRITE("cache_write");
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final IndexingConfiguration.MetricsConfig config;
+    private final MeterRegistry registry = new SimpleMeterRegistry(CUMULATIVE, Clock.SYSTEM);
+    private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+    private final Counter bytesRead;
+    private final Counter chunksCreated;
+    private final Counter chunksStored;
+
+    // Embedding done inside a store call on this thread, so query embeddings are not counted
+    private final ThreadLocal<StoreCall> storeCall = new ThreadLocal<>();
+
+    private Thread exporter;
+
+    @Autowired
+    public IndexingMetrics(IndexingConfiguration config) {
+        this.config = config.getMetrics();
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, Timer.builder("indexer.stage.duration")
+                    .description("Time spent in each indexing stage")
+                    .tag("stage", stage.label)
+                    .serviceLevelObjectives(BUCKETS)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .distributionStatisticExpiry(Duration.ofDays(3650))
+                    .distributionStatisticBufferLength(1)
+                    .register(registry));
+        }
+        bytesRead = Counter.builder("indexer.bytes.read").description("Bytes of source files read")
+                .baseUnit("bytes").register(registry);
+        chunksCreated = Counter.builder("indexer.chunks.created").description("Chunks built from source files")
+                .register(registry);
+        chunksStored = Counter.builder("indexer.chunks.stored").description("Chunks embedded and upserted")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Run one stage's work, recording its latency and, when it throws, an error for the stage
+     */
+    public <T> T call(Stage stage, Callable<T> work) throws Exception {
+        if (!isEnabled()) {
+            return work.call();
+        }
+        long start = System.nanoTime();
+        try {
+            return work.call();
+        } catch (Exception e) {
+            recordError(stage, e);
+            throw e;
+        } finally {
+            record(stage, System.nanoTime() - start);
+        }
+    }
+
+    public void run(Stage stage, Runnable work) {
+        if (!isEnabled()) {
+            work.run();
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            work.run();
+        } catch (RuntimeException e) {
+            recordError(stage, e);
+            throw e;
+        } finally {
+            record(stage, System.nanoTime() - start);
+        }
+    }
+
+    public void record(Stage stage, long nanos) {
+        if (isEnabled()) {
+            timers.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Add documents through a vector store, which embeds them on this thread before upserting.
+     * Embedding calls made meanwhile are reported by {@link #recordEmbedding}; the rest is upsert time.
+     */
+    public void store(int documents, Runnable add) {
+        if (!isEnabled()) {
+            add.run();
+            return;
+        }
+        StoreCall call = new StoreCall();
+        StoreCall outer = storeCall.get();
+        storeCall.set(call);
+        long start = System.nanoTime();
+        try {
+            add.run();
+            chunksStored.increment(documents);
+        } catch (RuntimeException e) {
+            if (!call.embedFailed) {
+                recordError(Stage.UPSERT, e);
+            }
+            throw e;
+        } finally {
+            record(Stage.UPSERT, Math.max(0, System.nanoTime() - start - call.embedNanos));
+            storeCall.set(outer);
+        }
+    }
+
+    /**
+     * Called by the metered embedding model after every embedding call
+     *
+     * @param failure what the call threw, or null
+     */
+    public void recordEmbedding(long nanos, Throwable failure) {
+        StoreCall call = storeCall.get();
+        if (call == null) {
+            return;
+        }
+        call.embedNanos += nanos;
+        record(Stage.EMBED, nanos);
+        if (failure != null) {
+            call.embedFailed = true;
+            recordError(Stage.EMBED, failure);
+        }
+    }
+
+    /**
+     * Count an error against a stage, by the class of its root cause
+     */
+    public void recordError(Stage stage, Throwable error) {
+        if (!isEnabled()) {
+            return;
+        }
+        Throwable cause = error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        Counter.builder("indexer.errors").description("Errors by indexing stage and root cause")
+                .tag("stage", stage.label)
+                .tag("cause", cause.getClass().getSimpleName())
+                .register(registry)
+                .increment();
+    }
+
+    public void addBytesRead(long bytes) {
+        if (isEnabled()) {
+            bytesRead.increment(bytes);
+        }
+    }
+
+    public void addChunksCreated(int chunks) {
+        if (isEnabled()) {
+            chunksCreated.increment(chunks);
+        }
+    }
+
+    /**
+     * Track the depth of a queue work can wait in, sampled whenever metrics are read
+     */
+    public void registerQueue(String queue, Supplier<Number> depth) {
+        Gauge.builder("indexer.queue.depth", depth)
+                .description("Items waiting in each indexing queue")
+                .tag("queue", queue)
+                .register(registry);
+    }
+
+    /**
+     * Latency of every stage that has run, in pipeline order
+     */
+    public List<StageSummary> getStageSummaries() {
+        List<StageSummary> summaries = new ArrayList<>();
+        timers.forEach((stage, timer) -> {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            if (snapshot.count() == 0) {
+                return;
+            }
+            // In the order they were published: p50, p95, p99
+            ValueAtPercentile[] values = snapshot.percentileValues();
+            double[] percentiles = new double[3];
+            for (int i = 0; i < Math.min(values.length, percentiles.length); i++) {
+                percentiles[i] = values[i].value(TimeUnit.MILLISECONDS);
+            }
+            summaries.add(new StageSummary(stage, snapshot.count(), snapshot.mean(TimeUnit.MILLISECONDS),
+                    percentiles[0], percentiles[1], percentiles[2], snapshot.max(TimeUnit.MILLISECONDS),
+                    snapshot.total(TimeUnit.SECONDS)));
+        });
+        return summaries;
+    }
+
+    public long getBytesRead() {
+        return (long) bytesRead.count();
+    }
+
+    public long getChunksCreated() {
+        return (long) chunksCreated.count();
+    }
+
+    public long getChunksStored() {
+        return (long) chunksStored.count();
+    }
+
+    /**
+     * Error counts keyed by "stage/cause"
+     */
+    public Map<String, Long> getErrors() {
+        Map<String, Long> errors = new TreeMap<>();
+        for (Counter counter : registry.find("indexer.errors").counters()) {
+            errors.put(counter.getId().getTag("stage") + "/" + counter.getId().getTag("cause"), (long) counter.count());
+        }
+        return errors;
+    }
+
+    public Map<String, Double> getQueueDepths() {
+        Map<String, Double> depths = new TreeMap<>();
+        for (Gauge gauge : registry.find("indexer.queue.depth").gauges()) {
+            depths.put(gauge.getId().getTag("queue"), gauge.value());
+        }
+        return depths;
+    }
+
+    /**
+     * The registry in the Prometheus text exposition format
+     */
+    public String scrape() {
+        Map<String, List<Meter>> families = new TreeMap<>();
+        for (Meter meter : registry.getMeters()) {
+            families.computeIfAbsent(meter.getId().getName(), name -> new ArrayList<>()).add(meter);
+        }
+        StringBuilder out = new StringBuilder();
+        families.forEach((name, meters) -> {
+            meters.sort(Comparator.comparing(meter -> meter.getId().getTags().toString()));
+            String family = name.replace('.', '_');
+            String help = Objects.requireNonNullElse(meters.get(0).getId().getDescription(), name);
+            if (meters.get(0) instanceof Timer) {
+                writeTimers(out, family + "_seconds", help, meters);
+            } else if (meters.get(0) instanceof Counter) {
+                String counterName = family + "_total";
+                header(out, counterName, help, "counter");
+                meters.forEach(meter -> sample(out, counterName, meter.getId().getTags(), null, ((Counter) meter).count()));
+            } else if (meters.get(0) instanceof Gauge) {
+                header(out, family, help, "gauge");
+                meters.forEach(meter -> sample(out, family, meter.getId().getTags(), null, ((Gauge) meter).value()));
+            }
+        });
+        return out.toString();
+    }
+
+    /**
+     * Write the Prometheus file, replacing it atomically so a collector never reads half of it
+     */
+    public void export() {
+        String file = config.getPrometheusFile();
+        if (!isEnabled() || file == null || file.isBlank()) {
+            return;
+        }
+        try {
+            Path target = Paths.get(file);
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            Files.writeString(temp, scrape());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not write indexing metrics to " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Start writing the Prometheus file every export interval, once
+     */
+    public synchronized void startExport() {
+        String file = config.getPrometheusFile();
+        if (exporter != null || !isEnabled() || file == null || file.isBlank()) {
+            return;
+        }
+        exporter = Thread.ofVirtual().name("indexing-metrics-exporter").start(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    Thread.sleep(Math.max(MIN_EXPORT_INTERVAL_MS, config.getExportIntervalMs()));
+                    export();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (exporter != null) {
+            exporter.interrupt();
+            exporter = null;
+            export();
+        }
+    }
+
+    private void writeTimers(StringBuilder out, String family, String help, List<Meter> timers) {
+        header(out, family, help, "histogram");
+        for (Meter meter : timers) {
+            HistogramSnapshot snapshot = ((Timer) meter).takeSnapshot();
+            List<Tag> tags = meter.getId().getTags();
+            for (CountAtBucket bucket : snapshot.histogramCounts()) {
+                sample(out, family + "_bucket", tags, format(bucket.bucket(TimeUnit.SECONDS)), bucket.count());
+            }
+            sample(out, family + "_bucket", tags, "+Inf", snapshot.count());
+            sample(out, family + "_sum", tags, null, snapshot.total(TimeUnit.SECONDS));
+            sample(out, family + "_count", tags, null, snapshot.count());
+        }
+        header(out, family + "_max", help + " (longest)", "gauge");
+        for (Meter meter : timers) {
+            sample(out, family + "_max", meter.getId().getTags(), null, ((Timer) meter).max(TimeUnit.SECONDS));
+        }
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, List<Tag> tags, String le, double value) {
+        out.append(name);
+        if (!tags.isEmpty() || le != null) {
+            StringJoiner labels = new StringJoiner(",", "{", "}");
+            tags.forEach(tag -> labels.add(tag.getKey() + "=\"" + escape(tag.getValue()) + "\""));
+            if (le != null) {
+                labels.add("le=\"" + le + "\"");
+            }
+            out.append(labels);
+        }
+        out.append(' ').append(format(value)).append('\n');
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        return value == Math.rint(value) && Math.abs(value) < 1e15
+                ? Long.toString((long) value)
+                : Double.toString(value);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static final class StoreCall {
+        private long embedNanos;
+        private boolean embedFailed;
+    }
+
+    /**
+     * Latency of one stage, in milliseconds unless noted
+     */
+    public static class StageSummary {
+        private final Stage stage;
+        private final long count;
+        private final double meanMs;
+        private final double p50Ms;
+        private final double p95Ms;
+        private final double p99Ms;
+        private final double maxMs;
+        private final double totalSeconds;
+
+        public StageSummary(Stage stage, long count, double meanMs, double p50Ms, double p95Ms, double p99Ms,
+                double maxMs, double totalSeconds) {
+            this.stage = stage;
+            this.count = count;
+            this.meanMs = meanMs;
+            this.p50Ms = p50Ms;
+            this.p95Ms = p95Ms;
+            this.p99Ms = p99Ms;
+            this.maxMs = maxMs;
+            this.totalSeconds = totalSeconds;
+        }
+
+        public Stage getStage() { return stage; }
+        public long getCount() { return count; }
+        public double getMeanMs() { return meanMs; }
+        public double getP50Ms() { return p50Ms; }
+        public double getP95Ms() { return p95Ms; }
+        public double getP99Ms() { return p99Ms; }
+        public double getMaxMs() { return maxMs; }
+        public double getTotalSeconds() { return totalSeconds; }
+    }
+}
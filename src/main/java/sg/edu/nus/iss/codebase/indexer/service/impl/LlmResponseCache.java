@@ -0,0 +1,237 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Persistent cache of chat model responses used by project analysis
+ * Entries are keyed by framework, detected version, the hash of the prompt template and the chat
+ * model, so changing any of them regenerates the response. One file per entry in a directory
+ * shared by all collections; entries older than the TTL count as misses.
+ */
+@Component
+public class LlmResponseCache {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String ENTRY_SUFFIX = ".properties";
+
+    private final IndexingConfiguration.LlmCacheConfig config;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Autowired
+    public LlmResponseCache(IndexingConfiguration config) {
+        this.config = config.getLlmCache();
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * @return the cached response, or null when there is none or it has expired
+     */
+    public String get(Key key) {
+        if (!config.isEnabled()) {
+            return null;
+        }
+        Path file = entryPath(key);
+        Properties entry = load(file);
+        if (entry == null || !key.matches(entry)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (isExpired(entry)) {
+            deleteQuietly(file);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.getProperty("response");
+    }
+
+    public void put(Key key, String response) {
+        if (!config.isEnabled() || response == null || response.isBlank()) {
+            return;
+        }
+        Properties entry = new Properties();
+        entry.setProperty("format", String.valueOf(FORMAT_VERSION));
+        entry.setProperty("framework", key.framework);
+        entry.setProperty("version", key.version);
+        entry.setProperty("promptHash", key.promptHash);
+        entry.setProperty("model", key.model);
+        entry.setProperty("createdAt", Instant.now().toString());
+        entry.setProperty("response", response);
+        Path file = entryPath(key);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                entry.store(writer, "Cached chat model response for " + key.framework);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("⚠️ Warning: Could not cache response for " + key.framework + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Drop every cached response for a framework, whatever its version or model
+     *
+     * @return the number of entries removed
+     */
+    public int invalidate(String framework) {
+        return removeWhere(entry -> entry == null || framework.equalsIgnoreCase(entry.getProperty("framework")));
+    }
+
+    /**
+     * Drop every cached response
+     *
+     * @return the number of entries removed
+     */
+    public int clear() {
+        return removeWhere(entry -> true);
+    }
+
+    /**
+     * Drop entries past their TTL
+     *
+     * @return the number of entries removed
+     */
+    public int evictExpired() {
+        return removeWhere(entry -> entry == null || isExpired(entry));
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private int removeWhere(java.util.function.Predicate<Properties> condition) {
+        Path directory = Paths.get(config.getDirectory());
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        List<Path> entries;
+        try (Stream<Path> files = Files.list(directory)) {
+            entries = files.filter(file -> file.getFileName().toString().endsWith(ENTRY_SUFFIX)).toList();
+        } catch (IOException e) {
+            System.err.println("⚠️ Warning: Could not list LLM cache " + directory + ": " + e.getMessage());
+            return 0;
+        }
+        int removed = 0;
+        for (Path file : entries) {
+            if (condition.test(load(file)) && deleteQuietly(file)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private boolean isExpired(Properties entry) {
+        if (config.getTtlHours() <= 0) {
+            return false;
+        }
+        try {
+            Instant createdAt = Instant.parse(entry.getProperty("createdAt"));
+            return createdAt.plus(Duration.ofHours(config.getTtlHours())).isBefore(Instant.now());
+        } catch (Exception e) {
+            return true;
+        }
+    }
+
+    private Path entryPath(Key key) {
+        return Paths.get(config.getDirectory()).resolve(key.id() + ENTRY_SUFFIX);
+    }
+
+    private static Properties load(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties entry = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            entry.load(reader);
+        } catch (IOException e) {
+            return null;
+        }
+        return String.valueOf(FORMAT_VERSION).equals(entry.getProperty("format")) ? entry : null;
+    }
+
+    private static boolean deleteQuietly(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * SHA-256 of a text as hex, used for prompt templates and inputs
+     */
+    public static String hash(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * What a cached response was generated from
+     */
+    public static class Key {
+        private final String framework;
+        private final String version;
+        private final String promptHash;
+        private final String model;
+
+        public Key(String framework, String version, String promptHash, String model) {
+            this.framework = framework;
+            this.version = version == null ? "unspecified" : version;
+            this.promptHash = promptHash;
+            this.model = model == null ? "unknown" : model;
+        }
+
+        String id() {
+            return hash(framework.toLowerCase() + "\u0000" + version + "\u0000" + promptHash + "\u0000" + model);
+        }
+
+        boolean matches(Properties entry) {
+            return framework.equalsIgnoreCase(entry.getProperty("framework"))
+                    && version.equals(entry.getProperty("version"))
+                    && promptHash.equals(entry.getProperty("promptHash"))
+                    && model.equals(entry.getProperty("model"));
+        }
+
+        public String getFramework() {
+            return framework;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+    }
+}
@@ -0,0 +1,433 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Heap-aware backpressure for indexing work
+ * Producers reserve the estimated bytes of the documents and embeddings they are
+ * about to hold and block while the in-flight total exceeds the budget. The
+ * budget halves whenever the JVM reports old generation usage above the
+ * threshold after a collection, and grows back gradually once the heap is quiet.
+ */
+@Component
+public class MemoryGovernor {
+
+    private static final long MB = 1024L * 1024L;
+    private static final int DEFAULT_EMBEDDING_DIMENSIONS = 768; // Until the target collection's dimension is known
+    private static final long DOCUMENT_OVERHEAD_BYTES = 256; // Document, id, HashMap and table
+    private static final long METADATA_ENTRY_BYTES = 64; // HashMap node plus boxed or small values
+    private static final long STRING_OVERHEAD_BYTES = 40;
+    private static final long METADATA_BYTES_PER_CHUNK = 1024; // Typical per-chunk metadata, before any text copies
+
+    private final boolean enabled;
+    private final long configuredBudget;
+    private final long minBudget;
+    private final long recoveryIntervalMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private long inFlightBytes = 0;
+    private long peakInFlightBytes = 0;
+    private long budgetBytes;
+    private int waitingProducers = 0;
+    private long lastAdjustedAt = 0;
+
+    // Work that frees reserved memory on demand, such as buffered batches that can be written early
+    private final List<Runnable> pressureReliefs = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong pressureEvents = new AtomicLong();
+    private final AtomicLong blockedReservations = new AtomicLong();
+
+    private final NotificationListener heapListener = this::handleMemoryNotification;
+    private boolean listening = false;
+
+    @Autowired
+    public MemoryGovernor(IndexingConfiguration config) {
+        IndexingConfiguration.MemoryConfig memoryConfig = config.getMemory();
+        this.enabled = memoryConfig.isEnabled();
+        this.minBudget = Math.max(1, memoryConfig.getMinBudgetMb()) * MB;
+        this.recoveryIntervalMs = memoryConfig.getRecoveryIntervalMs();
+
+        long maxHeap = Runtime.getRuntime().maxMemory();
+        long budget = memoryConfig.getBudgetMb() > 0
+                ? memoryConfig.getBudgetMb() * MB
+                : (long) (maxHeap * memoryConfig.getHeapFraction());
+        this.configuredBudget = Math.max(minBudget, budget);
+        this.budgetBytes = configuredBudget;
+
+        if (enabled) {
+            listenForHeapPressure(memoryConfig.getHeapUsageThreshold());
+        }
+    }
+
+    /**
+     * Reserve bytes for work about to be held in memory, blocking while the budget is exhausted.
+     * A single reservation larger than the budget is admitted once nothing else is in flight,
+     * so an oversized file slows indexing down instead of stalling it.
+     */
+    public Reservation reserve(long bytes) throws InterruptedException {
+        long requested = Math.max(0, bytes);
+        if (!enabled) {
+            return new Reservation(0);
+        }
+
+        lock.lock();
+        try {
+            maybeRecoverBudget();
+            if (inFlightBytes > 0 && inFlightBytes + requested > budgetBytes) {
+                blockedReservations.incrementAndGet();
+                waitingProducers++;
+                try {
+                    while (inFlightBytes > 0 && inFlightBytes + requested > budgetBytes) {
+                        // Memory held by buffers is only freed when someone writes them, which
+                        // may be nobody else once every producer is waiting here
+                        if (!pressureReliefs.isEmpty()) {
+                            lock.unlock();
+                            try {
+                                relievePressure();
+                            } finally {
+                                lock.lock();
+                            }
+                            if (inFlightBytes == 0 || inFlightBytes + requested <= budgetBytes) {
+                                break;
+                            }
+                        }
+                        // Timed wait so a recovering budget is noticed even without releases
+                        released.await(200, TimeUnit.MILLISECONDS);
+                        maybeRecoverBudget();
+                    }
+                } finally {
+                    waitingProducers--;
+                }
+            }
+            inFlightBytes += requested;
+            peakInFlightBytes = Math.max(peakInFlightBytes, inFlightBytes);
+            return new Reservation(requested);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Register work a producer runs before blocking on the budget, to free memory that is
+     * reserved but only waiting to be written
+     */
+    public void addPressureRelief(Runnable relief) {
+        pressureReliefs.add(relief);
+    }
+
+    public void removePressureRelief(Runnable relief) {
+        pressureReliefs.remove(relief);
+    }
+
+    private void relievePressure() {
+        for (Runnable relief : pressureReliefs) {
+            try {
+                relief.run();
+            } catch (RuntimeException e) {
+                System.err.println("⚠️ Could not free reserved memory: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Estimated heap footprint of a file before it is read: raw bytes, decoded text,
+     * chunk copies including overlap, per-chunk metadata and embeddings
+     */
+    public static long estimateFileBytes(long fileSize, int chunkSize, int chunkOverlap) {
+        return estimateFileBytes(fileSize, chunkSize, chunkOverlap, 0);
+    }
+
+    /**
+     * @param dimensions vector size of the collection written to, 0 when not known yet
+     */
+    public static long estimateFileBytes(long fileSize, int chunkSize, int chunkOverlap, int dimensions) {
+        long size = Math.max(0, fileSize);
+        int effectiveChunk = Math.max(1, chunkSize - Math.max(0, chunkOverlap));
+        long chunks = Math.max(1, (size + effectiveChunk - 1) / effectiveChunk);
+        long chunkText = 2 * (size + chunks * Math.max(0, chunkOverlap));
+        return size
+                + 2 * size
+                + chunkText
+                + chunks * (METADATA_BYTES_PER_CHUNK + DOCUMENT_OVERHEAD_BYTES + embeddingBytes(dimensions));
+    }
+
+    /**
+     * Estimated heap footprint of built documents plus the embeddings they will receive.
+     * Strings shared between the text and metadata are counted once.
+     */
+    public static long estimateDocuments(List<Document> documents) {
+        return estimateDocuments(documents, 0);
+    }
+
+    /**
+     * @param dimensions vector size of the collection written to, 0 when not known yet
+     */
+    public static long estimateDocuments(List<Document> documents, int dimensions) {
+        Set<Object> counted = Collections.newSetFromMap(new IdentityHashMap<>());
+        long total = 0;
+        for (Document document : documents) {
+            total += DOCUMENT_OVERHEAD_BYTES + embeddingBytes(dimensions);
+            total += estimateValue(document.getText(), counted);
+            for (Map.Entry<String, Object> entry : document.getMetadata().entrySet()) {
+                total += METADATA_ENTRY_BYTES;
+                total += estimateValue(entry.getKey(), counted);
+                total += estimateValue(entry.getValue(), counted);
+            }
+        }
+        return total;
+    }
+
+    private static long estimateValue(Object value, Set<Object> counted) {
+        if (value instanceof String text && counted.add(text)) {
+            // Worst case UTF-16 storage
+            return STRING_OVERHEAD_BYTES + 2L * text.length();
+        }
+        return 0;
+    }
+
+    private static long embeddingBytes(int dimensions) {
+        return 16 + 4L * (dimensions > 0 ? dimensions : DEFAULT_EMBEDDING_DIMENSIONS);
+    }
+
+    /**
+     * Shrink the budget after the JVM reports heap pressure
+     */
+    void onHeapPressure() {
+        lock.lock();
+        try {
+            long previous = budgetBytes;
+            budgetBytes = Math.max(minBudget, budgetBytes / 2);
+            lastAdjustedAt = System.currentTimeMillis();
+            pressureEvents.incrementAndGet();
+            System.err.printf("⚠️ Heap pressure: indexing memory budget %d MB -> %d MB%n",
+                    previous / MB, budgetBytes / MB);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Grow a shrunken budget by an eighth of the configured budget per quiet interval.
+     * Must be called with the lock held.
+     */
+    private void maybeRecoverBudget() {
+        if (budgetBytes >= configuredBudget) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now - lastAdjustedAt >= recoveryIntervalMs) {
+            budgetBytes = Math.min(configuredBudget, budgetBytes + Math.max(1, configuredBudget / 8));
+            lastAdjustedAt = now;
+            released.signalAll();
+        }
+    }
+
+    private void release(long bytes) {
+        lock.lock();
+        try {
+            inFlightBytes = Math.max(0, inFlightBytes - bytes);
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adjust(long delta) {
+        lock.lock();
+        try {
+            inFlightBytes = Math.max(0, inFlightBytes + delta);
+            peakInFlightBytes = Math.max(peakInFlightBytes, inFlightBytes);
+            if (delta < 0) {
+                released.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Arm collection usage thresholds on heap pools and subscribe to the memory MXBean
+     */
+    private void listenForHeapPressure(double usageThreshold) {
+        try {
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                long max = pool.getUsage().getMax();
+                if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported() && max > 0) {
+                    pool.setCollectionUsageThreshold((long) (max * usageThreshold));
+                }
+            }
+            MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+            if (memoryBean instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(heapListener, null, null);
+                listening = true;
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Heap notifications unavailable, memory budget is fixed: " + e.getMessage());
+        }
+    }
+
+    private void handleMemoryNotification(Notification notification, Object handback) {
+        String type = notification.getType();
+        if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(type)
+                || MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED.equals(type)) {
+            onHeapPressure();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (listening && ManagementFactory.getMemoryMXBean() instanceof NotificationEmitter emitter) {
+            try {
+                emitter.removeNotificationListener(heapListener);
+            } catch (ListenerNotFoundException e) {
+                // already removed
+            }
+            listening = false;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getInFlightBytes() {
+        lock.lock();
+        try {
+            return inFlightBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getPeakInFlightBytes() {
+        lock.lock();
+        try {
+            return peakInFlightBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getBudgetBytes() {
+        lock.lock();
+        try {
+            return budgetBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getConfiguredBudgetBytes() {
+        return configuredBudget;
+    }
+
+    public int getWaitingProducers() {
+        lock.lock();
+        try {
+            return waitingProducers;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getPressureEvents() {
+        return pressureEvents.get();
+    }
+
+    public long getBlockedReservations() {
+        return blockedReservations.get();
+    }
+
+    /**
+     * Coarse governor state for status displays
+     */
+    public String getState() {
+        if (!enabled) {
+            return "DISABLED";
+        }
+        lock.lock();
+        try {
+            if (waitingProducers > 0) {
+                return "THROTTLING";
+            }
+            return budgetBytes < configuredBudget ? "RECOVERING" : "NORMAL";
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bytes held by one producer; closing returns them to the budget
+     */
+    public class Reservation implements AutoCloseable {
+        private long bytes;
+        private boolean closed = false;
+
+        private Reservation(long bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * Replace the up-front estimate with a better one once the documents exist.
+         * Never blocks: the work is already in memory.
+         */
+        public void resize(long actualBytes) {
+            if (closed || !enabled) {
+                return;
+            }
+            long target = Math.max(0, actualBytes);
+            adjust(target - bytes);
+            bytes = target;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Hand the reserved bytes to a new reservation, for work that outlives the block that
+         * reserved them; this one is left closed and empty
+         */
+        public Reservation transfer() {
+            Reservation moved = new Reservation(closed ? 0 : bytes);
+            bytes = 0;
+            closed = true;
+            return moved;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                if (enabled) {
+                    release(bytes);
+                }
+            }
+        }
+    }
+}
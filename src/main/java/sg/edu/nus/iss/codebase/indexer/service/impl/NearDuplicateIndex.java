@@ -0,0 +1,642 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.model.DuplicateAlias;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Near-duplicate detection for files and chunks during indexing
+ * Content is reduced to a MinHash signature over token shingles and bucketed with
+ * locality-sensitive hashing, so a new file or chunk is only compared with the few
+ * canonical ones that share a band. Near-duplicates are recorded as aliases of the
+ * canonical file or document instead of being embedded again, and search results are
+ * expanded back into one result per alias.
+ * The index is persisted per collection as an append-only log of tab-separated records next
+ * to the file cache; the log is rewritten with the live entries when superseded records
+ * outnumber them.
+ */
+@Component
+public class NearDuplicateIndex {
+
+    private static final String CHUNK = "CHUNK:";
+    private static final String FILE = "FILE:";
+    private static final String CHUNK_ALIAS = "CHUNK_ALIAS:";
+    private static final String FILE_ALIAS = "FILE_ALIAS:";
+    private static final String FORGET = "FORGET:";
+    private static final String SEPARATOR = "\t";
+    private static final int COMPACT_MIN_RECORDS = 1000;
+
+    private final IndexingConfiguration.DedupConfig config;
+    private final boolean persistent;
+    private final long[] seeds;
+    private final LshTable chunks;
+    private final LshTable files;
+
+    // Canonical document id or file path -> the duplicates that were not embedded
+    private final Map<String, List<DuplicateAlias>> chunkAliases = new HashMap<>();
+    private final Map<String, List<DuplicateAlias>> fileAliases = new HashMap<>();
+    private final AtomicInteger duplicateFiles = new AtomicInteger();
+    private final AtomicInteger duplicateChunks = new AtomicInteger();
+    private int logRecords;
+
+    private Path storeFile;
+
+    @Autowired
+    public NearDuplicateIndex(IndexingConfiguration config) {
+        this(config.getDedup(), config.getCache().isEnabled());
+    }
+
+    private NearDuplicateIndex(IndexingConfiguration.DedupConfig config, boolean persistent) {
+        this.config = config;
+        this.persistent = persistent;
+
+        int bands = Math.max(1, config.getBands());
+        int rows = Math.max(1, config.getNumHashes() / bands);
+        this.chunks = new LshTable(bands, rows);
+        this.files = new LshTable(bands, rows);
+
+        // Fixed seeds keep signatures stable across restarts, which the persisted index relies on
+        SplittableRandom random = new SplittableRandom(0x5EED_D0C5L);
+        this.seeds = new long[bands * rows];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextLong();
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Switch to the persisted index of a collection, replaying its log
+     */
+    public synchronized void load(String collectionName) {
+        resetState();
+        storeFile = persistent ? Paths.get(".near_duplicates_" + collectionName + ".txt") : null;
+        if (storeFile == null || !Files.exists(storeFile)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(storeFile)) {
+                replay(line);
+            }
+            System.out.println("🧬 Near-duplicate index loaded: " + chunks.size() + " canonical chunks, "
+                    + duplicateFiles.get() + " duplicate files, " + duplicateChunks.get() + " duplicate chunks");
+            compactIfSuperseded();
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not load near-duplicate index, starting empty: " + e.getMessage());
+            resetState();
+        }
+    }
+
+    /**
+     * Empty index for a collection being rebuilt, filled alongside it while this one keeps
+     * serving the live collection
+     */
+    public NearDuplicateIndex newGeneration(String collectionName) {
+        NearDuplicateIndex generation = new NearDuplicateIndex(config, persistent);
+        generation.load(collectionName);
+        generation.clear();
+        return generation;
+    }
+
+    /**
+     * Take over the contents and log of a rebuilt generation once its collection is live
+     */
+    public void adopt(NearDuplicateIndex generation) {
+        synchronized (generation) {
+            synchronized (this) {
+                chunks.replaceWith(generation.chunks);
+                files.replaceWith(generation.files);
+                chunkAliases.clear();
+                chunkAliases.putAll(generation.chunkAliases);
+                fileAliases.clear();
+                fileAliases.putAll(generation.fileAliases);
+                duplicateFiles.set(generation.duplicateFiles.get());
+                duplicateChunks.set(generation.duplicateChunks.get());
+                logRecords = generation.logRecords;
+                moveLog(generation.storeFile, storeFile);
+                generation.resetState();
+                generation.storeFile = null;
+            }
+        }
+    }
+
+    /**
+     * Check a whole file against the files indexed so far.
+     * Returns the canonical file it duplicates, recording this file as its alias,
+     * or null after registering the file as canonical.
+     */
+    public synchronized String registerFile(String filePath, String text) {
+        int[] signature = signature(text);
+        if (signature == null) {
+            return null;
+        }
+        Match match = files.best(signature, filePath, config.getThreshold());
+        if (match == null) {
+            files.add(new Entry(filePath, filePath, signature));
+            append(FILE + filePath + SEPARATOR + encode(signature));
+            return null;
+        }
+
+        addFileAlias(match.entry.id, filePath, match.similarity);
+        append(FILE_ALIAS + match.entry.id + SEPARATOR + filePath + SEPARATOR + match.similarity);
+        return match.entry.id;
+    }
+
+    /**
+     * Check a file's chunks against the chunks indexed so far.
+     * Returns the documents that still need embedding; the rest are recorded as aliases.
+     */
+    public synchronized List<Document> registerChunks(String filePath, List<Document> documents) {
+        List<Document> unique = new ArrayList<>(documents.size());
+        for (Document document : documents) {
+            int[] signature = signature(document.getText());
+            if (signature == null) {
+                unique.add(document);
+                continue;
+            }
+            Match match = chunks.best(signature, filePath, config.getThreshold());
+            if (match == null) {
+                chunks.add(new Entry(document.getId(), filePath, signature));
+                append(CHUNK + document.getId() + SEPARATOR + filePath + SEPARATOR + encode(signature));
+                unique.add(document);
+                continue;
+            }
+
+            Integer startLine = lineValue(document, "startLine");
+            Integer endLine = lineValue(document, "endLine");
+            DuplicateAlias alias = new DuplicateAlias(filePath, match.entry.filePath, startLine, endLine, match.similarity);
+            addChunkAlias(match.entry.id, alias);
+            append(encodeChunkAlias(match.entry.id, alias));
+        }
+        return unique;
+    }
+
+    /**
+     * Drop everything known about a file before it is indexed again, or after storing it failed.
+     * Duplicates that were aliased to the file lose their canonical content with it.
+     *
+     * @return the alias files that now have nothing embedded and need indexing themselves
+     */
+    public synchronized Set<String> forgetFile(String filePath) {
+        Set<String> orphans = new LinkedHashSet<>();
+        if (removeFile(filePath, orphans)) {
+            append(FORGET + filePath);
+            compactIfSuperseded();
+        }
+        return orphans;
+    }
+
+    /**
+     * Forget canonical files that were deleted since they were indexed
+     *
+     * @return the alias files of deleted canonicals that still exist and need indexing
+     */
+    public synchronized Set<String> forgetMissingFiles() {
+        Set<String> missing = new TreeSet<>();
+        for (String filePath : files.filePaths()) {
+            if (!Files.exists(Paths.get(filePath))) {
+                missing.add(filePath);
+            }
+        }
+        for (String filePath : chunks.filePaths()) {
+            if (!Files.exists(Paths.get(filePath))) {
+                missing.add(filePath);
+            }
+        }
+
+        Set<String> orphans = new LinkedHashSet<>();
+        for (String filePath : missing) {
+            orphans.addAll(forgetFile(filePath));
+        }
+        orphans.removeIf(path -> !Files.exists(Paths.get(path)));
+        return orphans;
+    }
+
+    /**
+     * Aliases to expand for each search result, keyed by document id
+     */
+    public synchronized Map<String, List<DuplicateAlias>> aliasesFor(List<Document> documents) {
+        Map<String, List<DuplicateAlias>> result = new HashMap<>();
+        for (Document document : documents) {
+            List<DuplicateAlias> aliases = new ArrayList<>(chunkAliases.getOrDefault(document.getId(), List.of()));
+            for (DuplicateAlias fileAlias : fileAliases.getOrDefault(metadataValue(document, "filepath"), List.of())) {
+                aliases.add(fileAlias.at(lineValue(document, "startLine"), lineValue(document, "endLine")));
+            }
+            if (!aliases.isEmpty()) {
+                result.put(document.getId(), aliases);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Forget everything, including the persisted log of the current collection
+     */
+    public synchronized void clear() {
+        resetState();
+        if (storeFile != null) {
+            try {
+                Files.deleteIfExists(storeFile);
+            } catch (Exception e) {
+                System.err.println("⚠️ Could not clear near-duplicate index: " + e.getMessage());
+            }
+        }
+    }
+
+    public int getDuplicateFileCount() {
+        return duplicateFiles.get();
+    }
+
+    public int getDuplicateChunkCount() {
+        return duplicateChunks.get();
+    }
+
+    /**
+     * MinHash signature over token shingles, or null when the text is too short to judge
+     */
+    int[] signature(String text) {
+        List<String> tokens = tokenize(text);
+        if (tokens.size() < Math.max(config.getMinTokens(), config.getShingleSize())) {
+            return null;
+        }
+
+        int shingleSize = Math.max(1, config.getShingleSize());
+        long[] minimums = new long[seeds.length];
+        Arrays.fill(minimums, Long.MAX_VALUE);
+        for (int start = 0; start + shingleSize <= tokens.size(); start++) {
+            long shingle = 0;
+            for (int i = start; i < start + shingleSize; i++) {
+                shingle = mix(shingle * 31 + tokens.get(i).hashCode());
+            }
+            for (int h = 0; h < seeds.length; h++) {
+                long value = mix(shingle ^ seeds[h]);
+                if (value < minimums[h]) {
+                    minimums[h] = value;
+                }
+            }
+        }
+
+        int[] signature = new int[seeds.length];
+        for (int h = 0; h < seeds.length; h++) {
+            signature[h] = (int) (minimums[h] >>> 32);
+        }
+        return signature;
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length()
+                    && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_');
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * SplitMix64 finalizer
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    private void replay(String line) {
+        logRecords++;
+        if (line.startsWith(CHUNK_ALIAS)) {
+            String[] parts = fields(line.substring(CHUNK_ALIAS.length()));
+            addChunkAlias(parts[0], new DuplicateAlias(parts[1], parts[2], parseLine(parts[3]),
+                    parseLine(parts[4]), Double.parseDouble(parts[5])));
+        } else if (line.startsWith(FILE_ALIAS)) {
+            String[] parts = fields(line.substring(FILE_ALIAS.length()));
+            addFileAlias(parts[0], parts[1], Double.parseDouble(parts[2]));
+        } else if (line.startsWith(CHUNK)) {
+            String[] parts = fields(line.substring(CHUNK.length()));
+            chunks.add(new Entry(parts[0], parts[1], decode(parts[2])));
+        } else if (line.startsWith(FILE)) {
+            String[] parts = fields(line.substring(FILE.length()));
+            files.add(new Entry(parts[0], parts[0], decode(parts[1])));
+        } else if (line.startsWith(FORGET)) {
+            removeFile(line.substring(FORGET.length()), new HashSet<>());
+        }
+    }
+
+    /**
+     * Fields of a record; logs written before records were tab-separated used "|"
+     */
+    private static String[] fields(String record) {
+        return record.split(record.contains(SEPARATOR) ? SEPARATOR : "\\|", -1);
+    }
+
+    private static String encodeChunkAlias(String canonicalId, DuplicateAlias alias) {
+        return CHUNK_ALIAS + canonicalId + SEPARATOR + alias.getFilePath() + SEPARATOR + alias.getCanonicalFilePath()
+                + SEPARATOR + Objects.toString(alias.getStartLine(), "") + SEPARATOR
+                + Objects.toString(alias.getEndLine(), "") + SEPARATOR + alias.getSimilarity();
+    }
+
+    /**
+     * Rewrite the log as the live entries and aliases once superseded records outnumber them
+     */
+    private void compactIfSuperseded() {
+        int liveRecords = files.size() + chunks.size() + duplicateFiles.get() + duplicateChunks.get();
+        if (storeFile == null || logRecords <= COMPACT_MIN_RECORDS || logRecords <= 2 * liveRecords) {
+            return;
+        }
+        Path temp = storeFile.resolveSibling(storeFile.getFileName() + ".tmp");
+        try {
+            List<String> lines = new ArrayList<>(liveRecords);
+            for (Entry entry : files.entries()) {
+                lines.add(FILE + entry.id + SEPARATOR + encode(entry.signature));
+            }
+            for (Entry entry : chunks.entries()) {
+                lines.add(CHUNK + entry.id + SEPARATOR + entry.filePath + SEPARATOR + encode(entry.signature));
+            }
+            fileAliases.forEach((canonicalPath, aliases) -> aliases.forEach(alias -> lines.add(FILE_ALIAS
+                    + canonicalPath + SEPARATOR + alias.getFilePath() + SEPARATOR + alias.getSimilarity())));
+            chunkAliases.forEach((canonicalId, aliases) -> aliases.forEach(alias ->
+                    lines.add(encodeChunkAlias(canonicalId, alias))));
+            Files.write(temp, lines);
+            Files.move(temp, storeFile, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("🧬 Near-duplicate index compacted from " + logRecords + " to " + lines.size() + " records");
+            logRecords = lines.size();
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not compact near-duplicate index: " + e.getMessage());
+        }
+    }
+
+    private void addChunkAlias(String canonicalId, DuplicateAlias alias) {
+        chunkAliases.computeIfAbsent(canonicalId, id -> new ArrayList<>()).add(alias);
+        duplicateChunks.incrementAndGet();
+    }
+
+    private void addFileAlias(String canonicalPath, String aliasPath, double similarity) {
+        fileAliases.computeIfAbsent(canonicalPath, path -> new ArrayList<>())
+                .add(new DuplicateAlias(aliasPath, canonicalPath, null, null, similarity));
+        duplicateFiles.incrementAndGet();
+    }
+
+    /**
+     * Remove a file's canonical entries, its own aliases and the aliases attached to it,
+     * collecting the alias files that were attached to it
+     */
+    private boolean removeFile(String filePath, Set<String> orphans) {
+        boolean removed = chunks.removeFile(filePath) | files.removeFile(filePath);
+        removed |= removeAliases(chunkAliases, filePath, duplicateChunks, orphans);
+        removed |= removeAliases(fileAliases, filePath, duplicateFiles, orphans);
+        orphans.remove(filePath);
+        return removed;
+    }
+
+    private static boolean removeAliases(Map<String, List<DuplicateAlias>> aliases, String filePath,
+            AtomicInteger counter, Set<String> orphans) {
+        boolean removed = false;
+        for (Iterator<List<DuplicateAlias>> iterator = aliases.values().iterator(); iterator.hasNext();) {
+            List<DuplicateAlias> list = iterator.next();
+            int before = list.size();
+            list.removeIf(alias -> {
+                if (alias.getCanonicalFilePath().equals(filePath)) {
+                    orphans.add(alias.getFilePath());
+                    return true;
+                }
+                return alias.getFilePath().equals(filePath);
+            });
+            if (list.size() < before) {
+                counter.addAndGet(list.size() - before);
+                removed = true;
+            }
+            if (list.isEmpty()) {
+                iterator.remove();
+            }
+        }
+        return removed;
+    }
+
+    private void resetState() {
+        chunks.clear();
+        files.clear();
+        chunkAliases.clear();
+        fileAliases.clear();
+        duplicateFiles.set(0);
+        duplicateChunks.set(0);
+        logRecords = 0;
+    }
+
+    private static void moveLog(Path from, Path to) {
+        if (from == null || to == null) {
+            return;
+        }
+        try {
+            if (Files.exists(from)) {
+                Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.deleteIfExists(to);
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not replace near-duplicate index log: " + e.getMessage());
+        }
+    }
+
+    private void append(String line) {
+        if (storeFile == null) {
+            return;
+        }
+        try {
+            Files.writeString(storeFile, line + System.lineSeparator(),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            logRecords++;
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not persist near-duplicate index entry: " + e.getMessage());
+        }
+    }
+
+    private static String metadataValue(Document document, String key) {
+        Object value = document.getMetadata().get(key);
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * Line numbers are stored as integers; points indexed before that carry them as strings
+     */
+    private static Integer lineValue(Document document, String key) {
+        Object value = document.getMetadata().get(key);
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        return value != null ? parseLine(value.toString()) : null;
+    }
+
+    private static Integer parseLine(String value) {
+        return value.matches("-?\\d+") ? Integer.valueOf(value) : null;
+    }
+
+    private static String encode(int[] signature) {
+        HexFormat hex = HexFormat.of();
+        StringBuilder encoded = new StringBuilder(signature.length * 8);
+        for (int value : signature) {
+            encoded.append(hex.toHexDigits(value));
+        }
+        return encoded.toString();
+    }
+
+    private static int[] decode(String encoded) {
+        int[] signature = new int[encoded.length() / 8];
+        for (int i = 0; i < signature.length; i++) {
+            signature[i] = (int) Long.parseLong(encoded, i * 8, i * 8 + 8, 16);
+        }
+        return signature;
+    }
+
+    /**
+     * Banded LSH buckets over MinHash signatures
+     */
+    private static class LshTable {
+        private final int bands;
+        private final int rows;
+        private final Map<Long, List<Entry>> buckets = new HashMap<>();
+        private final Map<String, List<Entry>> byFile = new HashMap<>();
+
+        LshTable(int bands, int rows) {
+            this.bands = bands;
+            this.rows = rows;
+        }
+
+        void add(Entry entry) {
+            if (entry.signature.length < bands * rows) {
+                return; // Written with a different signature length, cannot be compared
+            }
+            for (int band = 0; band < bands; band++) {
+                buckets.computeIfAbsent(bucketKey(entry.signature, band), key -> new ArrayList<>()).add(entry);
+            }
+            byFile.computeIfAbsent(entry.filePath, path -> new ArrayList<>()).add(entry);
+        }
+
+        /**
+         * Most similar entry from another file at or above the threshold
+         */
+        Match best(int[] signature, String excludedFile, double threshold) {
+            Match best = null;
+            Set<Entry> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (int band = 0; band < bands; band++) {
+                for (Entry candidate : buckets.getOrDefault(bucketKey(signature, band), List.of())) {
+                    if (!seen.add(candidate) || candidate.filePath.equals(excludedFile)) {
+                        continue;
+                    }
+                    double similarity = similarity(signature, candidate.signature);
+                    if (similarity >= threshold && (best == null || similarity > best.similarity)) {
+                        best = new Match(candidate, similarity);
+                    }
+                }
+            }
+            return best;
+        }
+
+        boolean removeFile(String filePath) {
+            List<Entry> entries = byFile.remove(filePath);
+            if (entries == null) {
+                return false;
+            }
+            for (Entry entry : entries) {
+                for (int band = 0; band < bands; band++) {
+                    long key = bucketKey(entry.signature, band);
+                    List<Entry> bucket = buckets.get(key);
+                    if (bucket != null) {
+                        bucket.remove(entry);
+                        if (bucket.isEmpty()) {
+                            buckets.remove(key);
+                        }
+                    }
+                }
+            }
+            return true;
+        }
+
+        void replaceWith(LshTable other) {
+            buckets.clear();
+            buckets.putAll(other.buckets);
+            byFile.clear();
+            byFile.putAll(other.byFile);
+        }
+
+        Set<String> filePaths() {
+            return new HashSet<>(byFile.keySet());
+        }
+
+        List<Entry> entries() {
+            List<Entry> entries = new ArrayList<>();
+            byFile.values().forEach(entries::addAll);
+            return entries;
+        }
+
+        int size() {
+            return byFile.values().stream().mapToInt(List::size).sum();
+        }
+
+        void clear() {
+            buckets.clear();
+            byFile.clear();
+        }
+
+        private long bucketKey(int[] signature, int band) {
+            long hash = band;
+            for (int i = band * rows; i < (band + 1) * rows; i++) {
+                hash = hash * 0x9E3779B97F4A7C15L + signature[i];
+            }
+            return mix(hash);
+        }
+
+        private double similarity(int[] a, int[] b) {
+            int length = bands * rows;
+            int equal = 0;
+            for (int i = 0; i < length; i++) {
+                if (a[i] == b[i]) {
+                    equal++;
+                }
+            }
+            return (double) equal / length;
+        }
+    }
+
+    private static class Entry {
+        private final String id;
+        private final String filePath;
+        private final int[] signature;
+
+        Entry(String id, String filePath, int[] signature) {
+            this.id = id;
+            this.filePath = filePath;
+            this.signature = signature;
+        }
+    }
+
+    private static class Match {
+        private final Entry entry;
+        private final double similarity;
+
+        Match(Entry entry, double similarity) {
+            this.entry = entry;
+            this.similarity = similarity;
+        }
+    }
+}
@@ -0,0 +1,607 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Single-pass, table-driven lexer for the source languages the code analyzer understands
+ * Each language is a row of lexical rules (comment markers, string forms, decorators); one scan
+ * over the text produces words, literals, annotations and punctuation with exact 1-based line
+ * and column ranges, drops comments and links matching brackets. Tokens are kept in parallel
+ * arrays rather than objects, so lexing a file allocates a handful of arrays.
+ */
+public class SourceLexer {
+
+    public enum Kind { WORD, STRING, NUMBER, ANNOTATION, PUNCT }
+
+    /**
+     * Languages and their lexical rules
+     */
+    public enum Language {
+        JAVA(new Syntax("//").blockComments().tripleQuotes().annotations(), ".java"),
+        KOTLIN(new Syntax("//").blockComments().tripleQuotes().annotations(), ".kt", ".kts"),
+        PYTHON(new Syntax("#").tripleQuotes().annotations().stringPrefixes(), ".py"),
+        JAVASCRIPT(new Syntax("//").blockComments().backticks(true).annotations().regexLiterals(), ".js", ".jsx", ".mjs", ".cjs"),
+        TYPESCRIPT(new Syntax("//").blockComments().backticks(true).annotations().regexLiterals(), ".ts", ".tsx"),
+        GO(new Syntax("//").blockComments().backticks(false), ".go"),
+        CSHARP(new Syntax("//").blockComments().verbatimStrings(), ".cs"),
+        SQL(new Syntax("--").blockComments().backticks(false).doubledQuotes().dollarQuotes().caseInsensitive(), ".sql");
+
+        private final Syntax syntax;
+        private final Set<String> extensions;
+
+        Language(Syntax syntax, String... extensions) {
+            this.syntax = syntax;
+            this.extensions = Set.of(extensions);
+        }
+
+        /**
+         * @return the language of a file, or null when it is not one the lexer knows
+         */
+        public static Language forFileName(String fileName) {
+            int dot = fileName.lastIndexOf('.');
+            if (dot < 0) {
+                return null;
+            }
+            String extension = fileName.substring(dot).toLowerCase(Locale.ROOT);
+            for (Language language : values()) {
+                if (language.extensions.contains(extension)) {
+                    return language;
+                }
+            }
+            return null;
+        }
+
+        public boolean isCaseInsensitive() {
+            return syntax.caseInsensitive;
+        }
+    }
+
+    /**
+     * Lexical rules of one language
+     */
+    private static final class Syntax {
+        private final String lineComment;
+        private boolean blockComments;       // /* ... */
+        private boolean tripleQuotes;        // """ ... """ (Python, Kotlin raw strings, Java text blocks)
+        private boolean backticks;           // `...` (JS/TS templates, Go raw strings, quoted SQL names)
+        private boolean backtickEscapes;
+        private boolean verbatimStrings;     // C# @"..." and $"..."
+        private boolean doubledQuotes;       // 'it''s' (SQL)
+        private boolean dollarQuotes;        // $$ ... $$ and $tag$ ... $tag$ bodies (PostgreSQL)
+        private boolean annotations;         // @Name, @receiver.name
+        private boolean stringPrefixes;      // r"", b"", f"" (Python)
+        private boolean regexLiterals;       // /.../ (JS/TS)
+        private boolean caseInsensitive;     // Keywords (SQL)
+
+        Syntax(String lineComment) { this.lineComment = lineComment; }
+        Syntax blockComments() { blockComments = true; return this; }
+        Syntax tripleQuotes() { tripleQuotes = true; return this; }
+        Syntax backticks(boolean escapes) { backticks = true; backtickEscapes = escapes; return this; }
+        Syntax verbatimStrings() { verbatimStrings = true; return this; }
+        Syntax doubledQuotes() { doubledQuotes = true; return this; }
+        Syntax dollarQuotes() { dollarQuotes = true; return this; }
+        Syntax annotations() { annotations = true; return this; }
+        Syntax stringPrefixes() { stringPrefixes = true; return this; }
+        Syntax regexLiterals() { regexLiterals = true; return this; }
+        Syntax caseInsensitive() { caseInsensitive = true; return this; }
+    }
+
+    // Character classes of ASCII characters; everything else goes through Character
+    private static final byte SPACE = 1;
+    private static final byte IDENT_START = 2;
+    private static final byte DIGIT = 4;
+    private static final byte[] CHARS = new byte[128];
+
+    static {
+        for (char c : new char[] {' ', '\t', '\r', '\f', '\u000B'}) CHARS[c] = SPACE;
+        for (char c = 'a'; c <= 'z'; c++) CHARS[c] = IDENT_START;
+        for (char c = 'A'; c <= 'Z'; c++) CHARS[c] = IDENT_START;
+        for (char c = '0'; c <= '9'; c++) CHARS[c] = DIGIT;
+        CHARS['_'] = IDENT_START;
+        CHARS['$'] = IDENT_START;
+    }
+
+    // Words after which a slash starts a regular expression rather than a division
+    private static final Set<String> REGEX_PRECEDING_WORDS = Set.of(
+            "return", "typeof", "case", "do", "else", "in", "of", "new", "delete", "void", "throw", "instanceof", "yield", "await");
+
+    public static Tokens lex(String source, Language language) {
+        return new Scanner(source, language).run();
+    }
+
+    /**
+     * Tokens of one source text
+     */
+    public static final class Tokens {
+        private final String source;
+        private final Language language;
+        private Kind[] kinds;
+        private int[] starts;
+        private int[] ends;
+        private int[] lines;
+        private int[] columns;
+        private int[] endLines;
+        private int[] endColumns;
+        private int[] matches;
+        private int size;
+        private int[] lineStarts = new int[64];
+        private int lineCount;
+        private final BitSet continuedLines = new BitSet();
+
+        private Tokens(String source, Language language, int capacity) {
+            this.source = source;
+            this.language = language;
+            kinds = new Kind[capacity];
+            starts = new int[capacity];
+            ends = new int[capacity];
+            lines = new int[capacity];
+            columns = new int[capacity];
+            endLines = new int[capacity];
+            endColumns = new int[capacity];
+            matches = new int[capacity];
+        }
+
+        private int add(Kind kind, int start, int end, int line, int column, int endLine, int endColumn) {
+            if (size == kinds.length) {
+                int capacity = size * 2;
+                kinds = Arrays.copyOf(kinds, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                lines = Arrays.copyOf(lines, capacity);
+                columns = Arrays.copyOf(columns, capacity);
+                endLines = Arrays.copyOf(endLines, capacity);
+                endColumns = Arrays.copyOf(endColumns, capacity);
+                matches = Arrays.copyOf(matches, capacity);
+            }
+            kinds[size] = kind;
+            starts[size] = start;
+            ends[size] = end;
+            lines[size] = line;
+            columns[size] = column;
+            endLines[size] = endLine;
+            endColumns[size] = endColumn;
+            matches[size] = -1;
+            return size++;
+        }
+
+        private void addLine(int start) {
+            if (lineCount == lineStarts.length) {
+                lineStarts = Arrays.copyOf(lineStarts, lineCount * 2);
+            }
+            lineStarts[lineCount++] = start;
+        }
+
+        public String getSource() { return source; }
+        public Language getLanguage() { return language; }
+        public int size() { return size; }
+        public Kind kind(int i) { return kinds[i]; }
+        public int start(int i) { return starts[i]; }
+        public int end(int i) { return ends[i]; }
+        /** 1-based line of the token's first character */
+        public int line(int i) { return lines[i]; }
+        /** 1-based column of the token's first character */
+        public int column(int i) { return columns[i]; }
+        /** 1-based line of the token's last character */
+        public int endLine(int i) { return endLines[i]; }
+        /** 1-based column of the token's last character */
+        public int endColumn(int i) { return endColumns[i]; }
+        /** Index of the matching bracket, or -1 */
+        public int match(int i) { return matches[i]; }
+        public int lineCount() { return lineCount; }
+        /** Offset in the source of a 1-based line's first character */
+        public int lineStart(int line) { return lineStarts[line - 1]; }
+        /** Whether a 1-based line begins inside a block comment or a literal spanning lines */
+        public boolean isContinuedLine(int line) { return continuedLines.get(line); }
+
+        public String text(int i) {
+            return source.substring(starts[i], ends[i]);
+        }
+
+        /**
+         * Whether a token is the given word, ignoring case for case-insensitive languages
+         */
+        public boolean is(int i, String word) {
+            return i >= 0 && i < size && kinds[i] == Kind.WORD && ends[i] - starts[i] == word.length()
+                    && source.regionMatches(language.syntax.caseInsensitive, starts[i], word, 0, word.length());
+        }
+
+        public boolean isPunct(int i, char c) {
+            return i >= 0 && i < size && kinds[i] == Kind.PUNCT && ends[i] - starts[i] == 1 && source.charAt(starts[i]) == c;
+        }
+
+        public boolean isPunct(int i, String punct) {
+            return i >= 0 && i < size && kinds[i] == Kind.PUNCT && ends[i] - starts[i] == punct.length()
+                    && source.startsWith(punct, starts[i]);
+        }
+
+        /**
+         * Whether a token is the first one on its line
+         */
+        public boolean startsLine(int i) {
+            return i == 0 || lines[i] > endLines[i - 1];
+        }
+
+        /**
+         * Text of a 1-based source line, without its line break
+         */
+        public String lineText(int line) {
+            int start = lineStarts[line - 1];
+            int end = line < lineCount ? lineStarts[line] - 1 : source.length();
+            if (end > start && source.charAt(end - 1) == '\r') {
+                end--;
+            }
+            return source.substring(start, Math.max(start, end));
+        }
+
+        /**
+         * Contents of a string literal token without prefix and quotes
+         */
+        public String stringValue(int i) {
+            int start = starts[i];
+            int end = ends[i];
+            if (language.syntax.dollarQuotes && source.charAt(start) == '$') {
+                int body = source.indexOf('$', start + 1) + 1;
+                int tag = body - start;
+                return end - tag > body ? source.substring(body, end - tag) : "";
+            }
+            while (start < end && "\"'`".indexOf(source.charAt(start)) < 0) {
+                start++; // Prefixes such as r, f, b, @ and $
+            }
+            char quote = start < end ? source.charAt(start) : '"';
+            int quotes = 0;
+            while (start + quotes < end && quotes < 3 && source.charAt(start + quotes) == quote) {
+                quotes++;
+            }
+            if (quotes == 2 && end - start == 2) {
+                return ""; // Empty string
+            }
+            int open = quotes == 3 ? 3 : 1;
+            int close = end - open;
+            return close > start + open ? source.substring(start + open, close) : "";
+        }
+    }
+
+    /**
+     * One pass over the text
+     */
+    private static final class Scanner {
+        private final String source;
+        private final Syntax syntax;
+        private final Tokens tokens;
+        private final int length;
+        private int pos;
+        private int line = 1;
+        private int lineStart;
+        private int[] brackets = new int[32];
+        private int depth;
+
+        Scanner(String source, Language language) {
+            this.source = source;
+            this.syntax = language.syntax;
+            this.length = source.length();
+            this.tokens = new Tokens(source, language, Math.max(16, length / 5));
+            tokens.addLine(0);
+        }
+
+        Tokens run() {
+            while (pos < length) {
+                char c = source.charAt(pos);
+                if (c == '\n') {
+                    newLine(pos + 1);
+                    pos++;
+                    continue;
+                }
+                if (c < 128 && CHARS[c] == SPACE) {
+                    pos++;
+                    continue;
+                }
+                if (skipComment(c)) {
+                    continue;
+                }
+
+                int start = pos;
+                int startLine = line;
+                int startColumn = pos - lineStart + 1;
+                Kind kind;
+                if (isStringStart(c)) {
+                    scanString();
+                    kind = Kind.STRING;
+                } else if (isIdentStart(c)) {
+                    scanWord();
+                    if (syntax.stringPrefixes && pos - start <= 2 && pos < length && isQuote(source.charAt(pos))
+                            && isStringPrefix(start, pos)) {
+                        scanQuoted(source.charAt(pos)); // r"...", f'...'
+                        kind = Kind.STRING;
+                    } else {
+                        kind = Kind.WORD;
+                    }
+                } else if (c == '@' && pos + 1 < length && isIdentStart(source.charAt(pos + 1))) {
+                    if (syntax.annotations) {
+                        pos++;
+                        scanWord();
+                        while (pos + 1 < length && source.charAt(pos) == '.' && isIdentStart(source.charAt(pos + 1))) {
+                            pos++;
+                            scanWord();
+                        }
+                        kind = Kind.ANNOTATION;
+                    } else {
+                        pos++; // C# verbatim identifier
+                        start = pos;
+                        startColumn++;
+                        scanWord();
+                        kind = Kind.WORD;
+                    }
+                } else if (isDigit(c) || c == '.' && pos + 1 < length && isDigit(source.charAt(pos + 1))) {
+                    scanNumber();
+                    kind = Kind.NUMBER;
+                } else if (c == '/' && syntax.regexLiterals && regexAllowed()) {
+                    scanRegex();
+                    kind = Kind.STRING;
+                } else {
+                    pos += punctLength(c);
+                    kind = Kind.PUNCT;
+                }
+
+                int index = tokens.add(kind, start, pos, startLine, startColumn, line, pos - 1 - lineStart + 1);
+                if (kind == Kind.PUNCT && pos - start == 1) {
+                    linkBracket(c, index);
+                }
+            }
+            return tokens;
+        }
+
+        private void newLine(int start) {
+            line++;
+            lineStart = start;
+            tokens.addLine(start);
+        }
+
+        /**
+         * Move to the end of a comment or literal, counting the line breaks passed; the lines
+         * after them start inside it
+         */
+        private void advanceTo(int target) {
+            int next = source.indexOf('\n', pos);
+            while (next >= 0 && next < target) {
+                newLine(next + 1);
+                tokens.continuedLines.set(line);
+                next = source.indexOf('\n', next + 1);
+            }
+            pos = target;
+        }
+
+        private boolean skipComment(char c) {
+            String marker = syntax.lineComment;
+            if (c == marker.charAt(0) && source.startsWith(marker, pos)) {
+                int end = source.indexOf('\n', pos);
+                pos = end < 0 ? length : end;
+                return true;
+            }
+            if (syntax.blockComments && c == '/' && pos + 1 < length && source.charAt(pos + 1) == '*') {
+                int end = source.indexOf("*/", pos + 2);
+                advanceTo(end < 0 ? length : end + 2);
+                return true;
+            }
+            return false;
+        }
+
+        private boolean isStringStart(char c) {
+            if (c == '"' || c == '\'') {
+                return true;
+            }
+            if (c == '`') {
+                return syntax.backticks;
+            }
+            if (pos + 1 >= length) {
+                return false;
+            }
+            char next = source.charAt(pos + 1);
+            if (syntax.verbatimStrings && (c == '@' || c == '$')) {
+                return next == '"' || (next == '@' || next == '$') && pos + 2 < length && source.charAt(pos + 2) == '"';
+            }
+            if (syntax.dollarQuotes && c == '$') {
+                int close = pos + 1;
+                while (close < length && source.charAt(close) != '$' && isIdentPart(source.charAt(close))) {
+                    close++;
+                }
+                return close < length && source.charAt(close) == '$';
+            }
+            return false;
+        }
+
+        private void scanString() {
+            char c = source.charAt(pos);
+            if (c == '$' && syntax.dollarQuotes) {
+                int close = source.indexOf('$', pos + 1);
+                String tag = source.substring(pos, close + 1);
+                int end = source.indexOf(tag, close + 1);
+                advanceTo(end < 0 ? length : end + tag.length());
+                return;
+            }
+            if (c == '@' || c == '$') {
+                boolean verbatim = false;
+                while (source.charAt(pos) != '"') {
+                    verbatim |= source.charAt(pos) == '@';
+                    pos++;
+                }
+                if (verbatim) {
+                    scanVerbatim();
+                    return;
+                }
+                c = '"';
+            }
+            scanQuoted(c);
+        }
+
+        /**
+         * A quoted literal starting at the current position
+         */
+        private void scanQuoted(char quote) {
+            if (syntax.tripleQuotes && quote != '`' && source.startsWith(tripled(quote), pos)) {
+                int end = source.indexOf(tripled(quote), pos + 3);
+                advanceTo(end < 0 ? length : end + 3);
+                return;
+            }
+            boolean escapes = quote != '`' || syntax.backtickEscapes;
+            boolean multiline = quote == '`' || syntax.doubledQuotes;
+            int i = pos + 1;
+            while (i < length) {
+                char c = source.charAt(i);
+                if (c == '\\' && escapes) {
+                    i += 2;
+                } else if (c == quote) {
+                    if (syntax.doubledQuotes && i + 1 < length && source.charAt(i + 1) == quote) {
+                        i += 2;
+                    } else {
+                        i++;
+                        break;
+                    }
+                } else if (c == '\n' && !multiline) {
+                    break; // Unterminated literal ends at the line break
+                } else {
+                    i++;
+                }
+            }
+            advanceTo(Math.min(i, length));
+        }
+
+        /**
+         * C# verbatim string: no escapes, doubled quotes, may span lines
+         */
+        private void scanVerbatim() {
+            int i = pos + 1;
+            while (i < length) {
+                if (source.charAt(i) == '"') {
+                    if (i + 1 < length && source.charAt(i + 1) == '"') {
+                        i += 2;
+                        continue;
+                    }
+                    i++;
+                    break;
+                }
+                i++;
+            }
+            advanceTo(Math.min(i, length));
+        }
+
+        private void scanRegex() {
+            int i = pos + 1;
+            boolean inClass = false;
+            while (i < length) {
+                char c = source.charAt(i);
+                if (c == '\\') {
+                    i += 2;
+                    continue;
+                }
+                if (c == '\n') {
+                    break;
+                }
+                if (c == '[') {
+                    inClass = true;
+                } else if (c == ']') {
+                    inClass = false;
+                } else if (c == '/' && !inClass) {
+                    i++;
+                    break;
+                }
+                i++;
+            }
+            while (i < length && isIdentPart(source.charAt(i))) {
+                i++; // Flags
+            }
+            pos = Math.min(i, length);
+        }
+
+        private void scanWord() {
+            pos++;
+            while (pos < length && isIdentPart(source.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private void scanNumber() {
+            pos++;
+            while (pos < length) {
+                char c = source.charAt(pos);
+                if (isIdentPart(c) || c == '.' && pos + 1 < length && isDigit(source.charAt(pos + 1))) {
+                    pos++;
+                } else if ((c == '+' || c == '-') && (source.charAt(pos - 1) == 'e' || source.charAt(pos - 1) == 'E')) {
+                    pos++;
+                } else {
+                    break;
+                }
+            }
+        }
+
+        private int punctLength(char c) {
+            if (pos + 1 < length) {
+                char next = source.charAt(pos + 1);
+                if (c == '=' && next == '>' || c == '-' && next == '>' || c == ':' && next == ':') {
+                    return 2;
+                }
+            }
+            return 1;
+        }
+
+        private boolean regexAllowed() {
+            int last = tokens.size - 1;
+            if (last < 0) {
+                return true;
+            }
+            return switch (tokens.kinds[last]) {
+                case PUNCT -> "(,=:[!&|?{};+-*%<>~^".indexOf(source.charAt(tokens.ends[last] - 1)) >= 0;
+                case WORD -> REGEX_PRECEDING_WORDS.contains(tokens.text(last));
+                default -> false;
+            };
+        }
+
+        private void linkBracket(char c, int index) {
+            if (c == '(' || c == '[' || c == '{') {
+                if (depth == brackets.length) {
+                    brackets = Arrays.copyOf(brackets, depth * 2);
+                }
+                brackets[depth++] = index;
+            } else if ((c == ')' || c == ']' || c == '}') && depth > 0) {
+                int open = brackets[depth - 1];
+                char opener = source.charAt(tokens.starts[open]);
+                if (opener == (c == ')' ? '(' : c == ']' ? '[' : '{')) {
+                    depth--;
+                    tokens.matches[open] = index;
+                    tokens.matches[index] = open;
+                }
+            }
+        }
+
+        private boolean isStringPrefix(int start, int end) {
+            for (int i = start; i < end; i++) {
+                if ("rRbBuUfF".indexOf(source.charAt(i)) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static String tripled(char quote) {
+            return quote == '"' ? "\"\"\"" : "'''";
+        }
+
+        private static boolean isQuote(char c) {
+            return c == '"' || c == '\'';
+        }
+    }
+
+    private static boolean isIdentStart(char c) {
+        return c < 128 ? CHARS[c] == IDENT_START : Character.isJavaIdentifierStart(c);
+    }
+
+    private static boolean isIdentPart(char c) {
+        return c < 128 ? (CHARS[c] & (IDENT_START | DIGIT)) != 0 : Character.isJavaIdentifierPart(c);
+    }
+
+    private static boolean isDigit(char c) {
+        return c < 128 && CHARS[c] == DIGIT;
+    }
+}
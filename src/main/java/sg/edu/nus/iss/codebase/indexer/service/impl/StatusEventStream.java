@@ -0,0 +1,220 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.model.IndexingStatus;
+import sg.edu.nus.iss.codebase.indexer.service.interfaces.IndexingStatusObserver;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Coalescing stream of indexing status updates.
+ * Indexing threads only mark the status as changed; a single publisher thread builds at most one
+ * snapshot per interval, and only when something changed and someone is listening. Every observer
+ * is fed by its own thread from a one-slot mailbox that a newer snapshot replaces, plus a bounded
+ * queue for completion and error events, so a slow observer only ever falls behind itself.
+ */
+@Component
+public class StatusEventStream {
+
+    private static final long MIN_INTERVAL_MS = 10;
+
+    private final IndexingConfiguration.StatusStreamConfig config;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong publishedVersion = new AtomicLong();
+    private final AtomicLong publishedSnapshots = new AtomicLong();
+    private final AtomicLong coalescedSnapshots = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    // Held while a snapshot is built and handed out and while a completion is queued, so a
+    // snapshot of the run in progress never reaches a mailbox after the completion event
+    private final Object publishLock = new Object();
+
+    private volatile Supplier<IndexingStatus> snapshotSource;
+    private Thread publisher;
+
+    @Autowired
+    public StatusEventStream(IndexingConfiguration config) {
+        this.config = config.getStatus();
+    }
+
+    /**
+     * Where snapshots come from; they are only built on the publisher thread
+     */
+    public void setSnapshotSource(Supplier<IndexingStatus> snapshotSource) {
+        this.snapshotSource = snapshotSource;
+    }
+
+    /**
+     * Called by producers on every state change; never blocks and never builds a snapshot
+     */
+    public void markChanged() {
+        version.incrementAndGet();
+    }
+
+    public synchronized void subscribe(IndexingStatusObserver observer) {
+        Subscriber subscriber = new Subscriber(observer, Math.max(1, config.getEventQueueCapacity()));
+        subscribers.add(subscriber);
+        subscriber.thread = Thread.ofVirtual().name("status-observer-" + subscribers.size()).start(subscriber);
+        if (publisher == null) {
+            publisher = Thread.ofVirtual().name("status-publisher").start(this::publishLoop);
+        }
+    }
+
+    public synchronized void unsubscribe(IndexingStatusObserver observer) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.observer == observer) {
+                subscribers.remove(subscriber);
+                subscriber.thread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Queue the completion event for every observer. The final status it carries supersedes
+     * any snapshot not taken yet, so those are dropped rather than delivered after it.
+     */
+    public void publishComplete(IndexingStatus finalStatus) {
+        synchronized (publishLock) {
+            publishedVersion.set(version.get());
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.latest.getAndSet(null) != null) {
+                    coalescedSnapshots.incrementAndGet();
+                }
+            }
+            enqueue(observer -> observer.onIndexingComplete(finalStatus));
+        }
+    }
+
+    public void publishError(Exception error, String context) {
+        enqueue(observer -> observer.onIndexingError(error, context));
+    }
+
+    public long getPublishedSnapshots() {
+        return publishedSnapshots.get();
+    }
+
+    /**
+     * Snapshots replaced in a mailbox before their observer took them
+     */
+    public long getCoalescedSnapshots() {
+        return coalescedSnapshots.get();
+    }
+
+    /**
+     * Completion and error events lost because an observer's queue was full
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (publisher != null) {
+            publisher.interrupt();
+            publisher = null;
+        }
+        subscribers.forEach(subscriber -> subscriber.thread.interrupt());
+        subscribers.clear();
+    }
+
+    private void enqueue(Consumer<IndexingStatusObserver> event) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.events.offer(event)) {
+                droppedEvents.incrementAndGet();
+                continue;
+            }
+            subscriber.signal.release();
+        }
+    }
+
+    private void publishLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(Math.max(MIN_INTERVAL_MS, config.getPublishIntervalMs()));
+                publishSnapshot();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void publishSnapshot() {
+        synchronized (publishLock) {
+            long current = version.get();
+            Supplier<IndexingStatus> source = snapshotSource;
+            if (current == publishedVersion.get() || source == null || subscribers.isEmpty()) {
+                return;
+            }
+            publishedVersion.set(current);
+            IndexingStatus status;
+            try {
+                status = source.get();
+            } catch (Exception e) {
+                System.err.println("Error building indexing status: " + e.getMessage());
+                return;
+            }
+            publishedSnapshots.incrementAndGet();
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.latest.getAndSet(status) != null) {
+                    coalescedSnapshots.incrementAndGet();
+                }
+                subscriber.signal.release();
+            }
+        }
+    }
+
+    /**
+     * One observer, its mailbox and the thread that drains it
+     */
+    private static final class Subscriber implements Runnable {
+        private final IndexingStatusObserver observer;
+        private final AtomicReference<IndexingStatus> latest = new AtomicReference<>();
+        private final BlockingQueue<Consumer<IndexingStatusObserver>> events;
+        private final Semaphore signal = new Semaphore(0);
+        private Thread thread;
+
+        Subscriber(IndexingStatusObserver observer, int eventQueueCapacity) {
+            this.observer = observer;
+            this.events = new ArrayBlockingQueue<>(eventQueueCapacity);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    signal.acquire();
+                    signal.drainPermits();
+                    IndexingStatus status = latest.getAndSet(null);
+                    if (status != null) {
+                        deliver(o -> o.onStatusUpdate(status));
+                    }
+                    Consumer<IndexingStatusObserver> event;
+                    while ((event = events.poll()) != null) {
+                        deliver(event);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void deliver(Consumer<IndexingStatusObserver> event) {
+            try {
+                event.accept(observer);
+            } catch (Exception e) {
+                System.err.println("Error notifying status observer: " + e.getMessage());
+            }
+        }
+    }
+}
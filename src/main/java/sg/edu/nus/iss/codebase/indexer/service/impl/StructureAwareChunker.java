@@ -0,0 +1,720 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import sg.edu.nus.iss.codebase.indexer.model.FileContent;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Structure-aware chunker for Java, Kotlin, Python and JavaScript/TypeScript sources
+ * Files are cut at declaration boundaries (top-level declarations and class members)
+ * instead of fixed character windows, then packed into chunks up to the configured size.
+ * License headers, package declarations, trivial getters/setters and generated
+ * equals/hashCode/toString methods are left out, and imports collapse into one line.
+ * Every chunk keeps the 1-based line range it was cut from.
+ */
+public class StructureAwareChunker {
+
+    enum Language { JAVA, KOTLIN, PYTHON, SCRIPT }
+
+    private enum Kind { PACKAGE, IMPORT, ACCESSOR, GENERATED, CODE }
+
+    private static final Map<String, Language> LANGUAGES = Map.of(
+            ".java", Language.JAVA, ".kt", Language.KOTLIN, ".kts", Language.KOTLIN,
+            ".py", Language.PYTHON, ".js", Language.SCRIPT, ".jsx", Language.SCRIPT,
+            ".mjs", Language.SCRIPT, ".cjs", Language.SCRIPT, ".ts", Language.SCRIPT,
+            ".tsx", Language.SCRIPT);
+
+    private static final int MAX_BOILERPLATE_CHARS = 400; // Accessor patterns are only tried on short segments
+    private static final int MAX_GENERATED_LINES = 40;
+    private static final int MAX_LISTED_NAMES = 15;
+
+    private static final Pattern LICENSE = Pattern.compile(
+            "(?i)copyright|licen[cs]ed?\\b|spdx-license|all rights reserved");
+    private static final Pattern TYPE_DECLARATION = Pattern.compile(
+            "\\b(?:class|interface|enum|record|trait|namespace)\\s+[A-Za-z_$]|\\bobject\\b\\s*(?:[A-Za-z_$:{])");
+    private static final Pattern ANNOTATION_ONLY = Pattern.compile("^@[\\w.]+(\\(.*\\))?$");
+    private static final Pattern CLOSING_ONLY = Pattern.compile("^[)}\\]]+[;,)]*$");
+    private static final Pattern CONTINUATION_KEYWORD = Pattern.compile("(throws|extends|implements|permits|where)\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Pattern PACKAGE = Pattern.compile("^package\\s+([\\w.]+)\\s*;?$");
+    private static final Pattern JVM_IMPORT = Pattern.compile(
+            "^import\\s+(?:static\\s+)?([\\w.]+)\\.[\\w*]+\\s*(?:as\\s+\\w+)?\\s*;?$");
+    private static final Pattern PYTHON_IMPORT = Pattern.compile(
+            "^(?:from\\s+([\\w.]+)\\s+import\\b.*|import\\s+([\\w.]+).*)$");
+    private static final Pattern SCRIPT_IMPORT = Pattern.compile(
+            "^(?:import\\s+(?:type\\s+)?(?:[^'\"]*?\\s*from\\s*)?"
+                    + "|export\\s+(?:type\\s+)?(?:\\*|\\{[^}]*\\})\\s*from\\s*"
+                    + "|(?:const|let|var)\\s+[^=]+=\\s*require\\s*\\(\\s*)"
+                    + "['\"]([^'\"]+)['\"]\\s*\\)?\\s*;?$");
+
+    private static final String ANNOTATIONS = "(?:@[\\w.]+(?:\\([^)]*\\))?\\s+)*";
+    private static final String MODIFIERS =
+            "(?:(?:public|protected|private|internal|final|static|synchronized|override|open|inline|readonly)\\s+)*";
+    private static final String TYPE = "[\\w.<>\\[\\],? ]+?";
+
+    private static final List<Pattern> JAVA_ACCESSORS = List.of(
+            Pattern.compile(ANNOTATIONS + MODIFIERS + TYPE + "\\s+((?:get|is|has)[A-Z]\\w*)\\s*\\(\\s*\\)\\s*"
+                    + "\\{\\s*return\\s+(?:this\\.)?\\w+\\s*;\\s*\\}"),
+            Pattern.compile(ANNOTATIONS + MODIFIERS + TYPE + "\\s+(set[A-Z]\\w*)\\s*\\(\\s*(?:final\\s+)?"
+                    + TYPE + "\\s+\\w+\\s*\\)\\s*\\{\\s*(?:this\\.)?\\w+\\s*=\\s*\\w+\\s*;\\s*"
+                    + "(?:return\\s+this\\s*;\\s*)?\\}"));
+    private static final List<Pattern> KOTLIN_ACCESSORS = List.of(
+            Pattern.compile(ANNOTATIONS + MODIFIERS + "fun\\s+((?:get|is)[A-Z]\\w*)\\s*\\(\\s*\\)\\s*"
+                    + "(?::\\s*[\\w.<>?, ]+)?\\s*(?:=\\s*(?:this\\.)?\\w+|\\{\\s*return\\s+(?:this\\.)?\\w+\\s*\\})"),
+            Pattern.compile(ANNOTATIONS + MODIFIERS + "fun\\s+(set[A-Z]\\w*)\\s*\\(\\s*\\w+\\s*:\\s*[\\w.<>?, ]+\\)\\s*"
+                    + "(?::\\s*Unit\\s*)?\\{\\s*(?:this\\.)?\\w+\\s*=\\s*\\w+\\s*;?\\s*\\}"));
+    private static final List<Pattern> SCRIPT_ACCESSORS = List.of(
+            Pattern.compile(ANNOTATIONS + MODIFIERS + "(?:get\\s+(\\w+)|((?:get|is)[A-Z]\\w*))\\s*\\(\\s*\\)\\s*"
+                    + "(?::\\s*[^{]+)?\\{\\s*return\\s+this\\.\\w+\\s*;?\\s*\\}"),
+            Pattern.compile(ANNOTATIONS + MODIFIERS + "(?:set\\s+(\\w+)|(set[A-Z]\\w*))\\s*\\(\\s*\\w+\\s*"
+                    + "(?::\\s*[^)]+)?\\)\\s*(?::\\s*void\\s*)?\\{\\s*this\\.\\w+\\s*=\\s*\\w+\\s*;?\\s*\\}"));
+    private static final List<Pattern> PYTHON_ACCESSORS = List.of(
+            Pattern.compile("@property\\s+def\\s+(\\w+)\\s*\\(\\s*self\\s*\\)\\s*(?:->\\s*[^:]+)?:\\s*"
+                    + "return\\s+self\\.\\w+"),
+            Pattern.compile("@\\w+\\.setter\\s+def\\s+(\\w+)\\s*\\(\\s*self\\s*,\\s*\\w+\\s*(?::\\s*[^)]+)?\\)\\s*"
+                    + "(?:->\\s*None\\s*)?:\\s*self\\.\\w+\\s*=\\s*\\w+"));
+
+    private static final Pattern JAVA_GENERATED = Pattern.compile(ANNOTATIONS + MODIFIERS
+            + "(?:boolean\\s+(equals|canEqual)\\s*\\(\\s*(?:final\\s+)?(?:java\\.lang\\.)?Object\\s+\\w+\\s*\\)"
+            + "|int\\s+(hashCode)\\s*\\(\\s*\\)|(?:java\\.lang\\.)?String\\s+(toString)\\s*\\(\\s*\\))\\s*\\{");
+    private static final Pattern KOTLIN_GENERATED = Pattern.compile(ANNOTATIONS + MODIFIERS
+            + "fun\\s+(equals|hashCode|toString)\\s*\\(");
+
+    /**
+     * A contiguous slice of a source file, ready to be embedded
+     */
+    public static class Chunk {
+        private final String text;
+        private final int startLine;
+        private final int endLine;
+
+        Chunk(String text, int startLine, int endLine) {
+            this.text = text;
+            this.startLine = startLine;
+            this.endLine = endLine;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * First source line of the chunk, 1-based
+         */
+        public int getStartLine() {
+            return startLine;
+        }
+
+        /**
+         * Last source line of the chunk, 1-based and inclusive
+         */
+        public int getEndLine() {
+            return endLine;
+        }
+    }
+
+    /**
+     * Declaration-level slice of the file before packing
+     */
+    private static class Segment {
+        private final int start;
+        private final int end;
+        private final Kind kind;
+        private final String name;
+        private final String context;
+
+        Segment(int start, int end, Kind kind, String name, String context) {
+            this.start = start;
+            this.end = end;
+            this.kind = kind;
+            this.name = name;
+            this.context = context;
+        }
+    }
+
+    /**
+     * Per-line lexical state: code with comments removed and nesting depth at line start
+     */
+    private static class Scan {
+        private final String[] code;
+        private final int[] braceDepth;
+        private final int[] bracketDepth;
+        private final boolean[] continued;
+
+        Scan(int lineCount) {
+            this.code = new String[lineCount];
+            this.braceDepth = new int[lineCount + 1];
+            this.bracketDepth = new int[lineCount + 1];
+            this.continued = new boolean[lineCount];
+        }
+    }
+
+    public boolean supports(File file) {
+        return languageOf(file) != null;
+    }
+
+    /**
+     * Cut a source file into structure-aligned chunks of at most roughly maxChunkChars.
+     * Returns an empty list when the file holds nothing but boilerplate.
+     */
+    public List<Chunk> chunk(FileContent content, int maxChunkChars) {
+        Language language = languageOf(content.getFile());
+        if (language == null) {
+            throw new IllegalArgumentException("Unsupported file type: " + content.getFileName());
+        }
+        String[] lines = content.getLines();
+        if (lines.length == 0) {
+            return List.of();
+        }
+
+        Scan scan = scan(content.getText(), lines, SourceLexer.Language.forFileName(content.getFileName()));
+        int firstLine = skipLicenseHeader(lines, scan);
+        List<Segment> segments = segment(lines, scan, language, firstLine);
+        return pack(lines, scan, segments, language, Math.max(200, maxChunkChars));
+    }
+
+    static Language languageOf(File file) {
+        String name = file.getName().toLowerCase();
+        int lastDot = name.lastIndexOf('.');
+        return lastDot >= 0 ? LANGUAGES.get(name.substring(lastDot)) : null;
+    }
+
+    /**
+     * Per-line view of the shared lexer's tokens, so comments, strings and bracket nesting
+     * follow the same rules as code analysis
+     */
+    private Scan scan(String source, String[] lines, SourceLexer.Language language) {
+        Scan scan = new Scan(lines.length);
+        SourceLexer.Tokens tokens = SourceLexer.lex(source, language);
+        StringBuilder[] code = new StringBuilder[lines.length];
+        int[] codeEnd = new int[lines.length];
+        int braces = 0;
+        int brackets = 0;
+        int nextLine = 0;
+
+        for (int t = 0; t < tokens.size(); t++) {
+            // Depth at the start of every line up to the one this token starts on
+            for (int first = Math.min(tokens.line(t) - 1, lines.length - 1); nextLine <= first; nextLine++) {
+                scan.braceDepth[nextLine] = braces;
+                scan.bracketDepth[nextLine] = brackets;
+            }
+
+            // A literal spanning lines contributes its part of each line; comments between tokens
+            // leave a single space
+            for (int line = tokens.line(t); line <= tokens.endLine(t) && line <= lines.length; line++) {
+                int from = Math.max(tokens.start(t), tokens.lineStart(line));
+                int to = Math.min(tokens.end(t), line < tokens.lineCount()
+                        ? tokens.lineStart(line + 1) - 1
+                        : source.length());
+                StringBuilder lineCode = code[line - 1];
+                if (lineCode == null) {
+                    lineCode = code[line - 1] = new StringBuilder();
+                } else {
+                    String gap = source.substring(codeEnd[line - 1], from);
+                    lineCode.append(gap.isBlank() ? gap : " ");
+                }
+                lineCode.append(source, from, Math.max(from, to));
+                codeEnd[line - 1] = Math.max(from, to);
+            }
+
+            if (tokens.kind(t) == SourceLexer.Kind.PUNCT && tokens.end(t) - tokens.start(t) == 1) {
+                switch (source.charAt(tokens.start(t))) {
+                    case '{' -> braces++;
+                    case '}' -> braces = Math.max(0, braces - 1);
+                    case '(', '[' -> brackets++;
+                    case ')', ']' -> brackets = Math.max(0, brackets - 1);
+                    default -> {
+                        // other punctuation
+                    }
+                }
+            }
+        }
+        for (; nextLine <= lines.length; nextLine++) {
+            scan.braceDepth[nextLine] = braces;
+            scan.bracketDepth[nextLine] = brackets;
+        }
+
+        for (int i = 0; i < lines.length; i++) {
+            scan.code[i] = code[i] != null ? code[i].toString().trim() : "";
+            scan.continued[i] = tokens.isContinuedLine(i + 1);
+        }
+        return scan;
+    }
+
+    /**
+     * Index of the first line after a leading license comment, or 0 when there is none
+     */
+    private int skipLicenseHeader(String[] lines, Scan scan) {
+        int end = 0;
+        StringBuilder header = new StringBuilder();
+        while (end < lines.length && scan.code[end].isEmpty()) {
+            header.append(lines[end]).append('\n');
+            end++;
+        }
+        return LICENSE.matcher(header).find() ? end : 0;
+    }
+
+    private List<Segment> segment(String[] lines, Scan scan, Language language, int firstLine) {
+        String[] contexts = new String[lines.length];
+        List<Integer> starts = language == Language.PYTHON
+                ? pythonBoundaries(lines, scan, firstLine, contexts)
+                : braceBoundaries(lines, scan, firstLine, contexts);
+
+        // Leading comments, Javadoc and decorators belong to the declaration below them
+        for (int k = starts.size() - 1; k >= 1; k--) {
+            int start = starts.get(k);
+            int floor = starts.get(k - 1);
+            while (start - 1 > floor && isCommentOnly(lines, scan, start - 1)) {
+                start--;
+            }
+            starts.set(k, start);
+        }
+        if (starts.isEmpty() || starts.get(0) > firstLine) {
+            starts.add(0, firstLine);
+        }
+
+        List<Segment> segments = new ArrayList<>();
+        for (int k = 0; k < starts.size(); k++) {
+            int start = starts.get(k);
+            int end = k + 1 < starts.size() ? starts.get(k + 1) - 1 : lines.length - 1;
+            while (end >= start && lines[end].isBlank()) {
+                end--;
+            }
+            if (end < start) {
+                continue;
+            }
+            segments.add(classify(lines, scan, language, start, end, contexts[start]));
+        }
+        return segments;
+    }
+
+    /**
+     * Top-level statements, plus members of classes, interfaces, enums and objects at any nesting
+     * level. Fills in the declaration line of the innermost enclosing type for every line.
+     */
+    private List<Integer> braceBoundaries(String[] lines, Scan scan, int firstLine, String[] contexts) {
+        List<Integer> starts = new ArrayList<>();
+        int maxDepth = 1;
+        for (int depth : scan.braceDepth) {
+            maxDepth = Math.max(maxDepth, depth + 1);
+        }
+        // typeLine[d] is the declaration whose body is the block at depth d, null for other blocks
+        String[] typeLine = new String[maxDepth + 1];
+        int[] statementStart = new int[maxDepth + 1];
+        String previousCode = "";
+
+        for (int i = firstLine; i < lines.length; i++) {
+            String code = scan.code[i];
+            int depth = scan.braceDepth[i];
+            contexts[i] = innermostType(typeLine, depth);
+            if (!code.isEmpty()) {
+                boolean boundary = !scan.continued[i]
+                        && scan.bracketDepth[i] == 0
+                        && (depth == 0 || typeLine[depth] != null)
+                        && !ANNOTATION_ONLY.matcher(previousCode).matches()
+                        && !CLOSING_ONLY.matcher(code).matches()
+                        && !continuesStatement(previousCode, code);
+                if (boundary) {
+                    starts.add(i);
+                    statementStart[depth] = i;
+                }
+                previousCode = code;
+            }
+
+            int nextDepth = scan.braceDepth[i + 1];
+            for (int d = depth + 1; d <= nextDepth; d++) {
+                boolean typeBody = d == depth + 1
+                        && (depth == 0 || typeLine[depth] != null)
+                        && TYPE_DECLARATION.matcher(joinCode(scan, statementStart[depth], i)).find();
+                typeLine[d] = typeBody ? lines[i].trim() : null;
+            }
+        }
+        return starts;
+    }
+
+    private static String innermostType(String[] typeLine, int depth) {
+        for (int d = Math.min(depth, typeLine.length - 1); d >= 1; d--) {
+            if (typeLine[d] != null) {
+                return typeLine[d];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Module-level statements, plus methods and nested classes of top-level classes
+     */
+    private List<Integer> pythonBoundaries(String[] lines, Scan scan, int firstLine, String[] contexts) {
+        List<Integer> starts = new ArrayList<>();
+        boolean insideClass = false;
+        String currentClass = null;
+        int memberIndent = -1;
+        String previousCode = "";
+        int previousIndent = 0;
+
+        for (int i = firstLine; i < lines.length; i++) {
+            String code = scan.code[i];
+            contexts[i] = currentClass;
+            if (code.isEmpty()) {
+                continue;
+            }
+            int indent = indentOf(lines[i]);
+            boolean statementStart = !scan.continued[i]
+                    && scan.bracketDepth[i] == 0
+                    && scan.braceDepth[i] == 0;
+            boolean decorated = previousCode.startsWith("@") && previousIndent == indent;
+
+            if (statementStart && indent == 0) {
+                if (!decorated && !code.matches("^(else|elif|except|finally)\\b.*")) {
+                    starts.add(i);
+                }
+                insideClass = code.startsWith("class ");
+                currentClass = insideClass ? lines[i].trim() : null;
+                contexts[i] = null;
+                memberIndent = -1;
+            } else if (statementStart && insideClass) {
+                if (memberIndent < 0) {
+                    memberIndent = indent;
+                }
+                boolean member = code.startsWith("def ") || code.startsWith("async def ")
+                        || code.startsWith("class ") || code.startsWith("@");
+                if (indent == memberIndent && member && !decorated) {
+                    starts.add(i);
+                }
+            }
+            previousCode = code;
+            previousIndent = indent;
+        }
+        return starts;
+    }
+
+    private Segment classify(String[] lines, Scan scan, Language language, int start, int end, String context) {
+        String code = WHITESPACE.matcher(joinCode(scan, start, end)).replaceAll(" ").trim();
+        if (code.isEmpty()) {
+            return new Segment(start, end, Kind.CODE, null, context);
+        }
+
+        if (language == Language.JAVA || language == Language.KOTLIN) {
+            Matcher packageMatcher = PACKAGE.matcher(code);
+            if (packageMatcher.matches()) {
+                return new Segment(start, end, Kind.PACKAGE, packageMatcher.group(1), context);
+            }
+        }
+
+        String module = importedModule(language, code);
+        if (module != null) {
+            return new Segment(start, end, Kind.IMPORT, module, context);
+        }
+
+        if (code.length() <= MAX_BOILERPLATE_CHARS) {
+            for (Pattern accessor : accessorPatterns(language)) {
+                Matcher matcher = accessor.matcher(code);
+                if (matcher.matches()) {
+                    return new Segment(start, end, Kind.ACCESSOR, firstGroup(matcher), context);
+                }
+            }
+        }
+
+        if (end - start < MAX_GENERATED_LINES) {
+            Pattern generated = language == Language.JAVA ? JAVA_GENERATED
+                    : language == Language.KOTLIN ? KOTLIN_GENERATED : null;
+            Matcher matcher = generated != null ? generated.matcher(code) : null;
+            if (matcher != null && matcher.lookingAt()) {
+                return new Segment(start, end, Kind.GENERATED, firstGroup(matcher), context);
+            }
+        }
+        return new Segment(start, end, Kind.CODE, null, context);
+    }
+
+    private String importedModule(Language language, String code) {
+        Matcher matcher = switch (language) {
+            case JAVA, KOTLIN -> JVM_IMPORT.matcher(code);
+            case PYTHON -> PYTHON_IMPORT.matcher(code);
+            case SCRIPT -> SCRIPT_IMPORT.matcher(code);
+        };
+        return matcher.matches() ? firstGroup(matcher) : null;
+    }
+
+    private List<Pattern> accessorPatterns(Language language) {
+        return switch (language) {
+            case JAVA -> JAVA_ACCESSORS;
+            case KOTLIN -> KOTLIN_ACCESSORS;
+            case PYTHON -> PYTHON_ACCESSORS;
+            case SCRIPT -> SCRIPT_ACCESSORS;
+        };
+    }
+
+    /**
+     * Greedily pack kept segments into chunks, prefixing the context a reader would need
+     */
+    private List<Chunk> pack(String[] lines, Scan scan, List<Segment> segments, Language language, int maxChars) {
+        String comment = language == Language.PYTHON ? "# " : "// ";
+        String packageName = null;
+        Set<String> imports = new LinkedHashSet<>();
+        Set<String> omitted = new LinkedHashSet<>();
+        List<Segment> kept = new ArrayList<>();
+        for (Segment segment : segments) {
+            switch (segment.kind) {
+                case PACKAGE -> packageName = segment.name;
+                case IMPORT -> imports.add(segment.name);
+                case ACCESSOR, GENERATED -> omitted.add(segment.name);
+                case CODE -> kept.add(segment);
+            }
+        }
+        if (kept.isEmpty()) {
+            return List.of();
+        }
+
+        StringBuilder fileHeader = new StringBuilder();
+        if (packageName != null) {
+            fileHeader.append(comment).append("package ").append(packageName).append('\n');
+        }
+        if (!imports.isEmpty()) {
+            fileHeader.append(comment).append("imports: ").append(summarize(imports)).append('\n');
+        }
+        if (!omitted.isEmpty()) {
+            fileHeader.append(comment).append("accessors and generated methods: ")
+                    .append(String.join(", ", omitted)).append('\n');
+        }
+
+        // Sizes are measured without indentation, which is stripped before embedding
+        Packer packer = new Packer(lines, fileHeader, comment, maxChars);
+        int softLimit = maxChars + maxChars / 4;
+        int[] tailSize = new int[kept.size() + 1];
+        for (int k = kept.size() - 1; k >= 0; k--) {
+            tailSize[k] = tailSize[k + 1] + embeddedSize(lines, kept.get(k).start, kept.get(k).end);
+        }
+        for (int k = 0; k < kept.size(); k++) {
+            Segment segment = kept.get(k);
+            int from = segment.start;
+            while (from <= segment.end) {
+                int size = embeddedSize(lines, from, segment.end);
+                int tail = size + tailSize[k + 1];
+                // A small leading statement or the last few declarations may overflow a little rather than stand alone
+                boolean smallRemainder = (packer.bodySize < maxChars / 5 && packer.bodySize + size <= softLimit)
+                        || (tail < maxChars / 4 && packer.bodySize + tail <= softLimit);
+                String context = from == segment.start ? segment.context : continuation(segment, lines, scan);
+                if (packer.bodySize + size <= maxChars || smallRemainder) {
+                    packer.append(from, segment.end, context);
+                    break;
+                }
+
+                // Large declarations fill the open chunk and continue in the next one, cut between statements
+                boolean split = size > maxChars || (size > maxChars / 2 && packer.bodySize < maxChars / 2);
+                if (!split) {
+                    packer.flush();
+                    continue;
+                }
+                int cut = statementCut(lines, scan, from, segment.end, maxChars - packer.bodySize);
+                if (cut < from) {
+                    if (!packer.isEmpty()) {
+                        packer.flush();
+                        continue;
+                    }
+                    cut = from;
+                }
+                packer.append(from, cut, context);
+                packer.flush();
+                from = cut + 1;
+            }
+        }
+        packer.flush();
+        return packer.chunks;
+    }
+
+    /**
+     * Last line of a piece starting at from that fits the budget, preferring a cut
+     * where the next line starts a new statement; from - 1 when not even one line fits
+     */
+    private int statementCut(String[] lines, Scan scan, int from, int end, int budget) {
+        int statementDepth = scan.braceDepth[from] + 1;
+        int lastFitting = from - 1;
+        int lastStatement = from - 1;
+        int size = 0;
+        for (int i = from; i < end; i++) {
+            size += embeddedSize(lines, i, i);
+            if (size > budget) {
+                break;
+            }
+            lastFitting = i;
+            int next = i + 1;
+            if (!scan.code[next].isEmpty() && !scan.continued[next]
+                    && scan.braceDepth[next] <= statementDepth && scan.bracketDepth[next] == 0) {
+                lastStatement = i;
+            }
+        }
+        return lastStatement >= from ? lastStatement : lastFitting;
+    }
+
+    /**
+     * Context for the second and later pieces of a split declaration: its own first line
+     */
+    private String continuation(Segment segment, String[] lines, Scan scan) {
+        for (int i = segment.start; i <= segment.end; i++) {
+            if (!scan.code[i].isEmpty() && !scan.code[i].startsWith("@")) {
+                return lines[i].trim();
+            }
+        }
+        return segment.context;
+    }
+
+    /**
+     * Accumulates line ranges into the chunk being built
+     */
+    private static class Packer {
+        private final String[] lines;
+        private final StringBuilder fileHeader;
+        private final String comment;
+        private final List<Chunk> chunks = new ArrayList<>();
+        private final StringBuilder body = new StringBuilder();
+        private int bodySize;
+        private int start = -1;
+        private int end = -1;
+        private String context;
+
+        Packer(String[] lines, StringBuilder fileHeader, String comment, int maxChars) {
+            this.lines = lines;
+            this.fileHeader = fileHeader;
+            this.comment = comment;
+            // The file header shares the first chunk, but never crowds it out
+            this.bodySize = Math.min(fileHeader.length(), maxChars / 4);
+        }
+
+        boolean isEmpty() {
+            return body.length() == 0;
+        }
+
+        void append(int from, int to, String pieceContext) {
+            if (body.length() == 0) {
+                start = from;
+                context = pieceContext;
+            } else {
+                body.append('\n');
+            }
+            body.append(joinLines(lines, from, to));
+            bodySize += embeddedSize(lines, from, to);
+            end = to;
+        }
+
+        void flush() {
+            if (body.length() > 0 && !body.toString().isBlank()) {
+                StringBuilder text = new StringBuilder();
+                if (chunks.isEmpty()) {
+                    text.append(fileHeader);
+                }
+                if (context != null && body.indexOf(context) < 0) {
+                    text.append(comment).append("in ").append(context).append('\n');
+                }
+                text.append(body);
+                chunks.add(new Chunk(text.toString(), start + 1, end + 1));
+            }
+            body.setLength(0);
+            bodySize = 0;
+            context = null;
+        }
+    }
+
+    private String summarize(Set<String> names) {
+        List<String> listed = new ArrayList<>(names);
+        if (listed.size() <= MAX_LISTED_NAMES) {
+            return String.join(", ", listed);
+        }
+        return String.join(", ", listed.subList(0, MAX_LISTED_NAMES))
+                + " and " + (listed.size() - MAX_LISTED_NAMES) + " more";
+    }
+
+    private boolean isCommentOnly(String[] lines, Scan scan, int index) {
+        return scan.code[index].isEmpty() && !lines[index].isBlank();
+    }
+
+    /**
+     * Whether a line carries on the previous statement (operators, open calls, chained calls)
+     */
+    private static boolean continuesStatement(String previousCode, String code) {
+        if (previousCode.isEmpty() || previousCode.startsWith("import ")) {
+            return false;
+        }
+        if (previousCode.endsWith("->") || previousCode.endsWith("=>")) {
+            return true;
+        }
+        char last = previousCode.charAt(previousCode.length() - 1);
+        if (",([=+-*/&|?:.\\".indexOf(last) >= 0) {
+            return true;
+        }
+        char first = code.charAt(0);
+        return ".?:&|+{".indexOf(first) >= 0 || CONTINUATION_KEYWORD.matcher(code).lookingAt();
+    }
+
+    private static String joinCode(Scan scan, int start, int end) {
+        StringBuilder joined = new StringBuilder();
+        for (int i = start; i <= end; i++) {
+            if (!scan.code[i].isEmpty()) {
+                if (joined.length() > 0) {
+                    joined.append(' ');
+                }
+                joined.append(scan.code[i]);
+            }
+        }
+        return joined.toString();
+    }
+
+    /**
+     * Characters left once the sanitizer has trimmed lines and dropped blank and symbol-only lines
+     */
+    private static int embeddedSize(String[] lines, int start, int end) {
+        int size = 0;
+        for (int i = start; i <= end; i++) {
+            String trimmed = lines[i].trim();
+            if (!trimmed.isEmpty() && (hasAlphanumeric(trimmed) || trimmed.startsWith("//")
+                    || trimmed.startsWith("#") || trimmed.startsWith("*"))) {
+                size += trimmed.length() + 1;
+            }
+        }
+        return size;
+    }
+
+    private static boolean hasAlphanumeric(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isLetterOrDigit(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String joinLines(String[] lines, int start, int end) {
+        StringBuilder joined = new StringBuilder();
+        for (int i = start; i <= end; i++) {
+            if (i > start) {
+                joined.append('\n');
+            }
+            joined.append(lines[i]);
+        }
+        return joined.toString();
+    }
+
+    private static String firstGroup(Matcher matcher) {
+        for (int group = 1; group <= matcher.groupCount(); group++) {
+            if (matcher.group(group) != null) {
+                return matcher.group(group);
+            }
+        }
+        return matcher.group();
+    }
+
+    private static int indentOf(String line) {
+        int indent = 0;
+        while (indent < line.length() && (line.charAt(indent) == ' ' || line.charAt(indent) == '\t')) {
+            indent++;
+        }
+        return indent;
+    }
+}
@@ -0,0 +1,150 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.model.FileContent;
+import sg.edu.nus.iss.codebase.indexer.model.IndexTier;
+import sg.edu.nus.iss.codebase.indexer.service.CodeAnalysisService;
+import sg.edu.nus.iss.codebase.indexer.util.FilePriorities;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Factory for tier 1 summary documents
+ * Produces one compact, cheap-to-embed document per file so the whole
+ * codebase becomes searchable at coarse grain before full chunks are embedded
+ */
+@Component
+public class SummaryDocumentFactory {
+
+    /**
+     * Distinct from the "summary" documents IndexingService writes, so filters and deletes never mix the two
+     */
+    public static final String DOCUMENT_TYPE = "fileSummary";
+
+    private static final Set<String> ANALYZABLE_EXTENSIONS = Set.of(".java", ".py", ".js", ".ts");
+
+    private final IndexingConfiguration config;
+    private final CodeAnalysisService codeAnalysisService;
+
+    @Autowired
+    public SummaryDocumentFactory(IndexingConfiguration config, CodeAnalysisService codeAnalysisService) {
+        this.config = config;
+        this.codeAnalysisService = codeAnalysisService;
+    }
+
+    /**
+     * Create the summary document for a file.
+     * Returns an empty list when the file has no meaningful content.
+     */
+    public List<Document> createSummaryDocuments(File file) {
+        try {
+            return createSummaryDocuments(FileContent.read(file));
+        } catch (Exception e) {
+            System.err.println("❌ Error creating summary for " + file.getName() + ": " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Create the summary document from file content that has already been read
+     */
+    public List<Document> createSummaryDocuments(FileContent content) {
+        File file = content.getFile();
+        try {
+            String summary = buildSummaryText(content);
+            if (summary.isBlank()) {
+                return List.of();
+            }
+
+            int maxChars = config.getTiering().getSummaryMaxChars();
+            if (summary.length() > maxChars) {
+                summary = summary.substring(0, maxChars) + "\n... [summary truncated]";
+            }
+
+            return List.of(new Document(summaryDocumentId(file), summary, createMetadata(file)));
+
+        } catch (Exception e) {
+            System.err.println("❌ Error creating summary for " + file.getName() + ": " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Stable id per file so re-running tier 1 overwrites the previous summary instead of duplicating it
+     */
+    static String summaryDocumentId(File file) {
+        String key = "summary:" + file.getAbsolutePath();
+        return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * Use the code analyzer for supported languages, otherwise fall back to the head of the file
+     */
+    private String buildSummaryText(FileContent content) {
+        File file = content.getFile();
+        String extension = getFileExtension(file);
+        StringBuilder summary = new StringBuilder();
+
+        if (ANALYZABLE_EXTENSIONS.contains(extension)) {
+            CodeAnalysisService.FileAnalysis analysis = codeAnalysisService.analyzeFile(content);
+            boolean hasElements = !analysis.getRestApiEndpoints().isEmpty()
+                    || !analysis.getFunctions().isEmpty()
+                    || !analysis.getClasses().isEmpty();
+            if (hasElements) {
+                return analysis.getSearchableSummary();
+            }
+        }
+
+        // No declarations found - describe the file by its opening lines
+        summary.append("File: ").append(file.getName()).append("\n");
+        summary.append("Path: ").append(file.getAbsolutePath()).append("\n\n");
+
+        int headLines = config.getTiering().getSummaryHeadLines();
+        Arrays.stream(content.getLines())
+                .map(String::trim)
+                .filter(line -> !line.isEmpty())
+                .limit(headLines)
+                .forEach(line -> summary.append(line).append("\n"));
+
+        // Require some content beyond the header lines
+        return summary.toString().split("\n").length > 3 ? summary.toString() : "";
+    }
+
+    /**
+     * Create metadata for the summary document
+     */
+    private Map<String, Object> createMetadata(File file) {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("filename", file.getName());
+        metadata.put("filepath", file.getAbsolutePath());
+        metadata.put("filetype", getFileExtension(file));
+        metadata.put("priority", getFilePriority(file));
+        metadata.put("size", file.length());
+        metadata.put("lastModified", java.time.Instant.ofEpochMilli(file.lastModified()).toString());
+        metadata.put("indexedAt", java.time.Instant.now().toString());
+        metadata.put("documentType", DOCUMENT_TYPE);
+        metadata.put(IndexTier.METADATA_KEY, IndexTier.SUMMARY.getValue());
+        return metadata;
+    }
+
+    /**
+     * Get file extension
+     */
+    private String getFileExtension(File file) {
+        String name = file.getName();
+        int lastDot = name.lastIndexOf('.');
+        return lastDot > 0 ? name.substring(lastDot) : "";
+    }
+
+    /**
+     * Calculate file priority based on configuration
+     */
+    private int getFilePriority(File file) {
+        return FilePriorities.of(file, config.getFilePriorities());
+    }
+}
@@ -0,0 +1,429 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.model.FileContent;
+import sg.edu.nus.iss.codebase.indexer.service.CodeAnalysisService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Class, function and endpoint names found by code analysis, mapped to the file and line range
+ * of each declaration. Names are kept in a sorted map keyed by their lower-cased form, so exact
+ * and prefix lookups are one tree search each, with no embedding or LLM call involved.
+ * The table is persisted per collection as an append-only log next to the file cache; a file
+ * that is indexed again replaces its symbols, and the log is rewritten sorted when superseded
+ * records outnumber the live ones.
+ */
+@Component
+public class SymbolTable {
+
+    private static final String SYMBOL = "SYMBOL:";
+    private static final String FORGET = "FORGET:";
+    private static final int COMPACT_MIN_RECORDS = 1000;
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_$][\\w$]*");
+    private static final Pattern QUALIFIED_NAME = Pattern.compile("[A-Za-z_$][\\w$]*(\\.[A-Za-z_$][\\w$]*)+");
+    private static final Pattern ROUTE = Pattern.compile("/[\\w/{}<>:.\\-]*");
+
+    public enum Kind {
+        CLASS("Class"), FUNCTION("Function"), ENDPOINT("REST API endpoint");
+
+        private final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final IndexingConfiguration.SymbolTableConfig config;
+    private final boolean persistent;
+    private final CodeAnalysisService codeAnalysisService;
+
+    // Lower-cased name -> its declarations; sorted, so a prefix is one contiguous range
+    private final TreeMap<String, List<Symbol>> byName = new TreeMap<>();
+    private final Map<String, List<Symbol>> byFile = new HashMap<>();
+    private int symbolCount;
+    private int logRecords;
+
+    private Path storeFile;
+
+    @Autowired
+    public SymbolTable(IndexingConfiguration config, CodeAnalysisService codeAnalysisService) {
+        this(config.getSymbols(), config.getCache().isEnabled(), codeAnalysisService);
+    }
+
+    private SymbolTable(IndexingConfiguration.SymbolTableConfig config, boolean persistent,
+            CodeAnalysisService codeAnalysisService) {
+        this.config = config;
+        this.persistent = persistent;
+        this.codeAnalysisService = codeAnalysisService;
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Switch to the persisted table of a collection, replaying its log
+     */
+    public synchronized void load(String collectionName) {
+        resetState();
+        storeFile = persistent ? Paths.get(".symbols_" + collectionName + ".txt") : null;
+        if (storeFile == null || !Files.exists(storeFile)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(storeFile)) {
+                replay(line);
+            }
+            System.out.println("🔤 Symbol table loaded: " + symbolCount + " symbols in " + byFile.size() + " files");
+            if (logRecords > COMPACT_MIN_RECORDS && logRecords > 2 * symbolCount) {
+                compact();
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not load symbol table, starting empty: " + e.getMessage());
+            resetState();
+        }
+    }
+
+    /**
+     * Empty table for a collection being rebuilt, filled alongside it while this one keeps
+     * answering lookups for the live collection
+     */
+    public SymbolTable newGeneration(String collectionName) {
+        SymbolTable generation = new SymbolTable(config, persistent, codeAnalysisService);
+        generation.load(collectionName);
+        generation.clear();
+        return generation;
+    }
+
+    /**
+     * Take over the symbols and log of a rebuilt generation once its collection is live
+     */
+    public void adopt(SymbolTable generation) {
+        synchronized (generation) {
+            synchronized (this) {
+                byName.clear();
+                byName.putAll(generation.byName);
+                byFile.clear();
+                byFile.putAll(generation.byFile);
+                symbolCount = generation.symbolCount;
+                logRecords = generation.logRecords;
+                if (storeFile != null && generation.storeFile != null) {
+                    try {
+                        if (Files.exists(generation.storeFile)) {
+                            Files.move(generation.storeFile, storeFile, StandardCopyOption.REPLACE_EXISTING);
+                        } else {
+                            Files.deleteIfExists(storeFile);
+                        }
+                    } catch (Exception e) {
+                        System.err.println("⚠️ Could not replace symbol table log: " + e.getMessage());
+                    }
+                }
+                generation.resetState();
+                generation.storeFile = null;
+            }
+        }
+    }
+
+    /**
+     * Analyze a file that has already been read and record its declarations
+     */
+    public void index(String filePath, FileContent content) {
+        CodeAnalysisService.FileAnalysis analysis = analyze(content);
+        if (analysis != null) {
+            update(filePath, analysis);
+        }
+    }
+
+    /**
+     * Analyze a file without recording it, so its declarations can be applied with {@link #update}
+     * once the file is stored. Null when the table is disabled or cannot read the language.
+     */
+    public CodeAnalysisService.FileAnalysis analyze(FileContent content) {
+        if (!isEnabled() || SourceLexer.Language.forFileName(content.getFileName()) == null) {
+            return null;
+        }
+        return codeAnalysisService.analyzeFile(content);
+    }
+
+    /**
+     * Replace the symbols of a file with the declarations of its latest analysis.
+     * Nothing is written when they did not change.
+     */
+    public synchronized void update(String filePath, CodeAnalysisService.FileAnalysis analysis) {
+        List<Symbol> symbols = new ArrayList<>();
+        addAll(symbols, Kind.ENDPOINT, filePath, analysis.getRestApiEndpoints());
+        addAll(symbols, Kind.CLASS, filePath, analysis.getClasses());
+        addAll(symbols, Kind.FUNCTION, filePath, analysis.getFunctions());
+        if (symbols.equals(byFile.getOrDefault(filePath, List.of()))) {
+            return;
+        }
+
+        StringBuilder records = new StringBuilder();
+        if (removeFile(filePath)) {
+            records.append(FORGET).append(filePath).append(System.lineSeparator());
+        }
+        for (Symbol symbol : symbols) {
+            addSymbol(symbol);
+            records.append(encode(symbol)).append(System.lineSeparator());
+        }
+        append(records.toString());
+    }
+
+    /**
+     * Declarations named like the identifier: case-sensitive exact matches, then case-insensitive
+     * ones, then names it is a prefix of when it is long enough and shaped like code.
+     * A qualified name such as "UserService.save" matches its last segment exactly, in files
+     * whose path contains the qualifier.
+     */
+    public synchronized List<Symbol> lookup(String identifier, int limit) {
+        int qualifierEnd = identifier.startsWith("/") ? -1 : identifier.lastIndexOf('.');
+        if (qualifierEnd > 0) {
+            return lookupQualified(identifier.substring(0, qualifierEnd).replace('.', '/'),
+                    identifier.substring(qualifierEnd + 1), limit);
+        }
+
+        String key = identifier.toLowerCase(Locale.ROOT);
+        List<Symbol> exact = byName.getOrDefault(key, List.of());
+        List<Symbol> result = new ArrayList<>();
+        exact.stream().filter(symbol -> symbol.name.equals(identifier)).forEach(result::add);
+        if (isCodeShaped(identifier)) {
+            exact.stream().filter(symbol -> !symbol.name.equals(identifier)).forEach(result::add);
+        }
+        if (result.size() >= limit || identifier.length() < config.getMinPrefixLength() || !isCodeShaped(identifier)) {
+            return result.size() > limit ? result.subList(0, limit) : result;
+        }
+
+        for (List<Symbol> symbols : byName.subMap(key, false, key + Character.MAX_VALUE, false).values()) {
+            for (Symbol symbol : symbols) {
+                if (result.size() >= limit) {
+                    return result;
+                }
+                result.add(symbol);
+            }
+        }
+        return result;
+    }
+
+    private List<Symbol> lookupQualified(String qualifierPath, String name, int limit) {
+        List<Symbol> exact = byName.getOrDefault(name.toLowerCase(Locale.ROOT), List.of());
+        List<Symbol> result = new ArrayList<>();
+        exact.stream().filter(symbol -> symbol.name.equals(name)).forEach(result::add);
+        exact.stream().filter(symbol -> !symbol.name.equals(name)).forEach(result::add);
+        result.removeIf(symbol -> !symbol.filePath.replace('\\', '/').contains(qualifierPath));
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    /**
+     * A query that is one identifier, qualified name or route, the shapes the table can answer
+     */
+    public static boolean isIdentifierQuery(String query) {
+        String trimmed = query.trim();
+        return IDENTIFIER.matcher(trimmed).matches() || QUALIFIED_NAME.matcher(trimmed).matches()
+                || ROUTE.matcher(trimmed).matches() && trimmed.length() > 1;
+    }
+
+    /**
+     * A lookup query that can only mean code: a route, a qualified name, or an identifier shaped
+     * like code. Plain words such as "login" or "main" are English too, so their declarations are
+     * one answer among others rather than the whole answer.
+     */
+    public static boolean isCodeQuery(String query) {
+        String trimmed = query.trim();
+        return isIdentifierQuery(trimmed) && (QUALIFIED_NAME.matcher(trimmed).matches() || isCodeShaped(trimmed));
+    }
+
+    /**
+     * camelCase, PascalCase, snake_case, digits or a route; a plain lower-case word only matches exactly
+     */
+    static boolean isCodeShaped(String identifier) {
+        if (identifier.startsWith("/")) {
+            return true;
+        }
+        for (int i = 0; i < identifier.length(); i++) {
+            char c = identifier.charAt(i);
+            if (c == '_' || c == '$' || Character.isDigit(c) || i > 0 && Character.isUpperCase(c)) {
+                return true;
+            }
+        }
+        return Character.isUpperCase(identifier.charAt(0));
+    }
+
+    public synchronized int size() {
+        return symbolCount;
+    }
+
+    /**
+     * Forget everything, including the persisted log of the current collection
+     */
+    public synchronized void clear() {
+        resetState();
+        if (storeFile != null) {
+            try {
+                Files.deleteIfExists(storeFile);
+            } catch (Exception e) {
+                System.err.println("⚠️ Could not clear symbol table: " + e.getMessage());
+            }
+        }
+    }
+
+    private void addAll(List<Symbol> symbols, Kind kind, String filePath, List<CodeAnalysisService.CodeElement> elements) {
+        for (CodeAnalysisService.CodeElement element : elements) {
+            if (element.getName() == null || element.getName().isEmpty() || "unknown".equals(element.getName())) {
+                continue;
+            }
+            int endLine = Math.max(element.getLineNumber(), element.getEndLine());
+            symbols.add(new Symbol(element.getName(), kind, filePath, element.getLineNumber(), endLine,
+                    singleLine(element.getCode())));
+        }
+    }
+
+    private void replay(String line) {
+        logRecords++;
+        if (line.startsWith(SYMBOL)) {
+            Symbol symbol = decode(line.substring(SYMBOL.length()));
+            if (symbol != null) {
+                addSymbol(symbol);
+            }
+        } else if (line.startsWith(FORGET)) {
+            removeFile(line.substring(FORGET.length()));
+        }
+    }
+
+    private void addSymbol(Symbol symbol) {
+        byName.computeIfAbsent(symbol.name.toLowerCase(Locale.ROOT), key -> new ArrayList<>()).add(symbol);
+        byFile.computeIfAbsent(symbol.filePath, key -> new ArrayList<>()).add(symbol);
+        symbolCount++;
+    }
+
+    private boolean removeFile(String filePath) {
+        List<Symbol> symbols = byFile.remove(filePath);
+        if (symbols == null) {
+            return false;
+        }
+        for (Symbol symbol : symbols) {
+            String key = symbol.name.toLowerCase(Locale.ROOT);
+            List<Symbol> named = byName.get(key);
+            if (named != null) {
+                named.removeIf(candidate -> candidate.filePath.equals(filePath));
+                if (named.isEmpty()) {
+                    byName.remove(key);
+                }
+            }
+        }
+        symbolCount -= symbols.size();
+        return true;
+    }
+
+    /**
+     * Rewrite the log as the live symbols in name order
+     */
+    private void compact() {
+        Path temp = storeFile.resolveSibling(storeFile.getFileName() + ".tmp");
+        try {
+            List<String> lines = new ArrayList<>(symbolCount);
+            byName.values().forEach(symbols -> symbols.forEach(symbol -> lines.add(encode(symbol))));
+            Files.write(temp, lines);
+            Files.move(temp, storeFile, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("🔤 Symbol table compacted from " + logRecords + " to " + lines.size() + " records");
+            logRecords = lines.size();
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not compact symbol table: " + e.getMessage());
+        }
+    }
+
+    private void resetState() {
+        byName.clear();
+        byFile.clear();
+        symbolCount = 0;
+        logRecords = 0;
+    }
+
+    private void append(String records) {
+        if (storeFile == null || records.isEmpty()) {
+            return;
+        }
+        try {
+            Files.writeString(storeFile, records, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            logRecords += (int) records.lines().count();
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not persist symbol table entry: " + e.getMessage());
+        }
+    }
+
+    private static String encode(Symbol symbol) {
+        return SYMBOL + symbol.kind.name() + "\t" + symbol.name + "\t" + symbol.filePath + "\t"
+                + symbol.line + "\t" + symbol.endLine + "\t" + symbol.code;
+    }
+
+    private static Symbol decode(String record) {
+        String[] parts = record.split("\t", 6);
+        if (parts.length < 6) {
+            return null;
+        }
+        try {
+            return new Symbol(parts[1], Kind.valueOf(parts[0]), parts[2],
+                    Integer.parseInt(parts[3]), Integer.parseInt(parts[4]), parts[5]);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String singleLine(String code) {
+        return code == null ? "" : code.replace('\t', ' ').replace('\r', ' ').replace('\n', ' ').trim();
+    }
+
+    /**
+     * One declaration: its name, what it is, and the lines it spans
+     */
+    public static class Symbol {
+        private final String name;
+        private final Kind kind;
+        private final String filePath;
+        private final int line;
+        private final int endLine;
+        private final String code;
+
+        public Symbol(String name, Kind kind, String filePath, int line, int endLine, String code) {
+            this.name = name;
+            this.kind = kind;
+            this.filePath = filePath;
+            this.line = line;
+            this.endLine = endLine;
+            this.code = code;
+        }
+
+        public String getName() { return name; }
+        public Kind getKind() { return kind; }
+        public String getFilePath() { return filePath; }
+        public int getLine() { return line; }
+        public int getEndLine() { return endLine; }
+        public String getCode() { return code; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Symbol other)) return false;
+            return line == other.line && endLine == other.endLine && name.equals(other.name) && kind == other.kind
+                    && filePath.equals(other.filePath) && code.equals(other.code);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, kind, filePath, line, endLine, code);
+        }
+    }
+}
@@ -4,10 +4,11 @@ import org.springframework.ai.document.Document;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.model.FileContent;
 import sg.edu.nus.iss.codebase.indexer.service.interfaces.DocumentFactory;
+import sg.edu.nus.iss.codebase.indexer.util.FilePriorities;
 
 import java.io.File;
-import java.nio.file.Files;
 import java.util.*;
 
 /**
@@ -18,21 +19,44 @@ import java.util.*;
 public class TextDocumentFactory implements DocumentFactory {
 
     private final IndexingConfiguration config;
+    private final IndexingMetrics metrics;
+    private final StructureAwareChunker structureChunker = new StructureAwareChunker();
     private static final Set<String> SUPPORTED_TEXT_EXTENSIONS = Set.of(
             ".java", ".xml", ".properties", ".yml", ".yaml", ".json", ".md", ".txt",
             ".kt", ".scala", ".sql", ".html", ".css", ".js", ".ts", ".php", ".py", ".c",
             ".cpp", ".cs", ".rb", ".go", ".swift", ".lua", ".pl", ".r", ".sh", ".cmd", ".ps1");
 
-    @Autowired
     public TextDocumentFactory(IndexingConfiguration config) {
+        this(config, null);
+    }
+
+    @Autowired
+    public TextDocumentFactory(IndexingConfiguration config, IndexingMetrics metrics) {
         this.config = config;
+        this.metrics = metrics;
     }
 
     @Override
     public List<Document> createDocuments(File file) {
         try {
-            // Read raw text content from file
-            String rawContent = Files.readString(file.toPath());
+            return createDocumentsFromContent(FileContent.read(file));
+        } catch (Exception e) {
+            System.err.println("❌ Error creating document for " + file.getName() + ": " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    @Override
+    public List<Document> createDocumentsFromContent(FileContent fileContent) {
+        File file = fileContent.getFile();
+        try {
+            // Raw text content, decoded once and shared with the rest of the pipeline
+            String rawContent = fileContent.getText();
+
+            // Source files are cut at declaration boundaries, with boilerplate left out
+            if (config.getProcessing().isStructureAwareChunking() && structureChunker.supports(file)) {
+                return createStructuredDocuments(fileContent, createMetadata(file));
+            }
 
             // Sanitize content to remove problematic characters for embedding models
             String content = sanitizeContent(rawContent);
@@ -53,19 +77,13 @@ public class TextDocumentFactory implements DocumentFactory {
 
                 for (int i = 0; i < chunks.size(); i++) {
                     Map<String, Object> chunkMetadata = new HashMap<>(metadata);
-                    chunkMetadata.put("chunk", String.valueOf(i + 1));
-                    chunkMetadata.put("total_chunks", String.valueOf(chunks.size()));
-                    // CRITICAL FIX: Ensure text field is explicitly set in metadata
-                    // This addresses issue where content was in doc_content but not in text field
-                    chunkMetadata.put("text", chunks.get(i));
-                    chunkMetadata.put("doc_content", chunks.get(i)); // Keep as backup
+                    chunkMetadata.put("chunk", i + 1);
+                    chunkMetadata.put("total_chunks", chunks.size());
                     documents.add(new Document(chunks.get(i), chunkMetadata));
                 }
             } else {
-                // CRITICAL FIX: Ensure text field is explicitly set in metadata
-                // This addresses issue where content was in doc_content but not in text field  
-                metadata.put("text", content);
-                metadata.put("doc_content", content); // Keep as backup
+                // The vector store keeps the document text in its own doc_content payload field,
+                // so it is not repeated in the metadata
                 documents.add(new Document(content, metadata));
             }
 
@@ -78,9 +96,48 @@ public class TextDocumentFactory implements DocumentFactory {
     }
 
     /**
-     * Sanitize content to make it safe for embedding models
+     * Create one document per structure-aware chunk, keeping the source line range of each
+     */
+    private List<Document> createStructuredDocuments(FileContent fileContent, Map<String, Object> metadata) {
+        List<StructureAwareChunker.Chunk> chunks = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        for (StructureAwareChunker.Chunk chunk : structureChunker.chunk(fileContent, config.getProcessing().getChunkSize())) {
+            String text = sanitizeContent(chunk.getText());
+            if (!text.isEmpty()) {
+                chunks.add(chunk);
+                texts.add(text);
+            }
+        }
+
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            Map<String, Object> chunkMetadata = new HashMap<>(metadata);
+            chunkMetadata.put("chunk", i + 1);
+            chunkMetadata.put("total_chunks", chunks.size());
+            chunkMetadata.put("startLine", chunks.get(i).getStartLine());
+            chunkMetadata.put("endLine", chunks.get(i).getEndLine());
+            documents.add(new Document(texts.get(i), chunkMetadata));
+        }
+        return documents;
+    }
+
+    /**
+     * Sanitize content, reporting the time it takes to the indexing metrics
      */
     private String sanitizeContent(String content) {
+        if (metrics == null) {
+            return sanitize(content);
+        }
+        long start = System.nanoTime();
+        String sanitized = sanitize(content);
+        metrics.record(IndexingMetrics.Stage.SANITIZE, System.nanoTime() - start);
+        return sanitized;
+    }
+
+    /**
+     * Sanitize content to make it safe for embedding models
+     */
+    private String sanitize(String content) {
         if (content == null)
             return "";
 
@@ -169,11 +226,11 @@ public class TextDocumentFactory implements DocumentFactory {
         metadata.put("filename", file.getName());
         metadata.put("filepath", file.getAbsolutePath());
         metadata.put("filetype", getFileExtension(file));
-        metadata.put("priority", String.valueOf(getFilePriority(file)));
-        metadata.put("size", String.valueOf(file.length()));
-        metadata.put("lastModified", String.valueOf(file.lastModified()));
-        metadata.put("lastModifiedDate", new java.util.Date(file.lastModified()).toString());
-        metadata.put("indexedAt", new java.util.Date().toString());
+        // Native types so the integer and datetime payload indexes can serve range filters
+        metadata.put("priority", getFilePriority(file));
+        metadata.put("size", file.length());
+        metadata.put("lastModified", java.time.Instant.ofEpochMilli(file.lastModified()).toString());
+        metadata.put("indexedAt", java.time.Instant.now().toString());
         return metadata;
     }
 
@@ -215,20 +272,6 @@ public class TextDocumentFactory implements DocumentFactory {
      * Calculate file priority based on configuration
      */
     private int getFilePriority(File file) {
-        String fileName = file.getName();
-
-        // Sort entries by key length in descending order to prioritize more specific patterns
-        List<Map.Entry<String, Integer>> sortedPriorities = config.getFilePriorities().entrySet().stream()
-                .sorted((e1, e2) -> Integer.compare(e2.getKey().length(), e1.getKey().length()))
-                .collect(java.util.stream.Collectors.toList());
-
-        for (Map.Entry<String, Integer> entry : sortedPriorities) {
-            if (fileName.contains(entry.getKey())) {
-                return entry.getValue();
-            }
-        }
-
-        // Default priority
-        return 10;
+        return FilePriorities.of(file, config.getFilePriorities());
     }
 }
@@ -0,0 +1,323 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Linear map from native embedding vectors to fewer dimensions, applied to document and
+ * query vectors alike so their cosine similarities stay comparable.
+ * PCA keeps the directions of largest second moment, which preserves inner products best
+ * for the corpus it was fitted on; components are ordered by variance, so any prefix is
+ * itself the best projection of that size. A random Gaussian projection needs no fitting
+ * but preserves similarities only approximately.
+ */
+public class VectorProjection {
+
+    public static final String PCA = "pca";
+    public static final String RANDOM = "random";
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int OVERSAMPLING = 10;
+    private static final int POWER_ITERATIONS = 4;
+    private static final int MAX_JACOBI_SWEEPS = 60;
+
+    private final String method;
+    private final int inputDimensions;
+    private final float[][] components; // One row of inputDimensions weights per output dimension
+
+    VectorProjection(String method, int inputDimensions, float[][] components) {
+        this.method = method;
+        this.inputDimensions = inputDimensions;
+        this.components = components;
+    }
+
+    /**
+     * Fit a PCA projection on sample vectors, keeping the leading components
+     */
+    public static VectorProjection pca(List<float[]> sample, int outputDimensions) {
+        if (sample.isEmpty()) {
+            throw new IllegalArgumentException("Cannot fit a projection without sample vectors");
+        }
+        int n = sample.get(0).length;
+        if (outputDimensions <= 0 || outputDimensions >= n) {
+            throw new IllegalArgumentException("Target dimensions must be between 1 and " + (n - 1));
+        }
+        double[][] moment = secondMoment(sample, n);
+
+        // Randomized range finder: power iterations on a block of Gaussian vectors converge on
+        // the leading eigenspace, which is then resolved exactly on the small projected matrix
+        int block = Math.min(n, outputDimensions + OVERSAMPLING);
+        Random random = new Random(n * 31L + outputDimensions);
+        double[][] basis = new double[block][n];
+        for (double[] vector : basis) {
+            for (int i = 0; i < n; i++) {
+                vector[i] = random.nextGaussian();
+            }
+        }
+        orthonormalize(basis);
+        for (int iteration = 0; iteration < POWER_ITERATIONS; iteration++) {
+            basis = multiply(moment, basis);
+            orthonormalize(basis);
+        }
+
+        double[][] applied = multiply(moment, basis);
+        double[][] small = new double[block][block];
+        for (int a = 0; a < block; a++) {
+            for (int b = a; b < block; b++) {
+                double dot = dot(basis[a], applied[b]);
+                small[a][b] = dot;
+                small[b][a] = dot;
+            }
+        }
+        double[][] eigenvectors = jacobi(small);
+
+        Integer[] order = new Integer[block];
+        for (int i = 0; i < block; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(small[b][b], small[a][a]));
+
+        float[][] components = new float[outputDimensions][n];
+        for (int r = 0; r < outputDimensions; r++) {
+            int column = order[r];
+            for (int c = 0; c < block; c++) {
+                double weight = eigenvectors[c][column];
+                for (int i = 0; i < n; i++) {
+                    components[r][i] += (float) (weight * basis[c][i]);
+                }
+            }
+        }
+        return new VectorProjection(PCA, n, components);
+    }
+
+    /**
+     * Gaussian random projection; the seed makes it reproducible
+     */
+    public static VectorProjection random(int inputDimensions, int outputDimensions, long seed) {
+        Random random = new Random(seed);
+        float scale = (float) (1.0 / Math.sqrt(outputDimensions));
+        float[][] components = new float[outputDimensions][inputDimensions];
+        for (float[] row : components) {
+            for (int i = 0; i < inputDimensions; i++) {
+                row[i] = (float) random.nextGaussian() * scale;
+            }
+        }
+        return new VectorProjection(RANDOM, inputDimensions, components);
+    }
+
+    public float[] project(float[] vector) {
+        if (vector.length != inputDimensions) {
+            throw new IllegalArgumentException("Expected a " + inputDimensions + "-dimensional vector, got "
+                    + vector.length);
+        }
+        float[] projected = new float[components.length];
+        for (int r = 0; r < components.length; r++) {
+            float[] row = components[r];
+            float sum = 0;
+            for (int i = 0; i < inputDimensions; i++) {
+                sum += row[i] * vector[i];
+            }
+            projected[r] = sum;
+        }
+        return projected;
+    }
+
+    /**
+     * The same projection keeping only its first output dimensions
+     */
+    public VectorProjection truncate(int outputDimensions) {
+        if (outputDimensions >= components.length) {
+            return this;
+        }
+        return new VectorProjection(method, inputDimensions, Arrays.copyOf(components, outputDimensions));
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public int getInputDimensions() {
+        return inputDimensions;
+    }
+
+    public int getOutputDimensions() {
+        return components.length;
+    }
+
+    public void save(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(method);
+            out.writeInt(inputDimensions);
+            out.writeInt(components.length);
+            for (float[] row : components) {
+                for (float weight : row) {
+                    out.writeFloat(weight);
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @return the stored projection, or null when the file does not exist
+     */
+    public static VectorProjection load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported projection format " + version + " in " + file);
+            }
+            String method = in.readUTF();
+            int input = in.readInt();
+            int output = in.readInt();
+            float[][] components = new float[output][input];
+            for (float[] row : components) {
+                for (int i = 0; i < input; i++) {
+                    row[i] = in.readFloat();
+                }
+            }
+            return new VectorProjection(method, input, components);
+        }
+    }
+
+    private static double[][] secondMoment(List<float[]> sample, int n) {
+        double[][] moment = new double[n][n];
+        for (float[] vector : sample) {
+            for (int i = 0; i < n; i++) {
+                double xi = vector[i];
+                if (xi == 0) {
+                    continue;
+                }
+                double[] row = moment[i];
+                for (int j = i; j < n; j++) {
+                    row[j] += xi * vector[j];
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = i; j < n; j++) {
+                moment[i][j] /= sample.size();
+                moment[j][i] = moment[i][j];
+            }
+        }
+        return moment;
+    }
+
+    private static double[][] multiply(double[][] matrix, double[][] vectors) {
+        double[][] result = new double[vectors.length][];
+        for (int c = 0; c < vectors.length; c++) {
+            double[] product = new double[matrix.length];
+            for (int i = 0; i < matrix.length; i++) {
+                product[i] = dot(matrix[i], vectors[c]);
+            }
+            result[c] = product;
+        }
+        return result;
+    }
+
+    /**
+     * Modified Gram-Schmidt, run twice for numerical stability
+     */
+    private static void orthonormalize(double[][] vectors) {
+        for (int pass = 0; pass < 2; pass++) {
+            for (int c = 0; c < vectors.length; c++) {
+                double[] vector = vectors[c];
+                for (int p = 0; p < c; p++) {
+                    double projection = dot(vectors[p], vector);
+                    double[] previous = vectors[p];
+                    for (int i = 0; i < vector.length; i++) {
+                        vector[i] -= projection * previous[i];
+                    }
+                }
+                double norm = Math.sqrt(dot(vector, vector));
+                double scale = norm > 1e-12 ? 1.0 / norm : 0.0;
+                for (int i = 0; i < vector.length; i++) {
+                    vector[i] *= scale;
+                }
+            }
+        }
+    }
+
+    /**
+     * Cyclic Jacobi eigen decomposition of a symmetric matrix. The matrix is diagonalized in
+     * place, leaving the eigenvalues on its diagonal; eigenvectors are the returned columns.
+     */
+    private static double[][] jacobi(double[][] a) {
+        int n = a.length;
+        double[][] v = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            v[i][i] = 1;
+        }
+        double scale = 0;
+        for (int i = 0; i < n; i++) {
+            scale += a[i][i] * a[i][i];
+        }
+        for (int sweep = 0; sweep < MAX_JACOBI_SWEEPS; sweep++) {
+            double off = 0;
+            for (int p = 0; p < n; p++) {
+                for (int q = p + 1; q < n; q++) {
+                    off += a[p][q] * a[p][q];
+                }
+            }
+            if (off <= 1e-24 * Math.max(scale, 1e-300)) {
+                break;
+            }
+            for (int p = 0; p < n; p++) {
+                for (int q = p + 1; q < n; q++) {
+                    double apq = a[p][q];
+                    if (Math.abs(apq) < 1e-300) {
+                        continue;
+                    }
+                    double theta = (a[q][q] - a[p][p]) / (2 * apq);
+                    double t = Math.signum(theta) / (Math.abs(theta) + Math.sqrt(theta * theta + 1));
+                    if (theta == 0) {
+                        t = 1;
+                    }
+                    double c = 1 / Math.sqrt(t * t + 1);
+                    double s = t * c;
+                    for (int k = 0; k < n; k++) {
+                        double akp = a[k][p];
+                        double akq = a[k][q];
+                        a[k][p] = c * akp - s * akq;
+                        a[k][q] = s * akp + c * akq;
+                    }
+                    for (int k = 0; k < n; k++) {
+                        double apk = a[p][k];
+                        double aqk = a[q][k];
+                        a[p][k] = c * apk - s * aqk;
+                        a[q][k] = s * apk + c * aqk;
+                    }
+                    for (int k = 0; k < n; k++) {
+                        double vkp = v[k][p];
+                        double vkq = v[k][q];
+                        v[k][p] = c * vkp - s * vkq;
+                        v[k][q] = s * vkp + c * vkq;
+                    }
+                }
+            }
+        }
+        return v;
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
@@ -1,6 +1,7 @@
 package sg.edu.nus.iss.codebase.indexer.service.interfaces;
 
 import org.springframework.ai.document.Document;
+import sg.edu.nus.iss.codebase.indexer.model.FileContent;
 import java.io.File;
 import java.util.List;
 
@@ -18,6 +19,17 @@ public interface DocumentFactory {
      */
     List<Document> createDocuments(File file);
 
+    /**
+     * Create documents from file content that has already been read
+     * Factories should override this to avoid reading the file again
+     * 
+     * @param content The file content shared across the indexing pipeline
+     * @return List of documents created from the file
+     */
+    default List<Document> createDocumentsFromContent(FileContent content) {
+        return createDocuments(content.getFile());
+    }
+
     /**
      * Check if this factory supports the given file
      * 
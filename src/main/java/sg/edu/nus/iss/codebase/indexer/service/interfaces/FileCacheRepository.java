@@ -61,4 +61,18 @@ public interface FileCacheRepository {
      * @param cacheFileName The cache file name to use
      */
     void setCacheFileName(String cacheFileName);
+
+    /**
+     * Get the cache file name in use
+     * 
+     * @return The current cache file name
+     */
+    String getCacheFileName();
+
+    /**
+     * Keep the current entries under another cache file name, replacing that file
+     * 
+     * @param cacheFileName The cache file name to continue with
+     */
+    void moveCacheFile(String cacheFileName);
 }
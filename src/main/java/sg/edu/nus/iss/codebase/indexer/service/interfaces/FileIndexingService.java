@@ -1,6 +1,10 @@
 package sg.edu.nus.iss.codebase.indexer.service.interfaces;
 
+import org.springframework.ai.document.Document;
+import sg.edu.nus.iss.codebase.indexer.model.DuplicateAlias;
 import sg.edu.nus.iss.codebase.indexer.model.IndexingStatus;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -117,6 +121,41 @@ public interface FileIndexingService {
 
   void clearCacheAndReindex();
 
+  /**
+   * Embed cold (lazily registered) files that a query needs right now.
+   * Files that are not cold are ignored. Similar cold files are promoted
+   * to background embedding.
+   * 
+   * @param filePaths Candidate file paths, typically from text search
+   * @return CompletableFuture with the number of files embedded within the
+   *         configured wait; embedding continues in the background after that
+   */
+  CompletableFuture<Integer> embedOnDemand(java.util.List<String> filePaths);
+
+  /**
+   * Get the number of files registered but not yet embedded
+   * 
+   * @return Number of cold files
+   */
+  int getColdFileCount();
+
+  /**
+   * Check whether a file is registered but not yet embedded
+   * 
+   * @param filePath File path
+   * @return true if the file is cold
+   */
+  boolean isColdFile(String filePath);
+
+  /**
+   * Get the near-duplicate files and chunks that were stored as aliases of
+   * search results instead of being embedded
+   * 
+   * @param documents Documents returned by a vector search
+   * @return Aliases keyed by document id; documents without aliases are absent
+   */
+  Map<String, List<DuplicateAlias>> getDuplicateAliases(List<Document> documents);
+
   /**
    * Get the current collection name
    * 
@@ -0,0 +1,66 @@
+package sg.edu.nus.iss.codebase.indexer.util;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of reusable direct read buffers
+ * Indexing reads each file on its own virtual thread, so per-thread buffer caches
+ * are never reused; a shared pool keeps read allocation flat regardless of thread count
+ */
+public class BufferPool {
+
+    private final int bufferSize;
+    private final BlockingQueue<ByteBuffer> buffers;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public BufferPool(int bufferSize, int maxPooledBuffers) {
+        this.bufferSize = bufferSize;
+        this.buffers = new ArrayBlockingQueue<>(maxPooledBuffers);
+    }
+
+    /**
+     * Borrow a cleared buffer with at least the requested capacity.
+     * Requests larger than the pooled buffer size get a one-off heap buffer.
+     */
+    public ByteBuffer acquire(int capacity) {
+        if (capacity > bufferSize) {
+            misses.incrementAndGet();
+            return ByteBuffer.allocate(capacity);
+        }
+
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            misses.incrementAndGet();
+            buffer = ByteBuffer.allocateDirect(bufferSize);
+        } else {
+            hits.incrementAndGet();
+        }
+        buffer.clear().limit(capacity);
+        return buffer;
+    }
+
+    /**
+     * Return a buffer to the pool; oversized or surplus buffers are dropped
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer != null && buffer.isDirect() && buffer.capacity() == bufferSize) {
+            buffers.offer(buffer);
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+}
@@ -0,0 +1,38 @@
+package sg.edu.nus.iss.codebase.indexer.util;
+
+import java.io.File;
+import java.util.Map;
+
+/**
+ * Resolves a file's indexing priority from the configured filename patterns
+ * Shared by scheduling and every document factory so a file carries the same
+ * priority no matter which tier or pass wrote it.
+ */
+public final class FilePriorities {
+
+    public static final int DEFAULT_PRIORITY = 10;
+
+    private FilePriorities() {
+    }
+
+    /**
+     * The priority of the longest pattern contained in the file name, so
+     * "Application.java" wins over ".java" regardless of map iteration order
+     */
+    public static int of(File file, Map<String, Integer> priorities) {
+        String fileName = file.getName();
+        String bestPattern = null;
+        int bestPriority = DEFAULT_PRIORITY;
+
+        for (Map.Entry<String, Integer> entry : priorities.entrySet()) {
+            String pattern = entry.getKey();
+            if (fileName.contains(pattern)
+                    && (bestPattern == null || pattern.length() > bestPattern.length())) {
+                bestPattern = pattern;
+                bestPriority = entry.getValue();
+            }
+        }
+
+        return bestPriority;
+    }
+}
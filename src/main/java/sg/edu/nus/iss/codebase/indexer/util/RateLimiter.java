@@ -0,0 +1,60 @@
+package sg.edu.nus.iss.codebase.indexer.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pacing rate limiter with a small burst allowance
+ * Each acquisition books time on a shared timeline; callers sleep until their slot.
+ * Requests larger than the burst are admitted and paid for by the callers that follow,
+ * so one large file never blocks forever.
+ */
+public class RateLimiter {
+
+    private final long burstNanos;
+    private volatile double permitsPerSecond;
+    private long nextFreeNanos = System.nanoTime();
+
+    /**
+     * @param permitsPerSecond sustained rate, zero or negative for unlimited
+     * @param burstSeconds idle time that can be banked as immediate credit
+     */
+    public RateLimiter(double permitsPerSecond, double burstSeconds) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burstNanos = (long) (Math.max(0, burstSeconds) * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Block until the given number of permits is available under the current rate
+     */
+    public void acquire(long permits) throws InterruptedException {
+        long waitNanos = reserve(permits);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Book permits and return how long the caller must wait before using them
+     */
+    synchronized long reserve(long permits) {
+        double rate = permitsPerSecond;
+        if (rate <= 0 || permits <= 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        if (nextFreeNanos < now - burstNanos) {
+            nextFreeNanos = now - burstNanos;
+        }
+        long waitNanos = Math.max(0, nextFreeNanos - now);
+        nextFreeNanos += (long) (permits / rate * TimeUnit.SECONDS.toNanos(1));
+        return waitNanos;
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public void setPermitsPerSecond(double permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+}
@@ -0,0 +1,70 @@
+package sg.edu.nus.iss.codebase.indexer.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileContentTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void read_ShouldExposeBytesTextAndLines() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("Sample.java");
+        Files.writeString(file, "package demo;\n\npublic class Sample {\n}\n");
+
+        // Act
+        FileContent content = FileContent.read(file);
+
+        // Assert
+        assertThat(content.getText()).isEqualTo(Files.readString(file));
+        assertThat(content.getSize()).isEqualTo((int) Files.size(file));
+        assertThat(content.getLines()).containsExactly("package demo;", "", "public class Sample {", "}");
+        assertThat(content.getLineCount()).isEqualTo(4);
+    }
+
+    @Test
+    void lineNumberAt_ShouldMapOffsetsToLines() {
+        // Arrange
+        FileContent content = FileContent.of(tempDir.resolve("a.txt").toFile(), "one\ntwo\nthree");
+
+        // Act & Assert
+        assertThat(content.getLineOffsets()).containsExactly(0, 4, 8);
+        assertThat(content.lineNumberAt(0)).isEqualTo(1);
+        assertThat(content.lineNumberAt(3)).isEqualTo(1);
+        assertThat(content.lineNumberAt(4)).isEqualTo(2);
+        assertThat(content.lineNumberAt(12)).isEqualTo(3);
+    }
+
+    @Test
+    void getHash_ShouldBeStableAndContentSensitive() {
+        FileContent first = FileContent.of(tempDir.resolve("a.txt").toFile(), "same text");
+        FileContent second = FileContent.of(tempDir.resolve("b.txt").toFile(), "same text");
+        FileContent third = FileContent.of(tempDir.resolve("c.txt").toFile(), "other text");
+
+        assertThat(first.getHash()).hasSize(64).isEqualTo(second.getHash());
+        assertThat(first.getHash()).isNotEqualTo(third.getHash());
+    }
+
+    @Test
+    void read_ShouldHandleFilesLargerThanPooledBuffers() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("large.txt");
+        String line = "x".repeat(99) + "\n";
+        Files.writeString(file, line.repeat(4000)); // ~400KB, above the pooled buffer size
+
+        // Act
+        FileContent content = FileContent.read(file);
+
+        // Assert
+        assertThat(content.getSize()).isEqualTo(400_000);
+        assertThat(content.getLineCount()).isEqualTo(4000);
+    }
+}
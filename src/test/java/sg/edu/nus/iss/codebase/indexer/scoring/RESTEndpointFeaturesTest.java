@@ -0,0 +1,88 @@
+package sg.edu.nus.iss.codebase.indexer.scoring;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RESTEndpointFeaturesTest {
+
+    private static final String FLASK_APP = """
+            from flask import Flask, render_template, request, jsonify
+            import logging
+
+            app = Flask(__name__)
+
+            @app.route('/')
+            def index():
+                return render_template('index.html')
+
+            @app.route('/api/generate-sql', methods=['POST'])
+            def generate_sql():
+                try:
+                    data = request.get_json()
+                    return jsonify({'success': True})
+                except Exception as e:
+                    return jsonify({'error': str(e)}), 500
+
+            @app.route('/api/status')
+            def status():
+                return jsonify({'status': 'running'})
+
+            @app.errorhandler(404)
+            def not_found(error):
+                return render_template('404.html'), 404
+            """;
+
+    @Test
+    void calculateRESTScore_ShouldMatchTheTextScoreWhenReadFromStoredFeatures() {
+        // Arrange: the payload as Qdrant returns it, with integers widened to longs
+        Map<String, Object> payload = new HashMap<>();
+        RESTEndpointFeatures.extract(FLASK_APP).writeTo(payload);
+        payload.replaceAll((key, value) -> value instanceof Integer number ? number.longValue() : value);
+        Document indexed = new Document("REST API Endpoint: generate_sql", payload);
+        Document unindexed = new Document(FLASK_APP, Map.of("filename", "app.py"));
+
+        // Act
+        double fromFeatures = RESTEndpointScoring.calculateRESTScore(indexed, "REST API endpoints");
+        double fromText = RESTEndpointScoring.calculateRESTScore(unindexed, "REST API endpoints");
+
+        // Assert
+        assertThat(fromFeatures).isGreaterThan(0.5).isCloseTo(fromText, within(1e-9));
+    }
+
+    @Test
+    void extract_ShouldRecordRoutesWithTheirFunctions() {
+        // Act
+        RESTEndpointFeatures features = RESTEndpointFeatures.extract(FLASK_APP);
+
+        // Assert
+        assertThat(features.getFramework()).isEqualTo("Flask");
+        assertThat(features.getRouteCount()).isEqualTo(3);
+        assertThat(features.getHttpMethods()).contains("post");
+        assertThat(features.getApiPathCount()).isEqualTo(2);
+        assertThat(features.getRoutes())
+                .extracting(RESTEndpointFeatures.Route::getFunctionName)
+                .containsExactly("index()", "generate_sql()", "status()");
+        assertThat(features.getErrorHandlers())
+                .extracting(RESTEndpointFeatures.Route::getDeclaration)
+                .containsExactly("@app.errorhandler(404)");
+    }
+
+    @Test
+    void writeTo_ShouldLeaveOutDefaultValues() {
+        // Arrange
+        Map<String, Object> payload = new HashMap<>();
+
+        // Act
+        RESTEndpointFeatures.extract("plain notes without any code").writeTo(payload);
+
+        // Assert
+        assertThat(payload).containsOnlyKeys("restFeatures", "restContentLength");
+        assertThat(RESTEndpointFeatures.fromMetadata(Map.of("filename", "notes.md"))).isNull();
+    }
+}
@@ -123,6 +123,7 @@ class HybridSearchServiceStressTest {
         
         // Setup vector store factory
         lenient().when(vectorStoreFactory.createVectorStore(anyString())).thenReturn(vectorStore);
+        lenient().when(vectorStoreFactory.createSearchVectorStore(anyString())).thenReturn(vectorStore);
         
         // Setup vector store with different result sets based on query
         lenient().when(vectorStore.similaritySearch(contains("empty"))).thenReturn(List.of());
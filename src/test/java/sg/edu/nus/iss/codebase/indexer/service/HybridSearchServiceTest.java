@@ -3,6 +3,7 @@ package sg.edu.nus.iss.codebase.indexer.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -11,14 +12,22 @@ import org.springframework.ai.document.Document;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.SearchRequest;
 import sg.edu.nus.iss.codebase.indexer.config.DynamicVectorStoreFactory;
+import sg.edu.nus.iss.codebase.indexer.service.impl.SymbolTable;
 import sg.edu.nus.iss.codebase.indexer.service.interfaces.FileIndexingService;
 
+import java.io.File;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +51,9 @@ class HybridSearchServiceTest {
     @Mock
     private VectorStore vectorStore;
 
+    @Mock
+    private SymbolTable symbolTable;
+
     @InjectMocks
     private HybridSearchService hybridSearchService;
 
@@ -70,7 +82,7 @@ class HybridSearchServiceTest {
 
         when(indexingService.getCurrentCollectionName()).thenReturn("test-collection");
         when(indexingService.getCurrentIndexingDirectory()).thenReturn("/test/directory");
-        when(vectorStoreFactory.createVectorStore("test-collection")).thenReturn(vectorStore);
+        when(vectorStoreFactory.createSearchVectorStore("test-collection")).thenReturn(vectorStore);
         when(vectorStore.similaritySearch("test query")).thenReturn(List.of(mockDocument));
         when(fileSearchService.searchInFiles(query)).thenReturn(List.of(mockFileResult));
         when(chatModel.call(anyString())).thenReturn("AI analysis of search results");
@@ -94,7 +106,7 @@ class HybridSearchServiceTest {
 
         when(indexingService.getCurrentCollectionName()).thenReturn("test-collection");
         when(indexingService.getCurrentIndexingDirectory()).thenReturn("/test/directory");
-        when(vectorStoreFactory.createVectorStore("test-collection")).thenReturn(vectorStore);
+        when(vectorStoreFactory.createSearchVectorStore("test-collection")).thenReturn(vectorStore);
         when(vectorStore.similaritySearch("test query")).thenReturn(List.of());
         when(fileSearchService.searchInFiles(query)).thenReturn(List.of(mockFileResult));
 
@@ -116,7 +128,7 @@ class HybridSearchServiceTest {
 
         when(indexingService.getCurrentCollectionName()).thenReturn("test-collection");
         when(indexingService.getCurrentIndexingDirectory()).thenReturn("/test/directory");
-        when(vectorStoreFactory.createVectorStore("test-collection")).thenReturn(vectorStore);
+        when(vectorStoreFactory.createSearchVectorStore("test-collection")).thenReturn(vectorStore);
         when(vectorStore.similaritySearch("test query")).thenReturn(List.of());
         when(fileSearchService.searchInFiles(query)).thenReturn(List.of());
 
@@ -153,4 +165,79 @@ class HybridSearchServiceTest {
         assertThat(result.getFileResults()).isEmpty();
         assertThat(result.getTotalResults()).isEqualTo(0);
     }
+
+    @Test
+    void performHybridSearch_ShouldSearchOnlyColdFilesEmbeddedOnDemand_WithoutReanalysingTheQuery() {
+        // Arrange
+        String query = "test query";
+        String coldPath = new File("/path/test.java").getAbsolutePath();
+        Document coldDocument = new Document("test content", Map.of("filename", "test.java", "filepath", coldPath));
+
+        when(indexingService.getColdFileCount()).thenReturn(1);
+        when(indexingService.isColdFile("/path/test.java")).thenReturn(true);
+        when(indexingService.embedOnDemand(List.of(coldPath))).thenReturn(CompletableFuture.completedFuture(1));
+        when(vectorStoreFactory.createSearchVectorStore("test-collection")).thenReturn(vectorStore);
+        when(vectorStore.similaritySearch("test query")).thenReturn(List.of());
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenReturn(List.of(coldDocument));
+        when(fileSearchService.searchInFiles(query)).thenReturn(List.of(mockFileResult));
+        when(chatModel.call(anyString())).thenReturn("AI analysis of search results");
+
+        // Act
+        HybridSearchService.HybridSearchResult result = hybridSearchService.performHybridSearch(query, 10);
+
+        // Assert
+        assertThat(result.getVectorResults()).extracting(HybridSearchService.SearchResult::getFilePath)
+                .containsExactly(coldPath);
+        ArgumentCaptor<SearchRequest> coldSearch = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(vectorStore).similaritySearch(coldSearch.capture());
+        assertThat(coldSearch.getValue().getQuery()).isEqualTo("test query");
+        assertThat(coldSearch.getValue().hasFilterExpression()).isTrue();
+        verify(vectorStoreFactory, times(1)).createSearchVectorStore("test-collection");
+        ArgumentCaptor<String> prompts = ArgumentCaptor.forClass(String.class);
+        verify(chatModel, atLeastOnce()).call(prompts.capture());
+        assertThat(prompts.getAllValues()).filteredOn(prompt -> prompt.contains("SEARCH QUERY:")).hasSize(1);
+    }
+
+    @Test
+    void performHybridSearch_ShouldAddDeclarationsOfPlainWordsToTheHybridResults() {
+        // Arrange
+        when(symbolTable.isEnabled()).thenReturn(true);
+        when(symbolTable.lookup("login", 10)).thenReturn(List.of(new SymbolTable.Symbol(
+                "login", SymbolTable.Kind.FUNCTION, "/repo/auth.py", 12, 20, "def login():")));
+        when(vectorStoreFactory.createSearchVectorStore("test-collection")).thenReturn(vectorStore);
+        when(vectorStore.similaritySearch("login")).thenReturn(List.of(mockDocument));
+        when(chatModel.call(anyString())).thenReturn("AI analysis of search results");
+
+        // Act
+        HybridSearchService.HybridSearchResult result = hybridSearchService.performHybridSearch("login", 10);
+
+        // Assert
+        assertThat(result.getVectorResults()).extracting(HybridSearchService.SearchResult::getSearchType)
+                .contains("symbol", "semantic");
+        assertThat(result.getSearchMetadata()).doesNotContainKey("symbolLookup");
+        assertThat(result.getAiAnalysis()).isEqualTo("AI analysis of search results");
+    }
+
+    @Test
+    void performHybridSearch_ShouldAnswerIdentifierQueriesFromTheSymbolTable() {
+        // Arrange
+        when(symbolTable.isEnabled()).thenReturn(true);
+        when(symbolTable.lookup("UserService", 10)).thenReturn(List.of(new SymbolTable.Symbol(
+                "UserService", SymbolTable.Kind.CLASS, "/repo/UserService.java", 4, 15, "public class UserService {")));
+
+        // Act
+        HybridSearchService.HybridSearchResult result = hybridSearchService.performHybridSearch("UserService", 10);
+
+        // Assert
+        assertThat(result.getVectorResults()).singleElement().satisfies(symbolResult -> {
+            assertThat(symbolResult.getFileName()).isEqualTo("UserService.java");
+            assertThat(symbolResult.getSearchType()).isEqualTo("symbol");
+            assertThat(symbolResult.getLineMatches()).singleElement()
+                    .extracting(HybridSearchService.LineMatch::getLineNumber).isEqualTo(4);
+            assertThat(symbolResult.getMetadata()).containsEntry("endLine", 15);
+        });
+        assertThat(result.getSearchMetadata()).containsEntry("symbolLookup", true);
+        verifyNoInteractions(chatModel, vectorStoreFactory);
+        verify(fileSearchService, never()).searchInFiles(anyString());
+    }
 }
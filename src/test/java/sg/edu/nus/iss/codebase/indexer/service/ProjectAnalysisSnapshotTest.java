@@ -0,0 +1,117 @@
+package sg.edu.nus.iss.codebase.indexer.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.test.util.ReflectionTestUtils;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.service.impl.LlmResponseCache;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProjectAnalysisSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ChatModel chatModel;
+    private ProjectAnalysisService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        writePom("3.5.3");
+        Path controller = tempDir.resolve("src/main/java/demo/UserController.java");
+        Files.createDirectories(controller.getParent());
+        Files.writeString(controller, """
+                package demo;
+                @RestController
+                public class UserController {}
+                """);
+
+        // The response cache is off, so any reuse comes from the snapshot
+        IndexingConfiguration config = new IndexingConfiguration();
+        config.getLlmCache().setEnabled(false);
+        chatModel = mock(ChatModel.class);
+        when(chatModel.call(anyString())).thenReturn("FRAMEWORK: Spring Boot | TYPE: web | CONFIDENCE: medium");
+        service = new ProjectAnalysisService();
+        ReflectionTestUtils.setField(service, "chatModel", chatModel);
+        ReflectionTestUtils.setField(service, "llmResponseCache", new LlmResponseCache(config));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(ProjectAnalysisSnapshot.pathFor(tempDir));
+    }
+
+    @Test
+    void analyzeProject_ShouldReuseTheWholeAnalysisWhenNothingChanged() throws Exception {
+        // Arrange
+        ProjectAnalysisService.ProjectAnalysis first = service.analyzeProject(tempDir);
+        clearInvocations(chatModel);
+
+        // Act
+        ProjectAnalysisService.ProjectAnalysis second = service.analyzeProject(tempDir);
+
+        // Assert
+        assertThat(first.isChanged()).isTrue();
+        assertThat(second.isChanged()).isFalse();
+        assertThat(ProjectAnalysisSnapshot.signature(second)).isEqualTo(ProjectAnalysisSnapshot.signature(first));
+        verify(chatModel, never()).call(anyString());
+    }
+
+    @Test
+    void analyzeProject_ShouldRecomputeOnlyTheChangedManifest() throws Exception {
+        // Arrange
+        service.analyzeProject(tempDir);
+        writePom("3.5.4");
+
+        // Act
+        ProjectAnalysisService.ProjectAnalysis updated = service.analyzeProject(tempDir);
+
+        // Assert
+        assertThat(updated.isChanged()).isTrue();
+        assertThat(updated.getDependencies())
+                .extracting(ProjectAnalysisService.Dependency::getVersion)
+                .containsExactly("3.5.4");
+        assertThat(updated.getFrameworks()).contains("Spring MVC");
+        ProjectAnalysisSnapshot snapshot = ProjectAnalysisSnapshot.load(ProjectAnalysisSnapshot.pathFor(tempDir));
+        assertThat(snapshot.partial("maven").getDependencies())
+                .extracting(ProjectAnalysisService.Dependency::getVersion)
+                .containsExactly("3.5.4");
+        assertThat(snapshot.partial("patterns").getFrameworks()).contains("Spring MVC");
+    }
+
+    @Test
+    void load_ShouldRestoreWhatWasSaved() throws Exception {
+        // Arrange
+        ProjectAnalysisService.ProjectAnalysis analysis = service.analyzeProject(tempDir);
+
+        // Act
+        ProjectAnalysisSnapshot loaded = ProjectAnalysisSnapshot.load(ProjectAnalysisSnapshot.pathFor(tempDir));
+
+        // Assert
+        assertThat(loaded).isNotNull();
+        assertThat(loaded.getAnalysis().getProjectType()).isEqualTo(ProjectAnalysisService.ProjectType.SPRING_BOOT);
+        assertThat(ProjectAnalysisSnapshot.signature(loaded.getAnalysis()))
+                .isEqualTo(ProjectAnalysisSnapshot.signature(analysis));
+    }
+
+    private void writePom(String version) throws Exception {
+        Files.writeString(tempDir.resolve("pom.xml"), """
+                <project><dependencies><dependency>
+                <groupId>org.springframework.boot</groupId><artifactId>spring-boot</artifactId><version>%s</version>
+                </dependency></dependencies></project>
+                """.formatted(version));
+    }
+}
@@ -0,0 +1,108 @@
+package sg.edu.nus.iss.codebase.indexer.service;
+
+import io.qdrant.client.QdrantClient;
+import io.qdrant.client.grpc.Points.Filter;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.test.util.ReflectionTestUtils;
+import sg.edu.nus.iss.codebase.indexer.config.DynamicVectorStoreFactory;
+import sg.edu.nus.iss.codebase.indexer.model.EmbeddingPriority;
+import sg.edu.nus.iss.codebase.indexer.service.impl.EmbeddingScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProjectAnalysisStoreTest {
+
+    @Test
+    void createProjectAnalysisDocument_ShouldEmbedAtBulkPriority() {
+        // Arrange
+        VectorStore store = mock(VectorStore.class);
+        DynamicVectorStoreFactory factory = mock(DynamicVectorStoreFactory.class);
+        when(factory.createVectorStore("codebase-index")).thenReturn(store);
+        List<EmbeddingPriority> priorities = new ArrayList<>();
+        doAnswer(invocation -> priorities.add(EmbeddingScheduler.currentPriority())).when(store).add(anyList());
+
+        IndexingService service = new IndexingService();
+        ReflectionTestUtils.setField(service, "vectorStoreFactory", factory);
+        ReflectionTestUtils.setField(service, "qdrantClient", mock(QdrantClient.class));
+
+        ProjectAnalysisService.ProjectAnalysis analysis = new ProjectAnalysisService.ProjectAnalysis("/repo");
+        analysis.setProjectType(ProjectAnalysisService.ProjectType.JAVA_MAVEN);
+        analysis.addDependency(new ProjectAnalysisService.Dependency("spring-boot-starter-web", "3.5.3", "java"));
+
+        // Act
+        ReflectionTestUtils.invokeMethod(service, "createProjectAnalysisDocument", analysis, "codebase-index");
+
+        // Assert
+        assertThat(priorities).containsExactly(EmbeddingPriority.BULK);
+        assertThat(EmbeddingScheduler.currentPriority()).isEqualTo(EmbeddingPriority.INTERACTIVE);
+    }
+
+    @Test
+    void createProjectAnalysisDocument_ShouldUpsertBeforeRemovingStaleDocuments() {
+        // Arrange
+        VectorStore store = mock(VectorStore.class);
+        QdrantClient qdrantClient = mock(QdrantClient.class);
+        IndexingService service = serviceWith(store, qdrantClient);
+        List<List<Document>> stored = new ArrayList<>();
+        doAnswer(invocation -> stored.add(invocation.getArgument(0))).when(store).add(anyList());
+
+        // Act
+        ReflectionTestUtils.invokeMethod(service, "createProjectAnalysisDocument", analysis(), "codebase-index");
+        ReflectionTestUtils.invokeMethod(service, "createProjectAnalysisDocument", analysis(), "codebase-index");
+
+        // Assert
+        InOrder order = inOrder(store, qdrantClient);
+        order.verify(store).add(anyList());
+        order.verify(qdrantClient).deleteAsync(anyString(), any(Filter.class));
+        assertThat(stored).hasSize(2);
+        assertThat(stored.get(1)).extracting(Document::getId)
+            .containsExactlyElementsOf(stored.get(0).stream().map(Document::getId).toList());
+    }
+
+    @Test
+    void createProjectAnalysisDocument_ShouldKeepPreviousDocumentsWhenStoreFails() {
+        // Arrange
+        VectorStore store = mock(VectorStore.class);
+        QdrantClient qdrantClient = mock(QdrantClient.class);
+        IndexingService service = serviceWith(store, qdrantClient);
+        doThrow(new RuntimeException("Ollama unavailable")).when(store).add(anyList());
+
+        // Act
+        ReflectionTestUtils.invokeMethod(service, "createProjectAnalysisDocument", analysis(), "codebase-index");
+
+        // Assert
+        verify(qdrantClient, never()).deleteAsync(anyString(), any(Filter.class));
+    }
+
+    private IndexingService serviceWith(VectorStore store, QdrantClient qdrantClient) {
+        DynamicVectorStoreFactory factory = mock(DynamicVectorStoreFactory.class);
+        when(factory.createVectorStore("codebase-index")).thenReturn(store);
+        IndexingService service = new IndexingService();
+        ReflectionTestUtils.setField(service, "vectorStoreFactory", factory);
+        ReflectionTestUtils.setField(service, "qdrantClient", qdrantClient);
+        return service;
+    }
+
+    private ProjectAnalysisService.ProjectAnalysis analysis() {
+        ProjectAnalysisService.ProjectAnalysis analysis = new ProjectAnalysisService.ProjectAnalysis("/repo");
+        analysis.setProjectType(ProjectAnalysisService.ProjectType.JAVA_MAVEN);
+        analysis.addDependency(new ProjectAnalysisService.Dependency("spring-boot-starter-web", "3.5.3", "java"));
+        return analysis;
+    }
+}
@@ -0,0 +1,103 @@
+package sg.edu.nus.iss.codebase.indexer.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectScanTest {
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        write("pom.xml", """
+                <project>
+                  <dependencies>
+                    <dependency>
+                      <groupId>org.springframework.boot</groupId>
+                      <artifactId>spring-boot-starter-web</artifactId>
+                    </dependency>
+                  </dependencies>
+                </project>
+                """);
+        write("src/main/java/demo/UserController.java", """
+                package demo;
+                import org.springframework.web.bind.annotation.RestController;
+                @RestController
+                public class UserController {}
+                """);
+        write("scripts/report.py", """
+                import os
+                import pandas as pd
+                from requests.adapters import HTTPAdapter
+                """);
+        write("node_modules/left-pad/index.js", "import express from 'express';\n");
+    }
+
+    @Test
+    void of_ShouldCollectManifestsImportsAndPatternsInOnePass() throws Exception {
+        // Act
+        ProjectScan scan = ProjectScan.of(tempDir, null);
+
+        // Assert
+        assertThat(scan.manifest("pom.xml")).contains("spring-boot-starter-web");
+        assertThat(scan.imports("python")).containsExactlyInAnyOrder("pandas", "requests");
+        assertThat(scan.getPatternIndicators()).contains("Spring MVC");
+        assertThat(scan.patternSamples())
+                .contains("File: UserController.java")
+                .contains("@RestController")
+                .doesNotContain("express");
+        assertThat(scan.getShallowFileNames()).contains("pom.xml");
+        assertThat(scan.getShallowDirectoryNames()).contains("src", "main", "scripts").doesNotContain("node_modules");
+        assertThat(scan.getFiles()).noneMatch(file -> file.startsWith("node_modules"));
+    }
+
+    @Test
+    void of_ShouldUseKnownFilesInsteadOfWalking() throws Exception {
+        // Arrange: a listing without the Python script
+        List<Path> knownFiles;
+        try (Stream<Path> paths = Files.walk(tempDir)) {
+            knownFiles = paths.filter(Files::isRegularFile)
+                    .filter(path -> !path.toString().endsWith(".py"))
+                    .toList();
+        }
+
+        // Act
+        ProjectScan scan = ProjectScan.of(tempDir, knownFiles);
+
+        // Assert
+        assertThat(scan.manifest("pom.xml")).isNotNull();
+        assertThat(scan.imports("python")).isEmpty();
+        assertThat(scan.getFiles()).hasSize(2);
+    }
+
+    @Test
+    void analyzeProject_ShouldDetectTypeAndDependenciesFromTheScan() throws Exception {
+        // Arrange
+        ProjectAnalysisService service = new ProjectAnalysisService();
+
+        // Act
+        ProjectAnalysisService.ProjectAnalysis analysis = service.analyzeProject(tempDir, true);
+
+        // Assert
+        assertThat(analysis.getProjectType()).isEqualTo(ProjectAnalysisService.ProjectType.SPRING_BOOT);
+        assertThat(analysis.getDependencies())
+                .extracting(ProjectAnalysisService.Dependency::getName)
+                .contains("org.springframework.boot:spring-boot-starter-web");
+        assertThat(analysis.getFrameworks()).contains("Spring MVC");
+    }
+
+    private void write(String relative, String content) throws Exception {
+        Path file = tempDir.resolve(relative);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+}
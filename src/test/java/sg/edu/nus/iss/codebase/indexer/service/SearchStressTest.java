@@ -236,6 +236,7 @@ class SearchStressTest {
 
         // Setup vector store factory
         lenient().when(vectorStoreFactory.createVectorStore(anyString())).thenReturn(vectorStore);
+        lenient().when(vectorStoreFactory.createSearchVectorStore(anyString())).thenReturn(vectorStore);
 
         // Setup vector store behavior with realistic response times
         lenient().when(vectorStore.similaritySearch(any(SearchRequest.class)))
@@ -95,7 +95,7 @@ class ValidateSqlSearchTest {
         lenient().when(indexingService.getCurrentIndexingDirectory()).thenReturn("codebase/dssi-day3-ollama");
         lenient().when(indexingService.isIndexingComplete()).thenReturn(true);
 
-        when(vectorStoreFactory.createVectorStore("codebase-index-dssi-day3-ollama")).thenReturn(vectorStore);
+        when(vectorStoreFactory.createSearchVectorStore("codebase-index-dssi-day3-ollama")).thenReturn(vectorStore);
         when(vectorStore.similaritySearch("validate-sql endpoint")).thenReturn(List.of(mockDocument));
         when(fileSearchService.searchInFiles("validate-sql endpoint")).thenReturn(List.of(mockFileResult));
         when(chatModel.call(anyString())).thenReturn("Found validate-sql endpoint in app.py");
@@ -0,0 +1,122 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BackgroundIndexingProfileTest {
+
+    private BackgroundIndexingProfile profile;
+
+    @AfterEach
+    void tearDown() {
+        if (profile != null) {
+            profile.shutdown();
+        }
+    }
+
+    @Test
+    void runCpuBound_ShouldRunInlineWhenDisabledAndOnPoolWhenEnabled() throws Exception {
+        // Arrange
+        profile = createProfile(false, 0.0);
+        String caller = Thread.currentThread().getName();
+
+        // Act
+        String inline = profile.runCpuBound(() -> Thread.currentThread().getName());
+        profile.setEnabled(true);
+        String pooled = profile.runCpuBound(() -> Thread.currentThread().getName());
+
+        // Assert
+        assertThat(inline).isEqualTo(caller);
+        assertThat(pooled).startsWith("background-indexing-");
+    }
+
+    @Test
+    void acquireEmbeddings_ShouldPaceToConfiguredRate() throws Exception {
+        // Arrange - 50 documents per second with a one second burst
+        profile = createProfile(true, 0.0);
+
+        // Act
+        long start = System.nanoTime();
+        profile.acquireEmbeddings(50); // burst credit
+        profile.acquireEmbeddings(50);
+        profile.acquireEmbeddings(25);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert - the last call waits until the first two batches are paid for
+        assertThat(elapsedMs).isBetween(800L, 3000L);
+    }
+
+    @Test
+    void awaitTurn_ShouldYieldWhileSearchIsActive() throws Exception {
+        // Arrange
+        profile = createProfile(true, 0.0);
+        profile.beginSearch();
+
+        // Act
+        CompletableFuture<Void> indexing = CompletableFuture.runAsync(() -> {
+            try {
+                profile.awaitTurn();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Assert
+        Thread.sleep(400);
+        assertThat(indexing.isDone()).isFalse();
+        assertThat(profile.getYieldReason()).isEqualTo("search in progress");
+
+        profile.endSearch();
+        indexing.get(5, TimeUnit.SECONDS);
+        assertThat(profile.getYieldReason()).isNull();
+        assertThat(profile.getYieldCount()).isEqualTo(1);
+    }
+
+    @Test
+    void awaitTurn_ShouldYieldUnderHighLoadOnlyWhenEnabled() throws Exception {
+        // Arrange
+        AtomicReference<Double> load = new AtomicReference<>(2.0);
+        IndexingConfiguration config = createConfig(false);
+        profile = new BackgroundIndexingProfile(config, load::get);
+
+        // Act & Assert - disabled profile never waits
+        profile.awaitTurn();
+        assertThat(profile.getYieldCount()).isZero();
+
+        profile.setEnabled(true);
+        CompletableFuture<Void> indexing = CompletableFuture.runAsync(() -> {
+            try {
+                profile.awaitTurn();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(400);
+        assertThat(indexing.isDone()).isFalse();
+        assertThat(profile.getYieldReason()).startsWith("system load");
+
+        load.set(0.1);
+        indexing.get(5, TimeUnit.SECONDS);
+        assertThat(profile.getYieldedMillis()).isGreaterThanOrEqualTo(250);
+    }
+
+    private BackgroundIndexingProfile createProfile(boolean enabled, double load) {
+        return new BackgroundIndexingProfile(createConfig(enabled), () -> load);
+    }
+
+    private IndexingConfiguration createConfig(boolean enabled) {
+        IndexingConfiguration config = new IndexingConfiguration();
+        config.getBackground().setEnabled(enabled);
+        config.getBackground().setCpuThreads(1);
+        config.getBackground().setEmbeddingsPerSecond(50);
+        config.getBackground().setSearchQuietMs(0);
+        return config;
+    }
+}
@@ -0,0 +1,148 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import com.google.common.util.concurrent.Futures;
+import io.qdrant.client.QdrantClient;
+import io.qdrant.client.grpc.Points.PointStruct;
+import io.qdrant.client.grpc.Points.UpdateResult;
+import io.qdrant.client.grpc.Points.UpsertPoints;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.qdrant.QdrantVectorStore;
+import sg.edu.nus.iss.codebase.indexer.config.UnacknowledgedUpsertClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Ingest throughput of the per-file acknowledged path against bulk-load sessions, through
+ * Spring AI's Qdrant store and a Qdrant stand-in with a latency model: every request pays a
+ * round trip, and an acknowledged upsert also waits for its points to be applied and inserted
+ * into the HNSW graph. Unacknowledged upserts return once accepted; the graph is built once
+ * after the load, which this measures separately rather than as ingest time. Embeddings are
+ * free here so only the write path is compared.
+ */
+@Tag("benchmark")
+class BulkLoadBenchmarkTest {
+
+    private static final int FILES = 400;
+    private static final int CHUNKS_PER_FILE = 6;
+    private static final int THREADS = 8;
+    private static final long ROUND_TRIP_NANOS = 1_500_000;
+    private static final long APPLY_NANOS_PER_POINT = 20_000;
+    private static final long INDEX_NANOS_PER_POINT = 150_000;
+
+    @Test
+    void bulkLoad_ShouldStoreEveryFileInFewerRoundTrips() throws Exception {
+        StandIn current = new StandIn();
+        VectorStore acknowledged = QdrantVectorStore.builder(current.client, embeddingModel())
+                .collectionName("bench").build();
+        double currentRate = ingest(file -> acknowledged.add(file), () -> { });
+
+        StandIn bulk = new StandIn();
+        VectorStore unacknowledged = QdrantVectorStore.builder(new UnacknowledgedUpsertClient(bulk.client),
+                embeddingModel()).collectionName("bench").build();
+        BulkLoader.Session session = new BulkLoader.Session("bench", unacknowledged, 512);
+        AtomicInteger stored = new AtomicInteger();
+        double bulkRate = ingest(file -> session.add(file, stored::incrementAndGet), session::flush);
+
+        System.out.println("📊 Bulk-load benchmark: " + FILES + " files × " + CHUNKS_PER_FILE + " chunks, "
+                + THREADS + " writer threads");
+        System.out.printf("   Current path: %7.0f chunks/s, %d upserts (all acknowledged)%n",
+                currentRate, current.upserts.get());
+        System.out.printf("   Bulk load:    %7.0f chunks/s, %d upserts, HNSW built once afterwards (~%d ms)%n",
+                bulkRate, bulk.upserts.get(), bulk.points.get() * INDEX_NANOS_PER_POINT / 1_000_000 / THREADS);
+
+        assertThat(stored.get()).isEqualTo(FILES);
+        assertThat(bulk.points.get()).isEqualTo(current.points.get());
+        assertThat(bulk.upserts.get()).isLessThan(current.upserts.get() / 50);
+    }
+
+    private double ingest(FileWriter writer, Runnable finish) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int f = 0; f < FILES; f++) {
+                List<Document> chunks = new ArrayList<>();
+                for (int c = 0; c < CHUNKS_PER_FILE; c++) {
+                    chunks.add(new Document("file " + f + " chunk " + c));
+                }
+                futures.add(executor.submit(() -> writer.write(chunks)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            finish.run();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            return FILES * CHUNKS_PER_FILE / seconds;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private interface FileWriter {
+        void write(List<Document> chunks);
+    }
+
+    private static EmbeddingModel embeddingModel() {
+        EmbeddingModel model = mock(EmbeddingModel.class);
+        lenient().when(model.embed(anyList(), any(), any())).thenAnswer(invocation -> {
+            List<?> documents = invocation.getArgument(0);
+            List<float[]> embeddings = new ArrayList<>();
+            for (int i = 0; i < documents.size(); i++) {
+                embeddings.add(new float[] { i, 1f });
+            }
+            return embeddings;
+        });
+        return model;
+    }
+
+    /**
+     * Qdrant client whose upserts take as long as the latency model says
+     */
+    private static class StandIn {
+        private final QdrantClient client = mock(QdrantClient.class);
+        private final AtomicInteger upserts = new AtomicInteger();
+        private final AtomicLong points = new AtomicLong();
+
+        @SuppressWarnings("unchecked")
+        StandIn() {
+            lenient().when(client.upsertAsync(anyString(), anyList())).thenAnswer(invocation -> {
+                List<PointStruct> batch = invocation.getArgument(1);
+                return upsert(batch.size(), true);
+            });
+            lenient().when(client.upsertAsync(any(UpsertPoints.class), (Duration) any())).thenAnswer(invocation -> {
+                UpsertPoints request = invocation.getArgument(0);
+                return upsert(request.getPointsCount(), request.getWait());
+            });
+        }
+
+        private Object upsert(int count, boolean wait) {
+            upserts.incrementAndGet();
+            points.addAndGet(count);
+            long nanos = ROUND_TRIP_NANOS;
+            if (wait) {
+                nanos += count * (APPLY_NANOS_PER_POINT + INDEX_NANOS_PER_POINT);
+            }
+            LockSupport.parkNanos(nanos);
+            return Futures.immediateFuture(UpdateResult.getDefaultInstance());
+        }
+    }
+}
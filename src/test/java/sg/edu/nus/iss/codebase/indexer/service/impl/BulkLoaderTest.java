@@ -0,0 +1,185 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import com.google.common.util.concurrent.Futures;
+import io.qdrant.client.QdrantClient;
+import io.qdrant.client.grpc.Collections.CollectionConfig;
+import io.qdrant.client.grpc.Collections.CollectionInfo;
+import io.qdrant.client.grpc.Collections.CollectionOperationResponse;
+import io.qdrant.client.grpc.Collections.CollectionStatus;
+import io.qdrant.client.grpc.Collections.OptimizersConfigDiff;
+import io.qdrant.client.grpc.Collections.UpdateCollection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.VectorStore;
+import sg.edu.nus.iss.codebase.indexer.config.DynamicVectorStoreFactory;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BulkLoaderTest {
+
+    private static final String COLLECTION = "codebase-index-project";
+
+    @Mock
+    private QdrantClient qdrantClient;
+
+    @Mock
+    private DynamicVectorStoreFactory vectorStoreFactory;
+
+    @Mock
+    private VectorStore vectorStore;
+
+    private BulkLoader bulkLoader;
+
+    @BeforeEach
+    void setUp() {
+        IndexingConfiguration config = new IndexingConfiguration();
+        config.getBulkLoad().setBatchDocuments(4);
+        config.getCollection().setIndexingThreshold(10000);
+        bulkLoader = new BulkLoader(qdrantClient, vectorStoreFactory, config, new IndexingMetrics(config),
+                new MemoryGovernor(config));
+
+        lenient().when(vectorStoreFactory.createUnacknowledgedVectorStore(COLLECTION)).thenReturn(vectorStore);
+        lenient().when(qdrantClient.updateCollectionAsync(any(UpdateCollection.class)))
+                .thenReturn(Futures.immediateFuture(CollectionOperationResponse.getDefaultInstance()));
+    }
+
+    @Test
+    void begin_ShouldPauseIndexingOnlyForAnEmptyCollection() {
+        // Arrange
+        lenient().when(qdrantClient.countAsync(COLLECTION)).thenReturn(Futures.immediateFuture(0L));
+        lenient().when(qdrantClient.countAsync("populated")).thenReturn(Futures.immediateFuture(120L));
+        lenient().when(qdrantClient.getCollectionInfoAsync("populated"))
+                .thenReturn(Futures.immediateFuture(withIndexingThreshold(10000)));
+
+        // Act
+        BulkLoader.Session session = bulkLoader.begin(COLLECTION);
+        BulkLoader.Session skipped = bulkLoader.begin("populated");
+
+        // Assert
+        assertThat(session).isNotNull();
+        assertThat(skipped).isNull();
+        assertThat(capturedThresholds()).containsExactly(0L);
+    }
+
+    @Test
+    void begin_ShouldRestoreIndexingLeftPausedByAnUnfinishedBulkLoad() {
+        // Arrange
+        lenient().when(qdrantClient.countAsync(COLLECTION)).thenReturn(Futures.immediateFuture(5000L));
+        lenient().when(qdrantClient.getCollectionInfoAsync(COLLECTION))
+                .thenReturn(Futures.immediateFuture(withIndexingThreshold(0)));
+
+        // Act
+        BulkLoader.Session session = bulkLoader.begin(COLLECTION);
+
+        // Assert
+        assertThat(session).isNull();
+        assertThat(capturedThresholds()).containsExactly(10000L);
+    }
+
+    @Test
+    void session_ShouldReportFilesStoredOnlyOnceTheirBatchIsWritten() {
+        // Arrange
+        BulkLoader.Session session = new BulkLoader.Session(COLLECTION, vectorStore, 4);
+        List<String> stored = new ArrayList<>();
+
+        // Act
+        session.add(documents(3), () -> stored.add("A.java"));
+        List<String> beforeBatchFull = new ArrayList<>(stored);
+        session.add(documents(2), () -> stored.add("B.java"));
+        session.add(documents(1), () -> stored.add("C.java"));
+        List<String> beforeFlush = new ArrayList<>(stored);
+        session.flush();
+
+        // Assert
+        assertThat(beforeBatchFull).isEmpty();
+        assertThat(beforeFlush).containsExactly("A.java", "B.java");
+        assertThat(stored).containsExactly("A.java", "B.java", "C.java");
+        assertThat(session.getUpserts()).isEqualTo(2);
+        assertThat(session.getDocuments()).isEqualTo(6);
+        verify(vectorStore, times(2)).add(anyList());
+    }
+
+    @Test
+    void session_ShouldStoreTheFilesOfAFailedBatchOneByOne() throws Exception {
+        // Arrange
+        MemoryGovernor governor = new MemoryGovernor(new IndexingConfiguration());
+        BulkLoader.Session session = new BulkLoader.Session(COLLECTION, vectorStore, 4);
+        List<String> stored = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        doThrow(new IllegalStateException("batch rejected")).doNothing()
+                .doThrow(new IllegalStateException("bad chunk")).when(vectorStore).add(anyList());
+
+        // Act
+        session.add(documents(2), governor.reserve(1000).transfer(),
+                () -> stored.add("A.java"), () -> failed.add("A.java"));
+        session.add(documents(2), governor.reserve(1000).transfer(),
+                () -> stored.add("B.java"), () -> failed.add("B.java"));
+
+        // Assert
+        assertThat(stored).containsExactly("A.java");
+        assertThat(failed).containsExactly("B.java");
+        assertThat(session.getBuffered()).isZero();
+        assertThat(governor.getInFlightBytes()).isZero();
+        verify(vectorStore, times(3)).add(anyList());
+        governor.shutdown();
+    }
+
+    @Test
+    void finish_ShouldRestoreThresholdAndWaitForTheIndexToBeBuilt() {
+        // Arrange
+        BulkLoader.Session session = new BulkLoader.Session(COLLECTION, vectorStore, 4);
+        lenient().when(qdrantClient.getCollectionInfoAsync(COLLECTION)).thenReturn(
+                Futures.immediateFuture(CollectionInfo.newBuilder().setStatus(CollectionStatus.Yellow).build()),
+                Futures.immediateFuture(CollectionInfo.newBuilder().setStatus(CollectionStatus.Green)
+                        .setPointsCount(6).build()));
+
+        // Act
+        bulkLoader.finish(session);
+
+        // Assert
+        assertThat(capturedThresholds()).containsExactly(10000L);
+        verify(qdrantClient, times(2)).getCollectionInfoAsync(COLLECTION);
+        verify(vectorStore, never()).add(anyList());
+    }
+
+    private List<Long> capturedThresholds() {
+        ArgumentCaptor<UpdateCollection> captor = ArgumentCaptor.forClass(UpdateCollection.class);
+        verify(qdrantClient, atLeastOnce()).updateCollectionAsync(captor.capture());
+        return captor.getAllValues().stream()
+                .map(update -> update.getOptimizersConfig().getIndexingThreshold())
+                .toList();
+    }
+
+    private static CollectionInfo withIndexingThreshold(long threshold) {
+        return CollectionInfo.newBuilder()
+                .setConfig(CollectionConfig.newBuilder()
+                        .setOptimizerConfig(OptimizersConfigDiff.newBuilder().setIndexingThreshold(threshold)))
+                .build();
+    }
+
+    private static List<Document> documents(int count) {
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            documents.add(new Document("chunk " + i));
+        }
+        return documents;
+    }
+}
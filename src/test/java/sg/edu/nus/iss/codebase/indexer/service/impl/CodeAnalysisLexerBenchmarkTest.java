@@ -0,0 +1,107 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.model.FileContent;
+import sg.edu.nus.iss.codebase.indexer.service.CodeAnalysisService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares lines/sec of the single-pass lexer analysis with the per-line analyzers over the files
+ * of test-codebase both can read, or generated files when it is not available.
+ */
+@Tag("benchmark")
+class CodeAnalysisLexerBenchmarkTest {
+
+    private static final int ROUNDS = 5;
+
+    @TempDir
+    Path tempDir;
+
+    private CodeAnalysisService lexerAnalysis;
+    private CodeAnalysisService legacyAnalysis;
+    private List<FileContent> files;
+    private long lines;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        lexerAnalysis = new CodeAnalysisService();
+        legacyAnalysis = new CodeAnalysisService();
+        IndexingConfiguration legacyConfig = new IndexingConfiguration();
+        legacyConfig.getProcessing().setLexerAnalysis(false);
+        ReflectionTestUtils.setField(legacyAnalysis, "config", legacyConfig);
+
+        files = collectFiles();
+        lines = files.stream().mapToLong(file -> file.getLines().length).sum();
+    }
+
+    @Test
+    void lexerAnalysis_ShouldMeasureLinesPerSecondAgainstLegacyAnalyzers() {
+        // Warm up both paths so JIT state does not skew the comparison
+        int legacyElements = run(legacyAnalysis);
+        int lexerElements = run(lexerAnalysis);
+
+        long legacyNanos = Long.MAX_VALUE;
+        long lexerNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            run(legacyAnalysis);
+            legacyNanos = Math.min(legacyNanos, System.nanoTime() - start);
+            start = System.nanoTime();
+            run(lexerAnalysis);
+            lexerNanos = Math.min(lexerNanos, System.nanoTime() - start);
+        }
+
+        System.out.println("📊 Code analysis benchmark over " + files.size() + " files, " + lines + " lines");
+        System.out.printf("   Legacy: %,.0f lines/sec, %d elements%n", lines / (legacyNanos / 1e9), legacyElements);
+        System.out.printf("   Lexer:  %,.0f lines/sec, %d elements%n", lines / (lexerNanos / 1e9), lexerElements);
+
+        assertThat(files).isNotEmpty();
+        assertThat(lexerElements).isPositive();
+    }
+
+    private int run(CodeAnalysisService service) {
+        int elements = 0;
+        for (FileContent file : files) {
+            CodeAnalysisService.FileAnalysis analysis = service.analyzeFile(file);
+            elements += analysis.getRestApiEndpoints().size() + analysis.getFunctions().size() + analysis.getClasses().size();
+        }
+        return elements;
+    }
+
+    private List<FileContent> collectFiles() throws IOException {
+        Path testCodebase = Paths.get("test-codebase");
+        List<FileContent> result = new ArrayList<>();
+        if (Files.isDirectory(testCodebase)) {
+            try (Stream<Path> paths = Files.walk(testCodebase)) {
+                for (Path path : paths.filter(Files::isRegularFile)
+                        .filter(path -> SourceLexer.Language.forFileName(path.getFileName().toString()) != null)
+                        .filter(path -> path.toFile().length() < 1024 * 1024)
+                        .toList()) {
+                    result.add(FileContent.read(path));
+                }
+            }
+        }
+        if (result.isEmpty()) {
+            for (int i = 0; i < 50; i++) {
+                Path file = tempDir.resolve("Generated" + i + ".java");
+                Files.writeString(file, ("public class Generated" + i + " {\n    public void run() {}\n}\n").repeat(20));
+                result.add(FileContent.read(file));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,65 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColdFileRegistryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ColdFileRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ColdFileRegistry();
+    }
+
+    @Test
+    void claim_ShouldRemoveFileExactlyOnce() {
+        // Arrange
+        File file = tempDir.resolve("UserService.java").toFile();
+        registry.register(file);
+
+        // Act
+        File first = registry.claim(file.getAbsolutePath());
+        File second = registry.claim(file.getAbsolutePath());
+
+        // Assert
+        assertThat(first).isEqualTo(file.getAbsoluteFile());
+        assertThat(second).isNull();
+        assertThat(registry.isCold(file.getAbsolutePath())).isFalse();
+        assertThat(registry.size()).isZero();
+    }
+
+    @Test
+    void findSimilar_ShouldRankSiblingsAndSharedTokensFirst() {
+        // Arrange
+        File demanded = tempDir.resolve("user/UserService.java").toFile();
+        File sibling = tempDir.resolve("user/UserRepository.java").toFile();
+        File related = tempDir.resolve("account/UserMapper.java").toFile();
+        File unrelated = tempDir.resolve("billing/InvoiceJob.py").toFile();
+        registry.register(sibling);
+        registry.register(related);
+        registry.register(unrelated);
+
+        // Act
+        List<File> similar = registry.findSimilar(demanded.getAbsolutePath(), 2);
+
+        // Assert
+        assertThat(similar).containsExactly(sibling.getAbsoluteFile(), related.getAbsoluteFile());
+    }
+
+    @Test
+    void tokenize_ShouldSplitCamelCaseAndSeparators() {
+        assertThat(ColdFileRegistry.tokenize("src/main/UserAccountService.java"))
+            .contains("src", "main", "user", "account", "service", "java");
+    }
+}
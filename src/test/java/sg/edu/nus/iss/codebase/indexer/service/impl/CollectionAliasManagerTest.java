@@ -0,0 +1,209 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import com.google.common.util.concurrent.Futures;
+import io.qdrant.client.QdrantClient;
+import io.qdrant.client.grpc.Collections.AliasDescription;
+import io.qdrant.client.grpc.Collections.AliasOperations;
+import io.qdrant.client.grpc.Collections.CollectionInfo;
+import io.qdrant.client.grpc.Collections.CollectionOperationResponse;
+import io.qdrant.client.grpc.Collections.CreateCollection;
+import io.qdrant.client.grpc.Collections.PayloadSchemaInfo;
+import io.qdrant.client.grpc.Collections.PayloadSchemaType;
+import io.qdrant.client.grpc.Collections.QuantizationType;
+import io.qdrant.client.grpc.Points.UpdateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.embedding.EmbeddingModel;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class CollectionAliasManagerTest {
+
+    private static final String ALIAS = "codebase-index-project";
+
+    @Mock
+    private QdrantClient qdrantClient;
+
+    private CollectionAliasManager manager;
+
+    @BeforeEach
+    void setUp() {
+        IndexingConfiguration config = new IndexingConfiguration();
+        config.getBlueGreen().setGcDelaySeconds(0);
+        EmbeddingModel embeddingModel = mock(EmbeddingModel.class);
+        lenient().when(embeddingModel.dimensions()).thenReturn(768);
+        manager = new CollectionAliasManager(qdrantClient, config,
+                new DimensionReducer(qdrantClient, embeddingModel, config));
+
+        CollectionOperationResponse ok = CollectionOperationResponse.newBuilder().setResult(true).build();
+        lenient().when(qdrantClient.updateAliasesAsync(anyList())).thenReturn(Futures.immediateFuture(ok));
+        lenient().when(qdrantClient.deleteCollectionAsync(anyString())).thenReturn(Futures.immediateFuture(ok));
+        lenient().when(qdrantClient.createCollectionAsync(any())).thenReturn(Futures.immediateFuture(ok));
+        lenient().when(qdrantClient.createPayloadIndexAsync(anyString(), anyString(), any(), isNull(), eq(true),
+                isNull(), isNull())).thenReturn(Futures.immediateFuture(UpdateResult.getDefaultInstance()));
+    }
+
+    @Test
+    void promote_ShouldSwapAliasInOneUpdate() throws Exception {
+        // Arrange
+        aliasPointsTo(ALIAS + "-gen-20250101000000");
+        lenient().when(qdrantClient.countAsync(ALIAS + "-gen-20250102000000")).thenReturn(Futures.immediateFuture(950L));
+        lenient().when(qdrantClient.countAsync(ALIAS)).thenReturn(Futures.immediateFuture(1000L));
+
+        // Act
+        manager.promote(ALIAS, ALIAS + "-gen-20250102000000");
+
+        // Assert
+        List<AliasOperations> operations = capturedAliasUpdate();
+        assertThat(operations).hasSize(2);
+        assertThat(operations.get(0).getDeleteAlias().getAliasName()).isEqualTo(ALIAS);
+        assertThat(operations.get(1).getCreateAlias().getCollectionName()).isEqualTo(ALIAS + "-gen-20250102000000");
+    }
+
+    @Test
+    void promote_ShouldKeepLiveCollectionWhenShadowIsTooSmall() {
+        // Arrange
+        aliasPointsTo(ALIAS + "-gen-20250101000000");
+        lenient().when(qdrantClient.countAsync(ALIAS + "-gen-20250102000000")).thenReturn(Futures.immediateFuture(10L));
+        lenient().when(qdrantClient.countAsync(ALIAS)).thenReturn(Futures.immediateFuture(1000L));
+
+        // Act & Assert
+        assertThatThrownBy(() -> manager.promote(ALIAS, ALIAS + "-gen-20250102000000"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("10 points against 1000 live");
+        verify(qdrantClient, never()).updateAliasesAsync(anyList());
+    }
+
+    @Test
+    void promote_ShouldReplaceLegacyPhysicalCollectionBeforeCreatingAlias() throws Exception {
+        // Arrange
+        lenient().when(qdrantClient.listAliasesAsync()).thenReturn(Futures.immediateFuture(List.of()));
+        lenient().when(qdrantClient.collectionExistsAsync(ALIAS)).thenReturn(Futures.immediateFuture(true));
+        lenient().when(qdrantClient.countAsync(ALIAS + "-gen-20250102000000")).thenReturn(Futures.immediateFuture(800L));
+        lenient().when(qdrantClient.countAsync(ALIAS)).thenReturn(Futures.immediateFuture(1000L));
+
+        // Act
+        manager.promote(ALIAS, ALIAS + "-gen-20250102000000");
+
+        // Assert
+        var order = inOrder(qdrantClient);
+        order.verify(qdrantClient).deleteCollectionAsync(ALIAS);
+        order.verify(qdrantClient).updateAliasesAsync(anyList());
+        assertThat(capturedAliasUpdate()).singleElement()
+                .satisfies(operation -> assertThat(operation.getCreateAlias().getAliasName()).isEqualTo(ALIAS));
+    }
+
+    @Test
+    void createShadow_ShouldDropAbandonedGenerationsButKeepLiveOne() throws Exception {
+        // Arrange
+        aliasPointsTo(ALIAS + "-gen-20250101000000");
+        lenient().when(qdrantClient.listCollectionsAsync()).thenReturn(Futures.immediateFuture(List.of(
+                ALIAS + "-gen-20250101000000", ALIAS + "-gen-20250101120000", "other-collection")));
+
+        // Act
+        String shadow = manager.createShadow(ALIAS);
+
+        // Assert
+        assertThat(shadow).matches(ALIAS + "-gen-\\d{14}");
+        verify(qdrantClient).deleteCollectionAsync(ALIAS + "-gen-20250101120000");
+        verify(qdrantClient, never()).deleteCollectionAsync(ALIAS + "-gen-20250101000000");
+        verify(qdrantClient, never()).deleteCollectionAsync("other-collection");
+    }
+
+    @Test
+    void collectionSpec_ShouldApplyTheConfiguredProfile() {
+        // Arrange
+        IndexingConfiguration.CollectionProfileConfig profile = new IndexingConfiguration.CollectionProfileConfig();
+        profile.setHnswM(32);
+        profile.setHnswEfConstruct(256);
+        profile.setOnDiskVectors(true);
+        profile.setQuantization("scalar");
+        profile.setSegmentNumber(4);
+
+        // Act
+        CreateCollection spec = CollectionAliasManager.collectionSpec(ALIAS, 768, profile);
+
+        // Assert
+        assertThat(spec.getVectorsConfig().getParams().getSize()).isEqualTo(768);
+        assertThat(spec.getVectorsConfig().getParams().getOnDisk()).isTrue();
+        assertThat(spec.getHnswConfig().getM()).isEqualTo(32);
+        assertThat(spec.getHnswConfig().getEfConstruct()).isEqualTo(256);
+        assertThat(spec.getQuantizationConfig().getScalar().getType()).isEqualTo(QuantizationType.Int8);
+        assertThat(spec.getQuantizationConfig().getScalar().getAlwaysRam()).isTrue();
+        assertThat(spec.getOptimizersConfig().getDefaultSegmentNumber()).isEqualTo(4);
+        assertThat(spec.getOptimizersConfig().getIndexingThreshold()).isEqualTo(20000);
+    }
+
+    @Test
+    void createCollection_ShouldIndexEveryFilterField() throws Exception {
+        // Act
+        manager.createCollection(ALIAS + "-gen-20250102000000");
+
+        // Assert
+        String collection = ALIAS + "-gen-20250102000000";
+        verify(qdrantClient).createPayloadIndexAsync(collection, "filepath", PayloadSchemaType.Keyword, null, true, null, null);
+        verify(qdrantClient).createPayloadIndexAsync(collection, "documentType", PayloadSchemaType.Keyword, null, true, null, null);
+        verify(qdrantClient).createPayloadIndexAsync(collection, "priority", PayloadSchemaType.Integer, null, true, null, null);
+        verify(qdrantClient).createPayloadIndexAsync(collection, "lastModified", PayloadSchemaType.Datetime, null, true, null, null);
+        verify(qdrantClient, times(CollectionAliasManager.PAYLOAD_INDEXES.size()))
+                .createPayloadIndexAsync(eq(collection), anyString(), any(), isNull(), eq(true), isNull(), isNull());
+    }
+
+    @Test
+    void ensurePayloadIndexes_ShouldBackfillOnlyMissingIndexesOnce() {
+        // Arrange
+        CollectionInfo.Builder info = CollectionInfo.newBuilder();
+        CollectionAliasManager.PAYLOAD_INDEXES.forEach((field, type) -> {
+            if (!field.equals("lastModified") && !field.equals("size")) {
+                info.putPayloadSchema(field, PayloadSchemaInfo.newBuilder().setDataType(type).build());
+            }
+        });
+        lenient().when(qdrantClient.getCollectionInfoAsync(ALIAS)).thenReturn(Futures.immediateFuture(info.build()));
+
+        // Act
+        manager.ensurePayloadIndexes(ALIAS);
+        manager.ensurePayloadIndexes(ALIAS);
+
+        // Assert
+        verify(qdrantClient).getCollectionInfoAsync(ALIAS);
+        verify(qdrantClient).createPayloadIndexAsync(ALIAS, "size", PayloadSchemaType.Integer, null, true, null, null);
+        verify(qdrantClient).createPayloadIndexAsync(ALIAS, "lastModified", PayloadSchemaType.Datetime, null, true, null, null);
+        verify(qdrantClient, times(2))
+                .createPayloadIndexAsync(eq(ALIAS), anyString(), any(), isNull(), eq(true), isNull(), isNull());
+    }
+
+    private void aliasPointsTo(String collection) {
+        AliasDescription description = AliasDescription.newBuilder()
+                .setAliasName(ALIAS)
+                .setCollectionName(collection)
+                .build();
+        lenient().when(qdrantClient.listAliasesAsync()).thenReturn(Futures.immediateFuture(List.of(description)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<AliasOperations> capturedAliasUpdate() {
+        ArgumentCaptor<List<AliasOperations>> captor = ArgumentCaptor.forClass(List.class);
+        verify(qdrantClient).updateAliasesAsync(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,222 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import com.google.common.util.concurrent.Futures;
+import io.qdrant.client.PointIdFactory;
+import io.qdrant.client.QdrantClient;
+import io.qdrant.client.ValueFactory;
+import io.qdrant.client.grpc.JsonWithInt.Value;
+import io.qdrant.client.grpc.Points.PointId;
+import io.qdrant.client.grpc.Points.PointStruct;
+import io.qdrant.client.grpc.Points.RetrievedPoint;
+import io.qdrant.client.grpc.Points.ScrollPoints;
+import io.qdrant.client.grpc.Points.ScrollResponse;
+import io.qdrant.client.grpc.Points.UpdateResult;
+import io.qdrant.client.grpc.Points.VectorOutput;
+import io.qdrant.client.grpc.Points.VectorsOutput;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.embedding.EmbeddingModel;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class CollectionMigratorTest {
+
+    @Mock
+    private QdrantClient qdrantClient;
+
+    @TempDir
+    Path tempDir;
+
+    private CollectionMigrator migrator;
+
+    @BeforeEach
+    void setUp() {
+        IndexingConfiguration config = new IndexingConfiguration();
+        config.getMigration().setPageSize(2);
+        migrator = new CollectionMigrator(qdrantClient, new CollectionAliasManager(qdrantClient, config,
+                new DimensionReducer(qdrantClient, mock(EmbeddingModel.class), config)), config);
+
+        // Three pages: points 1-2, 3-4 and 5
+        stubPage(null, List.of(point(1), point(2)), PointIdFactory.id(3));
+        stubPage(PointIdFactory.id(3), List.of(point(3), point(4)), PointIdFactory.id(5));
+        stubPage(PointIdFactory.id(5), List.of(point(5)), null);
+        lenient().when(qdrantClient.upsertAsync(eq("target"), anyList()))
+                .thenReturn(Futures.immediateFuture(UpdateResult.getDefaultInstance()));
+    }
+
+    @Test
+    void copy_ShouldUpsertEveryPointWithItsVectorAndTransformedPayload() throws Exception {
+        // Arrange
+        CollectionMigrator.Checkpoint checkpoint = new CollectionMigrator.Checkpoint("source", "target", null, 0);
+
+        // Act
+        long copied = migrator.copy(checkpoint, payload -> {
+            Map<String, Value> transformed = new HashMap<>(payload);
+            transformed.put("migrated", ValueFactory.value(true));
+            return transformed;
+        }, tempDir.resolve("checkpoint.properties"));
+
+        // Assert
+        List<PointStruct> written = upserted(3);
+        assertThat(copied).isEqualTo(5);
+        assertThat(written).extracting(point -> point.getId().getNum()).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(written.get(3).getVectors().getVector().getDataList()).containsExactly(4f, 0.5f);
+        assertThat(written.get(3).getPayloadMap().get("filename").getStringValue()).isEqualTo("File4.java");
+        assertThat(written.get(3).getPayloadMap().get("migrated").getBoolValue()).isTrue();
+    }
+
+    @Test
+    void copy_ShouldResumeFromTheCheckpointedOffset() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("checkpoint.properties");
+        new CollectionMigrator.Checkpoint("source", "target", PointIdFactory.id(3), 2).save(file);
+        CollectionMigrator.Checkpoint resumed = CollectionMigrator.Checkpoint.load(file);
+
+        // Act
+        long copied = migrator.copy(resumed, payload -> payload, file);
+
+        // Assert
+        assertThat(copied).isEqualTo(5);
+        assertThat(upserted(2)).extracting(point -> point.getId().getNum()).containsExactly(3L, 4L, 5L);
+        verify(qdrantClient, never()).scrollAsync(argThat((ScrollPoints request) -> !request.hasOffset()));
+        assertThat(CollectionMigrator.Checkpoint.load(file)).isNotNull();
+    }
+
+    @Test
+    void copy_ShouldNotCopyAgainAfterTheLastPageWasCheckpointed() throws Exception {
+        // Arrange: a run that stopped after copying everything but before switching over
+        Path file = tempDir.resolve("checkpoint.properties");
+        migrator.copy(new CollectionMigrator.Checkpoint("source", "target", null, 0), payload -> payload, file);
+        CollectionMigrator.Checkpoint resumed = CollectionMigrator.Checkpoint.load(file);
+
+        // Act
+        long copied = migrator.copy(resumed, payload -> payload, file);
+
+        // Assert
+        assertThat(resumed.isComplete()).isTrue();
+        assertThat(copied).isEqualTo(5);
+        assertThat(upserted(3)).hasSize(5); // Only the first run wrote points
+        assertThat(CollectionMigrator.Checkpoint.load(file).isComplete()).isTrue();
+    }
+
+    @Test
+    void copy_ShouldDropPointsWhoseTransformReturnsNull() throws Exception {
+        // Arrange
+        CollectionMigrator.Checkpoint checkpoint = new CollectionMigrator.Checkpoint("source", "target", null, 0);
+
+        // Act
+        long copied = migrator.copy(checkpoint,
+                payload -> payload.get("filename").getStringValue().equals("File2.java") ? null : payload,
+                tempDir.resolve("checkpoint.properties"));
+
+        // Assert
+        assertThat(copied).isEqualTo(4);
+        assertThat(upserted(3)).extracting(point -> point.getId().getNum()).doesNotContain(2L);
+    }
+
+    @Test
+    void copy_ShouldKeepVectorsAnEarlierRunAlreadyReduced() throws Exception {
+        // Arrange: the stored vectors already have the projection's output size
+        CollectionMigrator.Checkpoint checkpoint = new CollectionMigrator.Checkpoint("source", "target", null, 0);
+        VectorProjection projection = VectorProjection.random(4, 2, 7);
+
+        // Act
+        long copied = migrator.copy(checkpoint, payload -> payload, projection, tempDir.resolve("checkpoint.properties"));
+
+        // Assert
+        assertThat(copied).isEqualTo(5);
+        assertThat(upserted(3).get(3).getVectors().getVector().getDataList()).containsExactly(4f, 0.5f);
+    }
+
+    @Test
+    void nativeMetadataTypes_ShouldConvertLegacyStringMetadata() {
+        // Arrange
+        Map<String, Value> payload = new HashMap<>();
+        payload.put("filename", ValueFactory.value("App.java"));
+        payload.put("priority", ValueFactory.value("3"));
+        payload.put("size", ValueFactory.value("2048"));
+        payload.put("indexTier", ValueFactory.value("1"));
+        payload.put("lineNumber", ValueFactory.value("42"));
+        payload.put("lastModified", ValueFactory.value("1735689600000"));
+
+        // Act
+        Map<String, Value> upgraded = CollectionMigrator.nativeMetadataTypes().apply(payload);
+
+        // Assert
+        assertThat(upgraded.get("filename").getStringValue()).isEqualTo("App.java");
+        assertThat(upgraded.get("priority").getIntegerValue()).isEqualTo(3);
+        assertThat(upgraded.get("size").getIntegerValue()).isEqualTo(2048);
+        assertThat(upgraded.get("indexTier").getIntegerValue()).isEqualTo(1);
+        assertThat(upgraded.get("lineNumber").getIntegerValue()).isEqualTo(42);
+        assertThat(upgraded.get("lastModified").getStringValue()).isEqualTo("2025-01-01T00:00:00Z");
+        assertThat(CollectionMigrator.nativeMetadataTypes().apply(upgraded)).isEqualTo(upgraded);
+    }
+
+    @Test
+    void currentPayloadSchema_ShouldDropDuplicatedTextAndDerivedDate() {
+        // Arrange
+        Map<String, Value> payload = new HashMap<>();
+        payload.put("doc_content", ValueFactory.value("class App {}"));
+        payload.put("text", ValueFactory.value("class App {}"));
+        payload.put("lastModified", ValueFactory.value("1735689600000"));
+        payload.put("lastModifiedDate", ValueFactory.value("Wed Jan 01 00:00:00 UTC 2025"));
+        payload.put("chunk", ValueFactory.value("2"));
+
+        // Act
+        Map<String, Value> upgraded = CollectionMigrator.currentPayloadSchema().apply(payload);
+
+        // Assert
+        assertThat(upgraded).containsOnlyKeys("doc_content", "lastModified", "chunk");
+        assertThat(upgraded.get("doc_content").getStringValue()).isEqualTo("class App {}");
+        assertThat(upgraded.get("chunk").getIntegerValue()).isEqualTo(2);
+    }
+
+    private void stubPage(PointId offset, List<RetrievedPoint> points, PointId next) {
+        ScrollResponse.Builder response = ScrollResponse.newBuilder().addAllResult(points);
+        if (next != null) {
+            response.setNextPageOffset(next);
+        }
+        lenient().when(qdrantClient.scrollAsync(argThat((ScrollPoints request) -> request != null
+                && (offset == null ? !request.hasOffset() : offset.equals(request.getOffset())))))
+                .thenReturn(Futures.immediateFuture(response.build()));
+    }
+
+    private RetrievedPoint point(long id) {
+        return RetrievedPoint.newBuilder()
+                .setId(PointIdFactory.id(id))
+                .setVectors(VectorsOutput.newBuilder()
+                        .setVector(VectorOutput.newBuilder().addData(id).addData(0.5f)))
+                .putPayload("filename", ValueFactory.value("File" + id + ".java"))
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<PointStruct> upserted(int batches) {
+        ArgumentCaptor<List<PointStruct>> captor = ArgumentCaptor.forClass(List.class);
+        verify(qdrantClient, times(batches)).upsertAsync(eq("target"), captor.capture());
+        List<PointStruct> all = new ArrayList<>();
+        captor.getAllValues().forEach(all::addAll);
+        return all;
+    }
+}
@@ -0,0 +1,301 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares collection profiles on an in-memory stand-in for Qdrant: resident memory, p50/p99
+ * search latency and recall@10 against exact search, over clustered 768-dimensional vectors
+ * shaped like code embeddings. The stand-in scores every point, so latency reflects quantized
+ * scoring and rescoring rather than HNSW traversal; the graph is included in the memory figure
+ * as Qdrant sizes it (2·m links of 4 bytes per point on the base layer).
+ */
+@Tag("benchmark")
+class CollectionProfileBenchmarkTest {
+
+    private static final int DIMENSIONS = 768;
+    private static final int POINTS = 4000;
+    private static final int QUERIES = 200;
+    private static final int K = 10;
+
+    @Test
+    void quantizedProfiles_ShouldCutMemoryWhileKeepingRecallWithRescoring() {
+        Random random = new Random(42);
+        float[][] vectors = clusteredVectors(random, POINTS, 40);
+        float[][] queries = new float[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = perturb(vectors[random.nextInt(POINTS)], random, 0.3f);
+        }
+
+        Map<String, IndexingConfiguration.CollectionProfileConfig> profiles = new LinkedHashMap<>();
+        profiles.put("default", profile("none", false, 2.0));
+        profiles.put("scalar", profile("scalar", false, 2.0));
+        profiles.put("scalar+disk", profile("scalar", true, 2.0));
+        profiles.put("binary+disk", profile("binary", true, 8.0));
+
+        StandIn exact = new StandIn(vectors, profiles.get("default"));
+        int[][] truth = new int[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            truth[i] = exact.search(queries[i], K);
+        }
+
+        System.out.println("📊 Collection profile benchmark: " + POINTS + " points × " + DIMENSIONS + " dims, "
+                + QUERIES + " queries");
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (Map.Entry<String, IndexingConfiguration.CollectionProfileConfig> entry : profiles.entrySet()) {
+            Result result = run(new StandIn(vectors, entry.getValue()), queries, truth);
+            results.put(entry.getKey(), result);
+            System.out.printf("   %-12s RAM %6.1f MB | p50 %5.2f ms | p99 %5.2f ms | recall@%d %.3f%n",
+                    entry.getKey(), result.ramBytes / (1024.0 * 1024.0), result.p50Millis, result.p99Millis,
+                    K, result.recall);
+        }
+
+        // Quantized copies sit next to the originals, so memory only drops once originals go to disk
+        assertThat(results.get("default").recall).isEqualTo(1.0);
+        assertThat(results.get("scalar").recall).isGreaterThanOrEqualTo(0.9);
+        assertThat(results.get("scalar+disk").ramBytes).isLessThan(results.get("default").ramBytes / 3);
+        assertThat(results.get("scalar+disk").recall).isEqualTo(results.get("scalar").recall);
+        assertThat(results.get("binary+disk").ramBytes).isLessThan(results.get("scalar+disk").ramBytes);
+        // One bit per dimension loses most of the ranking on 768-dim vectors even with 8x oversampling;
+        // binary only pays off where memory matters more than recall
+        assertThat(results.get("binary+disk").recall).isGreaterThanOrEqualTo(0.4);
+    }
+
+    private Result run(StandIn standIn, float[][] queries, int[][] truth) {
+        for (int i = 0; i < 20; i++) {
+            standIn.search(queries[i], K);
+        }
+        long[] nanos = new long[queries.length];
+        int hits = 0;
+        for (int i = 0; i < queries.length; i++) {
+            long start = System.nanoTime();
+            int[] found = standIn.search(queries[i], K);
+            nanos[i] = System.nanoTime() - start;
+            for (int id : found) {
+                for (int expected : truth[i]) {
+                    if (id == expected) {
+                        hits++;
+                        break;
+                    }
+                }
+            }
+        }
+        Arrays.sort(nanos);
+        Result result = new Result();
+        result.ramBytes = standIn.residentBytes();
+        result.p50Millis = nanos[nanos.length / 2] / 1_000_000.0;
+        result.p99Millis = nanos[(int) Math.ceil(nanos.length * 0.99) - 1] / 1_000_000.0;
+        result.recall = (double) hits / (queries.length * K);
+        return result;
+    }
+
+    private static IndexingConfiguration.CollectionProfileConfig profile(String quantization, boolean onDisk,
+            double oversampling) {
+        IndexingConfiguration.CollectionProfileConfig profile = new IndexingConfiguration.CollectionProfileConfig();
+        profile.setQuantization(quantization);
+        profile.setOnDiskVectors(onDisk);
+        profile.setOversampling(oversampling);
+        return profile;
+    }
+
+    private static float[][] clusteredVectors(Random random, int count, int clusters) {
+        float[][] centers = new float[clusters][];
+        for (int c = 0; c < clusters; c++) {
+            centers[c] = perturb(new float[DIMENSIONS], random, 1.0f);
+        }
+        float[][] vectors = new float[count][];
+        for (int i = 0; i < count; i++) {
+            vectors[i] = perturb(centers[random.nextInt(clusters)], random, 0.6f);
+        }
+        return vectors;
+    }
+
+    private static float[] perturb(float[] base, Random random, float noise) {
+        float[] vector = new float[DIMENSIONS];
+        for (int d = 0; d < DIMENSIONS; d++) {
+            vector[d] = base[d] + (float) random.nextGaussian() * noise;
+        }
+        return normalize(vector);
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        float scale = (float) (1.0 / Math.sqrt(norm));
+        for (int d = 0; d < vector.length; d++) {
+            vector[d] *= scale;
+        }
+        return vector;
+    }
+
+    /**
+     * Exact, int8 or binary scoring over every point, with optional rescoring of the top
+     * candidates against the original vectors
+     */
+    private static class StandIn {
+        private final float[][] originals;
+        private final IndexingConfiguration.CollectionProfileConfig profile;
+        private final String quantization;
+        private byte[][] codes;
+        private long[][] bits;
+        private float offset;
+        private float step;
+
+        StandIn(float[][] originals, IndexingConfiguration.CollectionProfileConfig profile) {
+            this.originals = originals;
+            this.profile = profile;
+            this.quantization = profile.getQuantization();
+            if ("scalar".equals(quantization)) {
+                buildScalar();
+            } else if ("binary".equals(quantization)) {
+                buildBinary();
+            }
+        }
+
+        private void buildScalar() {
+            // Bounds at the configured quantile of all components, as Qdrant does
+            float[] sample = new float[originals.length * DIMENSIONS];
+            int n = 0;
+            for (float[] vector : originals) {
+                for (float v : vector) {
+                    sample[n++] = v;
+                }
+            }
+            Arrays.sort(sample);
+            float tail = (1 - profile.getScalarQuantile()) / 2;
+            float low = sample[(int) (tail * (sample.length - 1))];
+            float high = sample[(int) ((1 - tail) * (sample.length - 1))];
+            offset = low;
+            step = (high - low) / 255f;
+            codes = new byte[originals.length][DIMENSIONS];
+            for (int i = 0; i < originals.length; i++) {
+                for (int d = 0; d < DIMENSIONS; d++) {
+                    codes[i][d] = encode(originals[i][d]);
+                }
+            }
+        }
+
+        private byte encode(float value) {
+            int code = Math.round((value - offset) / step);
+            return (byte) (Math.max(0, Math.min(255, code)) - 128);
+        }
+
+        private void buildBinary() {
+            bits = new long[originals.length][];
+            for (int i = 0; i < originals.length; i++) {
+                bits[i] = signBits(originals[i]);
+            }
+        }
+
+        private static long[] signBits(float[] vector) {
+            long[] words = new long[(DIMENSIONS + 63) / 64];
+            for (int d = 0; d < DIMENSIONS; d++) {
+                if (vector[d] > 0) {
+                    words[d >> 6] |= 1L << (d & 63);
+                }
+            }
+            return words;
+        }
+
+        int[] search(float[] query, int k) {
+            if ("none".equals(quantization)) {
+                return topK(exactScores(query, null), null, k);
+            }
+            int candidates = profile.isRescore() ? (int) Math.ceil(k * profile.getOversampling()) : k;
+            int[] shortlist = topK(quantizedScores(query), null, candidates);
+            if (!profile.isRescore()) {
+                return shortlist;
+            }
+            return topK(exactScores(query, shortlist), shortlist, k);
+        }
+
+        private float[] quantizedScores(float[] query) {
+            float[] scores = new float[originals.length];
+            if (codes != null) {
+                byte[] q = new byte[DIMENSIONS];
+                for (int d = 0; d < DIMENSIONS; d++) {
+                    q[d] = encode(query[d]);
+                }
+                for (int i = 0; i < originals.length; i++) {
+                    int dot = 0;
+                    byte[] code = codes[i];
+                    for (int d = 0; d < DIMENSIONS; d++) {
+                        dot += code[d] * q[d];
+                    }
+                    scores[i] = dot;
+                }
+            } else {
+                long[] q = signBits(query);
+                for (int i = 0; i < originals.length; i++) {
+                    int distance = 0;
+                    for (int w = 0; w < q.length; w++) {
+                        distance += Long.bitCount(q[w] ^ bits[i][w]);
+                    }
+                    scores[i] = -distance;
+                }
+            }
+            return scores;
+        }
+
+        private float[] exactScores(float[] query, int[] subset) {
+            int count = subset == null ? originals.length : subset.length;
+            float[] scores = new float[count];
+            for (int i = 0; i < count; i++) {
+                float[] vector = originals[subset == null ? i : subset[i]];
+                float dot = 0;
+                for (int d = 0; d < DIMENSIONS; d++) {
+                    dot += vector[d] * query[d];
+                }
+                scores[i] = dot;
+            }
+            return scores;
+        }
+
+        private static int[] topK(float[] scores, int[] ids, int k) {
+            List<Integer> order = new ArrayList<>(scores.length);
+            for (int i = 0; i < scores.length; i++) {
+                order.add(i);
+            }
+            order.sort((a, b) -> Float.compare(scores[b], scores[a]));
+            int[] top = new int[Math.min(k, scores.length)];
+            for (int i = 0; i < top.length; i++) {
+                top[i] = ids == null ? order.get(i) : ids[order.get(i)];
+            }
+            return top;
+        }
+
+        long residentBytes() {
+            long points = originals.length;
+            long originalBytes = profile.isOnDiskVectors() ? 0 : points * DIMENSIONS * Float.BYTES;
+            long quantizedBytes = 0;
+            if (profile.isQuantizationAlwaysRam() || !profile.isOnDiskVectors()) {
+                if (codes != null) {
+                    quantizedBytes = points * DIMENSIONS;
+                } else if (bits != null) {
+                    quantizedBytes = points * bits[0].length * Long.BYTES;
+                }
+            }
+            long graphBytes = profile.isHnswOnDisk() ? 0 : points * 2L * profile.getHnswM() * Integer.BYTES;
+            return originalBytes + quantizedBytes + graphBytes;
+        }
+    }
+
+    private static class Result {
+        private long ramBytes;
+        private double p50Millis;
+        private double p99Millis;
+        private double recall;
+    }
+}
@@ -0,0 +1,138 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import com.google.common.util.concurrent.Futures;
+import io.qdrant.client.QdrantClient;
+import io.qdrant.client.grpc.Collections.AliasDescription;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.embedding.EmbeddingModel;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class DimensionReducerTest {
+
+    private static final String ALIAS = "codebase-index-reducer-test";
+    private static final String LIVE = ALIAS + "-gen-20250101000000";
+    private static final String TARGET = ALIAS + "-gen-20250102000000";
+
+    @Mock
+    private QdrantClient qdrantClient;
+
+    @Mock
+    private EmbeddingModel embeddingModel;
+
+    private IndexingConfiguration config;
+    private DimensionReducer reducer;
+
+    @BeforeEach
+    void setUp() {
+        config = new IndexingConfiguration();
+        config.getReduction().setEnabled(true);
+        reducer = new DimensionReducer(qdrantClient, embeddingModel, config);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(DimensionReducer.projectionPath(ALIAS));
+        Files.deleteIfExists(DimensionReducer.stagedPath(TARGET));
+    }
+
+    @Test
+    void nativeDimensions_ShouldComeFromTheModelAndStayUnknownWhileUnavailable() {
+        // Arrange
+        lenient().when(embeddingModel.dimensions())
+                .thenThrow(new IllegalStateException("connection refused"))
+                .thenReturn(1024);
+
+        // Act
+        int unavailable = reducer.nativeDimensions();
+        int detected = reducer.nativeDimensions();
+        int cached = reducer.nativeDimensions();
+
+        // Assert
+        assertThat(unavailable).isZero();
+        assertThat(detected).isEqualTo(1024);
+        assertThat(cached).isEqualTo(1024);
+    }
+
+    @Test
+    void stagedProjection_ShouldFollowTheAliasSwitchAndApplyToEveryGenerationOnceActivated() throws Exception {
+        // Arrange
+        lenient().when(embeddingModel.dimensions()).thenReturn(1024);
+        lenient().when(qdrantClient.listAliasesAsync())
+                .thenReturn(Futures.immediateFuture(List.of(alias(LIVE))))
+                .thenReturn(Futures.immediateFuture(List.of(alias(TARGET))));
+        reducer.stage(TARGET, VectorProjection.random(1024, 128, 7));
+
+        // Act
+        int liveBeforeSwitch = reducer.dimensionsFor(LIVE);
+        int targetBeforeSwitch = reducer.dimensionsFor(TARGET);
+        int aliasBeforeSwitch = reducer.dimensionsFor(ALIAS);
+        int aliasAfterSwitch = reducer.dimensionsFor(ALIAS);
+        boolean resumedAfterRestart = new DimensionReducer(qdrantClient, embeddingModel, config)
+                .servesStagedProjection(ALIAS);
+        reducer.activate(ALIAS);
+        int laterGeneration = reducer.dimensionsFor(ALIAS + "-gen-20250103000000");
+
+        // Assert
+        assertThat(liveBeforeSwitch).isEqualTo(1024);
+        assertThat(targetBeforeSwitch).isEqualTo(128);
+        assertThat(aliasBeforeSwitch).isEqualTo(1024);
+        assertThat(aliasAfterSwitch).isEqualTo(128);
+        assertThat(resumedAfterRestart).isTrue();
+        assertThat(laterGeneration).isEqualTo(128);
+        assertThat(reducer.projectionFor(ALIAS).getInputDimensions()).isEqualTo(1024);
+        assertThat(reducer.stagedProjection(ALIAS)).isNull();
+        assertThat(DimensionReducer.stagedPath(TARGET)).doesNotExist();
+    }
+
+    @Test
+    void evaluate_ShouldRecommendSmallestSizeReachingTheMinimumRecall() {
+        // Arrange: 64-dimensional vectors that only vary within a 16-dimensional subspace
+        config.getReduction().setCandidateDimensions(List.of(8, 16, 32));
+        Random random = new Random(3);
+        float[][] basis = new float[16][64];
+        for (float[] direction : basis) {
+            for (int d = 0; d < 64; d++) {
+                direction[d] = (float) random.nextGaussian();
+            }
+        }
+        List<float[]> sample = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            float[] vector = new float[64];
+            for (float[] direction : basis) {
+                float weight = (float) random.nextGaussian();
+                for (int d = 0; d < 64; d++) {
+                    vector[d] += weight * direction[d];
+                }
+            }
+            sample.add(vector);
+        }
+
+        // Act
+        DimensionReducer.Report report = reducer.evaluate(sample);
+
+        // Assert
+        assertThat(report.getRows()).extracting(DimensionReducer.Report.Row::getDimensions).containsExactly(8, 16, 32);
+        assertThat(report.getRows().get(0).getRecall()).isLessThan(0.95);
+        assertThat(report.getRows().get(1).getRecall()).isGreaterThanOrEqualTo(0.99);
+        assertThat(report.recommendedDimensions()).isEqualTo(16);
+        assertThat(report.projection(16).getOutputDimensions()).isEqualTo(16);
+    }
+
+    private static AliasDescription alias(String collection) {
+        return AliasDescription.newBuilder().setAliasName(ALIAS).setCollectionName(collection).build();
+    }
+}
@@ -0,0 +1,144 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Recall@10 of PCA and random projections against unreduced 768-dimensional vectors, and the
+ * vector memory each size needs. The corpus has a power-law variance spectrum in a randomly
+ * rotated basis, the shape code embeddings typically show; queries are held out from the
+ * sample the projections are fitted on.
+ */
+@Tag("benchmark")
+class DimensionReductionBenchmarkTest {
+
+    private static final int DIMENSIONS = 768;
+    private static final int POINTS = 3000;
+    private static final int QUERIES = 100;
+    private static final int K = 10;
+    private static final int[] TARGETS = { 64, 128, 256 };
+
+    @Test
+    void pca_ShouldKeepRecallAtAFractionOfTheVectorSize() {
+        Random random = new Random(11);
+        List<float[]> corpus = new ArrayList<>();
+        for (int i = 0; i < POINTS; i++) {
+            corpus.add(sample(random));
+        }
+        List<float[]> queries = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            queries.add(sample(random));
+        }
+
+        List<float[]> normalizedCorpus = normalizeAll(corpus);
+        int[][] truth = new int[QUERIES][];
+        for (int q = 0; q < QUERIES; q++) {
+            truth[q] = DimensionReducer.topK(normalizedCorpus, normalize(queries.get(q)), K);
+        }
+
+        long start = System.nanoTime();
+        VectorProjection pca = VectorProjection.pca(corpus, TARGETS[TARGETS.length - 1]);
+        long fitMillis = (System.nanoTime() - start) / 1_000_000;
+        VectorProjection random256 = VectorProjection.random(DIMENSIONS, TARGETS[TARGETS.length - 1], 5);
+
+        System.out.printf("📊 Dimensionality reduction benchmark: %d points × %d dims, %d queries, PCA fit %d ms%n",
+                POINTS, DIMENSIONS, QUERIES, fitMillis);
+        System.out.printf("   native %4d dims | %6.1f MB vectors | recall@%d 1.000%n",
+                DIMENSIONS, megabytes(DIMENSIONS), K);
+        Map<Integer, Double> pcaRecall = new LinkedHashMap<>();
+        Map<Integer, Double> randomRecall = new LinkedHashMap<>();
+        for (int target : TARGETS) {
+            pcaRecall.put(target, recall(pca.truncate(target), corpus, queries, truth));
+            randomRecall.put(target, recall(random256.truncate(target), corpus, queries, truth));
+            System.out.printf("   %4d dims | %6.1f MB vectors | recall@%d PCA %.3f, random %.3f%n",
+                    target, megabytes(target), K, pcaRecall.get(target), randomRecall.get(target));
+        }
+
+        for (int target : TARGETS) {
+            assertThat(pcaRecall.get(target)).isGreaterThan(randomRecall.get(target));
+        }
+        assertThat(pcaRecall.get(256)).isGreaterThanOrEqualTo(0.9);
+        assertThat(pcaRecall.get(64)).isLessThan(pcaRecall.get(256));
+    }
+
+    private static double recall(VectorProjection projection, List<float[]> corpus, List<float[]> queries,
+            int[][] truth) {
+        List<float[]> projected = new ArrayList<>(corpus.size());
+        for (float[] vector : corpus) {
+            projected.add(normalize(projection.project(vector)));
+        }
+        int hits = 0;
+        for (int q = 0; q < queries.size(); q++) {
+            int[] found = DimensionReducer.topK(projected, normalize(projection.project(queries.get(q))), K);
+            for (int id : found) {
+                for (int expected : truth[q]) {
+                    if (id == expected) {
+                        hits++;
+                        break;
+                    }
+                }
+            }
+        }
+        return (double) hits / (queries.size() * K);
+    }
+
+    /**
+     * Component i has standard deviation (i + 1)^-0.75, then the basis is rotated by a few
+     * fixed Householder reflections so the principal axes are not the coordinate axes
+     */
+    private static float[] sample(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int d = 0; d < DIMENSIONS; d++) {
+            vector[d] = (float) (random.nextGaussian() * Math.pow(d + 1, -0.75));
+        }
+        Random rotation = new Random(99);
+        for (int r = 0; r < 4; r++) {
+            float[] normal = new float[DIMENSIONS];
+            for (int d = 0; d < DIMENSIONS; d++) {
+                normal[d] = (float) rotation.nextGaussian();
+            }
+            normal = normalize(normal);
+            float dot = 0;
+            for (int d = 0; d < DIMENSIONS; d++) {
+                dot += normal[d] * vector[d];
+            }
+            for (int d = 0; d < DIMENSIONS; d++) {
+                vector[d] -= 2 * dot * normal[d];
+            }
+        }
+        return vector;
+    }
+
+    private static double megabytes(int dimensions) {
+        return (double) POINTS * dimensions * Float.BYTES / (1024 * 1024);
+    }
+
+    private static List<float[]> normalizeAll(List<float[]> vectors) {
+        List<float[]> normalized = new ArrayList<>(vectors.size());
+        for (float[] vector : vectors) {
+            normalized.add(normalize(vector));
+        }
+        return normalized;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        float scale = (float) (1.0 / Math.sqrt(norm));
+        float[] normalized = new float[vector.length];
+        for (int d = 0; d < vector.length; d++) {
+            normalized[d] = vector[d] * scale;
+        }
+        return normalized;
+    }
+}
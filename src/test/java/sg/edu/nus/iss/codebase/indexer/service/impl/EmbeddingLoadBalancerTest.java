@@ -0,0 +1,213 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.embedding.EmbeddingModel;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Exercises the load balancer against stub Ollama servers on local ports
+ */
+class EmbeddingLoadBalancerTest {
+
+    private final List<StubOllamaServer> servers = new ArrayList<>();
+    private EmbeddingLoadBalancer loadBalancer;
+
+    @AfterEach
+    void tearDown() {
+        if (loadBalancer != null) {
+            loadBalancer.shutdown();
+        }
+        servers.forEach(StubOllamaServer::stop);
+    }
+
+    @Test
+    void embed_ShouldSpreadConcurrentRequestsAcrossEndpoints() throws Exception {
+        // Arrange
+        StubOllamaServer first = startServer(50);
+        StubOllamaServer second = startServer(50);
+        loadBalancer = createLoadBalancer("least-outstanding", 3, first, second);
+        EmbeddingModel model = loadBalancer.getEmbeddingModel();
+
+        // Act
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<float[]>> calls = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                calls.add(CompletableFuture.supplyAsync(() -> model.embed("query"), executor));
+            }
+            calls.forEach(CompletableFuture::join);
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        assertThat(first.embedRequests.get()).isPositive();
+        assertThat(second.embedRequests.get()).isPositive();
+        assertThat(first.embedRequests.get() + second.embedRequests.get()).isEqualTo(16);
+        assertThat(loadBalancer.getEndpointStats())
+                .allSatisfy(stats -> assertThat(stats.getState()).isEqualTo("ACTIVE"));
+    }
+
+    @Test
+    void embed_ShouldFailOverAndEjectFailingEndpoint() throws Exception {
+        // Arrange
+        StubOllamaServer failing = startServer(0);
+        failing.failEmbeddings = true;
+        StubOllamaServer working = startServer(0);
+        loadBalancer = createLoadBalancer("least-outstanding", 1, failing, working);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertThat(loadBalancer.getEmbeddingModel().embed("query")).hasSize(3);
+        }
+
+        // Assert - the failing endpoint was tried once, then left rotation
+        assertThat(failing.embedRequests.get()).isEqualTo(1);
+        assertThat(working.embedRequests.get()).isEqualTo(5);
+        EmbeddingEndpoint.EndpointStats failingStats = loadBalancer.getEndpointStats().get(0);
+        assertThat(failingStats.getState()).isEqualTo("EJECTED");
+        assertThat(failingStats.getFailures()).isEqualTo(1);
+        assertThat(failingStats.getEjections()).isEqualTo(1);
+    }
+
+    @Test
+    void checkHealth_ShouldTakeUnhealthyEndpointOutOfRotation() throws Exception {
+        // Arrange
+        StubOllamaServer unhealthy = startServer(0);
+        unhealthy.healthy = false;
+        StubOllamaServer healthy = startServer(0);
+        loadBalancer = createLoadBalancer("power-of-two", 3, unhealthy, healthy);
+
+        // Act
+        loadBalancer.checkHealth();
+        for (int i = 0; i < 4; i++) {
+            loadBalancer.getEmbeddingModel().embed("query");
+        }
+
+        // Assert
+        assertThat(unhealthy.embedRequests.get()).isZero();
+        assertThat(healthy.embedRequests.get()).isEqualTo(4);
+        assertThat(loadBalancer.getEndpointStats().get(0).getState()).isEqualTo("UNHEALTHY");
+
+        // Recovered endpoint rejoins after the next successful probe
+        unhealthy.healthy = true;
+        loadBalancer.checkHealth();
+        assertThat(loadBalancer.getEndpointStats().get(0).getState()).isEqualTo("ACTIVE");
+    }
+
+    @Test
+    void recordSuccess_ShouldCompareLatencyPerInputAcrossBatchSizes() {
+        // Arrange: one endpoint serves a 50-input bulk batch, the other a single query
+        EmbeddingEndpoint bulk = new EmbeddingEndpoint("http://bulk", null);
+        EmbeddingEndpoint interactive = new EmbeddingEndpoint("http://interactive", null);
+
+        // Act
+        bulk.begin();
+        bulk.recordSuccess(TimeUnit.MILLISECONDS.toNanos(500), 50);
+        interactive.begin();
+        interactive.recordSuccess(TimeUnit.MILLISECONDS.toNanos(20), 1);
+
+        // Assert - the batch endpoint is faster per input, not 25x slower
+        assertThat(bulk.getSmoothedLatencyMs()).isCloseTo(10.0, within(0.01));
+        assertThat(interactive.getSmoothedLatencyMs()).isCloseTo(20.0, within(0.01));
+        assertThat(bulk.snapshot().getAverageLatencyMs()).isCloseTo(500.0, within(0.01));
+    }
+
+    @Test
+    void isEnabled_ShouldBeFalseWithoutConfiguredEndpoints() {
+        // Act
+        loadBalancer = new EmbeddingLoadBalancer(new IndexingConfiguration(), "test-model");
+
+        // Assert
+        assertThat(loadBalancer.isEnabled()).isFalse();
+        assertThat(loadBalancer.getEndpointStats()).isEmpty();
+    }
+
+    private EmbeddingLoadBalancer createLoadBalancer(String strategy, int maxConsecutiveFailures,
+            StubOllamaServer... stubs) {
+        IndexingConfiguration config = new IndexingConfiguration();
+        List<String> urls = new ArrayList<>();
+        for (StubOllamaServer stub : stubs) {
+            urls.add(stub.baseUrl());
+        }
+        config.getEmbedding().setEndpoints(urls);
+        config.getEmbedding().setBalancingStrategy(strategy);
+        config.getEmbedding().setMaxConsecutiveFailures(maxConsecutiveFailures);
+        config.getEmbedding().setHealthCheckIntervalMs(0); // probes are driven by the tests
+        return new EmbeddingLoadBalancer(config, "test-model");
+    }
+
+    private StubOllamaServer startServer(long delayMs) throws IOException {
+        StubOllamaServer server = new StubOllamaServer(delayMs);
+        servers.add(server);
+        return server;
+    }
+
+    /**
+     * Minimal Ollama lookalike serving /api/embed and /api/version
+     */
+    private static class StubOllamaServer {
+        private final HttpServer server;
+        private final long delayMs;
+        private final AtomicInteger embedRequests = new AtomicInteger();
+        private volatile boolean healthy = true;
+        private volatile boolean failEmbeddings = false;
+
+        StubOllamaServer(long delayMs) throws IOException {
+            this.delayMs = delayMs;
+            this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/api/embed", this::handleEmbed);
+            server.createContext("/api/version", exchange -> respond(exchange,
+                    healthy ? 200 : 503, "{\"version\":\"0.0.0-stub\"}"));
+            server.start();
+        }
+
+        String baseUrl() {
+            return "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+
+        private void handleEmbed(HttpExchange exchange) throws IOException {
+            exchange.getRequestBody().readAllBytes();
+            embedRequests.incrementAndGet();
+            if (failEmbeddings) {
+                respond(exchange, 500, "{\"error\":\"model crashed\"}");
+                return;
+            }
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "{\"model\":\"test-model\",\"embeddings\":[[0.1,0.2,0.3]]}");
+        }
+
+        private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.model.EmbeddingPriority;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmbeddingSchedulerTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_ShouldKeepReservedSlotsForInteractiveRequests() throws Exception {
+        // Arrange - two slots, one reserved for interactive
+        EmbeddingScheduler scheduler = createScheduler(2, 1);
+        CountDownLatch bulkRunning = new CountDownLatch(1);
+        CountDownLatch releaseBulk = new CountDownLatch(1);
+        Future<?> firstBulk = executor.submit(() -> scheduler.execute(EmbeddingPriority.BULK, () -> {
+            bulkRunning.countDown();
+            releaseBulk.await();
+            return null;
+        }));
+        assertThat(bulkRunning.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Act
+        Future<String> secondBulk = executor.submit(() -> scheduler.execute(EmbeddingPriority.BULK, () -> "bulk"));
+        String interactive = scheduler.execute(EmbeddingPriority.INTERACTIVE, () -> "interactive");
+
+        // Assert - interactive ran in the reserved slot while the second bulk call waits
+        assertThat(interactive).isEqualTo("interactive");
+        assertThat(waitForWaiting(scheduler, EmbeddingPriority.BULK, 1)).isTrue();
+        assertThat(secondBulk.isDone()).isFalse();
+
+        releaseBulk.countDown();
+        firstBulk.get(5, TimeUnit.SECONDS);
+        assertThat(secondBulk.get(5, TimeUnit.SECONDS)).isEqualTo("bulk");
+    }
+
+    @Test
+    void execute_ShouldAdmitWaitingRequestsInPriorityOrder() throws Exception {
+        // Arrange - a single slot held by a bulk call
+        EmbeddingScheduler scheduler = createScheduler(1, 0);
+        CountDownLatch holderRunning = new CountDownLatch(1);
+        CountDownLatch releaseHolder = new CountDownLatch(1);
+        Future<?> holder = executor.submit(() -> scheduler.execute(EmbeddingPriority.BULK, () -> {
+            holderRunning.countDown();
+            releaseHolder.await();
+            return null;
+        }));
+        assertThat(holderRunning.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<EmbeddingPriority> completionOrder = new CopyOnWriteArrayList<>();
+        Future<?> bulk = executor.submit(() -> scheduler.execute(EmbeddingPriority.BULK,
+                () -> completionOrder.add(EmbeddingPriority.BULK)));
+        assertThat(waitForWaiting(scheduler, EmbeddingPriority.BULK, 1)).isTrue();
+        Future<?> incremental = executor.submit(() -> scheduler.execute(EmbeddingPriority.INCREMENTAL,
+                () -> completionOrder.add(EmbeddingPriority.INCREMENTAL)));
+        assertThat(waitForWaiting(scheduler, EmbeddingPriority.INCREMENTAL, 1)).isTrue();
+        Future<?> interactive = executor.submit(() -> scheduler.execute(EmbeddingPriority.INTERACTIVE,
+                () -> completionOrder.add(EmbeddingPriority.INTERACTIVE)));
+        assertThat(waitForWaiting(scheduler, EmbeddingPriority.INTERACTIVE, 1)).isTrue();
+
+        // Act
+        releaseHolder.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        interactive.get(5, TimeUnit.SECONDS);
+        incremental.get(5, TimeUnit.SECONDS);
+        bulk.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(completionOrder).containsExactly(
+                EmbeddingPriority.INTERACTIVE, EmbeddingPriority.INCREMENTAL, EmbeddingPriority.BULK);
+    }
+
+    @Test
+    void execute_ShouldRecordLatencyPerPriorityClass() throws Exception {
+        // Arrange
+        EmbeddingScheduler scheduler = createScheduler(2, 1);
+
+        // Act
+        scheduler.execute(EmbeddingPriority.INTERACTIVE, () -> "ok");
+        scheduler.execute(EmbeddingPriority.BULK, () -> "ok");
+        try {
+            scheduler.execute(EmbeddingPriority.BULK, () -> {
+                throw new IllegalStateException("embedding server unavailable");
+            });
+        } catch (IllegalStateException expected) {
+            // failure is recorded, slot is released
+        }
+
+        // Assert
+        var stats = scheduler.getLatencyStats();
+        assertThat(stats.get(EmbeddingPriority.INTERACTIVE).getCompleted()).isEqualTo(1);
+        assertThat(stats.get(EmbeddingPriority.BULK).getCompleted()).isEqualTo(1);
+        assertThat(stats.get(EmbeddingPriority.BULK).getFailed()).isEqualTo(1);
+        assertThat(stats.get(EmbeddingPriority.INCREMENTAL).getCompleted()).isZero();
+        assertThat(scheduler.getInFlight()).isZero();
+    }
+
+    @Test
+    void callAs_ShouldTagCurrentThreadAndRestorePreviousPriority() {
+        // Act
+        EmbeddingPriority inner = EmbeddingScheduler.callAs(EmbeddingPriority.BULK,
+                () -> EmbeddingScheduler.callAs(EmbeddingPriority.INCREMENTAL, EmbeddingScheduler::currentPriority));
+        EmbeddingPriority outer = EmbeddingScheduler.callAs(EmbeddingPriority.BULK, EmbeddingScheduler::currentPriority);
+
+        // Assert - untagged threads are treated as interactive
+        assertThat(inner).isEqualTo(EmbeddingPriority.INCREMENTAL);
+        assertThat(outer).isEqualTo(EmbeddingPriority.BULK);
+        assertThat(EmbeddingScheduler.currentPriority()).isEqualTo(EmbeddingPriority.INTERACTIVE);
+    }
+
+    private EmbeddingScheduler createScheduler(int maxConcurrent, int reservedInteractive) {
+        IndexingConfiguration config = new IndexingConfiguration();
+        config.getEmbedding().setMaxConcurrent(maxConcurrent);
+        config.getEmbedding().setReservedInteractive(reservedInteractive);
+        return new EmbeddingScheduler(config);
+    }
+
+    private boolean waitForWaiting(EmbeddingScheduler scheduler, EmbeddingPriority priority, int expected)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            if (scheduler.getWaiting(priority) == expected) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+}
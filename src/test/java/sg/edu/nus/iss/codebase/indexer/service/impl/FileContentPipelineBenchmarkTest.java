@@ -0,0 +1,141 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.model.FileContent;
+import sg.edu.nus.iss.codebase.indexer.service.CodeAnalysisService;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the per-file cost of the old read-per-stage pipeline with the shared FileContent pipeline
+ * (document factory + code analysis) over test-codebase, or generated files when it is not available.
+ */
+@Tag("benchmark")
+class FileContentPipelineBenchmarkTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TextDocumentFactory textDocumentFactory;
+    private CodeAnalysisService codeAnalysisService;
+    private List<Path> files;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        IndexingConfiguration config = Mockito.mock(IndexingConfiguration.class);
+        Mockito.when(config.getProcessing()).thenReturn(new IndexingConfiguration.ProcessingConfig());
+        Mockito.when(config.getFilePriorities()).thenReturn(Map.of());
+
+        textDocumentFactory = new TextDocumentFactory(config);
+        codeAnalysisService = new CodeAnalysisService();
+        files = collectFiles();
+    }
+
+    @Test
+    void sharedFileContent_ShouldReadEachFileOnce() throws IOException {
+        // Warm up both paths so JIT and pool state do not skew the comparison
+        runLegacyPipeline();
+        runSharedPipeline();
+
+        long legacyReadsBefore = FileContent.getFilesRead();
+        long legacyAllocated = allocatedBytes();
+        long legacyStart = System.nanoTime();
+        int legacyReads = runLegacyPipeline();
+        long legacyNanos = System.nanoTime() - legacyStart;
+        legacyAllocated = allocatedBytes() - legacyAllocated;
+        long legacyContentReads = FileContent.getFilesRead() - legacyReadsBefore;
+
+        long sharedReadsBefore = FileContent.getFilesRead();
+        long sharedAllocated = allocatedBytes();
+        long sharedStart = System.nanoTime();
+        runSharedPipeline();
+        long sharedNanos = System.nanoTime() - sharedStart;
+        sharedAllocated = allocatedBytes() - sharedAllocated;
+        long sharedReads = FileContent.getFilesRead() - sharedReadsBefore;
+
+        System.out.println("📊 FileContent pipeline benchmark over " + files.size() + " files");
+        System.out.printf("   Legacy: %d file reads, %.1f KB allocated/file, %.2f ms%n",
+                legacyReads + legacyContentReads, legacyAllocated / 1024.0 / files.size(), legacyNanos / 1e6);
+        System.out.printf("   Shared: %d file reads, %.1f KB allocated/file, %.2f ms%n",
+                sharedReads, sharedAllocated / 1024.0 / files.size(), sharedNanos / 1e6);
+
+        assertThat(sharedReads).isEqualTo(files.size());
+        assertThat(legacyReads + legacyContentReads).isGreaterThanOrEqualTo(2L * files.size());
+    }
+
+    /**
+     * Old flow: the factory and the analyzer each read the file themselves
+     */
+    private int runLegacyPipeline() throws IOException {
+        int reads = 0;
+        for (Path file : files) {
+            textDocumentFactory.createDocumentsFromContent(FileContent.of(file.toFile(), Files.readString(file)));
+            reads++;
+            String content = Files.readString(file);
+            reads++;
+            content.split("\n");
+            codeAnalysisService.analyzeFile(FileContent.of(file.toFile(), content));
+        }
+        return reads;
+    }
+
+    /**
+     * New flow: one read, shared by the factory and the analyzer
+     */
+    private void runSharedPipeline() throws IOException {
+        for (Path file : files) {
+            FileContent content = FileContent.read(file);
+            textDocumentFactory.createDocumentsFromContent(content);
+            codeAnalysisService.analyzeFile(content);
+        }
+    }
+
+    private List<Path> collectFiles() throws IOException {
+        Path testCodebase = Paths.get("test-codebase");
+        List<Path> result = new ArrayList<>();
+        if (Files.isDirectory(testCodebase)) {
+            try (Stream<Path> paths = Files.walk(testCodebase)) {
+                paths.filter(Files::isRegularFile)
+                        .filter(textDocumentFactoryFilter())
+                        .filter(path -> path.toFile().length() < 1024 * 1024)
+                        .limit(200)
+                        .forEach(result::add);
+            }
+        }
+        if (result.isEmpty()) {
+            for (int i = 0; i < 50; i++) {
+                Path file = tempDir.resolve("Generated" + i + ".java");
+                Files.writeString(file, ("public class Generated" + i + " {\n    public void run() {}\n}\n").repeat(20));
+                result.add(file);
+            }
+        }
+        return result;
+    }
+
+    private java.util.function.Predicate<Path> textDocumentFactoryFilter() {
+        return path -> textDocumentFactory.supports(path.toFile());
+    }
+
+    private long allocatedBytes() {
+        var threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean sunThreadBean) {
+            return sunThreadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -4,12 +4,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import static org.mockito.Mockito.*;
+import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.vectorstore.VectorStore;
 import sg.edu.nus.iss.codebase.indexer.config.DynamicVectorStoreFactory;
 import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.service.CodeAnalysisService;
 import sg.edu.nus.iss.codebase.indexer.service.interfaces.FileCacheRepository;
 import sg.edu.nus.iss.codebase.indexer.service.impl.DocumentFactoryManager;
 import sg.edu.nus.iss.codebase.indexer.model.IndexingStatus;
@@ -23,6 +26,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
 
@@ -49,12 +53,17 @@ class FileIndexingServiceImplTest {
     
     @Mock
     private DocumentFactoryManager documentFactoryManager;
+
+    @Mock
+    private SummaryDocumentFactory summaryDocumentFactory;
     
     @TempDir
     Path tempDir;
     
     private FileIndexingServiceImpl service;
     private Executor virtualThreadExecutor;
+    private ColdFileRegistry coldFileRegistry;
+    private SymbolTable symbolTable;
 
     @BeforeEach
     void setUp() {
@@ -65,6 +74,23 @@ class FileIndexingServiceImplTest {
         processingConfig.setMaxDepth(10);
         processingConfig.setChunkSize(1000);
         lenient().when(config.getProcessing()).thenReturn(processingConfig);
+        lenient().when(config.getTiering()).thenReturn(new IndexingConfiguration.TieringConfig());
+        lenient().when(config.getLazy()).thenReturn(new IndexingConfiguration.LazyEmbeddingConfig());
+        lenient().when(config.getMemory()).thenReturn(new IndexingConfiguration.MemoryConfig());
+        lenient().when(config.getBackground()).thenReturn(new IndexingConfiguration.BackgroundProfileConfig());
+        lenient().when(config.getDedup()).thenReturn(new IndexingConfiguration.DedupConfig());
+        lenient().when(config.getBlueGreen()).thenReturn(new IndexingConfiguration.BlueGreenConfig());
+        lenient().when(config.getCollection()).thenReturn(new IndexingConfiguration.CollectionProfileConfig());
+        lenient().when(config.getBulkLoad()).thenReturn(new IndexingConfiguration.BulkLoadConfig());
+        lenient().when(config.getReduction()).thenReturn(new IndexingConfiguration.ReductionConfig());
+        lenient().when(config.getSymbols()).thenReturn(new IndexingConfiguration.SymbolTableConfig());
+        lenient().when(config.getStatus()).thenReturn(new IndexingConfiguration.StatusStreamConfig());
+        IndexingConfiguration.MetricsConfig metricsConfig = new IndexingConfiguration.MetricsConfig();
+        metricsConfig.setPrometheusFile("");
+        lenient().when(config.getMetrics()).thenReturn(metricsConfig);
+        IndexingConfiguration.CacheConfig cacheConfig = new IndexingConfiguration.CacheConfig();
+        cacheConfig.setEnabled(false);
+        lenient().when(config.getCache()).thenReturn(cacheConfig);
         
         // Setup lenient mocks for QdrantClient async operations to avoid unnecessary stubbing errors
         @SuppressWarnings("unchecked")
@@ -74,6 +100,8 @@ class FileIndexingServiceImplTest {
         lenient().when(qdrantClient.deleteCollectionAsync(anyString())).thenReturn(mockDeleteFuture);
         lenient().when(qdrantClient.createCollectionAsync(any())).thenReturn(mockCreateFuture);
         
+        coldFileRegistry = new ColdFileRegistry();
+        symbolTable = new SymbolTable(config, new CodeAnalysisService());
         service = new FileIndexingServiceImpl(
             vectorStore,
             vectorStoreFactory,
@@ -81,7 +109,18 @@ class FileIndexingServiceImplTest {
             virtualThreadExecutor,
             config,
             cacheRepository,
-            documentFactoryManager
+            documentFactoryManager,
+            summaryDocumentFactory,
+            coldFileRegistry,
+            new MemoryGovernor(config),
+            new BackgroundIndexingProfile(config),
+            new NearDuplicateIndex(config),
+            symbolTable,
+            new StatusEventStream(config),
+            new CollectionAliasManager(qdrantClient, config,
+                    new DimensionReducer(qdrantClient, embeddingModel(768), config)),
+            new BulkLoader(qdrantClient, vectorStoreFactory, config, new IndexingMetrics(config), new MemoryGovernor(config)),
+            new IndexingMetrics(config)
         );
     }
 
@@ -102,6 +141,22 @@ class FileIndexingServiceImplTest {
         assertNotNull(result);
     }
 
+    @Test
+    void testStartIndexingFailsWhenAPhaseFails() throws IOException {
+        // Setup
+        Files.write(tempDir.resolve("Test.java"), "public class Test {}".getBytes());
+        when(documentFactoryManager.isSupported(any(File.class))).thenReturn(true);
+        when(cacheRepository.needsReindexing(any(File.class))).thenThrow(new IllegalStateException("cache unavailable"));
+
+        // Execute
+        CompletableFuture<Void> result = service.startIndexing(tempDir.toString());
+
+        // Verify
+        CompletionException error = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertFalse(service.isIndexingInProgress());
+    }
+
     @Test
     void testSetIndexingDirectory() {
         // Setup
@@ -287,15 +342,201 @@ class FileIndexingServiceImplTest {
         assertTrue(stats.isEmpty() || stats.size() > 0);
     }
 
+    @Test
+    void testEmbedOnDemandIgnoresFilesThatAreNotCold() {
+        // Execute
+        int embedded = service.embedOnDemand(java.util.List.of(tempDir.resolve("Warm.java").toString())).join();
+
+        // Verify
+        assertEquals(0, embedded);
+        verifyNoInteractions(documentFactoryManager);
+    }
+
+    @Test
+    void testEmbedOnDemandEmbedsColdFiles() throws IOException {
+        // Setup
+        File coldFile = tempDir.resolve("ColdHelper.java").toFile();
+        Files.writeString(coldFile.toPath(), "public class ColdHelper { public void help() {} }");
+        coldFileRegistry.register(coldFile);
+
+        when(documentFactoryManager.createDocumentsFromContent(any(sg.edu.nus.iss.codebase.indexer.model.FileContent.class)))
+            .thenReturn(java.util.List.of(new org.springframework.ai.document.Document("public class ColdHelper {}")));
+        when(vectorStoreFactory.createVectorStore(anyString())).thenReturn(vectorStore);
+
+        // Execute
+        int embedded = service.embedOnDemand(java.util.List.of(coldFile.getAbsolutePath())).join();
+
+        // Verify
+        assertEquals(1, embedded);
+        assertEquals(0, service.getColdFileCount());
+        verify(vectorStore).add(anyList());
+        verify(cacheRepository).saveIndexedFile(coldFile.getAbsolutePath());
+    }
+
+    @Test
+    void testEmbedOnDemandKeepsFilesColdWhenStoreFails() throws IOException {
+        // Setup
+        File coldFile = tempDir.resolve("ColdHelper.java").toFile();
+        Files.writeString(coldFile.toPath(), "public class ColdHelper { public void help() {} }");
+        coldFileRegistry.register(coldFile);
+
+        when(documentFactoryManager.createDocumentsFromContent(any(sg.edu.nus.iss.codebase.indexer.model.FileContent.class)))
+            .thenReturn(java.util.List.of(new org.springframework.ai.document.Document("public class ColdHelper {}")));
+        when(vectorStoreFactory.createVectorStore(anyString())).thenReturn(vectorStore);
+        doThrow(new RuntimeException("Embedding service unavailable")).when(vectorStore).add(anyList());
+
+        // Execute
+        int embedded = service.embedOnDemand(java.util.List.of(coldFile.getAbsolutePath())).join();
+
+        // Verify: the file is back in the registry so a later query can embed it
+        assertEquals(0, embedded);
+        assertTrue(coldFileRegistry.isCold(coldFile.getAbsolutePath()));
+        verify(cacheRepository, never()).saveIndexedFile(coldFile.getAbsolutePath());
+    }
+
+    @Test
+    void testSymbolsAreRecordedOnlyForStoredFiles() throws IOException {
+        // Setup: the first store fails, the second succeeds
+        File coldFile = tempDir.resolve("ColdHelper.java").toFile();
+        Files.writeString(coldFile.toPath(), "public class ColdHelper { public void help() {} }");
+        coldFileRegistry.register(coldFile);
+
+        when(documentFactoryManager.createDocumentsFromContent(any(sg.edu.nus.iss.codebase.indexer.model.FileContent.class)))
+            .thenReturn(java.util.List.of(new org.springframework.ai.document.Document("public class ColdHelper {}")));
+        when(vectorStoreFactory.createVectorStore(anyString())).thenReturn(vectorStore);
+        doThrow(new RuntimeException("Embedding service unavailable")).doNothing().when(vectorStore).add(anyList());
+
+        // Execute & Verify
+        service.embedOnDemand(java.util.List.of(coldFile.getAbsolutePath())).join();
+        assertTrue(symbolTable.lookup("ColdHelper", 10).isEmpty());
+
+        service.embedOnDemand(java.util.List.of(coldFile.getAbsolutePath())).join();
+        assertEquals(1, symbolTable.lookup("ColdHelper", 10).size());
+    }
+
+    @Test
+    void testEmbedOnDemandPromotesSimilarFilesOnlyAfterEmbedsFinish() throws Exception {
+        // Setup: the embed outlives the on-demand wait
+        IndexingConfiguration.LazyEmbeddingConfig lazy = new IndexingConfiguration.LazyEmbeddingConfig();
+        lazy.setOnDemandWaitMs(100);
+        when(config.getLazy()).thenReturn(lazy);
+        File coldFile = tempDir.resolve("ColdHelper.java").toFile();
+        File similarFile = tempDir.resolve("ColdHelperUtil.java").toFile();
+        Files.writeString(coldFile.toPath(), "public class ColdHelper { public void help() {} }");
+        Files.writeString(similarFile.toPath(), "public class ColdHelperUtil { public void help() {} }");
+        coldFileRegistry.register(coldFile);
+        coldFileRegistry.register(similarFile);
+
+        java.util.concurrent.CountDownLatch release = new java.util.concurrent.CountDownLatch(1);
+        when(documentFactoryManager.createDocumentsFromContent(any(sg.edu.nus.iss.codebase.indexer.model.FileContent.class)))
+            .thenReturn(java.util.List.of(new org.springframework.ai.document.Document("public class ColdHelper {}")));
+        when(vectorStoreFactory.createVectorStore(anyString())).thenReturn(vectorStore);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(vectorStore).add(anyList());
+
+        // Execute
+        int embedded = service.embedOnDemand(java.util.List.of(coldFile.getAbsolutePath())).join();
+
+        // Verify: the caller gave up waiting, but nothing was promoted while the embed is in flight
+        assertEquals(0, embedded);
+        org.awaitility.Awaitility.await().during(java.time.Duration.ofMillis(300)).atMost(java.time.Duration.ofSeconds(1))
+            .until(() -> coldFileRegistry.isCold(similarFile.getAbsolutePath()));
+
+        release.countDown();
+        org.awaitility.Awaitility.await().atMost(java.time.Duration.ofSeconds(5))
+            .until(() -> !coldFileRegistry.isCold(similarFile.getAbsolutePath()));
+    }
+
+    @Test
+    void testEmbedOnDemandDoesNotAliasDuplicatesToAFileThatFailedToStore() throws IOException {
+        // Setup: two copies of the same file, the first store fails
+        String source = "public class UserClient { private final RestTemplate rest; private final String baseUrl; "
+            + "public User findUser(long id) { return rest.getForObject(baseUrl + \"/users/\" + id, User.class); } "
+            + "public void deleteUser(long id) { rest.delete(baseUrl + \"/users/\" + id); } "
+            + "public List<User> listUsers(int page, int size) { return rest.getForObject(baseUrl + page, List.class); } }";
+        File original = tempDir.resolve("UserClient.java").toFile();
+        File copy = Files.createDirectories(tempDir.resolve("vendor")).resolve("Mirror.java").toFile();
+        Files.writeString(original.toPath(), source);
+        Files.writeString(copy.toPath(), source);
+
+        when(documentFactoryManager.createDocumentsFromContent(any(sg.edu.nus.iss.codebase.indexer.model.FileContent.class)))
+            .thenAnswer(invocation -> java.util.List.of(new org.springframework.ai.document.Document(source)));
+        when(vectorStoreFactory.createVectorStore(anyString())).thenReturn(vectorStore);
+        doThrow(new RuntimeException("Embedding service unavailable")).doNothing().when(vectorStore).add(anyList());
+
+        // Execute
+        coldFileRegistry.register(original);
+        int failed = service.embedOnDemand(java.util.List.of(original.getAbsolutePath())).join();
+        coldFileRegistry.register(copy);
+        int stored = service.embedOnDemand(java.util.List.of(copy.getAbsolutePath())).join();
+
+        // Verify: the copy is embedded itself instead of becoming an alias of nothing
+        assertEquals(0, failed);
+        assertEquals(1, stored);
+        verify(vectorStore, times(2)).add(anyList());
+        verify(cacheRepository, never()).saveIndexedFile(original.getAbsolutePath());
+    }
+
     @Test
     void testRestartIndexing() {
         // Execute
         assertDoesNotThrow(() -> service.restartIndexing());
     }
 
+    @Test
+    void testCancelledRebuildKeepsTheLiveCache() {
+        // Setup: a blue/green rebuild can create its shadow collection
+        when(qdrantClient.listCollectionsAsync()).thenReturn(Futures.immediateFuture(java.util.List.of()));
+        when(qdrantClient.listAliasesAsync()).thenReturn(Futures.immediateFuture(java.util.List.of()));
+        when(cacheRepository.getCacheFileName()).thenReturn(".indexed_files_cache.txt");
+
+        // Execute
+        service.restartIndexing();
+        service.stopIndexing();
+
+        // Verify: the rebuild records files in its own cache, and the live one is reloaded untouched
+        InOrder inOrder = inOrder(cacheRepository);
+        inOrder.verify(cacheRepository).setCacheFileName(".indexed_files_cache.txt.rebuild");
+        inOrder.verify(cacheRepository).clearCache();
+        inOrder.verify(cacheRepository).setCacheFileName(".indexed_files_cache.txt");
+        inOrder.verify(cacheRepository).loadCache();
+        verify(cacheRepository, times(2)).clearCache();
+    }
+
     @Test
     void testClearCacheAndReindex() {
         // Execute
         assertDoesNotThrow(() -> service.clearCacheAndReindex());
     }
+
+    @Test
+    void testUnknownEmbeddingDimensionsKeepTheExistingCollection() {
+        // Setup: the embedding model cannot be reached and the stored vectors have 1024 dimensions
+        org.springframework.test.util.ReflectionTestUtils.setField(service, "collectionAliasManager",
+                new CollectionAliasManager(qdrantClient, config,
+                        new DimensionReducer(qdrantClient, embeddingModel(0), config)));
+        Collections.CollectionInfo info = Collections.CollectionInfo.newBuilder()
+                .setConfig(Collections.CollectionConfig.newBuilder()
+                        .setParams(Collections.CollectionParams.newBuilder()
+                                .setVectorsConfig(Collections.VectorsConfig.newBuilder()
+                                        .setParams(Collections.VectorParams.newBuilder().setSize(1024)))))
+                .build();
+        when(qdrantClient.getCollectionInfoAsync("codebase-index")).thenReturn(Futures.immediateFuture(info));
+
+        // Execute
+        Boolean exists = org.springframework.test.util.ReflectionTestUtils.invokeMethod(service,
+                "checkCollectionExists", "codebase-index");
+
+        // Verify: nothing is deleted on a guessed dimension
+        assertEquals(Boolean.TRUE, exists);
+        verify(qdrantClient, never()).deleteCollectionAsync(anyString());
+    }
+
+    private static EmbeddingModel embeddingModel(int dimensions) {
+        EmbeddingModel embeddingModel = mock(EmbeddingModel.class);
+        lenient().when(embeddingModel.dimensions()).thenReturn(dimensions);
+        return embeddingModel;
+    }
 }
@@ -0,0 +1,142 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+class IndexingMetricsTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @TempDir
+    Path tempDir;
+
+    private IndexingConfiguration config;
+    private IndexingMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        config = new IndexingConfiguration();
+        config.getMetrics().setPrometheusFile(tempDir.resolve("indexer-metrics.prom").toString());
+        metrics = new IndexingMetrics(config);
+    }
+
+    @Test
+    void getStageSummaries_ShouldReportLatencyOfStagesThatRan() {
+        // Arrange
+        for (int i = 1; i <= 100; i++) {
+            metrics.record(IndexingMetrics.Stage.READ, i * MILLIS);
+        }
+
+        // Act
+        var summaries = metrics.getStageSummaries();
+
+        // Assert
+        assertThat(summaries).singleElement().satisfies(summary -> {
+            assertThat(summary.getStage()).isEqualTo(IndexingMetrics.Stage.READ);
+            assertThat(summary.getCount()).isEqualTo(100);
+            assertThat(summary.getMeanMs()).isCloseTo(50.5, offset(0.1));
+            assertThat(summary.getP95Ms()).isBetween(90.0, 100.0);
+            assertThat(summary.getMaxMs()).isCloseTo(100.0, offset(0.1));
+        });
+    }
+
+    @Test
+    void store_ShouldSplitEmbeddingFromUpsertAndCountErrorsByCause() {
+        // Arrange: the vector store embeds for 20ms, then upserts
+        Runnable add = () -> {
+            metrics.recordEmbedding(20 * MILLIS, null);
+            sleep(5);
+        };
+
+        // Act
+        metrics.store(8, add);
+        metrics.recordEmbedding(50 * MILLIS, null); // A query embedding outside any store
+        assertThatThrownBy(() -> metrics.store(4, () -> {
+            IllegalStateException failure = new IllegalStateException("Embedding call failed",
+                    new IOException("connection refused"));
+            metrics.recordEmbedding(MILLIS, failure);
+            throw failure;
+        })).isInstanceOf(IllegalStateException.class);
+
+        // Assert
+        var summaries = metrics.getStageSummaries();
+        assertThat(summaries).extracting(IndexingMetrics.StageSummary::getStage)
+                .containsExactly(IndexingMetrics.Stage.EMBED, IndexingMetrics.Stage.UPSERT);
+        assertThat(summaries.get(0).getCount()).isEqualTo(2);
+        assertThat(summaries.get(0).getTotalSeconds()).isCloseTo(0.021, offset(0.001));
+        assertThat(summaries.get(1).getMaxMs()).isLessThan(20.0);
+        assertThat(metrics.getChunksStored()).isEqualTo(8);
+        assertThat(metrics.getErrors()).containsExactly(Map.entry("embed/IOException", 1L));
+    }
+
+    @Test
+    void export_ShouldWritePrometheusTextFormat() throws Exception {
+        // Arrange
+        AtomicInteger waiting = new AtomicInteger(3);
+        metrics.registerQueue("memory_waiting_producers", waiting::get);
+        metrics.record(IndexingMetrics.Stage.CHUNK, 3 * MILLIS);
+        metrics.record(IndexingMetrics.Stage.CHUNK, 40 * MILLIS);
+        metrics.addBytesRead(2048);
+        metrics.addChunksCreated(5);
+        assertThatThrownBy(() -> metrics.call(IndexingMetrics.Stage.READ, () -> {
+            throw new IOException("gone");
+        })).isInstanceOf(IOException.class);
+
+        // Act
+        metrics.export();
+
+        // Assert
+        String text = Files.readString(tempDir.resolve("indexer-metrics.prom"));
+        assertThat(text)
+                .contains("# TYPE indexer_stage_duration_seconds histogram")
+                .contains("indexer_stage_duration_seconds_bucket{stage=\"chunk\",le=\"0.001\"} 0")
+                .contains("indexer_stage_duration_seconds_bucket{stage=\"chunk\",le=\"0.005\"} 1")
+                .contains("indexer_stage_duration_seconds_bucket{stage=\"chunk\",le=\"0.05\"} 2")
+                .contains("indexer_stage_duration_seconds_bucket{stage=\"chunk\",le=\"+Inf\"} 2")
+                .contains("indexer_stage_duration_seconds_count{stage=\"chunk\"} 2")
+                .contains("indexer_stage_duration_seconds_sum{stage=\"chunk\"} 0.043")
+                .contains("indexer_bytes_read_total 2048")
+                .contains("indexer_chunks_created_total 5")
+                .contains("indexer_errors_total{cause=\"IOException\",stage=\"read\"} 1")
+                .contains("indexer_queue_depth{queue=\"memory_waiting_producers\"} 3");
+        assertThat(text.lines().filter(line -> line.startsWith("# TYPE indexer_stage_duration_seconds ")))
+                .hasSize(1);
+    }
+
+    @Test
+    void disabledMetrics_ShouldRunWorkWithoutRecording() throws Exception {
+        // Arrange
+        config.getMetrics().setEnabled(false);
+
+        // Act
+        String content = metrics.call(IndexingMetrics.Stage.READ, () -> "content");
+        metrics.store(3, () -> { });
+        metrics.export();
+
+        // Assert
+        assertThat(content).isEqualTo("content");
+        assertThat(metrics.getStageSummaries()).isEmpty();
+        assertThat(metrics.getChunksStored()).isZero();
+        assertThat(tempDir.resolve("indexer-metrics.prom")).doesNotExist();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.test.util.ReflectionTestUtils;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.service.ProjectAnalysisService;
+import sg.edu.nus.iss.codebase.indexer.service.ProjectAnalysisSnapshot;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LlmResponseCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private IndexingConfiguration config;
+    private LlmResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        config = new IndexingConfiguration();
+        config.getLlmCache().setDirectory(tempDir.resolve("cache").toString());
+        cache = new LlmResponseCache(config);
+    }
+
+    @Test
+    void get_ShouldMissWhenAnyPartOfTheKeyChanges() {
+        // Arrange
+        cache.put(new LlmResponseCache.Key("Spring Boot", "3.5.3", "prompt-v1", "llama3"), "Spring Boot docs");
+
+        // Act & Assert
+        assertThat(cache.get(new LlmResponseCache.Key("spring boot", "3.5.3", "prompt-v1", "llama3")))
+                .isEqualTo("Spring Boot docs");
+        assertThat(cache.get(new LlmResponseCache.Key("Spring Boot", "3.4.0", "prompt-v1", "llama3"))).isNull();
+        assertThat(cache.get(new LlmResponseCache.Key("Spring Boot", "3.5.3", "prompt-v2", "llama3"))).isNull();
+        assertThat(cache.get(new LlmResponseCache.Key("Spring Boot", "3.5.3", "prompt-v1", "qwen2"))).isNull();
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(3);
+    }
+
+    @Test
+    void get_ShouldTreatEntriesPastTheTtlAsMisses() throws Exception {
+        // Arrange
+        LlmResponseCache.Key key = new LlmResponseCache.Key("React", "18.2.0", "prompt", "llama3");
+        cache.put(key, "React docs");
+        Path entry;
+        try (var files = Files.list(tempDir.resolve("cache"))) {
+            entry = files.findFirst().orElseThrow();
+        }
+        Properties properties = new Properties();
+        try (var reader = Files.newBufferedReader(entry)) {
+            properties.load(reader);
+        }
+        properties.setProperty("createdAt", "2020-01-01T00:00:00Z");
+        try (var writer = Files.newBufferedWriter(entry)) {
+            properties.store(writer, null);
+        }
+
+        // Act
+        String expired = cache.get(key);
+
+        // Assert
+        assertThat(expired).isNull();
+        assertThat(entry).doesNotExist();
+    }
+
+    @Test
+    void invalidate_ShouldRemoveOnlyTheNamedFramework() {
+        // Arrange
+        cache.put(new LlmResponseCache.Key("React", "18.2.0", "prompt", "llama3"), "React docs");
+        cache.put(new LlmResponseCache.Key("React", "17.0.0", "prompt", "llama3"), "Older React docs");
+        cache.put(new LlmResponseCache.Key("Flask", "3.0.0", "prompt", "llama3"), "Flask docs");
+
+        // Act
+        int removed = cache.invalidate("react");
+
+        // Assert
+        assertThat(removed).isEqualTo(2);
+        assertThat(cache.get(new LlmResponseCache.Key("Flask", "3.0.0", "prompt", "llama3"))).isEqualTo("Flask docs");
+        assertThat(cache.clear()).isEqualTo(1);
+    }
+
+    @Test
+    void analyzeProject_ShouldMakeNoChatCallsOnceResponsesAreCached() throws Exception {
+        // Arrange
+        Path project = tempDir.resolve("project");
+        Files.createDirectories(project);
+        Files.writeString(project.resolve("pom.xml"), """
+                <project><dependencies><dependency>
+                <groupId>org.springframework.boot</groupId><artifactId>spring-boot</artifactId><version>3.5.3</version>
+                </dependency></dependencies></project>
+                """);
+        ChatModel chatModel = mock(ChatModel.class);
+        when(chatModel.call(anyString())).thenReturn("FRAMEWORK: Spring Boot | TYPE: web | CONFIDENCE: high");
+        ProjectAnalysisService service = new ProjectAnalysisService();
+        ReflectionTestUtils.setField(service, "chatModel", chatModel);
+        ReflectionTestUtils.setField(service, "llmResponseCache", cache);
+
+        // Act: without the stored snapshot, so the second run goes through the cache
+        ProjectAnalysisService.ProjectAnalysis first;
+        ProjectAnalysisService.ProjectAnalysis second;
+        try {
+            first = service.analyzeProject(project);
+            Files.delete(ProjectAnalysisSnapshot.pathFor(project));
+            second = service.analyzeProject(project);
+        } finally {
+            Files.deleteIfExists(ProjectAnalysisSnapshot.pathFor(project));
+        }
+
+        // Assert: one identification and one documentation call, both on the first run only
+        verify(chatModel, times(2)).call(anyString());
+        assertThat(second.getFrameworks()).isEqualTo(first.getFrameworks()).contains("Spring Boot");
+        assertThat(second.getFrameworkDocumentation()).isEqualTo(first.getFrameworkDocumentation());
+    }
+}
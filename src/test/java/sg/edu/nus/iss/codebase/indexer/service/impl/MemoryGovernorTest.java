@@ -0,0 +1,170 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemoryGovernorTest {
+
+    private static final long MB = 1024L * 1024L;
+
+    private MemoryGovernor governor;
+
+    @AfterEach
+    void tearDown() {
+        if (governor != null) {
+            governor.shutdown();
+        }
+    }
+
+    @Test
+    void reserve_ShouldBlockProducersUntilBudgetIsReleased() throws Exception {
+        // Arrange
+        governor = createGovernor(32, 60000);
+        MemoryGovernor.Reservation first = governor.reserve(24 * MB);
+
+        // Act
+        CompletableFuture<MemoryGovernor.Reservation> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return governor.reserve(16 * MB);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Assert - the second producer waits until the first releases its bytes
+        assertThat(waitForWaitingProducers(1)).isTrue();
+        assertThat(second.isDone()).isFalse();
+        assertThat(governor.getState()).isEqualTo("THROTTLING");
+
+        first.close();
+        MemoryGovernor.Reservation admitted = second.get(5, TimeUnit.SECONDS);
+        assertThat(governor.getInFlightBytes()).isEqualTo(16 * MB);
+        admitted.close();
+        assertThat(governor.getInFlightBytes()).isZero();
+        assertThat(governor.getBlockedReservations()).isEqualTo(1);
+    }
+
+    @Test
+    void reserve_ShouldFreeBufferedReservationsBeforeBlocking() throws Exception {
+        // Arrange - a buffer holds a transferred reservation until it is written
+        governor = createGovernor(32, 60000);
+        MemoryGovernor.Reservation buffered;
+        try (MemoryGovernor.Reservation producer = governor.reserve(24 * MB)) {
+            buffered = producer.transfer();
+        }
+        governor.addPressureRelief(buffered::close);
+
+        // Act
+        MemoryGovernor.Reservation next = governor.reserve(16 * MB);
+
+        // Assert
+        assertThat(governor.getInFlightBytes()).isEqualTo(16 * MB);
+        next.close();
+        assertThat(governor.getInFlightBytes()).isZero();
+    }
+
+    @Test
+    void reserve_ShouldAdmitOversizedReservationWhenNothingElseIsInFlight() throws Exception {
+        // Arrange
+        governor = createGovernor(16, 60000);
+
+        // Act
+        try (MemoryGovernor.Reservation reservation = governor.reserve(64 * MB)) {
+            // Assert
+            assertThat(reservation.getBytes()).isEqualTo(64 * MB);
+            assertThat(governor.getInFlightBytes()).isEqualTo(64 * MB);
+        }
+        assertThat(governor.getInFlightBytes()).isZero();
+    }
+
+    @Test
+    void onHeapPressure_ShouldHalveBudgetAndRecoverAfterQuietInterval() throws Exception {
+        // Arrange
+        governor = createGovernor(64, 50);
+
+        // Act
+        governor.onHeapPressure();
+
+        // Assert
+        assertThat(governor.getBudgetBytes()).isEqualTo(32 * MB);
+        assertThat(governor.getPressureEvents()).isEqualTo(1);
+        assertThat(governor.getState()).isEqualTo("RECOVERING");
+
+        // Budget grows back as reservations keep coming after the quiet interval
+        long deadline = System.currentTimeMillis() + 5000;
+        while (governor.getBudgetBytes() < 64 * MB && System.currentTimeMillis() < deadline) {
+            Thread.sleep(60);
+            governor.reserve(0).close();
+        }
+        assertThat(governor.getBudgetBytes()).isEqualTo(64 * MB);
+        assertThat(governor.getState()).isEqualTo("NORMAL");
+    }
+
+    @Test
+    void estimateDocuments_ShouldCountSharedTextOnce() {
+        // Arrange
+        String text = "x".repeat(10_000);
+        Map<String, Object> shared = new HashMap<>();
+        shared.put("text", text);
+        shared.put("doc_content", text);
+        Map<String, Object> copied = new HashMap<>();
+        copied.put("text", new String(text));
+        copied.put("doc_content", new String(text));
+
+        // Act
+        long sharedEstimate = MemoryGovernor.estimateDocuments(List.of(new Document(text, shared)));
+        long copiedEstimate = MemoryGovernor.estimateDocuments(List.of(new Document(text, copied)));
+
+        // Assert
+        assertThat(sharedEstimate).isGreaterThan(20_000);
+        assertThat(copiedEstimate - sharedEstimate).isGreaterThanOrEqualTo(40_000);
+    }
+
+    @Test
+    void estimateDocuments_ShouldScaleEmbeddingsWithTheCollectionDimension() {
+        // Arrange
+        List<Document> documents = List.of(new Document("class App {}", new HashMap<>()));
+
+        // Act
+        long unknown = MemoryGovernor.estimateDocuments(documents, 0);
+        long native768 = MemoryGovernor.estimateDocuments(documents, 768);
+        long large = MemoryGovernor.estimateDocuments(documents, 4096);
+        long reduced = MemoryGovernor.estimateDocuments(documents, 128);
+
+        // Assert
+        assertThat(unknown).isEqualTo(native768);
+        assertThat(large - native768).isEqualTo(4L * (4096 - 768));
+        assertThat(native768 - reduced).isEqualTo(4L * (768 - 128));
+        assertThat(MemoryGovernor.estimateFileBytes(10_000, 1000, 100, 4096))
+            .isGreaterThan(MemoryGovernor.estimateFileBytes(10_000, 1000, 100, 0));
+    }
+
+    private MemoryGovernor createGovernor(long budgetMb, long recoveryIntervalMs) {
+        IndexingConfiguration config = new IndexingConfiguration();
+        config.getMemory().setBudgetMb(budgetMb);
+        config.getMemory().setMinBudgetMb(4);
+        config.getMemory().setRecoveryIntervalMs(recoveryIntervalMs);
+        return new MemoryGovernor(config);
+    }
+
+    private boolean waitForWaitingProducers(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            if (governor.getWaitingProducers() == expected) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+}
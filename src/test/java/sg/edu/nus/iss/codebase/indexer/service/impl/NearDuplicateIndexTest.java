@@ -0,0 +1,233 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.model.DuplicateAlias;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NearDuplicateIndexTest {
+
+    private static final String CLIENT = """
+            public class UserClient {
+                private final RestTemplate restTemplate;
+                private final String baseUrl;
+
+                public UserClient(RestTemplate restTemplate, String baseUrl) {
+                    this.restTemplate = restTemplate;
+                    this.baseUrl = baseUrl;
+                }
+
+                public User findUser(long id) {
+                    return restTemplate.getForObject(baseUrl + "/users/" + id, User.class);
+                }
+
+                public List<User> listUsers(int page, int size) {
+                    String url = baseUrl + "/users?page=" + page + "&size=" + size;
+                    return Arrays.asList(restTemplate.getForObject(url, User[].class));
+                }
+
+                public void deleteUser(long id) {
+                    restTemplate.delete(baseUrl + "/users/" + id);
+                }
+            }
+            """;
+
+    @Test
+    void registerFile_ShouldAliasVendoredCopiesAndKeepDistinctFiles() {
+        // Arrange
+        NearDuplicateIndex index = createIndex(false);
+        String vendored = "// Vendored copy\n" + CLIENT;
+        String unrelated = CLIENT.replaceAll("[Uu]ser", "Order").replace("restTemplate", "webClient")
+                .replace("baseUrl", "endpoint").replace("page", "offset");
+
+        // Act
+        String first = index.registerFile("/repo/api/UserClient.java", CLIENT);
+        String copy = index.registerFile("/repo/vendor/UserClient.java", vendored);
+        String other = index.registerFile("/repo/api/OrderClient.java", unrelated);
+
+        // Assert
+        assertThat(first).isNull();
+        assertThat(copy).isEqualTo("/repo/api/UserClient.java");
+        assertThat(other).isNull();
+        assertThat(index.getDuplicateFileCount()).isEqualTo(1);
+    }
+
+    @Test
+    void registerChunks_ShouldEmbedOnlyNewChunksAndExpandAliasesBySearchResult() {
+        // Arrange
+        NearDuplicateIndex index = createIndex(false);
+        Document canonical = chunk(CLIENT, "/repo/api/UserClient.java", 1, 24);
+        Document duplicate = chunk(CLIENT, "/repo/fork/UserClient.java", 10, 33);
+        Document fileOnly = chunk("short text", "/repo/fork/UserClient.java", 34, 35);
+
+        // Act
+        List<Document> firstPass = index.registerChunks("/repo/api/UserClient.java", List.of(canonical));
+        List<Document> sameFileAgain = index.registerChunks("/repo/api/UserClient.java", List.of(canonical));
+        List<Document> secondPass = index.registerChunks("/repo/fork/UserClient.java", List.of(duplicate, fileOnly));
+        Map<String, List<DuplicateAlias>> aliases = index.aliasesFor(List.of(canonical));
+
+        // Assert
+        assertThat(firstPass).containsExactly(canonical);
+        assertThat(sameFileAgain).containsExactly(canonical);
+        assertThat(secondPass).containsExactly(fileOnly);
+        assertThat(aliases.get(canonical.getId())).singleElement().satisfies(alias -> {
+            assertThat(alias.getFilePath()).isEqualTo("/repo/fork/UserClient.java");
+            assertThat(alias.getCanonicalFilePath()).isEqualTo("/repo/api/UserClient.java");
+            assertThat(alias.getStartLine()).isEqualTo(10);
+            assertThat(alias.getSimilarity()).isEqualTo(1.0);
+        });
+    }
+
+    @Test
+    void forgetFile_ShouldDropAliasesOfAFileBeforeItIsIndexedAgain() {
+        // Arrange
+        NearDuplicateIndex index = createIndex(false);
+        index.registerFile("/repo/api/UserClient.java", CLIENT);
+        index.registerFile("/repo/vendor/UserClient.java", CLIENT);
+        Document result = chunk(CLIENT, "/repo/api/UserClient.java", 1, 24);
+
+        // Act
+        index.forgetFile("/repo/vendor/UserClient.java");
+
+        // Assert
+        assertThat(index.aliasesFor(List.of(result))).isEmpty();
+        assertThat(index.getDuplicateFileCount()).isZero();
+    }
+
+    @Test
+    void forgetFile_ShouldReleaseTheAliasesOfAChangedCanonical() {
+        // Arrange
+        NearDuplicateIndex index = createIndex(false);
+        Document canonical = chunk(CLIENT, "/repo/api/UserClient.java", 1, 24);
+        index.registerFile("/repo/api/UserClient.java", CLIENT);
+        index.registerChunks("/repo/api/UserClient.java", List.of(canonical));
+        index.registerFile("/repo/vendor/UserClient.java", CLIENT);
+        index.registerChunks("/repo/fork/UserClient.java", List.of(chunk(CLIENT, "/repo/fork/UserClient.java", 3, 26)));
+
+        // Act
+        var orphans = index.forgetFile("/repo/api/UserClient.java");
+        String vendorAgain = index.registerFile("/repo/vendor/UserClient.java", CLIENT);
+
+        // Assert
+        assertThat(orphans).containsExactlyInAnyOrder("/repo/vendor/UserClient.java", "/repo/fork/UserClient.java");
+        assertThat(index.aliasesFor(List.of(canonical))).isEmpty();
+        assertThat(index.getDuplicateFileCount()).isZero();
+        assertThat(index.getDuplicateChunkCount()).isZero();
+        assertThat(vendorAgain).isNull();
+    }
+
+    @Test
+    void forgetMissingFiles_ShouldReturnTheAliasesOfDeletedCanonicals(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        NearDuplicateIndex index = createIndex(false);
+        Path deleted = Files.writeString(tempDir.resolve("UserClient.java"), CLIENT);
+        Path copy = Files.writeString(tempDir.resolve("UserClientCopy.java"), CLIENT);
+        index.registerFile(deleted.toString(), CLIENT);
+        index.registerFile(copy.toString(), CLIENT);
+        Files.delete(deleted);
+
+        // Act
+        var orphans = index.forgetMissingFiles();
+
+        // Assert
+        assertThat(orphans).containsExactly(copy.toString());
+        assertThat(index.getDuplicateFileCount()).isZero();
+    }
+
+    @Test
+    void load_ShouldRestoreCanonicalEntriesAndAliasesFromThePersistedLog() throws Exception {
+        // Arrange
+        String collection = "near-duplicate-index-test-" + System.nanoTime();
+        try {
+            NearDuplicateIndex writer = createIndex(true);
+            writer.load(collection);
+            writer.registerFile("/repo/api/UserClient.java", CLIENT);
+            writer.registerFile("/repo/vendor/UserClient.java", CLIENT);
+
+            // Act
+            NearDuplicateIndex reader = createIndex(true);
+            reader.load(collection);
+            String copy = reader.registerFile("/repo/third_party/UserClient.java", CLIENT);
+
+            // Assert
+            assertThat(copy).isEqualTo("/repo/api/UserClient.java");
+            assertThat(reader.aliasesFor(List.of(chunk(CLIENT, "/repo/api/UserClient.java", 1, 24)))
+                    .values().iterator().next())
+                    .extracting(DuplicateAlias::getFilePath)
+                    .containsExactly("/repo/vendor/UserClient.java", "/repo/third_party/UserClient.java");
+        } finally {
+            Files.deleteIfExists(Paths.get(".near_duplicates_" + collection + ".txt"));
+        }
+    }
+
+    @Test
+    void forgetFile_ShouldCompactTheLogOnceSupersededRecordsOutnumberLiveOnes() throws Exception {
+        // Arrange
+        String collection = "near-duplicate-index-test-" + System.nanoTime();
+        Path log = Paths.get(".near_duplicates_" + collection + ".txt");
+        try {
+            NearDuplicateIndex writer = createIndex(true);
+            writer.load(collection);
+            writer.registerFile("/repo/api/UserClient.java", CLIENT);
+
+            // Act: a file whose path contains the old field separator, indexed again and again
+            for (int i = 0; i < 600; i++) {
+                writer.forgetFile("/repo/vendor|v2/UserClient.java");
+                writer.registerFile("/repo/vendor|v2/UserClient.java", CLIENT);
+            }
+            NearDuplicateIndex reader = createIndex(true);
+            reader.load(collection);
+
+            // Assert
+            assertThat(Files.readAllLines(log).size()).isLessThan(1000);
+            assertThat(reader.getDuplicateFileCount()).isEqualTo(1);
+            assertThat(reader.aliasesFor(List.of(chunk(CLIENT, "/repo/api/UserClient.java", 1, 24)))
+                    .values().iterator().next())
+                    .extracting(DuplicateAlias::getFilePath)
+                    .containsExactly("/repo/vendor|v2/UserClient.java");
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    @Test
+    void adopt_ShouldKeepLiveAliasesUntilTheRebuiltGenerationTakesOver() {
+        // Arrange
+        NearDuplicateIndex live = createIndex(false);
+        live.registerFile("/repo/api/UserClient.java", CLIENT);
+        live.registerFile("/repo/vendor/UserClient.java", CLIENT);
+        NearDuplicateIndex generation = live.newGeneration("near-duplicate-index-test-gen");
+        Document result = chunk(CLIENT, "/repo/api/UserClient.java", 1, 24);
+
+        // Act
+        String rebuiltCopy = generation.registerFile("/repo/api/UserClient.java", CLIENT);
+        int aliasesDuringRebuild = live.aliasesFor(List.of(result)).size();
+        live.adopt(generation);
+
+        // Assert
+        assertThat(rebuiltCopy).isNull();
+        assertThat(aliasesDuringRebuild).isEqualTo(1);
+        assertThat(live.aliasesFor(List.of(result))).isEmpty();
+        assertThat(live.getDuplicateFileCount()).isZero();
+        assertThat(live.registerFile("/repo/vendor/UserClient.java", CLIENT)).isEqualTo("/repo/api/UserClient.java");
+    }
+
+    private NearDuplicateIndex createIndex(boolean persistent) {
+        IndexingConfiguration config = new IndexingConfiguration();
+        config.getCache().setEnabled(persistent);
+        return new NearDuplicateIndex(config);
+    }
+
+    private Document chunk(String text, String filePath, int startLine, int endLine) {
+        return new Document(text, Map.of("filepath", filePath, "startLine", startLine, "endLine", endLine));
+    }
+}
@@ -0,0 +1,204 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SourceLexerTest {
+
+    @Test
+    void extract_ShouldFindKotlinDeclarationsAndKtorRoutesWithRanges() {
+        // Arrange
+        String source = """
+                import io.ktor.server.routing.*
+
+                // class NotAClass in a comment
+                data class User(val id: Long, val name: String) {
+                    fun greet(): String = "Hello, $name class Fake"
+                }
+
+                fun Application.module() {
+                    routing {
+                        get("/users/{id}") {
+                            call.respond(\"""fun notReal() {}\""")
+                        }
+                    }
+                }
+                """;
+
+        // Act
+        List<String> declarations = extract(source, SourceLexer.Language.KOTLIN);
+
+        // Assert
+        assertThat(declarations).containsExactly(
+                "Import import [1:1-1:31]",
+                "Class User [4:1-6:1]",
+                "Method greet [5:5-5:51]",
+                "Function module [8:1-14:1]",
+                "Ktor endpoint /users/{id} [10:9-12:9]");
+    }
+
+    @Test
+    void extract_ShouldFindGoTypesFunctionsReceiversAndHandlers() {
+        // Arrange
+        String source = """
+                package main
+
+                import (
+                \t"net/http"
+                )
+
+                type Server struct {
+                \taddr string
+                }
+
+                func (s *Server) Start() error {
+                \thttp.HandleFunc("/health", func(w http.ResponseWriter, r *http.Request) {
+                \t\tw.Write([]byte(`func fake() {}`))
+                \t})
+                \treturn nil
+                }
+                """;
+
+        // Act
+        List<String> declarations = extract(source, SourceLexer.Language.GO);
+
+        // Assert
+        assertThat(declarations).containsExactly(
+                "Import import [3:1-5:1]",
+                "Type Server [7:1-9:1]",
+                "Method Start [11:1-16:1]",
+                "Go HTTP endpoint /health [12:2-14:3]");
+    }
+
+    @Test
+    void extract_ShouldFindCSharpControllersAndSkipVerbatimStrings() {
+        // Arrange
+        String source = """
+                using Microsoft.AspNetCore.Mvc;
+
+                [Route("api/[controller]")]
+                public class UsersController : ControllerBase
+                {
+                    [HttpGet("{id}")]
+                    public IActionResult Get(int id)
+                    {
+                        var s = @"class Fake { void M() {} }";
+                        if (id < 0) { return BadRequest(); }
+                        return Ok(id);
+                    }
+
+                    private static int Count() => 42;
+                }
+                """;
+
+        // Act
+        List<String> declarations = extract(source, SourceLexer.Language.CSHARP);
+
+        // Assert
+        assertThat(declarations).containsExactly(
+                "Import import [1:1-1:31]",
+                "ASP.NET endpoint api/[controller] [3:1-3:27]",
+                "Class UsersController [4:1-15:1]",
+                "ASP.NET endpoint {id} [6:5-6:21]",
+                "Method Get [7:5-12:5]",
+                "Method Count [14:5-14:37]");
+    }
+
+    @Test
+    void extract_ShouldFindTypeScriptMethodsArrowFunctionsAndExpressRoutes() {
+        // Arrange
+        String source = """
+                import { Request, Response } from 'express';
+
+                export class UserService {
+                  private cache = new Map<number, string>();
+
+                  async findUser(id: number): Promise<string | undefined> {
+                    const msg = `function notReal() { ${id} }`;
+                    return this.cache.get(id);
+                  }
+
+                  handle = (req: Request, res: Response) => {
+                    res.send('ok');
+                  };
+                }
+
+                export const add = (a: number, b: number): number => a + b;
+
+                router.get('/api/users', (req, res) => {
+                  res.json([]);
+                });
+                """;
+
+        // Act
+        List<String> declarations = extract(source, SourceLexer.Language.TYPESCRIPT);
+
+        // Assert
+        assertThat(declarations).containsExactly(
+                "Import import [1:1-1:44]",
+                "Class UserService [3:1-14:1]",
+                "Method findUser [6:3-9:3]",
+                "Method handle [11:3-13:3]",
+                "Function add [16:1-16:59]",
+                "Express endpoint /api/users [18:1-20:2]");
+    }
+
+    @Test
+    void extract_ShouldFindSqlObjectsAndIgnoreCommentsAndDollarQuotedBodies() {
+        // Arrange
+        String source = """
+                -- CREATE TABLE not_a_table (id int);
+                CREATE TABLE IF NOT EXISTS public.users (
+                    id SERIAL PRIMARY KEY,
+                    name TEXT DEFAULT 'create table fake'
+                );
+
+                create or replace view active_users as
+                select * from users where active;
+
+                CREATE FUNCTION add_one(i integer) RETURNS integer AS $$
+                BEGIN
+                    RETURN i + 1;
+                END;
+                $$ LANGUAGE plpgsql;
+                """;
+
+        // Act
+        List<String> declarations = extract(source, SourceLexer.Language.SQL);
+
+        // Assert
+        assertThat(declarations).containsExactly(
+                "Table public.users [2:1-5:2]",
+                "View active_users [7:1-8:33]",
+                "Function add_one [10:1-14:20]");
+    }
+
+    @Test
+    void lex_ShouldReportTokenRangesAndLinkBrackets() {
+        // Arrange
+        String source = "fun f() {\n  val s = \"\"\"a\nb\"\"\"\n}";
+
+        // Act
+        SourceLexer.Tokens tokens = SourceLexer.lex(source, SourceLexer.Language.KOTLIN);
+
+        // Assert
+        int string = 0;
+        while (tokens.kind(string) != SourceLexer.Kind.STRING) {
+            string++;
+        }
+        assertThat(tokens.stringValue(string)).isEqualTo("a\nb");
+        assertThat(new int[] {tokens.line(string), tokens.column(string), tokens.endLine(string), tokens.endColumn(string)})
+                .containsExactly(2, 11, 3, 4);
+        assertThat(tokens.match(4)).isEqualTo(tokens.size() - 1);
+        assertThat(tokens.text(tokens.match(4))).isEqualTo("}");
+    }
+
+    private List<String> extract(String source, SourceLexer.Language language) {
+        return DeclarationExtractor.extract(SourceLexer.lex(source, language)).stream()
+                .map(DeclarationExtractor.Declaration::toString)
+                .toList();
+    }
+}
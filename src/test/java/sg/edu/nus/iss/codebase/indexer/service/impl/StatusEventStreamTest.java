@@ -0,0 +1,206 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.model.IndexingStatus;
+import sg.edu.nus.iss.codebase.indexer.service.interfaces.IndexingStatusObserver;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class StatusEventStreamTest {
+
+    private final AtomicInteger indexedFiles = new AtomicInteger();
+    private final AtomicInteger snapshots = new AtomicInteger();
+    private StatusEventStream stream;
+
+    @BeforeEach
+    void setUp() {
+        IndexingConfiguration config = new IndexingConfiguration();
+        config.getStatus().setPublishIntervalMs(50);
+        config.getStatus().setEventQueueCapacity(4);
+        stream = new StatusEventStream(config);
+        stream.setSnapshotSource(() -> {
+            snapshots.incrementAndGet();
+            return IndexingStatus.builder().indexedFiles(indexedFiles.get()).build();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    @Test
+    void markChanged_ShouldCoalesceBurstsIntoAtMostOneSnapshotPerInterval() {
+        // Arrange
+        RecordingObserver observer = new RecordingObserver();
+        stream.subscribe(observer);
+
+        // Act: 10,000 changes in one burst
+        for (int i = 0; i < 10_000; i++) {
+            indexedFiles.incrementAndGet();
+            stream.markChanged();
+        }
+
+        // Assert
+        await().atMost(2, TimeUnit.SECONDS).until(() -> !observer.updates.isEmpty()
+                && observer.updates.get(observer.updates.size() - 1).getIndexedFiles() == 10_000);
+        assertThat(snapshots.get()).isLessThanOrEqualTo(3);
+        assertThat(stream.getPublishedSnapshots()).isEqualTo(snapshots.get());
+    }
+
+    @Test
+    void markChanged_ShouldBuildNoSnapshotsWithoutChangesOrObservers() throws Exception {
+        // Act
+        stream.markChanged();
+        Thread.sleep(150);
+        stream.subscribe(new RecordingObserver());
+        Thread.sleep(150);
+
+        // Assert: the change before subscribing is published once, then nothing changes
+        assertThat(snapshots.get()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void slowObserver_ShouldNeitherStallProducersNorOtherObservers() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingObserver slow = new RecordingObserver() {
+            @Override
+            public void onStatusUpdate(IndexingStatus status) {
+                super.onStatusUpdate(status);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        RecordingObserver fast = new RecordingObserver();
+        stream.subscribe(slow);
+        stream.subscribe(fast);
+
+        // Act: keep producing while the slow observer is blocked in its first update
+        long start = System.nanoTime();
+        for (int round = 1; round <= 5; round++) {
+            indexedFiles.set(round);
+            stream.markChanged();
+            Thread.sleep(80);
+        }
+        long producerMillis = (System.nanoTime() - start) / 1_000_000;
+        stream.publishComplete(IndexingStatus.builder().indexedFiles(5).indexingComplete(true).build());
+        await().atMost(2, TimeUnit.SECONDS).until(() -> fast.completed.getCount() == 0);
+        release.countDown();
+
+        // Assert
+        assertThat(producerMillis).isLessThan(1000);
+        assertThat(fast.updates.size()).isGreaterThanOrEqualTo(3);
+        assertThat(slow.completed.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(slow.updates).hasSize(1); // Later snapshots were coalesced away while it was blocked
+        assertThat(stream.getCoalescedSnapshots()).isPositive();
+    }
+
+    @Test
+    void publishComplete_ShouldNeverBeFollowedByASnapshotBuiltBeforeIt() throws Exception {
+        // Arrange: the publisher is stuck building a snapshot of the run in progress
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        stream.setSnapshotSource(() -> {
+            building.countDown();
+            try {
+                proceed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return IndexingStatus.builder().indexedFiles(1).build();
+        });
+        List<String> received = new CopyOnWriteArrayList<>();
+        RecordingObserver observer = new RecordingObserver() {
+            @Override
+            public void onStatusUpdate(IndexingStatus status) {
+                received.add("update");
+            }
+
+            @Override
+            public void onIndexingComplete(IndexingStatus finalStatus) {
+                received.add("complete");
+                super.onIndexingComplete(finalStatus);
+            }
+        };
+        stream.subscribe(observer);
+        stream.markChanged();
+        assertThat(building.await(2, TimeUnit.SECONDS)).isTrue();
+
+        // Act
+        Thread completion = Thread.ofVirtual().start(() ->
+                stream.publishComplete(IndexingStatus.builder().indexedFiles(1).indexingComplete(true).build()));
+        Thread.sleep(100);
+        proceed.countDown();
+        completion.join(2000);
+
+        // Assert
+        assertThat(observer.completed.await(2, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(150);
+        assertThat(received).last().isEqualTo("complete");
+    }
+
+    @Test
+    void publishError_ShouldDropEventsBeyondAStalledObserversQueue() {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingObserver stalled = new RecordingObserver() {
+            @Override
+            public void onIndexingError(Exception error, String context) {
+                super.onIndexingError(error, context);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        stream.subscribe(stalled);
+
+        // Act
+        stream.publishError(new Exception("first"), "test");
+        await().atMost(2, TimeUnit.SECONDS).until(() -> !stalled.errors.isEmpty());
+        for (int i = 0; i < 10; i++) {
+            stream.publishError(new Exception("more"), "test");
+        }
+        release.countDown();
+
+        // Assert: four more fit in the queue, the rest were dropped instead of blocking the caller
+        assertThat(stream.getDroppedEvents()).isEqualTo(6);
+        await().atMost(2, TimeUnit.SECONDS).until(() -> stalled.errors.size() == 5);
+    }
+
+    private static class RecordingObserver implements IndexingStatusObserver {
+        final List<IndexingStatus> updates = new CopyOnWriteArrayList<>();
+        final List<String> errors = new CopyOnWriteArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void onStatusUpdate(IndexingStatus status) {
+            updates.add(status);
+        }
+
+        @Override
+        public void onIndexingComplete(IndexingStatus finalStatus) {
+            completed.countDown();
+        }
+
+        @Override
+        public void onIndexingError(Exception error, String context) {
+            errors.add(error.getMessage());
+        }
+    }
+}
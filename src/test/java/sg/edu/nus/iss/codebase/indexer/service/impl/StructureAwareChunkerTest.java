@@ -0,0 +1,239 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.junit.jupiter.api.Test;
+import sg.edu.nus.iss.codebase.indexer.model.FileContent;
+
+import java.io.File;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StructureAwareChunkerTest {
+
+    private final StructureAwareChunker chunker = new StructureAwareChunker();
+
+    @Test
+    void chunk_ShouldDropJavaBoilerplateAndKeepLineRanges() {
+        // Arrange
+        String source = """
+            /*
+             * Copyright 2024 Example Corp.
+             * Licensed under the Apache License, Version 2.0
+             */
+            package com.example.user;
+
+            import java.util.List;
+            import org.springframework.stereotype.Service;
+
+            @Service
+            public class UserService {
+                private String name;
+
+                public String getName() {
+                    return name;
+                }
+
+                public void setName(String name) {
+                    this.name = name;
+                }
+
+                /**
+                 * Find active users by role
+                 */
+                public List<String> findActiveUsers(String role) {
+                    return List.of(role);
+                }
+
+                @Override
+                public boolean equals(Object o) {
+                    if (this == o) return true;
+                    return o instanceof UserService;
+                }
+
+                @Override
+                public int hashCode() {
+                    return name.hashCode();
+                }
+            }
+            """;
+
+        // Act
+        List<StructureAwareChunker.Chunk> chunks = chunker.chunk(content("UserService.java", source), 3000);
+
+        // Assert
+        assertThat(chunks).hasSize(1);
+        StructureAwareChunker.Chunk chunk = chunks.get(0);
+        assertThat(chunk.getText())
+                .contains("// package com.example.user")
+                .contains("// imports: java.util, org.springframework.stereotype")
+                .contains("getName, setName, equals, hashCode")
+                .contains("@Service\npublic class UserService {")
+                .contains("Find active users by role")
+                .contains("public List<String> findActiveUsers(String role)")
+                .doesNotContain("Copyright")
+                .doesNotContain("return name;")
+                .doesNotContain("this.name = name;")
+                .doesNotContain("instanceof UserService");
+        assertThat(chunk.getStartLine()).isEqualTo(10); // @Service
+        assertThat(chunk.getEndLine()).isEqualTo(27); // end of findActiveUsers, the generated methods follow
+    }
+
+    @Test
+    void chunk_ShouldSplitLargeClassesAtMemberBoundaries() {
+        // Arrange
+        StringBuilder source = new StringBuilder("public class Large {\n");
+        for (int i = 0; i < 40; i++) {
+            source.append("    public void method").append(i).append("() {\n")
+                    .append("        System.out.println(\"Method ").append(i).append(" does some work\");\n")
+                    .append("    }\n\n");
+        }
+        source.append("}\n");
+        FileContent file = content("Large.java", source.toString());
+
+        // Act
+        List<StructureAwareChunker.Chunk> chunks = chunker.chunk(file, 1000);
+
+        // Assert - every chunk starts on a method declaration and carries its class as context
+        assertThat(chunks).hasSizeGreaterThan(1);
+        String[] lines = file.getLines();
+        for (int i = 1; i < chunks.size(); i++) {
+            StructureAwareChunker.Chunk chunk = chunks.get(i);
+            assertThat(lines[chunk.getStartLine() - 1]).contains("public void method");
+            assertThat(chunk.getText()).startsWith("// in public class Large {");
+            assertThat(chunk.getStartLine()).isGreaterThan(chunks.get(i - 1).getEndLine());
+        }
+        assertThat(chunks.get(chunks.size() - 1).getEndLine()).isEqualTo(file.getLineCount());
+    }
+
+    @Test
+    void chunk_ShouldKeepPythonDecoratorsWithTheirFunctions() {
+        // Arrange
+        String source = """
+            import os
+            from flask import Flask, jsonify
+
+            app = Flask(__name__)
+
+
+            class Settings:
+                def __init__(self):
+                    self._debug = False
+
+                @property
+                def debug(self):
+                    return self._debug
+
+                def load(self, path):
+                    \"""Read the settings file at the given path and return its raw text content\"""
+                    with open(path) as handle:
+                        return handle.read()
+
+
+            @app.route("/health")
+            def health():
+                return jsonify(status="ok")
+            """;
+
+        // Act
+        List<StructureAwareChunker.Chunk> chunks = chunker.chunk(content("app.py", source), 200);
+
+        // Assert
+        String all = String.join("\n---\n", chunks.stream().map(StructureAwareChunker.Chunk::getText).toList());
+        assertThat(chunks.get(0).getText()).startsWith("# imports: os, flask\n# accessors and generated methods: debug");
+        assertThat(all).doesNotContain("return self._debug");
+        assertThat(all).contains("@app.route(\"/health\")\ndef health():");
+        assertThat(chunks).anySatisfy(chunk -> assertThat(chunk.getText())
+                .startsWith("# in class Settings:")
+                .contains("def load(self, path):"));
+    }
+
+    @Test
+    void chunk_ShouldCollapseScriptImportsAndAccessors() {
+        // Arrange
+        String source = """
+            import { Injectable } from '@angular/core';
+            import {
+              HttpClient,
+              HttpParams
+            } from '@angular/common/http';
+            const lodash = require('lodash');
+
+            @Injectable({
+              providedIn: 'root'
+            })
+            export class TodoService {
+              private _items: string[] = [];
+
+              get items(): string[] {
+                return this._items;
+              }
+
+              load(id: string) {
+                return this.http.get(`/api/todos/${id}`);
+              }
+            }
+            """;
+
+        // Act
+        List<StructureAwareChunker.Chunk> chunks = chunker.chunk(content("todo.service.ts", source), 3000);
+
+        // Assert
+        assertThat(chunks).hasSize(1);
+        assertThat(chunks.get(0).getText())
+                .startsWith("// imports: @angular/core, @angular/common/http, lodash\n")
+                .contains("accessors and generated methods: items")
+                .contains("@Injectable({")
+                .contains("load(id: string)")
+                .doesNotContain("return this._items;");
+        assertThat(chunks.get(0).getStartLine()).isEqualTo(8);
+    }
+
+    @Test
+    void chunk_ShouldIgnoreBracesInsideRegexLiterals() {
+        // Arrange
+        String source = """
+            export function countOpenBraces(text) {
+              const open = /\\{/g;
+              const matches = text.match(open) || [];
+              console.debug('counted opening braces in template text', matches.length);
+              return matches.length;
+            }
+
+            export function stripQuotes(value) {
+              const trimmed = value.trim();
+              console.debug('stripping surrounding quotes from value', trimmed.length);
+              return trimmed.replace(/^["']|["']$/g, '');
+            }
+            """;
+
+        // Act
+        List<StructureAwareChunker.Chunk> chunks = chunker.chunk(content("braces.js", source), 200);
+
+        // Assert - each function is one chunk, the regex does not open a block
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks.get(0).getStartLine()).isEqualTo(1);
+        assertThat(chunks.get(0).getEndLine()).isEqualTo(6);
+        assertThat(chunks.get(1).getStartLine()).isEqualTo(8);
+        assertThat(chunks.get(1).getEndLine()).isEqualTo(12);
+    }
+
+    @Test
+    void chunk_ShouldReturnNothingForBoilerplateOnlyFiles() {
+        // Arrange
+        String source = """
+            package com.example.model
+
+            import java.time.Instant
+
+            fun getCreated(): Instant = created
+            """;
+
+        // Act & Assert
+        assertThat(chunker.chunk(content("Model.kt", source), 3000)).isEmpty();
+        assertThat(chunker.supports(new File("notes.md"))).isFalse();
+    }
+
+    private FileContent content(String name, String text) {
+        return FileContent.of(new File(name), text);
+    }
+}
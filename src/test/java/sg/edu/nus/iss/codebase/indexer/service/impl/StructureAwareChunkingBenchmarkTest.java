@@ -0,0 +1,152 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.ai.document.Document;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.model.FileContent;
+import sg.edu.nus.iss.codebase.indexer.service.CodeAnalysisService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares fixed-window chunking with structure-aware chunking over test-codebase and this
+ * project's own sources (or generated files when it is not available): chunks per file, embedded characters,
+ * and how many declared functions and classes are still findable in some chunk.
+ * Chunk counts are compared on files the fixed-window path embeds whole; it truncates
+ * anything larger, which costs chunks but loses the rest of the file.
+ */
+@Tag("benchmark")
+class StructureAwareChunkingBenchmarkTest {
+
+    private static final int SANITIZED_LIMIT = 35000;
+
+    @TempDir
+    Path tempDir;
+
+    private IndexingConfiguration.ProcessingConfig processingConfig;
+    private TextDocumentFactory textDocumentFactory;
+    private CodeAnalysisService codeAnalysisService;
+    private List<Path> files;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        processingConfig = new IndexingConfiguration.ProcessingConfig();
+        IndexingConfiguration config = Mockito.mock(IndexingConfiguration.class);
+        Mockito.when(config.getProcessing()).thenReturn(processingConfig);
+        Mockito.when(config.getFilePriorities()).thenReturn(Map.of());
+
+        textDocumentFactory = new TextDocumentFactory(config);
+        codeAnalysisService = new CodeAnalysisService();
+        files = collectFiles();
+    }
+
+    @Test
+    void structureAwareChunking_ShouldEmbedFewerChunksWithoutLosingDeclarations() throws IOException {
+        processingConfig.setStructureAwareChunking(false);
+        Result fixed = run();
+        processingConfig.setStructureAwareChunking(true);
+        Result structured = run();
+
+        System.out.println("📊 Chunking benchmark over " + files.size() + " source files ("
+                + structured.declarations + " declarations)");
+        System.out.printf("   Fixed windows:   %d chunks (%.2f/file), %d KB embedded, %.1f%% declarations found%n",
+                fixed.chunks, (double) fixed.chunks / files.size(), fixed.characters / 1024,
+                100.0 * fixed.found / Math.max(1, fixed.declarations));
+        System.out.printf("   Structure-aware: %d chunks (%.2f/file), %d KB embedded, %.1f%% declarations found%n",
+                structured.chunks, (double) structured.chunks / files.size(), structured.characters / 1024,
+                100.0 * structured.found / Math.max(1, structured.declarations));
+
+        System.out.printf("   Files embedded whole (%d): %d fixed vs %d structure-aware chunks%n",
+                fixed.wholeFiles, fixed.wholeFileChunks, structured.wholeFileChunks);
+
+        assertThat(structured.wholeFileChunks).isLessThanOrEqualTo(fixed.wholeFileChunks);
+        assertThat(structured.found).isGreaterThanOrEqualTo(fixed.found);
+    }
+
+    private Result run() throws IOException {
+        Result result = new Result();
+        for (Path file : files) {
+            FileContent content = FileContent.read(file);
+            List<Document> documents = textDocumentFactory.createDocumentsFromContent(content);
+            result.chunks += documents.size();
+            if (content.getText().length() <= SANITIZED_LIMIT) {
+                result.wholeFiles++;
+                result.wholeFileChunks += documents.size();
+            }
+            for (Document document : documents) {
+                result.characters += document.getText().length();
+            }
+
+            CodeAnalysisService.FileAnalysis analysis = codeAnalysisService.analyzeFile(content);
+            List<CodeAnalysisService.CodeElement> declarations = new ArrayList<>(analysis.getFunctions());
+            declarations.addAll(analysis.getClasses());
+            for (CodeAnalysisService.CodeElement declaration : declarations) {
+                String name = declaration.getName();
+                if (name == null || name.length() < 3) {
+                    continue;
+                }
+                result.declarations++;
+                if (documents.stream().anyMatch(document -> document.getText().contains(name))) {
+                    result.found++;
+                }
+            }
+        }
+        return result;
+    }
+
+    private List<Path> collectFiles() throws IOException {
+        StructureAwareChunker chunker = new StructureAwareChunker();
+        List<Path> result = new ArrayList<>();
+        for (Path root : List.of(Paths.get("test-codebase"), Paths.get("src/main/java"))) {
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+            try (Stream<Path> paths = Files.walk(root)) {
+                paths.filter(Files::isRegularFile)
+                        .filter(path -> chunker.supports(path.toFile()))
+                        .filter(path -> path.toFile().length() < 1024 * 1024)
+                        .limit(300)
+                        .forEach(result::add);
+            }
+        }
+        if (result.isEmpty()) {
+            for (int i = 0; i < 20; i++) {
+                Path file = tempDir.resolve("Generated" + i + ".java");
+                StringBuilder source = new StringBuilder("package com.example;\n\nimport java.util.List;\n\n"
+                        + "public class Generated" + i + " {\n    private String name;\n\n");
+                for (int m = 0; m < 30; m++) {
+                    source.append("    public String getName").append(m).append("() {\n        return name;\n    }\n\n")
+                            .append("    public void process").append(m).append("(List<String> items) {\n")
+                            .append("        items.forEach(item -> System.out.println(item + ").append(m).append("));\n")
+                            .append("    }\n\n");
+                }
+                source.append("}\n");
+                Files.writeString(file, source.toString());
+                result.add(file);
+            }
+        }
+        return result;
+    }
+
+    private static class Result {
+        private int chunks;
+        private int wholeFiles;
+        private int wholeFileChunks;
+        private long characters;
+        private int declarations;
+        private int found;
+    }
+}
@@ -0,0 +1,124 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.document.Document;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.model.IndexTier;
+import sg.edu.nus.iss.codebase.indexer.service.CodeAnalysisService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class SummaryDocumentFactoryTest {
+
+    @Mock
+    private IndexingConfiguration config;
+
+    private SummaryDocumentFactory summaryDocumentFactory;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(config.getTiering()).thenReturn(new IndexingConfiguration.TieringConfig());
+        lenient().when(config.getFilePriorities()).thenReturn(Map.of(
+            "Service.java", 3,
+            ".md", 9
+        ));
+
+        summaryDocumentFactory = new SummaryDocumentFactory(config, new CodeAnalysisService());
+    }
+
+    @Test
+    void createSummaryDocuments_ShouldSummarizeJavaDeclarations() throws IOException {
+        // Arrange
+        Path javaFile = tempDir.resolve("UserService.java");
+        Files.writeString(javaFile, """
+            package com.example;
+
+            public class UserService {
+                public User findByEmail(String email) {
+                    return repository.findByEmail(email);
+                }
+            }
+            """);
+
+        // Act
+        List<Document> documents = summaryDocumentFactory.createSummaryDocuments(javaFile.toFile());
+
+        // Assert
+        assertThat(documents).hasSize(1);
+        Document summary = documents.get(0);
+        assertThat(summary.getText()).contains("UserService").contains("findByEmail");
+        assertThat(summary.getMetadata())
+            .containsEntry("documentType", SummaryDocumentFactory.DOCUMENT_TYPE)
+            .containsEntry(IndexTier.METADATA_KEY, IndexTier.SUMMARY.getValue())
+            .containsEntry("priority", 3)
+            .containsKey("filepath");
+        assertThat(IndexTier.fromMetadata(summary.getMetadata())).isEqualTo(IndexTier.SUMMARY);
+    }
+
+    @Test
+    void createSummaryDocuments_ShouldFallBackToFileHeadForDocuments() throws IOException {
+        // Arrange
+        Path markdown = tempDir.resolve("README.md");
+        Files.writeString(markdown, "# Indexer\n\nIndexes codebases into Qdrant.\n");
+
+        // Act
+        List<Document> documents = summaryDocumentFactory.createSummaryDocuments(markdown.toFile());
+
+        // Assert
+        assertThat(documents).hasSize(1);
+        assertThat(documents.get(0).getText()).contains("README.md").contains("Indexes codebases into Qdrant.");
+    }
+
+    @Test
+    void createSummaryDocuments_ShouldUseStableIdPerFile() throws IOException {
+        // Arrange
+        Path javaFile = tempDir.resolve("Stable.java");
+        Files.writeString(javaFile, "public class Stable {\n    public void run() {}\n}\n");
+
+        // Act
+        Document first = summaryDocumentFactory.createSummaryDocuments(javaFile.toFile()).get(0);
+        Document second = summaryDocumentFactory.createSummaryDocuments(javaFile.toFile()).get(0);
+
+        // Assert
+        assertThat(first.getId()).isEqualTo(second.getId());
+    }
+
+    @Test
+    void createSummaryDocuments_ShouldSkipEmptyFiles() throws IOException {
+        // Arrange
+        Path empty = tempDir.resolve("empty.txt");
+        Files.writeString(empty, "\n\n");
+
+        // Act & Assert
+        assertThat(summaryDocumentFactory.createSummaryDocuments(empty.toFile())).isEmpty();
+    }
+
+    @Test
+    void fromMetadata_ShouldTreatUntaggedDocumentsAsFullContent() {
+        assertThat(IndexTier.fromMetadata(Map.of("filename", "Legacy.java"))).isEqualTo(IndexTier.FULL);
+        assertThat(IndexTier.fromMetadata(null)).isEqualTo(IndexTier.FULL);
+    }
+
+    @Test
+    void fromMetadata_ShouldReadNativeAndLegacyStringTiers() {
+        assertThat(IndexTier.fromMetadata(Map.of(IndexTier.METADATA_KEY, 1L))).isEqualTo(IndexTier.SUMMARY);
+        assertThat(IndexTier.fromMetadata(Map.of(IndexTier.METADATA_KEY, "1"))).isEqualTo(IndexTier.SUMMARY);
+        assertThat(IndexTier.fromMetadata(Map.of(IndexTier.METADATA_KEY, 2))).isEqualTo(IndexTier.FULL);
+    }
+}
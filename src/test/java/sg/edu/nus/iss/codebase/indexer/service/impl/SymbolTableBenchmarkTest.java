@@ -0,0 +1,50 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.model.FileContent;
+import sg.edu.nus.iss.codebase.indexer.service.CodeAnalysisService;
+
+import java.io.File;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reports the average identifier lookup time on a table of 50,000 symbols.
+ */
+@Tag("benchmark")
+class SymbolTableBenchmarkTest {
+
+    @Test
+    void lookup_LargeTable() {
+        // Arrange: 2,000 files with 25 declarations each
+        SymbolTable table = new SymbolTable(uncachedConfig(), new CodeAnalysisService());
+        for (int file = 0; file < 2000; file++) {
+            String path = "/repo/Service" + file + ".java";
+            table.index(path, FileContent.of(new File(path), SymbolTableTest.generatedService(file)));
+        }
+        String[] queries = {"Service1234", "handle42Step7", "handle19", "Service99", "NoSuchSymbol"};
+        for (int i = 0; i < 10_000; i++) {
+            table.lookup(queries[i % queries.length], 20); // Warm up
+        }
+
+        // Act
+        int lookups = 100_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            table.lookup(queries[i % queries.length], 20);
+        }
+        double averageMicros = (System.nanoTime() - start) / 1000.0 / lookups;
+
+        // Assert
+        System.out.printf("📊 Symbol table: %d symbols, %.2f µs per lookup%n", table.size(), averageMicros);
+        assertThat(table.size()).isEqualTo(50_000);
+    }
+
+    private IndexingConfiguration uncachedConfig() {
+        IndexingConfiguration config = new IndexingConfiguration();
+        config.getCache().setEnabled(false);
+        return config;
+    }
+}
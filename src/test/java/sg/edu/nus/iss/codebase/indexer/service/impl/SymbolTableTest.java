@@ -0,0 +1,203 @@
+package sg.edu.nus.iss.codebase.indexer.service.impl;
+
+import org.junit.jupiter.api.Test;
+import sg.edu.nus.iss.codebase.indexer.config.IndexingConfiguration;
+import sg.edu.nus.iss.codebase.indexer.model.FileContent;
+import sg.edu.nus.iss.codebase.indexer.service.CodeAnalysisService;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SymbolTableTest {
+
+    private static final String USER_SERVICE = """
+            package com.example;
+
+            @RestController
+            public class UserService {
+
+                @GetMapping("/users/{id}")
+                public User findById(long id) {
+                    return repository.findById(id);
+                }
+
+                public User findByEmail(String email) {
+                    return repository.findByEmail(email);
+                }
+            }
+            """;
+
+    @Test
+    void lookup_ShouldAnswerExactCaseInsensitiveAndPrefixQueries() {
+        // Arrange
+        SymbolTable table = createTable(false);
+        table.index("/repo/UserService.java", content("/repo/UserService.java", USER_SERVICE));
+
+        // Act & Assert
+        assertThat(table.lookup("UserService", 10)).singleElement().satisfies(symbol -> {
+            assertThat(symbol.getKind()).isEqualTo(SymbolTable.Kind.CLASS);
+            assertThat(symbol.getFilePath()).isEqualTo("/repo/UserService.java");
+            assertThat(symbol.getLine()).isEqualTo(4);
+            assertThat(symbol.getEndLine()).isEqualTo(14);
+        });
+        assertThat(table.lookup("userService", 10)).extracting(SymbolTable.Symbol::getName).containsExactly("UserService");
+        assertThat(table.lookup("findBy", 10)).extracting(SymbolTable.Symbol::getName)
+                .containsExactly("findByEmail", "findById");
+        assertThat(table.lookup("/users", 10)).extracting(SymbolTable.Symbol::getName).containsExactly("/users/{id}");
+        assertThat(table.lookup("user", 10)).isEmpty(); // A plain word is not treated as a prefix
+    }
+
+    @Test
+    void update_ShouldReplaceTheSymbolsOfAFileIndexedAgain() {
+        // Arrange
+        SymbolTable table = createTable(false);
+        table.index("/repo/UserService.java", content("/repo/UserService.java", USER_SERVICE));
+
+        // Act
+        table.index("/repo/UserService.java", content("/repo/UserService.java",
+                USER_SERVICE.replace("findByEmail", "findByUsername")));
+
+        // Assert
+        assertThat(table.lookup("findByEmail", 10)).isEmpty();
+        assertThat(table.lookup("findByUsername", 10)).singleElement()
+                .extracting(SymbolTable.Symbol::getLine).isEqualTo(11);
+        assertThat(table.size()).isEqualTo(4);
+    }
+
+    @Test
+    void load_ShouldRestoreTheTableAndSkipUnchangedFiles() throws Exception {
+        // Arrange
+        String collection = "symbol-table-test-" + System.nanoTime();
+        Path log = Paths.get(".symbols_" + collection + ".txt");
+        try {
+            SymbolTable writer = createTable(true);
+            writer.load(collection);
+            writer.index("/repo/UserService.java", content("/repo/UserService.java", USER_SERVICE));
+            long size = Files.size(log);
+
+            // Act
+            SymbolTable reader = createTable(true);
+            reader.load(collection);
+            reader.index("/repo/UserService.java", content("/repo/UserService.java", USER_SERVICE));
+
+            // Assert
+            assertThat(reader.size()).isEqualTo(4);
+            assertThat(reader.lookup("findById", 10)).singleElement()
+                    .extracting(SymbolTable.Symbol::getEndLine).isEqualTo(9);
+            assertThat(Files.size(log)).isEqualTo(size);
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    @Test
+    void adopt_ShouldServeTheLiveTableUntilTheRebuiltGenerationTakesOver() throws Exception {
+        // Arrange
+        String collection = "symbol-table-test-" + System.nanoTime();
+        String shadow = collection + "-gen-1";
+        Path log = Paths.get(".symbols_" + collection + ".txt");
+        try {
+            SymbolTable live = createTable(true);
+            live.load(collection);
+            live.index("/repo/UserService.java", content("/repo/UserService.java", USER_SERVICE));
+            SymbolTable generation = live.newGeneration(shadow);
+            generation.index("/repo/UserService.java", content("/repo/UserService.java",
+                    USER_SERVICE.replace("findByEmail", "findByUsername")));
+
+            // Act
+            boolean servedDuringRebuild = !live.lookup("findByEmail", 10).isEmpty();
+            live.adopt(generation);
+
+            // Assert
+            assertThat(servedDuringRebuild).isTrue();
+            assertThat(live.lookup("findByEmail", 10)).isEmpty();
+            assertThat(live.lookup("findByUsername", 10)).hasSize(1);
+            assertThat(Paths.get(".symbols_" + shadow + ".txt")).doesNotExist();
+            SymbolTable reloaded = createTable(true);
+            reloaded.load(collection);
+            assertThat(reloaded.lookup("findByUsername", 10)).hasSize(1);
+        } finally {
+            Files.deleteIfExists(log);
+            Files.deleteIfExists(Paths.get(".symbols_" + shadow + ".txt"));
+        }
+    }
+
+    @Test
+    void lookup_ShouldFindExactAndLimitPrefixMatchesAcrossManyFiles() {
+        // Arrange: 20 files with 25 declarations each
+        SymbolTable table = createTable(false);
+        for (int file = 0; file < 20; file++) {
+            String path = "/repo/Service" + file + ".java";
+            table.index(path, content(path, generatedService(file)));
+        }
+
+        // Act & Assert
+        assertThat(table.size()).isEqualTo(500);
+        assertThat(table.lookup("handle7Step3", 20)).hasSize(1);
+        assertThat(table.lookup("handle1", 20)).hasSize(20);
+    }
+
+    @Test
+    void isIdentifierQuery_ShouldAcceptIdentifiersAndRoutesOnly() {
+        assertThat(SymbolTable.isIdentifierQuery("UserService")).isTrue();
+        assertThat(SymbolTable.isIdentifierQuery(" find_by_email ")).isTrue();
+        assertThat(SymbolTable.isIdentifierQuery("/api/users")).isTrue();
+        assertThat(SymbolTable.isIdentifierQuery("how are users saved")).isFalse();
+        assertThat(SymbolTable.isIdentifierQuery("/")).isFalse();
+        assertThat(SymbolTable.isIdentifierQuery("UserService.findById")).isTrue();
+    }
+
+    @Test
+    void isCodeQuery_ShouldRejectPlainWords() {
+        assertThat(SymbolTable.isCodeQuery("findByEmail")).isTrue();
+        assertThat(SymbolTable.isCodeQuery("find_by_email")).isTrue();
+        assertThat(SymbolTable.isCodeQuery("com.example.UserService")).isTrue();
+        assertThat(SymbolTable.isCodeQuery("/users/{id}")).isTrue();
+        assertThat(SymbolTable.isCodeQuery("login")).isFalse();
+        assertThat(SymbolTable.isCodeQuery("main")).isFalse();
+        assertThat(SymbolTable.isCodeQuery("how are users saved")).isFalse();
+    }
+
+    @Test
+    void lookup_ShouldMatchQualifiedNamesByLastSegmentAndPath() {
+        // Arrange
+        SymbolTable table = createTable(false);
+        table.index("/repo/com/example/UserService.java", content("/repo/com/example/UserService.java", USER_SERVICE));
+        table.index("/repo/OrderService.java", content("/repo/OrderService.java",
+                USER_SERVICE.replace("UserService", "OrderService")));
+
+        // Act & Assert
+        assertThat(table.lookup("UserService.findById", 10)).singleElement()
+                .extracting(SymbolTable.Symbol::getFilePath).isEqualTo("/repo/com/example/UserService.java");
+        assertThat(table.lookup("com.example.UserService", 10)).extracting(SymbolTable.Symbol::getName)
+                .containsExactly("UserService");
+        assertThat(table.lookup("UserService.find", 10)).isEmpty(); // Qualified names are not prefixes
+    }
+
+    /**
+     * A class with 24 methods, named so prefixes of one file's methods also match other files
+     */
+    static String generatedService(int file) {
+        StringBuilder source = new StringBuilder();
+        source.append("public class Service").append(file).append(" {\n");
+        for (int method = 0; method < 24; method++) {
+            source.append("    public void handle").append(file).append("Step").append(method).append("() {\n    }\n");
+        }
+        source.append("}\n");
+        return source.toString();
+    }
+
+    private SymbolTable createTable(boolean persistent) {
+        IndexingConfiguration config = new IndexingConfiguration();
+        config.getCache().setEnabled(persistent);
+        return new SymbolTable(config, new CodeAnalysisService());
+    }
+
+    private FileContent content(String path, String text) {
+        return FileContent.of(new File(path), text);
+    }
+}
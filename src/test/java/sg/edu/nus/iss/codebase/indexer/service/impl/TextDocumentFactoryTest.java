@@ -223,6 +223,29 @@ class TextDocumentFactoryTest {
         assertThat(fullContent).contains("Method 99");
     }
 
+    @Test
+    void createDocuments_ShouldStoreChunkTextOnceWithTypedChunkFields() throws IOException {
+        // Arrange
+        Path largeFile = tempDir.resolve("notes.txt");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 60; i++) {
+            content.append("Line ").append(i).append(" of the release notes for version ").append(i).append("\n");
+        }
+        Files.writeString(largeFile, content.toString());
+
+        // Act
+        List<Document> documents = textDocumentFactory.createDocuments(largeFile.toFile());
+
+        // Assert
+        assertThat(documents).hasSizeGreaterThan(1);
+        for (Document document : documents) {
+            assertThat(document.getMetadata()).doesNotContainKeys("text", "doc_content", "lastModifiedDate");
+            assertThat(document.getMetadata().get("chunk")).isInstanceOf(Integer.class);
+            assertThat(document.getMetadata()).containsEntry("total_chunks", documents.size());
+        }
+        assertThat(documents.get(0).getMetadata()).containsEntry("chunk", 1);
+    }
+
     @Test
     void createDocuments_ShouldHandleEmptyFile() throws IOException {
         // Arrange
@@ -257,7 +280,7 @@ class TextDocumentFactoryTest {
         // Assert
         assertThat(documents).hasSize(1);
         Document document = documents.get(0);
-        assertThat(document.getMetadata().get("priority")).isEqualTo("1");
+        assertThat(document.getMetadata().get("priority")).isEqualTo(1);
     }
 
     @Test
@@ -282,7 +305,7 @@ class TextDocumentFactoryTest {
         // Assert
         assertThat(documents).hasSize(1);
         Document document = documents.get(0);
-        assertThat(document.getMetadata().get("priority")).isEqualTo("3");
+        assertThat(document.getMetadata().get("priority")).isEqualTo(3);
     }
 
     @Test
@@ -308,7 +331,7 @@ class TextDocumentFactoryTest {
         // Assert
         assertThat(documents).hasSize(1);
         Document document = documents.get(0);
-        assertThat(document.getMetadata().get("priority")).isEqualTo("2"); // Test files have priority 2
+        assertThat(document.getMetadata().get("priority")).isEqualTo(2); // Test files have priority 2
     }
 
     @Test
@@ -330,7 +353,7 @@ class TextDocumentFactoryTest {
         // Assert
         assertThat(documents).hasSize(1);
         Document document = documents.get(0);
-        assertThat(document.getMetadata().get("priority")).isEqualTo("10"); // Default priority
+        assertThat(document.getMetadata().get("priority")).isEqualTo(10); // Default priority
     }
 
     @Test